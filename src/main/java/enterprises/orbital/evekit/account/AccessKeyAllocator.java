@@ -0,0 +1,149 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.base.OrbitalProperties;
+
+import javax.persistence.TypedQuery;
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hi/lo allocator for access key values.  Values are reserved from the database in blocks (see SequenceBlock)
+ * and handed out from memory, so creating a key doesn't need a separate transaction to obtain its value.
+ * Unused values in a block are lost when the process exits, so values are unique but not contiguous.
+ * <p>
+ * Each reservation starts above the largest access key value already in use, including values issued by
+ * GeneralSequenceNumber before this allocator existed.  All new access keys take their value from here, whether
+ * or not they are stored inline, since the database sequence behind GeneralSequenceNumber is not aware of blocks
+ * reserved here.
+ * <p>
+ * The next block is reserved when half of the current block has been handed out.  One caller does that outside
+ * the allocation monitor while other callers keep handing out values from the current block, so callers only
+ * wait on the database when both blocks are used up.
+ */
+public class AccessKeyAllocator {
+  private static final Logger log = Logger.getLogger(AccessKeyAllocator.class.getName());
+
+  // Number of access key values reserved at once
+  public static final String PROP_BLOCK_SIZE = "enterprises.orbital.evekit.account.accessKeyBlockSize";
+  public static final long DEF_BLOCK_SIZE = 100;
+
+  // Sequence name in SequenceBlock
+  public static final String SEQUENCE_NAME = "accessKey";
+
+  // Lowest value ever allocated.  This matches the initial value of the sequence used by GeneralSequenceNumber.
+  private static final long INITIAL_VALUE = 100000;
+
+  // Next value to hand out and the end (exclusive) of the current block
+  private static long next;
+  private static long limit;
+
+  // Block to switch to once the current block is exhausted, or spareSize == 0 if none has been reserved yet
+  private static long spareFirst;
+  private static long spareSize;
+
+  // Held while reserving a block so that only one caller at a time goes to the database
+  private static final ReentrantLock reserveLock = new ReentrantLock();
+
+  private AccessKeyAllocator() {}
+
+  /**
+   * Allocate a new access key value, reserving a new block if needed.  This call should be made outside of any
+   * enclosing transaction so that a block reservation can't be rolled back after values have been handed out.
+   *
+   * @return a new, unique access key value.
+   * @throws IOException on any database error.
+   */
+  public static long nextValue() throws IOException {
+    while (true) {
+      long value = -1;
+      boolean needSpare;
+      synchronized (AccessKeyAllocator.class) {
+        if (next >= limit && spareSize > 0) {
+          next = spareFirst;
+          limit = spareFirst + spareSize;
+          spareSize = 0;
+        }
+        if (next < limit) value = next++;
+        needSpare = spareSize == 0 && limit - next <= blockSize() / 2;
+      }
+      if (needSpare && reserveLock.tryLock()) {
+        try {
+          reserveSpare();
+        } catch (IOException e) {
+          // If we already have a value then a later caller will retry the reservation
+          if (value == -1) throw e;
+          log.log(Level.WARNING, "failed to reserve next access key block", e);
+        } finally {
+          reserveLock.unlock();
+        }
+      } else if (value == -1) {
+        // Current block is exhausted and another caller is reserving the next one
+        reserveLock.lock();
+        try {
+          reserveSpare();
+        } finally {
+          reserveLock.unlock();
+        }
+      }
+      if (value != -1) return value;
+    }
+  }
+
+  /**
+   * Discard the remainder of the current block and any block reserved after it.  The next allocation will
+   * reserve a new block.
+   */
+  public static synchronized void reset() {
+    next = 0;
+    limit = 0;
+    spareSize = 0;
+  }
+
+  private static long blockSize() {
+    return Math.max(1, OrbitalProperties.getLongGlobalProperty(PROP_BLOCK_SIZE, DEF_BLOCK_SIZE));
+  }
+
+  // Reserve the spare block unless another caller already did.  Called with reserveLock held.
+  private static void reserveSpare() throws IOException {
+    synchronized (AccessKeyAllocator.class) {
+      if (spareSize > 0) return;
+    }
+    long size = blockSize();
+    long first = reserve(size);
+    synchronized (AccessKeyAllocator.class) {
+      spareFirst = first;
+      spareSize = size;
+    }
+  }
+
+  private static long reserve(final long size) throws IOException {
+    long floor;
+    try {
+      floor = EveKitUserAccountProvider.getFactory()
+                                       .runTransaction(() -> Math.max(INITIAL_VALUE, maxInUse() + 1));
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+    // Reserved in a separate transaction since SequenceBlock may need to retry creating the sequence.  Values
+    // issued after the floor is computed come from reserved blocks, so they are skipped anyway.
+    return SequenceBlock.reserve(SEQUENCE_NAME, size, floor);
+  }
+
+  // Largest access key value stored inline or issued by GeneralSequenceNumber, or 0 if none.
+  private static long maxInUse() {
+    TypedQuery<Long> inline = EveKitUserAccountProvider.getFactory()
+                                                       .getEntityManager()
+                                                       .createQuery("SELECT max(c.accessKeyValue) FROM SynchronizedAccountAccessKey c", Long.class);
+    TypedQuery<Long> legacy = EveKitUserAccountProvider.getFactory()
+                                                       .getEntityManager()
+                                                       .createQuery("SELECT max(c.value) FROM GeneralSequenceNumber c", Long.class);
+    Long inlineMax = inline.getSingleResult();
+    Long legacyMax = legacy.getSingleResult();
+    return Math.max(inlineMax == null ? 0 : inlineMax, legacyMax == null ? 0 : legacyMax);
+  }
+
+}
@@ -0,0 +1,213 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.base.OrbitalProperties;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory cache of verified access key credentials keyed by key ID and submitted hash.  Only
+ * credentials which passed SynchronizedAccountAccessKey.checkHash are cached, so a cache hit answers a later
+ * check of the same credential without a database round trip or a hash computation.
+ * <p>
+ * Entries expire after a configurable time to live.  Entries are invalidated by the key management methods in
+ * this module (updateKey, deleteKey, remove and SynchronizedEveAccount.remove), and when the owning account or
+ * user changes state (SynchronizedEveAccount.deleteAccount and restoreAccount, and EveKitUserAccount.update).  Changes made by other processes
+ * are only picked up when entries expire, so the time to live bounds how long a changed or deleted key may
+ * still be accepted by a process which did not make the change.  A time to live of zero disables the cache.
+ * <p>
+ * Cached keys are copies.  Callers always receive their own instance, so modifying a returned key has no
+ * effect on the cache.
+ */
+public class AccessKeyCredentialCache {
+  // Time (milliseconds) a verified credential is cached.  Zero disables the cache.
+  public static final String PROP_CREDENTIAL_TTL = "enterprises.orbital.evekit.account.credentialCacheTTL";
+  public static final long DEF_CREDENTIAL_TTL = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+
+  // Maximum number of cached credentials
+  public static final String PROP_CREDENTIAL_MAX_SIZE = "enterprises.orbital.evekit.account.credentialCacheMaxSize";
+  public static final long DEF_CREDENTIAL_MAX_SIZE = 10000;
+
+  private static final class CredentialKey {
+    private final long keyID;
+    private final String hash;
+
+    private CredentialKey(long keyID, String hash) {
+      this.keyID = keyID;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      CredentialKey that = (CredentialKey) o;
+      return keyID == that.keyID &&
+          Objects.equals(hash, that.hash);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(keyID, hash);
+    }
+  }
+
+  private static final class Entry {
+    private final SynchronizedAccountAccessKey key;
+    private final long aid;
+    private final long uid;
+    private final long expires;
+
+    private Entry(SynchronizedAccountAccessKey key, long expires) {
+      // Decode the mask now so every copy handed out shares the decoded form
+      key.getPermissions();
+      this.key = key;
+      this.aid = key.getSyncAccount()
+                    .getAid();
+      EveKitUserAccount user = key.getSyncAccount()
+                                  .getUserAccount();
+      this.uid = user == null ? -1 : user.getID();
+      this.expires = expires;
+    }
+  }
+
+  private static final ConcurrentMap<CredentialKey, Entry> credentials = new ConcurrentHashMap<>();
+
+  // Incremented on every invalidation.  A lookup which started before an invalidation must not store its
+  // result, since the key it loaded may already be stale.
+  private static final AtomicLong generation = new AtomicLong(0);
+
+  // Metrics
+  private static final AtomicLong hits = new AtomicLong(0);
+  private static final AtomicLong misses = new AtomicLong(0);
+
+  private AccessKeyCredentialCache() {}
+
+  private static long getTTL() {
+    return OrbitalProperties.getLongGlobalProperty(PROP_CREDENTIAL_TTL, DEF_CREDENTIAL_TTL);
+  }
+
+  /**
+   * Retrieve a verified credential.
+   *
+   * @param keyID         submitted key ID.
+   * @param submittedHash submitted hash.
+   * @return a copy of the cached key, or null if the credential is not cached or has expired.
+   */
+  static SynchronizedAccountAccessKey get(long keyID, String submittedHash) {
+    if (getTTL() <= 0) return null;
+    CredentialKey ck = new CredentialKey(keyID, submittedHash);
+    Entry entry = credentials.get(ck);
+    if (entry == null || entry.expires <= OrbitalProperties.getCurrentTime()) {
+      if (entry != null) credentials.remove(ck, entry);
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return new SynchronizedAccountAccessKey(entry.key);
+  }
+
+  /**
+   * @return the current invalidation generation.  Callers retrieve this before loading a key from the database
+   * and pass it to put.
+   */
+  static long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Cache a verified credential.  The credential is not cached if an invalidation has occurred since the
+   * caller retrieved the given generation.
+   *
+   * @param keyID         verified key ID.
+   * @param submittedHash verified hash.
+   * @param key           the key resolved from the database.
+   * @param loaded        the generation retrieved before the key was loaded.
+   */
+  static void put(long keyID, String submittedHash, SynchronizedAccountAccessKey key, long loaded) {
+    long ttl = getTTL();
+    if (ttl <= 0 || key.getSyncAccount() == null) return;
+    long now = OrbitalProperties.getCurrentTime();
+    int maxSize = (int) OrbitalProperties.getLongGlobalProperty(PROP_CREDENTIAL_MAX_SIZE, DEF_CREDENTIAL_MAX_SIZE);
+    if (credentials.size() >= maxSize) evict(now, maxSize);
+    CredentialKey ck = new CredentialKey(keyID, submittedHash);
+    credentials.put(ck, new Entry(new SynchronizedAccountAccessKey(key), now + ttl));
+    // Drop the entry if an invalidation raced with the load or with the put
+    if (generation.get() != loaded) credentials.remove(ck);
+  }
+
+  // Make room for a new entry by removing expired entries, then arbitrary entries if still full.
+  private static void evict(long now, int maxSize) {
+    credentials.values()
+               .removeIf(e -> e.expires <= now);
+    Iterator<CredentialKey> it = credentials.keySet()
+                                            .iterator();
+    while (credentials.size() >= maxSize && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+
+  private static void invalidate(Predicate<Entry> filter) {
+    generation.incrementAndGet();
+    credentials.values()
+               .removeIf(filter);
+  }
+
+  /**
+   * Remove all cached credentials for an access key.
+   *
+   * @param keyID the key ID of the access key to invalidate.
+   */
+  public static void invalidateKey(long keyID) {
+    generation.incrementAndGet();
+    credentials.keySet()
+               .removeIf(k -> k.keyID == keyID);
+  }
+
+  /**
+   * Remove all cached credentials for access keys owned by an account.
+   *
+   * @param aid the ID of the account to invalidate.
+   */
+  public static void invalidateAccount(long aid) {
+    invalidate(e -> e.aid == aid);
+  }
+
+  /**
+   * Remove all cached credentials for access keys owned by any account of a user.
+   *
+   * @param uid the ID of the user to invalidate.
+   */
+  public static void invalidateUser(long uid) {
+    invalidate(e -> e.uid == uid);
+  }
+
+  /**
+   * Remove all cached credentials.
+   */
+  public static void clear() {
+    invalidate(e -> true);
+  }
+
+  public static long getHitCount() {
+    return hits.get();
+  }
+
+  public static long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * @return the number of credentials currently cached, including expired credentials not yet removed.
+   */
+  public static int size() {
+    return credentials.size();
+  }
+
+}
@@ -0,0 +1,101 @@
+package enterprises.orbital.evekit.account;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable, decoded form of an access key mask.  The raw mask stored with a key is a byte array indexed by
+ * AccountAccessMask mask position.  Decoding it once into an EnumSet makes each access check a single bit test
+ * instead of an array lookup on the raw mask.  The display forms of the mask (see
+ * SynchronizedAccountAccessKey.generateMaskValue and generateMaskValueString) are derived on first use and
+ * then retained.
+ */
+public final class AccountAccessPermissions {
+  private static final AccountAccessPermissions NONE = new AccountAccessPermissions(EnumSet.noneOf(AccountAccessMask.class));
+
+  private final Set<AccountAccessMask> allowed;
+  private volatile BigInteger maskValue;
+  private volatile String maskValueString;
+
+  private AccountAccessPermissions(EnumSet<AccountAccessMask> allowed) {
+    this.allowed = Collections.unmodifiableSet(allowed);
+  }
+
+  /**
+   * Decode a raw access mask.  Bits which don't correspond to an AccountAccessMask value are ignored.
+   *
+   * @param mask the raw mask, may be null.
+   * @return the decoded permissions.
+   */
+  public static AccountAccessPermissions decode(byte[] mask) {
+    if (mask == null) return NONE;
+    EnumSet<AccountAccessMask> allowed = EnumSet.noneOf(AccountAccessMask.class);
+    for (AccountAccessMask next : AccountAccessMask.values()) {
+      if (AccountAccessMask.isAccessAllowed(mask, next)) allowed.add(next);
+    }
+    return new AccountAccessPermissions(allowed);
+  }
+
+  public boolean isAccessAllowed(AccountAccessMask test) {
+    return allowed.contains(test);
+  }
+
+  /**
+   * @return the allowed access types, in AccountAccessMask declaration order.
+   */
+  public Set<AccountAccessMask> getAllowed() {
+    return allowed;
+  }
+
+  /**
+   * @return the integer value of the mask, with one bit set at the mask position of each allowed access type.
+   */
+  public BigInteger getMaskValue() {
+    BigInteger value = maskValue;
+    if (value == null) {
+      value = BigInteger.ZERO;
+      for (AccountAccessMask next : allowed) {
+        value = value.setBit(next.getMaskValue());
+      }
+      maskValue = value;
+    }
+    return value;
+  }
+
+  /**
+   * @return the names of the allowed access types separated by '|', as produced by AccountAccessMask.stringifyMask.
+   */
+  public String getMaskValueString() {
+    String value = maskValueString;
+    if (value == null) {
+      StringBuilder builder = new StringBuilder();
+      for (AccountAccessMask next : allowed) {
+        if (builder.length() > 0) builder.append('|');
+        builder.append(next.name());
+      }
+      value = builder.toString();
+      maskValueString = value;
+    }
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    return allowed.equals(((AccountAccessPermissions) o).allowed);
+  }
+
+  @Override
+  public int hashCode() {
+    return allowed.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "AccountAccessPermissions{" + getMaskValueString() + '}';
+  }
+
+}
@@ -0,0 +1,293 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.base.OrbitalProperties;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Optional background service which removes accounts marked for deletion.  Accounts are queued (typically from
+ * SynchronizedEveAccount.getAllMarkedForDelete) and removed concurrently by a bounded worker pool.  Deletion is
+ * throttled to a shared rows per second budget so that purging doesn't starve live synchronization.
+ * <p>
+ * Removal commits one chunk of rows at a time and removes the account row last, so an account interrupted
+ * mid-purge (e.g. by a restart) is still marked for deletion and resumes from its remaining rows the next
+ * time it is queued.  The most recent checkpoint for each account in progress is available from getProgress.
+ */
+public class AccountPurgeService {
+  private static final Logger log = Logger.getLogger(AccountPurgeService.class.getName());
+
+  // Number of purge worker threads
+  public static final String PROP_PURGE_WORKERS = "enterprises.orbital.evekit.account.purgeWorkers";
+  public static final long DEF_PURGE_WORKERS = 2;
+
+  // Maximum rows deleted per second across all workers.  Zero or less disables throttling.
+  public static final String PROP_PURGE_ROWS_PER_SECOND = "enterprises.orbital.evekit.account.purgeRowsPerSecond";
+  public static final long DEF_PURGE_ROWS_PER_SECOND = 5000;
+
+  /**
+   * Performs removal of an account.  The default implementation calls SynchronizedEveAccount.remove.
+   * Tests may substitute a stub.
+   */
+  @FunctionalInterface
+  public interface AccountRemover {
+    AccountRemovalReport remove(SynchronizedEveAccount account,
+                                AccountRemovalReport.ChunkListener listener) throws IOException;
+  }
+
+  /**
+   * Last committed removal chunk for an account in progress.
+   */
+  public static class Progress {
+    private final String phase;
+    private final long rows;
+
+    Progress(String phase, long rows) {
+      this.phase = phase;
+      this.rows = rows;
+    }
+
+    public String getPhase() {
+      return phase;
+    }
+
+    /**
+     * @return total rows deleted for this account so far.
+     */
+    public long getRows() {
+      return rows;
+    }
+  }
+
+  private static final Progress QUEUED = new Progress(null, 0);
+
+  private final AccountRemover remover;
+  private final long rowsPerSecond;
+  private final ThreadPoolExecutor workers;
+
+  // Accounts queued or in progress, with their last checkpoint
+  private final ConcurrentMap<Long, Progress> pending = new ConcurrentHashMap<>();
+
+  // Throttle state: the earliest time (System.nanoTime) at which the next chunk may be deleted
+  private long nextAllowed = System.nanoTime();
+
+  // Rate sampling state, guarded by this
+  private long windowStart = System.nanoTime();
+  private long windowRows;
+  private long lastRate;
+
+  // Metrics
+  private final AtomicLong purgedCount = new AtomicLong(0);
+  private final AtomicLong failureCount = new AtomicLong(0);
+  private final AtomicLong deletedRows = new AtomicLong(0);
+  private final AtomicLong totalPurgeDuration = new AtomicLong(0);
+  private final AtomicLong maxPurgeDuration = new AtomicLong(0);
+  private final AtomicLong lastPurgeDuration = new AtomicLong(0);
+
+  /**
+   * Create a purge service configured from global properties.
+   */
+  public AccountPurgeService() {
+    this((account, listener) -> SynchronizedEveAccount.remove(account, (int) OrbitalProperties.getLongGlobalProperty(
+        SynchronizedEveAccount.PROP_REMOVE_CHUNK_SIZE, SynchronizedEveAccount.DEF_REMOVE_CHUNK_SIZE), listener),
+         (int) OrbitalProperties.getLongGlobalProperty(PROP_PURGE_WORKERS, DEF_PURGE_WORKERS),
+         OrbitalProperties.getLongGlobalProperty(PROP_PURGE_ROWS_PER_SECOND, DEF_PURGE_ROWS_PER_SECOND));
+  }
+
+  /**
+   * Create a purge service.
+   *
+   * @param remover       performs removal of an account.
+   * @param workers       number of purge worker threads.
+   * @param rowsPerSecond maximum rows deleted per second across all workers, or zero for no limit.
+   */
+  public AccountPurgeService(AccountRemover remover, int workers, long rowsPerSecond) {
+    this.remover = remover;
+    this.rowsPerSecond = rowsPerSecond;
+    int size = Math.max(1, workers);
+    this.workers = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread worker = new Thread(r, "account-purge");
+      worker.setDaemon(true);
+      return worker;
+    });
+  }
+
+  /**
+   * Queue all accounts currently marked for deletion.  Accounts already queued or in progress are skipped.
+   *
+   * @return the number of accounts newly queued.
+   * @throws IOException on any database error.
+   */
+  public int submitMarked() throws IOException {
+    int queued = 0;
+    for (SynchronizedEveAccount next : SynchronizedEveAccount.getAllMarkedForDelete()) {
+      if (submit(next)) queued++;
+    }
+    return queued;
+  }
+
+  /**
+   * Queue an account for removal.
+   *
+   * @param account the account to remove.
+   * @return true if the account was queued, false if it was already queued or in progress, or the service
+   * has been shut down.
+   */
+  public boolean submit(SynchronizedEveAccount account) {
+    if (workers.isShutdown() || pending.putIfAbsent(account.getAid(), QUEUED) != null) return false;
+    workers.execute(() -> purge(account));
+    return true;
+  }
+
+  /**
+   * Stop purging.  Chunks already being deleted are allowed to commit.  Accounts which did not finish will
+   * resume the next time they are submitted.
+   */
+  public void shutdown() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Wait for queued purges to complete after a shutdown.
+   *
+   * @param timeout maximum time to wait.
+   * @param unit    unit of timeout.
+   * @return true if all workers exited, false if the timeout elapsed first.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return workers.awaitTermination(timeout, unit);
+  }
+
+  private void purge(SynchronizedEveAccount account) {
+    long aid = account.getAid();
+    long start = System.nanoTime();
+    try {
+      AccountRemovalReport report = remover.remove(account, (id, phase, rows) -> {
+        Progress last = pending.get(id);
+        pending.put(id, new Progress(phase, (last == null ? 0 : last.rows) + rows));
+        recordRows(rows);
+        throttle(rows);
+      });
+      long elapsed = TimeUnit.MILLISECONDS.convert(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      totalPurgeDuration.addAndGet(elapsed);
+      maxPurgeDuration.accumulateAndGet(elapsed, Math::max);
+      lastPurgeDuration.set(elapsed);
+      purgedCount.incrementAndGet();
+      log.info("Purged account " + aid + " in " + elapsed + " ms: " + report);
+    } catch (IOException | RuntimeException e) {
+      log.log(Level.WARNING, "Purge failed for account, will resume when resubmitted: " + aid, e);
+      failureCount.incrementAndGet();
+    } finally {
+      pending.remove(aid);
+    }
+  }
+
+  private synchronized void recordRows(long rows) {
+    deletedRows.addAndGet(rows);
+    windowRows += rows;
+    long now = System.nanoTime();
+    long window = now - windowStart;
+    if (window >= TimeUnit.NANOSECONDS.convert(1, TimeUnit.SECONDS)) {
+      lastRate = windowRows * TimeUnit.NANOSECONDS.convert(1, TimeUnit.SECONDS) / window;
+      windowStart = now;
+      windowRows = 0;
+    }
+  }
+
+  // Charge rows against the shared budget and sleep until the budget allows more deletion.
+  private void throttle(long rows) throws IOException {
+    if (rowsPerSecond <= 0) return;
+    long wait;
+    synchronized (this) {
+      long now = System.nanoTime();
+      if (nextAllowed < now) nextAllowed = now;
+      nextAllowed += rows * TimeUnit.NANOSECONDS.convert(1, TimeUnit.SECONDS) / rowsPerSecond;
+      wait = nextAllowed - now;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    } catch (InterruptedException e) {
+      Thread.currentThread()
+            .interrupt();
+      throw new IOException("Purge interrupted", e);
+    }
+  }
+
+  /**
+   * @return the number of accounts waiting for a worker.
+   */
+  public int getQueueLength() {
+    return workers.getQueue()
+                  .size();
+  }
+
+  /**
+   * @return the last checkpoint for each account queued or in progress.  Accounts which have not yet
+   * deleted any rows have a null phase.
+   */
+  public Map<Long, Progress> getProgress() {
+    return Collections.unmodifiableMap(new HashMap<>(pending));
+  }
+
+  /**
+   * @return the deletion rate (rows per second) over the most recently completed sampling window.
+   */
+  public synchronized long getRowsPerSecond() {
+    return lastRate;
+  }
+
+  /**
+   * @return the total number of rows deleted.
+   */
+  public long getDeletedRows() {
+    return deletedRows.get();
+  }
+
+  /**
+   * @return the number of accounts successfully purged.
+   */
+  public long getPurgedCount() {
+    return purgedCount.get();
+  }
+
+  /**
+   * @return the number of failed purges.
+   */
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * @return the mean time (milliseconds) to purge an account, or 0 if no purges have completed.
+   */
+  public long getMeanPurgeDuration() {
+    long count = purgedCount.get();
+    return count == 0 ? 0 : totalPurgeDuration.get() / count;
+  }
+
+  /**
+   * @return the maximum time (milliseconds) to purge an account.
+   */
+  public long getMaxPurgeDuration() {
+    return maxPurgeDuration.get();
+  }
+
+  /**
+   * @return the time (milliseconds) taken by the most recently completed purge.
+   */
+  public long getLastPurgeDuration() {
+    return lastPurgeDuration.get();
+  }
+
+}
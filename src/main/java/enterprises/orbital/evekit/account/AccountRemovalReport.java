@@ -0,0 +1,106 @@
+package enterprises.orbital.evekit.account;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a synchronized account removal.  Removal proceeds in phases (one per table group), and each
+ * phase records the number of rows deleted and the time spent.
+ */
+public class AccountRemovalReport {
+
+  // Phase names, in the order they are executed
+  public static final String PHASE_SYNC_TRACKERS = "syncTrackers";
+  public static final String PHASE_ESI_TRACKERS = "esiTrackers";
+  public static final String PHASE_ACCESS_KEYS = "accessKeys";
+  public static final String PHASE_ACCOUNT = "account";
+
+  /**
+   * Notified after each chunk of rows is deleted and committed.  Listeners may block (e.g. to throttle
+   * deletion), or throw to abort the removal.  Since every chunk is committed before the listener is called,
+   * an aborted removal can be resumed by calling remove again.
+   */
+  @FunctionalInterface
+  public interface ChunkListener {
+    void chunkRemoved(long aid, String phase, long rows) throws IOException;
+  }
+
+  public static class Phase {
+    private final String name;
+    private final long rows;
+    private final long elapsed;
+
+    Phase(String name, long rows, long elapsed) {
+      this.name = name;
+      this.rows = rows;
+      this.elapsed = elapsed;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    /**
+     * @return elapsed time for this phase in milliseconds.
+     */
+    public long getElapsed() {
+      return elapsed;
+    }
+
+    @Override
+    public String toString() {
+      return name + "=" + rows + " rows in " + elapsed + " ms";
+    }
+  }
+
+  private final long aid;
+  private final List<Phase> phases = new ArrayList<>();
+
+  AccountRemovalReport(long aid) {
+    this.aid = aid;
+  }
+
+  void addPhase(String name, long rows, long elapsed) {
+    phases.add(new Phase(name, rows, elapsed));
+  }
+
+  public long getAid() {
+    return aid;
+  }
+
+  public List<Phase> getPhases() {
+    return Collections.unmodifiableList(phases);
+  }
+
+  /**
+   * @return the total number of rows deleted across all phases.
+   */
+  public long getTotalRows() {
+    long total = 0;
+    for (Phase next : phases) total += next.rows;
+    return total;
+  }
+
+  /**
+   * @return the total time spent across all phases in milliseconds.
+   */
+  public long getTotalElapsed() {
+    long total = 0;
+    for (Phase next : phases) total += next.elapsed;
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    return "AccountRemovalReport{" +
+        "aid=" + aid +
+        ", phases=" + phases +
+        '}';
+  }
+}
@@ -0,0 +1,275 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.base.OrbitalProperties;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Optional background service which refreshes ESI access tokens ahead of expiry.  Registered accounts are kept
+ * in a scheduler queue ordered by access token expiry.  Each account is refreshed by a small worker pool
+ * a configurable margin before its token expires, so that SynchronizedEveAccount.refreshToken normally finds
+ * a valid token without calling SSO.
+ * <p>
+ * The service is opt-in: nothing is refreshed until an instance is created and accounts are registered
+ * (either individually or via registerAll).
+ */
+public class ESITokenRefreshService {
+  private static final Logger log = Logger.getLogger(ESITokenRefreshService.class.getName());
+
+  // How far ahead of access token expiry we refresh
+  public static final String PROP_REFRESH_MARGIN = "enterprises.orbital.evekit.account.tokenRefreshMargin";
+  public static final long DEF_REFRESH_MARGIN = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+
+  // Number of refresh worker threads
+  public static final String PROP_REFRESH_WORKERS = "enterprises.orbital.evekit.account.tokenRefreshWorkers";
+  public static final long DEF_REFRESH_WORKERS = 2;
+
+  // Delay before retrying a failed refresh
+  public static final String PROP_REFRESH_RETRY_DELAY = "enterprises.orbital.evekit.account.tokenRefreshRetryDelay";
+  public static final long DEF_REFRESH_RETRY_DELAY = TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+
+  /**
+   * Performs the actual token refresh for an account.  The default implementation calls
+   * SynchronizedEveAccount.refreshToken.  Tests may substitute a stub.
+   */
+  @FunctionalInterface
+  public interface TokenRefresher {
+    /**
+     * Refresh the token for the given account.
+     *
+     * @param account      account to refresh.
+     * @param expiryWindow refresh if the access token expires within this many milliseconds.
+     * @throws IOException if the refresh failed.
+     */
+    void refresh(SynchronizedEveAccount account, long expiryWindow) throws IOException;
+  }
+
+  private final TokenRefresher refresher;
+  private final long refreshMargin;
+  private final long retryDelay;
+  private final ScheduledThreadPoolExecutor scheduler;
+
+  /**
+   * Registration state for an account.  Once cancelled, a registration is never rescheduled, so a refresh which
+   * is in flight when the account is unregistered (or registered again) can't put the account back in the queue.
+   */
+  private static final class Registration {
+    private boolean cancelled;
+    private ScheduledFuture<?> pending;
+
+    private synchronized void cancel() {
+      cancelled = true;
+      if (pending != null) pending.cancel(false);
+    }
+
+    private synchronized boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  // Current registration for each registered account
+  private final ConcurrentMap<Long, Registration> registered = new ConcurrentHashMap<>();
+
+  // Metrics
+  private final AtomicLong refreshCount = new AtomicLong(0);
+  private final AtomicLong failureCount = new AtomicLong(0);
+  private final AtomicLong totalRefreshLatency = new AtomicLong(0);
+  private final AtomicLong maxRefreshLatency = new AtomicLong(0);
+
+  /**
+   * Create a refresh service configured from global properties.
+   *
+   * @param eveClientID  EVE SSO authentication client ID.
+   * @param eveSecretKey EVE SSO authentication secret key.
+   */
+  public ESITokenRefreshService(String eveClientID, String eveSecretKey) {
+    this((account, window) -> account.refreshToken(window, eveClientID, eveSecretKey),
+         OrbitalProperties.getLongGlobalProperty(PROP_REFRESH_MARGIN, DEF_REFRESH_MARGIN),
+         (int) OrbitalProperties.getLongGlobalProperty(PROP_REFRESH_WORKERS, DEF_REFRESH_WORKERS),
+         OrbitalProperties.getLongGlobalProperty(PROP_REFRESH_RETRY_DELAY, DEF_REFRESH_RETRY_DELAY));
+  }
+
+  /**
+   * Create a refresh service.
+   *
+   * @param refresher     performs token refresh for an account.
+   * @param refreshMargin how far ahead of expiry (milliseconds) tokens should be refreshed.
+   * @param workers       number of refresh worker threads.
+   * @param retryDelay    delay (milliseconds) before retrying a failed refresh.
+   */
+  public ESITokenRefreshService(TokenRefresher refresher, long refreshMargin, int workers, long retryDelay) {
+    this.refresher = refresher;
+    this.refreshMargin = refreshMargin;
+    this.retryDelay = retryDelay;
+    this.scheduler = new ScheduledThreadPoolExecutor(Math.max(1, workers), r -> {
+      Thread worker = new Thread(r, "esi-token-refresh");
+      worker.setDaemon(true);
+      return worker;
+    });
+    this.scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Register all synchronized accounts which have a refreshable ESI credential.
+   *
+   * @throws IOException on any database error.
+   */
+  public void registerAll() throws IOException {
+    for (SynchronizedEveAccount next : SynchronizedEveAccount.getAllSyncAccounts(false)) {
+      register(next);
+    }
+  }
+
+  /**
+   * Schedule proactive refresh for an account, replacing any existing schedule.  Accounts without
+   * a refresh token are ignored.
+   *
+   * @param account the account to register.
+   */
+  public void register(SynchronizedEveAccount account) {
+    String rToken = account.getRefreshToken();
+    if (rToken == null || rToken.trim()
+                                .isEmpty()) {
+      unregister(account.getAid());
+      return;
+    }
+    if (scheduler.isShutdown()) return;
+    Registration registration = new Registration();
+    Registration previous = registered.put(account.getAid(), registration);
+    if (previous != null) previous.cancel();
+    schedule(registration, account, account.getAccessTokenExpiry() - refreshMargin - OrbitalProperties.getCurrentTime());
+  }
+
+  /**
+   * Stop proactive refresh for an account.
+   *
+   * @param aid the ID of the account to unregister.
+   */
+  public void unregister(long aid) {
+    Registration registration = registered.remove(aid);
+    if (registration != null) registration.cancel();
+  }
+
+  /**
+   * Stop all refresh activity.  Refreshes already in progress are allowed to complete.
+   */
+  public void shutdown() {
+    scheduler.shutdownNow();
+    registered.values()
+              .forEach(Registration::cancel);
+    registered.clear();
+  }
+
+  private void schedule(Registration registration, SynchronizedEveAccount account, long delay) {
+    // Holding the registration lock ensures unregister either sees (and cancels) the new refresh, or
+    // has already cancelled the registration in which case nothing is scheduled.
+    synchronized (registration) {
+      if (registration.cancelled || scheduler.isShutdown()) return;
+      registration.pending = scheduler.schedule(() -> refresh(registration, account), Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  // Drop a registration if it is still the current registration for the account
+  private void drop(Registration registration, long aid) {
+    registered.remove(aid, registration);
+    registration.cancel();
+  }
+
+  private void refresh(Registration registration, SynchronizedEveAccount account) {
+    if (registration.isCancelled()) return;
+    // Reload the account so we start from the latest stored credential.  Accounts which have been
+    // deleted or have lost their ESI credential are dropped.
+    SynchronizedEveAccount current;
+    try {
+      current = SynchronizedEveAccount.getSynchronizedAccount(account.getUserAccount(), account.getAid(), false);
+    } catch (AccountNotFoundException e) {
+      drop(registration, account.getAid());
+      return;
+    } catch (IOException e) {
+      log.log(Level.WARNING, "Failed to load account for token refresh, will retry: " + account.getAid(), e);
+      failureCount.incrementAndGet();
+      schedule(registration, account, retryDelay);
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      refresher.refresh(current, refreshMargin);
+      recordLatency(System.nanoTime() - start);
+      refreshCount.incrementAndGet();
+    } catch (IOException e) {
+      log.log(Level.WARNING, "Background token refresh failed for account: " + current.getAid(), e);
+      failureCount.incrementAndGet();
+      // Revoked tokens are cleared by refreshToken, in which case we stop refreshing this account
+      if (current.getRefreshToken() == null)
+        drop(registration, current.getAid());
+      else
+        schedule(registration, current, retryDelay);
+      return;
+    }
+
+    // Schedule the next refresh.  If the new token is already inside the margin (e.g. SSO issued
+    // a short lived token), wait the retry delay to avoid spinning.
+    long delay = current.getAccessTokenExpiry() - refreshMargin - OrbitalProperties.getCurrentTime();
+    schedule(registration, current, delay > 0 ? delay : retryDelay);
+  }
+
+  private void recordLatency(long nanos) {
+    long millis = TimeUnit.MILLISECONDS.convert(nanos, TimeUnit.NANOSECONDS);
+    totalRefreshLatency.addAndGet(millis);
+    maxRefreshLatency.accumulateAndGet(millis, Math::max);
+  }
+
+  /**
+   * @return the number of refreshes currently waiting in the queue.
+   */
+  public int getQueueDepth() {
+    return scheduler.getQueue()
+                    .size();
+  }
+
+  /**
+   * @return the number of accounts currently registered.
+   */
+  public int getRegisteredCount() {
+    return registered.size();
+  }
+
+  /**
+   * @return the number of successful refreshes.
+   */
+  public long getRefreshCount() {
+    return refreshCount.get();
+  }
+
+  /**
+   * @return the number of failed refreshes.
+   */
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * @return the mean latency (milliseconds) of successful refreshes, or 0 if no refreshes have completed.
+   */
+  public long getMeanRefreshLatency() {
+    long count = refreshCount.get();
+    return count == 0 ? 0 : totalRefreshLatency.get() / count;
+  }
+
+  /**
+   * @return the maximum latency (milliseconds) of successful refreshes.
+   */
+  public long getMaxRefreshLatency() {
+    return maxRefreshLatency.get();
+  }
+
+}
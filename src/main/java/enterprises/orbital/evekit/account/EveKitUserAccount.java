@@ -364,15 +364,25 @@ public class EveKitUserAccount implements UserAccount, PersistentPropertyKey<Str
     return "EveKitUserAccount." + String.valueOf(uid) + "." + field;
   }
 
+  /**
+   * Store changes to a user account.  Cached access key credentials for the user's accounts are invalidated,
+   * since they carry a copy of the user (e.g. a user which has just been disabled).
+   *
+   * @param data the user account to store.
+   * @return the newly persisted user.
+   * @throws IOException on any database error
+   */
   public static EveKitUserAccount update(
       final EveKitUserAccount data) throws IOException {
     try {
-      return EveKitUserAccountProvider.getFactory()
-                                      .runTransaction(() ->
-                                                          EveKitUserAccountProvider.getFactory()
-                                                                                   .getEntityManager()
-                                                                                   .merge(data)
-                                                     );
+      EveKitUserAccount result = EveKitUserAccountProvider.getFactory()
+                                                          .runTransaction(() ->
+                                                                              EveKitUserAccountProvider.getFactory()
+                                                                                                       .getEntityManager()
+                                                                                                       .merge(data)
+                                                                         );
+      AccessKeyCredentialCache.invalidateUser(result.getID());
+      return result;
     } catch (Exception e) {
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
@@ -3,6 +3,7 @@ package enterprises.orbital.evekit.account;
 import enterprises.orbital.base.OrbitalProperties;
 import enterprises.orbital.db.ConnectionFactory;
 import enterprises.orbital.evekit.model.ESIEndpointSyncTracker;
+import enterprises.orbital.evekit.model.ESIEndpointSyncTrackerCache;
 import enterprises.orbital.oauth.UserAccount;
 import enterprises.orbital.oauth.UserAccountProvider;
 import enterprises.orbital.oauth.UserAuthSource;
@@ -23,7 +24,10 @@ public class EveKitUserAccountProvider implements UserAccountProvider {
 
   public static <T> T update(T tracked) throws IOException {
     try {
-      return getFactory().runTransaction(() -> getFactory().getEntityManager().merge(tracked));
+      T result = getFactory().runTransaction(() -> getFactory().getEntityManager().merge(tracked));
+      // Keep the unfinished tracker cache consistent with stored trackers
+      if (result instanceof ESIEndpointSyncTracker) ESIEndpointSyncTrackerCache.update((ESIEndpointSyncTracker) result);
+      return result;
     } catch (Exception e) {
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
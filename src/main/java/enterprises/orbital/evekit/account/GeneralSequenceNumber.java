@@ -1,17 +1,17 @@
 package enterprises.orbital.evekit.account;
 
+import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityManager;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
-import enterprises.orbital.db.ConnectionFactory.RunInTransaction;
-
 /**
  * This class is used to provide unique sequence values for non-ID columns in other tables. A one-to-one relation in the referring table is all that is needed
  * to use the value, then extraction via the getter to retrieve the value. Not great given the number of selects, but it's hard to avoid this currently with
@@ -56,18 +56,51 @@ public class GeneralSequenceNumber {
     return true;
   }
 
+  /**
+   * Create a new sequence number.  The value is taken from AccessKeyAllocator rather than the database sequence,
+   * since values drawn from the database sequence are not aware of the blocks reserved by the allocator and could
+   * collide with them.  This call should be made outside of any enclosing transaction (see
+   * AccessKeyAllocator.nextValue).
+   * <p>
+   * Every node must be running a version which allocates this way before any node starts reserving blocks, since
+   * older nodes still draw values from the database sequence.
+   *
+   * @return the new sequence number, or null on error.
+   * @deprecated use AccessKeyAllocator.nextValue to obtain unique values.
+   */
+  @Deprecated
   public static GeneralSequenceNumber create() {
     try {
-      return EveKitUserAccountProvider.getFactory().runTransaction(new RunInTransaction<GeneralSequenceNumber>() {
-        @Override
-        public GeneralSequenceNumber run() throws Exception {
-          GeneralSequenceNumber result = new GeneralSequenceNumber();
-          return EveKitUserAccountProvider.getFactory().getEntityManager().merge(result);
-        }
+      return create(AccessKeyAllocator.nextValue());
+    } catch (IOException e) {
+      log.log(Level.SEVERE, "query error", e);
+    }
+    return null;
+  }
+
+  /**
+   * Create a sequence number with a value allocated elsewhere.  The value is inserted directly since the value
+   * column is normally generated.
+   *
+   * @param value the value of the new sequence number.  This must not already be in use.
+   * @return the new sequence number.
+   * @throws IOException on any database error.
+   */
+  static GeneralSequenceNumber create(
+                                      final long value)
+    throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+        EntityManager em = EveKitUserAccountProvider.getFactory().getEntityManager();
+        em.createNativeQuery("INSERT INTO evekit_sequence (value) VALUES (:value)")
+          .setParameter("value", value)
+          .executeUpdate();
+        return em.find(GeneralSequenceNumber.class, value);
       });
     } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
     }
-    return null;
   }
 }
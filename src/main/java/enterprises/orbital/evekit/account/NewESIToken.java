@@ -6,7 +6,6 @@ import enterprises.orbital.base.Stamper;
 import javax.persistence.*;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Random;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -224,7 +223,7 @@ public class NewESIToken {
       // Generate and save the initial key
       NewESIToken newKey = EveKitUserAccountProvider.getFactory()
                                         .runTransaction(() -> {
-                                          long seed = new Random(OrbitalProperties.getCurrentTime()).nextLong();
+                                          long seed = SeedGenerator.nextSeed();
                                           NewESIToken result = new NewESIToken();
                                           result.user = user;
                                           result.account = account;
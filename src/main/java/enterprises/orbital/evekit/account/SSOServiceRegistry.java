@@ -0,0 +1,95 @@
+package enterprises.orbital.evekit.account;
+
+import com.github.scribejava.core.builder.ServiceBuilder;
+import com.github.scribejava.core.builder.api.DefaultApi20;
+import com.github.scribejava.core.httpclient.jdk.JDKHttpClientConfig;
+import com.github.scribejava.core.oauth.OAuth20Service;
+import enterprises.orbital.base.OrbitalProperties;
+import enterprises.orbital.oauth.EVEApi;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of EVE SSO OAuth services keyed by client ID and secret.  OAuth20Service instances are immutable
+ * and thread safe once built, so a single instance is shared by all token refreshes using the same
+ * credentials.  Services use the JDK HTTP client, which keeps SSO connections alive and reuses them
+ * across requests, with configurable connect and read timeouts.
+ */
+public class SSOServiceRegistry {
+
+  // Connect timeout (milliseconds) for SSO requests
+  public static final String PROP_SSO_CONNECT_TIMEOUT = "enterprises.orbital.evekit.account.ssoConnectTimeout";
+  public static final long DEF_SSO_CONNECT_TIMEOUT = TimeUnit.MILLISECONDS.convert(10, TimeUnit.SECONDS);
+
+  // Read timeout (milliseconds) for SSO requests
+  public static final String PROP_SSO_READ_TIMEOUT = "enterprises.orbital.evekit.account.ssoReadTimeout";
+  public static final long DEF_SSO_READ_TIMEOUT = TimeUnit.MILLISECONDS.convert(30, TimeUnit.SECONDS);
+
+  private static final class ServiceKey {
+    private final String clientID;
+    private final String secretKey;
+
+    private ServiceKey(String clientID, String secretKey) {
+      this.clientID = clientID;
+      this.secretKey = secretKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      ServiceKey that = (ServiceKey) o;
+      return Objects.equals(clientID, that.clientID) &&
+          Objects.equals(secretKey, that.secretKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(clientID, secretKey);
+    }
+  }
+
+  private static final ConcurrentMap<ServiceKey, OAuth20Service> services = new ConcurrentHashMap<>();
+
+  // API used to build services.  Tests may substitute an API which points at a stub token endpoint.
+  private static volatile DefaultApi20 api = EVEApi.instance();
+
+  /**
+   * Retrieve the shared SSO service for the given credentials, creating it if necessary.
+   *
+   * @param eveClientID  EVE SSO authentication client ID.
+   * @param eveSecretKey EVE SSO authentication secret key.
+   * @return shared OAuth service for these credentials.
+   */
+  public static OAuth20Service getService(String eveClientID, String eveSecretKey) {
+    return services.computeIfAbsent(new ServiceKey(eveClientID, eveSecretKey), SSOServiceRegistry::createService);
+  }
+
+  /**
+   * Discard all cached services.  New services will be created (with current timeout settings) on next use.
+   */
+  public static void clear() {
+    services.clear();
+  }
+
+  // Package-private for testing: build services against the given API, or EVE SSO if null.  Cached services
+  // are discarded.
+  static void setApi(DefaultApi20 newApi) {
+    api = newApi == null ? EVEApi.instance() : newApi;
+    clear();
+  }
+
+  private static OAuth20Service createService(ServiceKey key) {
+    JDKHttpClientConfig config = JDKHttpClientConfig.defaultConfig();
+    config.setConnectTimeout((int) OrbitalProperties.getLongGlobalProperty(PROP_SSO_CONNECT_TIMEOUT, DEF_SSO_CONNECT_TIMEOUT));
+    config.setReadTimeout((int) OrbitalProperties.getLongGlobalProperty(PROP_SSO_READ_TIMEOUT, DEF_SSO_READ_TIMEOUT));
+    return new ServiceBuilder().apiKey(key.clientID)
+                               .apiSecret(key.secretKey)
+                               .httpClientConfig(config)
+                               .build(api);
+  }
+
+}
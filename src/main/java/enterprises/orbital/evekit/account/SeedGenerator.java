@@ -0,0 +1,25 @@
+package enterprises.orbital.evekit.account;
+
+import java.security.SecureRandom;
+
+/**
+ * Source of the random seeds used to salt access key and temporary token hashes.  Each thread has its own
+ * SecureRandom, so seed generation doesn't contend on a shared generator.  Instances are created with the
+ * default (non-blocking) algorithm and self-seed on first use, so seeds don't depend on the current time and
+ * keys created concurrently receive independent seeds.
+ */
+public class SeedGenerator {
+
+  private static final ThreadLocal<SecureRandom> generator = ThreadLocal.withInitial(SecureRandom::new);
+
+  private SeedGenerator() {}
+
+  /**
+   * @return a new random seed.
+   */
+  public static long nextSeed() {
+    return generator.get()
+                    .nextLong();
+  }
+
+}
@@ -0,0 +1,114 @@
+package enterprises.orbital.evekit.account;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.LockModeType;
+import javax.persistence.Table;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent high water mark of a named sequence whose values are handed out in blocks.  Each reservation locks
+ * the row for the sequence, returns the current high water mark and advances it by the block size.  Values
+ * within a block are then handed out from memory by the reserving process (see AccessKeyAllocator), so only one
+ * database round trip is needed per block.
+ */
+@Entity
+@Table(
+    name = "evekit_sequence_block")
+public class SequenceBlock {
+  private static final Logger log = Logger.getLogger(SequenceBlock.class.getName());
+
+  // Sequence name
+  @Id
+  private String name;
+
+  // First value of the next block to reserve
+  private long nextValue;
+
+  protected SequenceBlock() {}
+
+  private SequenceBlock(String name, long nextValue) {
+    this.name = name;
+    this.nextValue = nextValue;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getNextValue() {
+    return nextValue;
+  }
+
+  /**
+   * Reserve a block of values from a named sequence.  The sequence is created if it doesn't exist.  This call
+   * must be made outside of any enclosing transaction, since creating the sequence may fail if another process
+   * creates it at the same time.
+   *
+   * @param name  the sequence to reserve from.
+   * @param size  the number of values to reserve.
+   * @param floor the lowest value which may be reserved.  This allows values issued by other means to be skipped.
+   * @return the first value of the reserved block.  The block consists of the values first through first + size - 1.
+   * @throws IOException on any database error.
+   */
+  public static long reserve(
+      final String name,
+      final long size,
+      final long floor)
+      throws IOException {
+    Long first = lockAndAdvance(name, size, floor);
+    if (first == null) {
+      // The sequence doesn't exist yet.  Two processes may both get here, in which case only one insert succeeds
+      // and the other process uses the row created by the winner.
+      create(name, floor);
+      first = lockAndAdvance(name, size, floor);
+      if (first == null) throw new IOException("Failed to create sequence " + name);
+    }
+    return first;
+  }
+
+  // Lock the row for a sequence and advance it by size, or return null if the sequence doesn't exist.
+  private static Long lockAndAdvance(
+      final String name,
+      final long size,
+      final long floor)
+      throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory()
+                                      .runTransaction(() -> {
+                                        EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                    .getEntityManager();
+                                        SequenceBlock block = em.find(SequenceBlock.class, name, LockModeType.PESSIMISTIC_WRITE);
+                                        if (block == null) return null;
+                                        long first = Math.max(block.nextValue, floor);
+                                        block.nextValue = first + size;
+                                        return first;
+                                      });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  // Insert the row for a sequence.  Failures are ignored since the most likely cause is that another process
+  // inserted the row first.  Any other problem is reported when the row can't be found afterwards.
+  private static void create(
+      final String name,
+      final long floor) {
+    try {
+      EveKitUserAccountProvider.getFactory()
+                               .runTransaction(() -> {
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .persist(new SequenceBlock(name, floor));
+                               });
+    } catch (Exception e) {
+      log.log(Level.FINE, "sequence " + name + " not created, assuming concurrent creation", e);
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+package enterprises.orbital.evekit.account;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory registry of per-account locks.  Each account ID maps to a fair ReentrantLock.  The same lock
+ * instance is returned for an account ID for as long as any caller holds a reference to it, so callers may
+ * keep the lock, lock it through any reference, wait on its conditions or synchronize on it.  The registry only
+ * holds locks weakly, so once no caller references a lock it is garbage collected and its entry is removed.
+ * The size of the registry is therefore bounded by the number of locks in use rather than the number of
+ * accounts ever seen.
+ * <p>
+ * Lookups go through a ConcurrentHashMap so callers acting on different accounts never contend with each other.
+ * Like the map it replaces, this registry is in-memory only and will not prevent separate processes from acting
+ * on a sync account concurrently.
+ */
+public class SyncAccountLockRegistry {
+
+  // Registry entry.  Remembers the account ID so the entry can be removed once the lock is collected.
+  private static final class Entry extends WeakReference<AccountLock> {
+    private final long aid;
+
+    private Entry(long aid, AccountLock lock, ReferenceQueue<AccountLock> queue) {
+      super(lock, queue);
+      this.aid = aid;
+    }
+  }
+
+  private final ConcurrentMap<Long, Entry> locks = new ConcurrentHashMap<>();
+
+  // Entries whose locks have been collected
+  private final ReferenceQueue<AccountLock> collected = new ReferenceQueue<>();
+
+  // Total number of lock acquisitions
+  private final AtomicLong acquisitions = new AtomicLong(0);
+
+  // Number of acquisitions which found the lock held by another thread
+  private final AtomicLong contentions = new AtomicLong(0);
+
+  /**
+   * Return the lock for the given account ID.  Every call returns the same instance for a given account ID
+   * while a reference to that instance is still held.
+   *
+   * @param aid the account ID to lock.
+   * @return the lock for the given account.
+   */
+  public ReentrantLock getLock(long aid) {
+    expunge();
+    while (true) {
+      Entry entry = locks.get(aid);
+      AccountLock lock = entry == null ? null : entry.get();
+      if (lock != null) return lock;
+      AccountLock created = new AccountLock();
+      Entry replacement = new Entry(aid, created, collected);
+      // Only install our lock if the entry hasn't changed in the meantime, otherwise look again
+      if (entry == null ? locks.putIfAbsent(aid, replacement) == null : locks.replace(aid, entry, replacement))
+        return created;
+    }
+  }
+
+  /**
+   * @return the number of locks currently held or waited on.
+   */
+  public int getLockCount() {
+    int count = 0;
+    for (Entry next : locks.values()) {
+      AccountLock lock = next.get();
+      if (lock != null && (lock.isLocked() || lock.hasQueuedThreads())) count++;
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of locks in the registry, including locks which are not in use but have not yet been
+   * collected.
+   */
+  public int getEntryCount() {
+    expunge();
+    return locks.size();
+  }
+
+  /**
+   * @return the total number of lock acquisitions since this registry was created.
+   */
+  public long getAcquisitionCount() {
+    return acquisitions.get();
+  }
+
+  /**
+   * @return the number of lock acquisitions which had to wait for another thread since this registry was created.
+   */
+  public long getContentionCount() {
+    return contentions.get();
+  }
+
+  // Remove entries for locks which have been collected.  An entry may already have been replaced by a new lock
+  // for the same account, in which case the new entry is left alone.
+  private void expunge() {
+    Reference<? extends AccountLock> next;
+    while ((next = collected.poll()) != null) {
+      Entry entry = (Entry) next;
+      locks.remove(entry.aid, entry);
+    }
+  }
+
+  // Fair reentrant lock which records acquisitions and contention in the registry.
+  private class AccountLock extends ReentrantLock {
+    private static final long serialVersionUID = 1L;
+
+    private AccountLock() {
+      super(true);
+    }
+
+    @Override
+    public void lock() {
+      if (!super.tryLock()) {
+        contentions.incrementAndGet();
+        super.lock();
+      }
+      acquisitions.incrementAndGet();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+      if (!super.tryLock()) {
+        contentions.incrementAndGet();
+        super.lockInterruptibly();
+      }
+      acquisitions.incrementAndGet();
+    }
+
+    @Override
+    public boolean tryLock() {
+      if (super.tryLock()) {
+        acquisitions.incrementAndGet();
+        return true;
+      }
+      contentions.incrementAndGet();
+      return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+      boolean locked = super.tryLock();
+      if (!locked) {
+        contentions.incrementAndGet();
+        locked = super.tryLock(time, unit);
+      }
+      if (locked) acquisitions.incrementAndGet();
+      return locked;
+    }
+  }
+
+}
@@ -15,9 +15,11 @@ import javax.persistence.*;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,6 +35,14 @@ import java.util.logging.Logger;
  * <li>If operation denied, caller receives error.
  * <li>Else, operation performed and data returned.
  * </ol>
+ * <p>
+ * Access key values were originally issued by GeneralSequenceNumber and referenced through a join on
+ * evekit_sequence.  Values are now also stored inline in accessKeyValue, which is what lookups use.  New keys
+ * always take their value from AccessKeyAllocator.  Keys created while inline access keys are enabled
+ * (PROP_INLINE_ACCESS_KEY) have no GeneralSequenceNumber at all, other keys also get a GeneralSequenceNumber with
+ * the same value so the join still resolves them.  Keys created before the inline column existed are converted by
+ * migrateAccessKeyValues.  Until that migration is complete, lookups which miss on the inline column fall back
+ * to the join (PROP_LEGACY_ACCESS_KEY_LOOKUP).
  */
 @Entity
 @Table(
@@ -46,6 +56,10 @@ import java.util.logging.Logger;
             name = "accessKeyIndex",
             columnList = "accessKey",
             unique = true),
+        @Index(
+            name = "accessKeyValueIndex",
+            columnList = "accessKeyValue",
+            unique = true),
         @Index(
             name = "keyNameIndex",
             columnList = "keyName",
@@ -63,16 +77,44 @@ import java.util.logging.Logger;
         query = "SELECT c FROM SynchronizedAccountAccessKey c where c.account = :account"),
     @NamedQuery(
         name = "SynchronizedAccountAccessKey.findByAccessKey",
-        query = "SELECT c FROM SynchronizedAccountAccessKey c where c.accessKey.value = :accesskey"),
+        query = "SELECT c FROM SynchronizedAccountAccessKey c LEFT JOIN FETCH c.accessKey where c.accessKeyValue = :accesskey"),
+    @NamedQuery(
+        name = "SynchronizedAccountAccessKey.findByAccessKeys",
+        query = "SELECT c FROM SynchronizedAccountAccessKey c LEFT JOIN FETCH c.accessKey JOIN FETCH c.account a JOIN FETCH a.userAccount where c.accessKeyValue IN :accesskeys"),
+    @NamedQuery(
+        name = "SynchronizedAccountAccessKey.findByLegacyAccessKey",
+        query = "SELECT c FROM SynchronizedAccountAccessKey c JOIN FETCH c.accessKey k where k.value = :accesskey and c.accessKeyValue is null"),
+    @NamedQuery(
+        name = "SynchronizedAccountAccessKey.findByLegacyAccessKeys",
+        query = "SELECT c FROM SynchronizedAccountAccessKey c JOIN FETCH c.accessKey k JOIN FETCH c.account a JOIN FETCH a.userAccount where k.value IN :accesskeys and c.accessKeyValue is null"),
+    @NamedQuery(
+        name = "SynchronizedAccountAccessKey.findUnmigrated",
+        query = "SELECT c FROM SynchronizedAccountAccessKey c JOIN FETCH c.accessKey where c.accessKeyValue is null order by c.kid asc"),
 })
 @ApiModel(
     description = "EveKit synchronized account access key")
 @JsonIgnoreProperties({
-    "randomSeed", "accessMask"
+    "randomSeed", "accessMask", "permissions", "accessKeyValue"
 })
 public class SynchronizedAccountAccessKey {
   protected static final Logger            log      = Logger.getLogger(SynchronizedAccountAccessKey.class.getName());
 
+  // If non-zero, new keys store their access key value only inline and don't create a GeneralSequenceNumber
+  public static final String PROP_INLINE_ACCESS_KEY = "enterprises.orbital.evekit.account.inlineAccessKey";
+  public static final long DEF_INLINE_ACCESS_KEY = 0;
+
+  // If non-zero, lookups which miss on the inline access key value retry through the GeneralSequenceNumber join.
+  // This can be disabled once migrateAccessKeyValues has completed.
+  public static final String PROP_LEGACY_ACCESS_KEY_LOOKUP = "enterprises.orbital.evekit.account.legacyAccessKeyLookup";
+  public static final long DEF_LEGACY_ACCESS_KEY_LOOKUP = 1;
+
+  // Number of keys converted per transaction by migrateAccessKeyValues
+  public static final String PROP_MIGRATION_BATCH_SIZE = "enterprises.orbital.evekit.account.accessKeyMigrationBatchSize";
+  public static final long DEF_MIGRATION_BATCH_SIZE = 500;
+
+  // Maximum number of key IDs resolved by a single query in checkHashes
+  protected static final int               CHECK_BATCH_SIZE = 500;
+
   protected static ThreadLocal<ByteBuffer> assembly = new ThreadLocal<ByteBuffer>() {
                                                       @Override
                                                       protected ByteBuffer initialValue() {
@@ -125,7 +167,8 @@ public class SynchronizedAccountAccessKey {
   @JsonProperty("keyName")
   private String                 keyName;
 
-  // Integer key ID. This is unique across all keys maintained by EveKit.
+  // Integer key ID. This is unique across all keys maintained by EveKit.  Null for keys created with inline
+  // access keys enabled.
   @OneToOne
   @JoinColumn(
       name = "accessKey",
@@ -135,6 +178,9 @@ public class SynchronizedAccountAccessKey {
   @JsonProperty("accessKey")
   private GeneralSequenceNumber  accessKey;
 
+  // Inline copy of the integer key ID.  Null only for keys not yet converted by migrateAccessKeyValues.
+  private Long                   accessKeyValue;
+
   // Fixed at the time this key is created, we use this field to randomize the hash.
   private long                   randomSeed;
 
@@ -181,6 +227,34 @@ public class SynchronizedAccountAccessKey {
   @JsonProperty("maskValueString")
   private String                 maskValueString;
 
+  // Decoded form of accessMask.  Decoded on first use and discarded when the mask is replaced.
+  @Transient
+  private volatile AccountAccessPermissions permissions;
+
+  public SynchronizedAccountAccessKey() {}
+
+  /**
+   * Create a detached copy of a key.  The access mask is copied, the account and access key references and
+   * the decoded permissions are shared.
+   *
+   * @param other the key to copy.
+   */
+  public SynchronizedAccountAccessKey(SynchronizedAccountAccessKey other) {
+    kid = other.kid;
+    account = other.account;
+    keyName = other.keyName;
+    accessKey = other.accessKey;
+    accessKeyValue = other.accessKeyValue;
+    randomSeed = other.randomSeed;
+    expiry = other.expiry;
+    limit = other.limit;
+    accessMask = other.accessMask == null ? null : other.accessMask.clone();
+    credential = other.credential;
+    maskValue = other.maskValue;
+    maskValueString = other.maskValueString;
+    permissions = other.permissions;
+  }
+
   public SynchronizedEveAccount getSyncAccount() {
     return account;
   }
@@ -191,7 +265,15 @@ public class SynchronizedAccountAccessKey {
   }
 
   public long getAccessKey() {
-    return accessKey.getValue();
+    return accessKeyValue != null ? accessKeyValue : accessKey.getValue();
+  }
+
+  GeneralSequenceNumber getAccessKeySequence() {
+    return accessKey;
+  }
+
+  Long getAccessKeyValue() {
+    return accessKeyValue;
   }
 
   public String getKeyName() {
@@ -237,6 +319,32 @@ public class SynchronizedAccountAccessKey {
   public void setAccessMask(
                             byte[] accessMask) {
     this.accessMask = accessMask;
+    this.permissions = null;
+  }
+
+  /**
+   * Get the decoded access mask of this key.  The mask is decoded once and retained, so changes made to the array
+   * returned by getAccessMask are not reflected unless the mask is replaced with setAccessMask.
+   *
+   * @return the decoded access mask.
+   */
+  public AccountAccessPermissions getPermissions() {
+    AccountAccessPermissions result = permissions;
+    if (result == null) {
+      result = AccountAccessPermissions.decode(accessMask);
+      permissions = result;
+    }
+    return result;
+  }
+
+  /**
+   * Check whether this key allows the given type of access.
+   *
+   * @param test the access type to check.
+   * @return true if access is allowed, false otherwise.
+   */
+  public boolean isAccessAllowed(AccountAccessMask test) {
+    return getPermissions().isAccessAllowed(test);
   }
 
   public String getCredential() {
@@ -271,6 +379,7 @@ public class SynchronizedAccountAccessKey {
     final int prime = 31;
     int result = 1;
     result = prime * result + ((accessKey == null) ? 0 : accessKey.hashCode());
+    result = prime * result + ((accessKeyValue == null) ? 0 : accessKeyValue.hashCode());
     result = prime * result + Arrays.hashCode(accessMask);
     result = prime * result + ((account == null) ? 0 : account.hashCode());
     result = prime * result + ((credential == null) ? 0 : credential.hashCode());
@@ -292,6 +401,9 @@ public class SynchronizedAccountAccessKey {
     if (accessKey == null) {
       if (other.accessKey != null) return false;
     } else if (!accessKey.equals(other.accessKey)) return false;
+    if (accessKeyValue == null) {
+      if (other.accessKeyValue != null) return false;
+    } else if (!accessKeyValue.equals(other.accessKeyValue)) return false;
     if (!Arrays.equals(accessMask, other.accessMask)) return false;
     if (account == null) {
       if (other.account != null) return false;
@@ -311,14 +423,14 @@ public class SynchronizedAccountAccessKey {
 
   @Override
   public String toString() {
-    return "SynchronizedAccountAccessKey [kid=" + kid + ", account=" + account + ", keyName=" + keyName + ", accessKey=" + accessKey + ", randomSeed="
+    return "SynchronizedAccountAccessKey [kid=" + kid + ", account=" + account + ", keyName=" + keyName + ", accessKey=" + accessKey + ", accessKeyValue=" + accessKeyValue + ", randomSeed="
         + randomSeed + ", expiry=" + expiry + ", limit=" + limit + ", accessMask=" + Arrays.toString(accessMask) + ", credential=" + credential + ", maskValue="
         + maskValue + ", maskValueString=" + maskValueString + "]";
   }
 
   /**
    * Create a new account access key. The key is created in a transaction and will succeed as long as a key with the same name does not already exist for the
-   * given SynchronizedEveAccount.
+   * given SynchronizedEveAccount.  The access key value is stored inline if PROP_INLINE_ACCESS_KEY is enabled.
    *
    * @param account the parent for the new key.
    * @param keyName    the name of the new key.
@@ -336,6 +448,21 @@ public class SynchronizedAccountAccessKey {
       final long limit,
       final byte[] accessMask)
       throws AccessKeyCreationException, IOException {
+    return createKey(account, keyName, expiry, limit, accessMask, inlineAccessKeyEnabled());
+  }
+
+  static SynchronizedAccountAccessKey createKey(
+      final SynchronizedEveAccount account,
+      final String keyName,
+      final long expiry,
+      final long limit,
+      final byte[] accessMask,
+      final boolean inline)
+      throws AccessKeyCreationException, IOException {
+    // Allocate outside the transaction below so a rollback can't undo a block reservation.  Keys created without
+    // inline access keys take their value from the allocator as well, since values drawn from the database
+    // sequence could collide with values in blocks reserved by the allocator.
+    final long value = AccessKeyAllocator.nextValue();
     try {
       return EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
@@ -345,7 +472,7 @@ public class SynchronizedAccountAccessKey {
                                           throw new AccessKeyCreationException("Access key with name " + keyName + " already exists");
                                         } catch (AccessKeyNotFoundException e) {
                                           // Key does not exit, creat it
-                                          long seed = new Random(OrbitalProperties.getCurrentTime()).nextLong();
+                                          long seed = SeedGenerator.nextSeed();
                                           SynchronizedAccountAccessKey result = new SynchronizedAccountAccessKey();
                                           result.account = account;
                                           result.keyName = keyName;
@@ -353,7 +480,8 @@ public class SynchronizedAccountAccessKey {
                                           result.limit = limit;
                                           result.accessMask = accessMask;
                                           result.randomSeed = seed;
-                                          result.accessKey = GeneralSequenceNumber.create();
+                                          result.accessKeyValue = value;
+                                          if (!inline) result.accessKey = GeneralSequenceNumber.create(value);
                                           return EveKitUserAccountProvider.getFactory()
                                                                           .getEntityManager()
                                                                           .merge(result);
@@ -455,6 +583,16 @@ public class SynchronizedAccountAccessKey {
                                                                                                                    .getEntityManager()
                                                                                                                    .createNamedQuery("SynchronizedAccountAccessKey.findByAccessKey", SynchronizedAccountAccessKey.class);
                                         getter.setParameter("accesskey", accessKey);
+                                        try {
+                                          return getter.getSingleResult();
+                                        } catch (NoResultException e) {
+                                          if (!legacyLookupEnabled()) throw new AccessKeyNotFoundException();
+                                        }
+                                        // Key may not have been migrated yet
+                                        getter = EveKitUserAccountProvider.getFactory()
+                                                                          .getEntityManager()
+                                                                          .createNamedQuery("SynchronizedAccountAccessKey.findByLegacyAccessKey", SynchronizedAccountAccessKey.class);
+                                        getter.setParameter("accesskey", accessKey);
                                         try {
                                           return getter.getSingleResult();
                                         } catch (NoResultException e) {
@@ -508,13 +646,15 @@ public class SynchronizedAccountAccessKey {
       final long kid)
       throws AccessKeyNotFoundException, IOException {
     try {
-      EveKitUserAccountProvider.getFactory()
-                               .runTransaction(() -> {
-                                 SynchronizedAccountAccessKey key = getKeyByOwnerAndID(owner, kid);
-                                 EveKitUserAccountProvider.getFactory()
-                                                          .getEntityManager()
-                                                          .remove(key);
-                               });
+      long keyID = EveKitUserAccountProvider.getFactory()
+                                            .runTransaction(() -> {
+                                              SynchronizedAccountAccessKey key = getKeyByOwnerAndID(owner, kid);
+                                              EveKitUserAccountProvider.getFactory()
+                                                                       .getEntityManager()
+                                                                       .remove(key);
+                                              return key.getAccessKey();
+                                            });
+      AccessKeyCredentialCache.invalidateKey(keyID);
     } catch (Exception e) {
       if (e.getCause() instanceof AccessKeyNotFoundException) throw (AccessKeyNotFoundException) e.getCause();
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
@@ -546,28 +686,30 @@ public class SynchronizedAccountAccessKey {
       final byte[] accessMask)
       throws AccessKeyNotFoundException, AccessKeyUpdateException, IOException {
     try {
-      return EveKitUserAccountProvider.getFactory()
-                                      .runTransaction(() -> {
-                                        // Retrieve key to update
-                                        SynchronizedAccountAccessKey key = getKeyByOwnerAndName(owner, keyName);
-                                        if (!keyName.equals(newKeyName)) {
-                                          // We're changing key name, make sure the new name is not already in use
-                                          try {
-                                            getKeyByOwnerAndName(owner, newKeyName);
-                                            throw new AccessKeyUpdateException("Key already exists with new name: " + newKeyName);
-                                          } catch (AccessKeyNotFoundException e) {
-                                            // Key not in use - continue
-                                          }
-                                          key.keyName = newKeyName;
-                                        }
-                                        // Make other key changes
-                                        key.setExpiry(expiry);
-                                        key.setLimit(limit);
-                                        key.setAccessMask(accessMask);
-                                        return EveKitUserAccountProvider.getFactory()
-                                                                        .getEntityManager()
-                                                                        .merge(key);
-                                      });
+      SynchronizedAccountAccessKey result = EveKitUserAccountProvider.getFactory()
+                                                                     .runTransaction(() -> {
+                                                                       // Retrieve key to update
+                                                                       SynchronizedAccountAccessKey key = getKeyByOwnerAndName(owner, keyName);
+                                                                       if (!keyName.equals(newKeyName)) {
+                                                                         // We're changing key name, make sure the new name is not already in use
+                                                                         try {
+                                                                           getKeyByOwnerAndName(owner, newKeyName);
+                                                                           throw new AccessKeyUpdateException("Key already exists with new name: " + newKeyName);
+                                                                         } catch (AccessKeyNotFoundException e) {
+                                                                           // Key not in use - continue
+                                                                         }
+                                                                         key.keyName = newKeyName;
+                                                                       }
+                                                                       // Make other key changes
+                                                                       key.setExpiry(expiry);
+                                                                       key.setLimit(limit);
+                                                                       key.setAccessMask(accessMask);
+                                                                       return EveKitUserAccountProvider.getFactory()
+                                                                                                       .getEntityManager()
+                                                                                                       .merge(key);
+                                                                     });
+      AccessKeyCredentialCache.invalidateKey(result.getAccessKey());
+      return result;
     } catch (Exception e) {
       if (e.getCause() instanceof AccessKeyNotFoundException) throw (AccessKeyNotFoundException) e.getCause();
       if (e.getCause() instanceof AccessKeyUpdateException) throw (AccessKeyUpdateException) e.getCause();
@@ -582,19 +724,11 @@ public class SynchronizedAccountAccessKey {
   }
 
   public void generateMaskValue() {
-    BigInteger value = new BigInteger("0");
-
-    for (AccountAccessMask next : AccountAccessMask.values()) {
-      if (AccountAccessMask.isAccessAllowed(accessMask, next)) {
-        value = value.flipBit(next.getMaskValue());
-      }
-    }
-
-    setMaskValue(value);
+    setMaskValue(getPermissions().getMaskValue());
   }
 
   public void generateMaskValueString() {
-    setMaskValueString(AccountAccessMask.stringifyMask(accessMask));
+    setMaskValueString(getPermissions().getMaskValueString());
   }
 
   public static String generateHash(
@@ -619,7 +753,9 @@ public class SynchronizedAccountAccessKey {
   }
 
   /**
-   * Verify hash and return associated access key, or null if the has is incorrect.
+   * Verify hash and return associated access key, or null if the has is incorrect.  Verified credentials are
+   * cached (see AccessKeyCredentialCache) so repeated checks of the same credential don't need to load the key
+   * or recompute the hash.
    *
    * @param keyID         submitted key ID
    * @param submittedHash submitted hash
@@ -631,8 +767,134 @@ public class SynchronizedAccountAccessKey {
       long keyID,
       String submittedHash)
       throws AccessKeyNotFoundException, IOException {
+    SynchronizedAccountAccessKey cached = AccessKeyCredentialCache.get(keyID, submittedHash);
+    if (cached != null) return cached;
+    long generation = AccessKeyCredentialCache.getGeneration();
     SynchronizedAccountAccessKey accessKey = getKeyByAccessKey(keyID);
-    return generateHash(accessKey).equals(submittedHash) ? accessKey : null;
+    if (!generateHash(accessKey).equals(submittedHash)) return null;
+    AccessKeyCredentialCache.put(keyID, submittedHash, accessKey, generation);
+    return accessKey;
+  }
+
+  /**
+   * Verify a batch of credentials.  Credentials which are not already cached are resolved with one query per
+   * CHECK_BATCH_SIZE key IDs which also loads the owning account and user, then verified in memory.  A second
+   * query is needed for key IDs which aren't found while legacy lookups are enabled.
+   *
+   * @param credentials submitted hashes by key ID.
+   * @return the verified access keys by key ID.  Key IDs which could not be found or which have an incorrect hash
+   * are omitted.
+   * @throws IOException on any database error.
+   */
+  public static Map<Long, SynchronizedAccountAccessKey> checkHashes(
+      Map<Long, String> credentials)
+      throws IOException {
+    Map<Long, SynchronizedAccountAccessKey> result = new HashMap<>();
+    List<Long> missed = new ArrayList<>();
+    for (Map.Entry<Long, String> next : credentials.entrySet()) {
+      SynchronizedAccountAccessKey cached = AccessKeyCredentialCache.get(next.getKey(), next.getValue());
+      if (cached != null)
+        result.put(next.getKey(), cached);
+      else
+        missed.add(next.getKey());
+    }
+    for (int i = 0; i < missed.size(); i += CHECK_BATCH_SIZE) {
+      final List<Long> batch = missed.subList(i, Math.min(missed.size(), i + CHECK_BATCH_SIZE));
+      long generation = AccessKeyCredentialCache.getGeneration();
+      List<SynchronizedAccountAccessKey> keys;
+      try {
+        keys = EveKitUserAccountProvider.getFactory()
+                                        .runTransaction(() -> {
+                                          TypedQuery<SynchronizedAccountAccessKey> getter = EveKitUserAccountProvider.getFactory()
+                                                                                                                     .getEntityManager()
+                                                                                                                     .createNamedQuery("SynchronizedAccountAccessKey.findByAccessKeys", SynchronizedAccountAccessKey.class);
+                                          getter.setParameter("accesskeys", batch);
+                                          List<SynchronizedAccountAccessKey> found = new ArrayList<>(getter.getResultList());
+                                          if (found.size() < batch.size() && legacyLookupEnabled()) {
+                                            // Some keys may not have been migrated yet
+                                            List<Long> remaining = new ArrayList<>(batch);
+                                            for (SynchronizedAccountAccessKey next : found) remaining.remove(Long.valueOf(next.getAccessKey()));
+                                            getter = EveKitUserAccountProvider.getFactory()
+                                                                              .getEntityManager()
+                                                                              .createNamedQuery("SynchronizedAccountAccessKey.findByLegacyAccessKeys", SynchronizedAccountAccessKey.class);
+                                            getter.setParameter("accesskeys", remaining);
+                                            found.addAll(getter.getResultList());
+                                          }
+                                          return found;
+                                        });
+      } catch (Exception e) {
+        if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+        log.log(Level.SEVERE, "query error", e);
+        throw new IOException(e.getCause());
+      }
+      for (SynchronizedAccountAccessKey next : keys) {
+        long keyID = next.getAccessKey();
+        String submittedHash = credentials.get(keyID);
+        if (generateHash(next).equals(submittedHash)) {
+          AccessKeyCredentialCache.put(keyID, submittedHash, next, generation);
+          result.put(keyID, next);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static boolean inlineAccessKeyEnabled() {
+    return OrbitalProperties.getLongGlobalProperty(PROP_INLINE_ACCESS_KEY, DEF_INLINE_ACCESS_KEY) != 0;
+  }
+
+  private static boolean legacyLookupEnabled() {
+    return OrbitalProperties.getLongGlobalProperty(PROP_LEGACY_ACCESS_KEY_LOOKUP, DEF_LEGACY_ACCESS_KEY_LOOKUP) != 0;
+  }
+
+  /**
+   * Copy the access key value of keys created before the inline column existed into the inline column.  The
+   * value is unchanged, so credentials issued for these keys remain valid.  The GeneralSequenceNumber reference
+   * is retained.
+   *
+   * @param batchSize maximum number of keys to convert.
+   * @return the number of keys converted.  Zero means there are no more keys to convert.
+   * @throws IOException on any database error.
+   */
+  public static int migrateAccessKeyValues(
+      final int batchSize)
+      throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory()
+                                      .runTransaction(() -> {
+                                        TypedQuery<SynchronizedAccountAccessKey> getter = EveKitUserAccountProvider.getFactory()
+                                                                                                                   .getEntityManager()
+                                                                                                                   .createNamedQuery("SynchronizedAccountAccessKey.findUnmigrated", SynchronizedAccountAccessKey.class);
+                                        getter.setMaxResults(batchSize);
+                                        List<SynchronizedAccountAccessKey> batch = getter.getResultList();
+                                        for (SynchronizedAccountAccessKey next : batch) {
+                                          next.accessKeyValue = next.accessKey.getValue();
+                                        }
+                                        return batch.size();
+                                      });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Convert all keys created before the inline column existed, in batches of PROP_MIGRATION_BATCH_SIZE.
+   *
+   * @return the number of keys converted.
+   * @throws IOException on any database error.
+   */
+  public static long migrateAccessKeyValues() throws IOException {
+    int batchSize = (int) OrbitalProperties.getLongGlobalProperty(PROP_MIGRATION_BATCH_SIZE, DEF_MIGRATION_BATCH_SIZE);
+    long total = 0;
+    int converted;
+    do {
+      converted = migrateAccessKeyValues(batchSize);
+      total += converted;
+    } while (converted > 0);
+    if (total > 0) log.info("Migrated " + total + " access key values");
+    return total;
   }
 
   /**
@@ -653,6 +915,7 @@ public class SynchronizedAccountAccessKey {
                                                             .remove(next);
                                  }
                                });
+      AccessKeyCredentialCache.invalidateAccount(acct.getAid());
     } catch (Exception e) {
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
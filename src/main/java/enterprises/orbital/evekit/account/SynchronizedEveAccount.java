@@ -1,20 +1,16 @@
 package enterprises.orbital.evekit.account;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.github.scribejava.core.builder.ServiceBuilder;
 import com.github.scribejava.core.exceptions.OAuthException;
 import com.github.scribejava.core.model.OAuth2AccessToken;
 import com.github.scribejava.core.model.OAuth2AccessTokenErrorResponse;
 import com.github.scribejava.core.model.OAuthRequest;
 import com.github.scribejava.core.model.Verb;
-import com.github.scribejava.core.oauth.OAuth20Service;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import enterprises.orbital.base.OrbitalProperties;
 import enterprises.orbital.base.PersistentPropertyKey;
-import enterprises.orbital.evekit.model.ESIEndpointSyncTracker;
-import enterprises.orbital.evekit.model.SyncTracker;
-import enterprises.orbital.oauth.EVEApi;
+import enterprises.orbital.evekit.model.ESIEndpointSyncTrackerCache;
 import enterprises.orbital.oauth.EVEAuthHandler;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
@@ -22,6 +18,11 @@ import io.swagger.annotations.ApiModelProperty;
 import javax.persistence.*;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -103,6 +104,14 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
   // Not configurable for now.
   private static final int TOKEN_LOCK_RETRY_ATTEMPTS = 3;
 
+  // Maximum number of concurrent SSO token refresh calls across all accounts
+  public static final String PROP_MAX_CONCURRENT_TOKEN_REFRESH = "enterprises.orbital.evekit.account.maxConcurrentTokenRefresh";
+  public static final long DEF_MAX_CONCURRENT_TOKEN_REFRESH = 10;
+
+  // Maximum number of trackers deleted per transaction when removing an account
+  public static final String PROP_REMOVE_CHUNK_SIZE = "enterprises.orbital.evekit.account.removeChunkSize";
+  public static final long DEF_REMOVE_CHUNK_SIZE = 5000;
+
   // Unique account ID
   @Id
   @GeneratedValue(
@@ -580,7 +589,7 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
                                                      final long id)
       throws AccountNotFoundException, IOException {
     try {
-      return EveKitUserAccountProvider.getFactory()
+      SynchronizedEveAccount result = EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
                                         SynchronizedEveAccount acct = getSynchronizedAccount(owner, id, false);
                                         if (acct == null)
@@ -595,6 +604,9 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
                                                                         .getEntityManager()
                                                                         .merge(acct);
                                       });
+      // Cached credentials carry a copy of the account
+      AccessKeyCredentialCache.invalidateAccount(id);
+      return result;
     } catch (Exception e) {
       if (e.getCause() instanceof AccountNotFoundException)
         throw (AccountNotFoundException) e.getCause();
@@ -617,7 +629,7 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
                                                       final long id)
       throws AccountNotFoundException, IOException {
     try {
-      return EveKitUserAccountProvider.getFactory()
+      SynchronizedEveAccount result = EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
                                         SynchronizedEveAccount acct = getSynchronizedAccount(owner, id, true);
                                         if (acct == null)
@@ -629,6 +641,9 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
                                                                         .getEntityManager()
                                                                         .merge(acct);
                                       });
+      // Cached credentials carry a copy of the account
+      AccessKeyCredentialCache.invalidateAccount(id);
+      return result;
     } catch (Exception e) {
       if (e.getCause() instanceof AccountNotFoundException)
         throw (AccountNotFoundException) e.getCause();
@@ -761,6 +776,7 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
                                           result.eveCorporationID = -1;
                                           result.eveCorporationName = null;
                                         }
+                                        tokenCache.remove(id);
                                         return update(result);
                                       });
     } catch (Exception e) {
@@ -892,6 +908,7 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
                                         result.eveCharacterName = characterName;
                                         result.eveCorporationID = corporationID;
                                         result.eveCorporationName = corporationName;
+                                        tokenCache.remove(id);
                                         return update(result);
                                       });
     } catch (Exception e) {
@@ -956,89 +973,194 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
   }
 
   /**
-   * Remove a synchronized account including any linked account access keys.
+   * Remove a synchronized account including any linked trackers and account access keys.
    * If this call returns without throwing an exception, then the account was successfully removed.
    *
    * @param toRemove the account to remove
+   * @return rows deleted and time spent for each phase of the removal.
    * @throws IOException on any database error.
    */
-  public static void remove(final SynchronizedEveAccount toRemove) throws IOException {
+  public static AccountRemovalReport remove(final SynchronizedEveAccount toRemove) throws IOException {
+    return remove(toRemove, (int) OrbitalProperties.getLongGlobalProperty(PROP_REMOVE_CHUNK_SIZE, DEF_REMOVE_CHUNK_SIZE),
+                  null);
+  }
+
+  /**
+   * Remove a synchronized account including any linked trackers and account access keys.
+   * Trackers are removed with bulk deletes in chunks of at most chunkSize rows, ordered by tracker ID.
+   * Each chunk is committed separately, so a removal which fails part way can be resumed by calling
+   * this method again.
+   *
+   * @param toRemove  the account to remove
+   * @param chunkSize maximum number of trackers to delete in a single transaction
+   * @param listener  if not null, notified after each chunk is committed
+   * @return rows deleted and time spent for each phase of the removal.
+   * @throws IOException on any database error, or if thrown by the listener.
+   */
+  public static AccountRemovalReport remove(final SynchronizedEveAccount toRemove, final int chunkSize,
+                                            final AccountRemovalReport.ChunkListener listener) throws IOException {
+    final long aid = toRemove.getAid();
+    final AccountRemovalReport report = new AccountRemovalReport(aid);
     try {
-      // Remove Sync Trackers
-      // Set of sync trackers could be quite large so we remove those in batches
-      long lastRemoved;
-      do {
-        lastRemoved = EveKitUserAccountProvider.getFactory()
-                                               .runTransaction(() -> {
-                                                 long removed = 0;
-                                                 TypedQuery<SyncTracker> query = EveKitUserAccountProvider.getFactory()
-                                                                                                          .getEntityManager()
-                                                                                                          .createQuery(
-                                                                                                              "SELECT c FROM SyncTracker c where c.account = :account",
-                                                                                                              SyncTracker.class);
-                                                 query.setParameter("account", toRemove);
-                                                 query.setMaxResults(1000);
-                                                 for (SyncTracker next : query.getResultList()) {
-                                                   EveKitUserAccountProvider.getFactory()
-                                                                            .getEntityManager()
-                                                                            .remove(next);
-                                                   removed++;
-                                                 }
-                                                 return removed;
-                                               });
-      } while (lastRemoved > 0);
+      // Remove Sync Trackers.  SyncTracker uses JOINED inheritance so subclass rows are removed before the
+      // base rows which identify them.
+      long phaseStart = OrbitalProperties.getCurrentTime();
+      long total = 0;
+      long lastTID = Long.MIN_VALUE;
+      while (true) {
+        final long lo = lastTID;
+        final long hi = findChunkBound("SELECT tid FROM evekit_sync WHERE aid = :aid AND tid > :tid ORDER BY tid",
+                                       aid, lo, chunkSize);
+        long removed = EveKitUserAccountProvider.getFactory()
+                                                .runTransaction(() -> {
+                                                  EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                              .getEntityManager();
+                                                  for (String table : new String[]{"evekit_char_sync", "evekit_corp_sync"}) {
+                                                    em.createNativeQuery(
+                                                        "DELETE FROM " + table + " WHERE tid IN (SELECT tid FROM evekit_sync WHERE aid = :aid AND tid > :lo AND tid <= :hi)")
+                                                      .setParameter("aid", aid)
+                                                      .setParameter("lo", lo)
+                                                      .setParameter("hi", hi)
+                                                      .executeUpdate();
+                                                  }
+                                                  return (long) em.createNativeQuery(
+                                                      "DELETE FROM evekit_sync WHERE aid = :aid AND tid > :lo AND tid <= :hi")
+                                                                  .setParameter("aid", aid)
+                                                                  .setParameter("lo", lo)
+                                                                  .setParameter("hi", hi)
+                                                                  .executeUpdate();
+                                                });
+        total += removed;
+        if (listener != null && removed > 0) listener.chunkRemoved(aid, AccountRemovalReport.PHASE_SYNC_TRACKERS, removed);
+        if (hi == Long.MAX_VALUE) break;
+        lastTID = hi;
+      }
+      report.addPhase(AccountRemovalReport.PHASE_SYNC_TRACKERS, total, OrbitalProperties.getCurrentTime() - phaseStart);
+
       // Remove ESI sync trackers as well
-      do {
-        lastRemoved = EveKitUserAccountProvider.getFactory()
-                                               .runTransaction(() -> {
-                                                 long removed = 0;
-                                                 TypedQuery<ESIEndpointSyncTracker> query = EveKitUserAccountProvider.getFactory()
-                                                                                                                     .getEntityManager()
-                                                                                                                     .createQuery(
-                                                                                                              "SELECT c FROM ESIEndpointSyncTracker c where c.account = :account",
-                                                                                                              ESIEndpointSyncTracker.class);
-                                                 query.setParameter("account", toRemove);
-                                                 query.setMaxResults(1000);
-                                                 for (ESIEndpointSyncTracker next : query.getResultList()) {
-                                                   EveKitUserAccountProvider.getFactory()
-                                                                            .getEntityManager()
-                                                                            .remove(next);
-                                                   removed++;
-                                                 }
-                                                 return removed;
-                                               });
-      } while (lastRemoved > 0);
-      // Remove Access Keys
-      EveKitUserAccountProvider.getFactory()
-                               .runTransaction(() -> {
-                                 TypedQuery<SynchronizedAccountAccessKey> query = EveKitUserAccountProvider.getFactory()
-                                                                                                           .getEntityManager()
-                                                                                                           .createQuery(
-                                                                                                               "SELECT c FROM SynchronizedAccountAccessKey c where c.account = :account",
-                                                                                                               SynchronizedAccountAccessKey.class);
-                                 query.setParameter("account", toRemove);
-                                 for (SynchronizedAccountAccessKey next : query.getResultList()) {
-                                   EveKitUserAccountProvider.getFactory()
-                                                            .getEntityManager()
-                                                            .remove(next);
-                                 }
-                               });
+      phaseStart = OrbitalProperties.getCurrentTime();
+      total = 0;
+      lastTID = Long.MIN_VALUE;
+      while (true) {
+        final long lo = lastTID;
+        final long hi = findChunkBound(
+            "SELECT tid FROM evekit_esi_sync_tracker WHERE aid = :aid AND tid > :tid ORDER BY tid", aid, lo,
+            chunkSize);
+        long removed = EveKitUserAccountProvider.getFactory()
+                                                .runTransaction(() -> (long) EveKitUserAccountProvider.getFactory()
+                                                                                                      .getEntityManager()
+                                                                                                      .createQuery(
+                                                                                                          "DELETE FROM ESIEndpointSyncTracker c WHERE c.account = :account AND c.tid > :lo AND c.tid <= :hi")
+                                                                                                      .setParameter("account", toRemove)
+                                                                                                      .setParameter("lo", lo)
+                                                                                                      .setParameter("hi", hi)
+                                                                                                      .executeUpdate());
+        total += removed;
+        if (listener != null && removed > 0) listener.chunkRemoved(aid, AccountRemovalReport.PHASE_ESI_TRACKERS, removed);
+        if (hi == Long.MAX_VALUE) break;
+        lastTID = hi;
+      }
+      // Archived ESI sync trackers are counted in the same phase
+      lastTID = Long.MIN_VALUE;
+      while (true) {
+        final long lo = lastTID;
+        final long hi = findChunkBound(
+            "SELECT tid FROM evekit_esi_sync_tracker_archive WHERE aid = :aid AND tid > :tid ORDER BY tid", aid, lo,
+            chunkSize);
+        long removed = EveKitUserAccountProvider.getFactory()
+                                                .runTransaction(() -> (long) EveKitUserAccountProvider.getFactory()
+                                                                                                      .getEntityManager()
+                                                                                                      .createQuery(
+                                                                                                          "DELETE FROM ESIEndpointSyncTrackerArchive c WHERE c.account = :account AND c.tid > :lo AND c.tid <= :hi")
+                                                                                                      .setParameter("account", toRemove)
+                                                                                                      .setParameter("lo", lo)
+                                                                                                      .setParameter("hi", hi)
+                                                                                                      .executeUpdate());
+        total += removed;
+        if (listener != null && removed > 0) listener.chunkRemoved(aid, AccountRemovalReport.PHASE_ESI_TRACKERS, removed);
+        if (hi == Long.MAX_VALUE) break;
+        lastTID = hi;
+      }
+      ESIEndpointSyncTrackerCache.evict(aid);
+      report.addPhase(AccountRemovalReport.PHASE_ESI_TRACKERS, total, OrbitalProperties.getCurrentTime() - phaseStart);
+
+      // Remove Access Keys.  There are never many of these so we remove them as entities.
+      phaseStart = OrbitalProperties.getCurrentTime();
+      long keysRemoved = EveKitUserAccountProvider.getFactory()
+                                                  .runTransaction(() -> {
+                                                    long removed = 0;
+                                                    TypedQuery<SynchronizedAccountAccessKey> query = EveKitUserAccountProvider.getFactory()
+                                                                                                                              .getEntityManager()
+                                                                                                                              .createQuery(
+                                                                                                                                  "SELECT c FROM SynchronizedAccountAccessKey c where c.account = :account",
+                                                                                                                                  SynchronizedAccountAccessKey.class);
+                                                    query.setParameter("account", toRemove);
+                                                    for (SynchronizedAccountAccessKey next : query.getResultList()) {
+                                                      EveKitUserAccountProvider.getFactory()
+                                                                               .getEntityManager()
+                                                                               .remove(next);
+                                                      removed++;
+                                                    }
+                                                    return removed;
+                                                  });
+      AccessKeyCredentialCache.invalidateAccount(aid);
+      if (listener != null && keysRemoved > 0) listener.chunkRemoved(aid, AccountRemovalReport.PHASE_ACCESS_KEYS, keysRemoved);
+      report.addPhase(AccountRemovalReport.PHASE_ACCESS_KEYS, keysRemoved, OrbitalProperties.getCurrentTime() - phaseStart);
+
       // Remove account
+      phaseStart = OrbitalProperties.getCurrentTime();
+      tokenCache.remove(aid);
       EveKitUserAccountProvider.getFactory()
                                .runTransaction(() -> {
                                  // Refetch the account so we remove an attached instance
                                  EveKitUserAccountProvider.getFactory()
                                                           .getEntityManager()
                                                           .remove(SynchronizedEveAccount.getSynchronizedAccount(
-                                                              toRemove.getUserAccount(), toRemove.getAid(), true));
+                                                              toRemove.getUserAccount(), aid, true));
                                });
+      if (listener != null) listener.chunkRemoved(aid, AccountRemovalReport.PHASE_ACCOUNT, 1);
+      report.addPhase(AccountRemovalReport.PHASE_ACCOUNT, 1, OrbitalProperties.getCurrentTime() - phaseStart);
 
     } catch (Exception e) {
+      if (e instanceof IOException) throw (IOException) e;
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
       throw new IOException(e.getCause());
     }
 
+    log.info("Removed account " + report);
+    return report;
+  }
+
+  /**
+   * Find the upper tracker ID bound (inclusive) of the next removal chunk.
+   *
+   * @param query     native query selecting tracker IDs greater than :tid for account :aid in increasing order
+   * @param aid       account ID
+   * @param lastTID   upper bound of the previous chunk
+   * @param chunkSize maximum chunk size
+   * @return the tracker ID which ends the next chunk, or Long.MAX_VALUE if fewer than chunkSize trackers remain.
+   * @throws IOException on any database error.
+   */
+  private static long findChunkBound(String query, long aid, long lastTID, int chunkSize) throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory()
+                                      .runTransaction(() -> {
+                                        List<?> bound = EveKitUserAccountProvider.getFactory()
+                                                                                 .getEntityManager()
+                                                                                 .createNativeQuery(query)
+                                                                                 .setParameter("aid", aid)
+                                                                                 .setParameter("tid", lastTID)
+                                                                                 .setFirstResult(Math.max(1, chunkSize) - 1)
+                                                                                 .setMaxResults(1)
+                                                                                 .getResultList();
+                                        return bound.isEmpty() ? Long.MAX_VALUE : ((Number) bound.get(0)).longValue();
+                                      });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
   }
 
   /**
@@ -1071,8 +1193,64 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
     return false;
   }
 
+  // Snapshot of ESI token state produced by a refresh.  Shared with any callers which were waiting
+  // on the same in-flight refresh.
+  private static final class TokenState {
+    private final String accessToken;
+    private final long accessTokenExpiry;
+    private final String refreshToken;
+
+    private TokenState(SynchronizedEveAccount source) {
+      this.accessToken = source.accessToken;
+      this.accessTokenExpiry = source.accessTokenExpiry;
+      this.refreshToken = source.refreshToken;
+    }
+
+    private void copyTo(SynchronizedEveAccount target) {
+      target.accessToken = accessToken;
+      target.accessTokenExpiry = accessTokenExpiry;
+      target.refreshToken = refreshToken;
+    }
+  }
+
+  // In-flight token refreshes keyed by account ID.  Concurrent refresh requests for the same account
+  // share the result of a single SSO call, while refreshes for different accounts proceed in parallel.
+  private static final ConcurrentMap<Long, CompletableFuture<TokenState>> tokenRefreshInFlight = new ConcurrentHashMap<>();
+
+  // Most recent refreshed token state keyed by account ID.  Account instances are frequently stale copies
+  // loaded before the last refresh (e.g. when tokens are refreshed in the background by ESITokenRefreshService),
+  // so we check here before deciding a refresh is needed.
+  private static final ConcurrentMap<Long, TokenState> tokenCache = new ConcurrentHashMap<>();
+
+  // Limits the number of concurrent SSO calls.  Created on first use so the limit can be configured
+  // after this class is loaded.
+  private static volatile Semaphore tokenRefreshPermits;
+
+  private static Semaphore getTokenRefreshPermits() {
+    Semaphore permits = tokenRefreshPermits;
+    if (permits == null) {
+      synchronized (SynchronizedEveAccount.class) {
+        permits = tokenRefreshPermits;
+        if (permits == null) {
+          long limit = OrbitalProperties.getLongGlobalProperty(PROP_MAX_CONCURRENT_TOKEN_REFRESH,
+                                                               DEF_MAX_CONCURRENT_TOKEN_REFRESH);
+          permits = new Semaphore((int) Math.max(1, limit), true);
+          tokenRefreshPermits = permits;
+        }
+      }
+    }
+    return permits;
+  }
+
+  // Source of refreshed tokens.  Normally EVE SSO, tests may substitute a stub.
+  @FunctionalInterface
+  interface TokenSource {
+    OAuth2AccessToken refreshAccessToken(String refreshToken) throws Exception;
+  }
+
   /**
-   * Refresh the access token for this account.
+   * Refresh the access token for this account.  At most one refresh is performed at a time for a given account.
+   * Callers which arrive while a refresh is in progress wait for and share the result of that refresh.
    *
    * @param expiryWindow expiry window in milliseconds.  If the access token will expire within this many
    *                     milliseconds, then refresh it even if it's not expired yet.  In other words,
@@ -1082,69 +1260,132 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
    * @return an access token valid for at least "expiryWindow" milliseconds.
    * @throws IOException if the access token could not be refreshed, or a database error occurred.
    */
-  @SuppressWarnings("UnnecessaryLocalVariable")
   public String refreshToken(long expiryWindow, String eveClientID, String eveSecretKey)
       throws IOException {
-    // Synchronize to reduce contention when token must be refreshed
-    synchronized (SynchronizedEveAccount.class) {
-      SynchronizedEveAccount account = this;
-      // Ensure the access token is valid, if not attempt to renew it
-      if (getAccessTokenExpiry() - OrbitalProperties.getCurrentTime() < expiryWindow) {
-        // Key within expiry window, refresh
-        String rToken = getRefreshToken();
-        if (rToken == null || rToken.trim().isEmpty()) throw new IOException("No valid refresh token for account: " + getAid());
-        OAuth2AccessToken newToken;
-        try {
-          // EVEAuthHandler doesn't expose the correct exceptions so this is a temporary workaround
-          // so we can detect revoked tokens properly.
-          ServiceBuilder builder = new ServiceBuilder().apiKey(eveClientID).apiSecret(eveSecretKey);
-          OAuth20Service service = builder.build(EVEApi.instance());
-          newToken = service.refreshAccessToken(rToken);
-        } catch (Exception e) {
-          if (e instanceof OAuth2AccessTokenErrorResponse) {
-            switch (((OAuth2AccessTokenErrorResponse) e).getErrorCode()) {
-              case invalid_grant:
-              case invalid_token:
-                // Token revoked or otherwise invalid, clear it in our storage
-                account.refreshToken = null;
-                update(account);
-                log.log(Level.WARNING, "Refresh token revoked for account: " + getAid(), e);
-                throw new IOException("Refresh token revoked for account: " + getAid());
-
-              default:
-                // fallthrough
-            }
-          }
+    return refreshToken(expiryWindow,
+                        rToken -> SSOServiceRegistry.getService(eveClientID, eveSecretKey)
+                                                    .refreshAccessToken(rToken),
+                        getTokenRefreshPermits());
+  }
+
+  // Package-private for testing: refresh from the given token source, limiting concurrent refreshes by permits.
+  String refreshToken(long expiryWindow, TokenSource source, Semaphore permits)
+      throws IOException {
+    // Ensure the access token is valid, if not attempt to renew it
+    loadCachedToken();
+    if (getAccessTokenExpiry() - OrbitalProperties.getCurrentTime() >= expiryWindow)
+      return getAccessToken();
+
+    // Key within expiry window, refresh unless another thread is already doing so
+    CompletableFuture<TokenState> pending = new CompletableFuture<>();
+    CompletableFuture<TokenState> existing = tokenRefreshInFlight.putIfAbsent(getAid(), pending);
+    if (existing != null) {
+      TokenState shared = awaitTokenRefresh(existing);
+      shared.copyTo(this);
+      return shared.accessToken;
+    }
+
+    try {
+      // A refresh may have completed between the check above and winning putIfAbsent, in which case our
+      // refresh token has already been rotated.  Check again before calling SSO.
+      loadCachedToken();
+      if (getAccessTokenExpiry() - OrbitalProperties.getCurrentTime() >= expiryWindow) {
+        TokenState current = new TokenState(this);
+        pending.complete(current);
+        return current.accessToken;
+      }
+      TokenState result = doRefreshToken(source, permits);
+      tokenCache.put(getAid(), result);
+      pending.complete(result);
+      return result.accessToken;
+    } catch (IOException | RuntimeException e) {
+      pending.completeExceptionally(e);
+      throw e;
+    } finally {
+      tokenRefreshInFlight.remove(getAid(), pending);
+    }
+  }
+
+  // Pick up a newer token if one was refreshed since this instance was loaded
+  private void loadCachedToken() {
+    TokenState latest = tokenCache.get(getAid());
+    if (latest != null && latest.accessTokenExpiry > getAccessTokenExpiry()) latest.copyTo(this);
+  }
+
+  private TokenState awaitTokenRefresh(CompletableFuture<TokenState> pending) throws IOException {
+    try {
+      return pending.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread()
+            .interrupt();
+      throw new IOException("Interrupted waiting for token refresh for account: " + getAid(), e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause()
+                             .getMessage(), e.getCause());
+    }
+  }
 
-          // Anything else we treat as SSO being down.  We'll save the token to try again later.
-          log.log(Level.WARNING, "Error refreshing token for account: " + getAid(), e);
-          throw new IOException("Error refreshing token for account: " + getAid());
+  private TokenState doRefreshToken(TokenSource source, Semaphore permits) throws IOException {
+    SynchronizedEveAccount account = this;
+    String rToken = getRefreshToken();
+    if (rToken == null || rToken.trim().isEmpty()) throw new IOException("No valid refresh token for account: " + getAid());
+    OAuth2AccessToken newToken;
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread()
+            .interrupt();
+      throw new IOException("Interrupted waiting to refresh token for account: " + getAid(), e);
+    }
+    try {
+      // EVEAuthHandler doesn't expose the correct exceptions so this is a temporary workaround
+      // so we can detect revoked tokens properly.
+      newToken = source.refreshAccessToken(rToken);
+    } catch (Exception e) {
+      if (e instanceof OAuth2AccessTokenErrorResponse) {
+        switch (((OAuth2AccessTokenErrorResponse) e).getErrorCode()) {
+          case invalid_grant:
+          case invalid_token:
+            // Token revoked or otherwise invalid, clear it in our storage
+            account.refreshToken = null;
+            update(account);
+            log.log(Level.WARNING, "Refresh token revoked for account: " + getAid(), e);
+            throw new IOException("Refresh token revoked for account: " + getAid());
+
+          default:
+            // fallthrough
         }
+      }
 
-        accessToken = newToken.getAccessToken();
-        accessTokenExpiry = OrbitalProperties.getCurrentTime() +
-            TimeUnit.MILLISECONDS.convert(newToken.getExpiresIn(), TimeUnit.SECONDS);
-        refreshToken = newToken.getRefreshToken();
-
-        // Update new refresh token.  Use retries as this lock is occasionally heavily
-        // contested.
-        int retries = TOKEN_LOCK_RETRY_ATTEMPTS;
-        while (retries > 0) {
-          try {
-            retries--;
-            account = update(account);
-            break;
-          } catch (IOException x) {
-            if (retries == 0 || !hasLockAcquisitionException(x)) {
-              log.log(Level.SEVERE, "failed to update refresh token with retries", x);
-              throw x;
-            }
-            log.log(Level.WARNING, "retrying lock timeout on refresh token for account: " + this);
-          }
+      // Anything else we treat as SSO being down.  We'll save the token to try again later.
+      log.log(Level.WARNING, "Error refreshing token for account: " + getAid(), e);
+      throw new IOException("Error refreshing token for account: " + getAid());
+    } finally {
+      permits.release();
+    }
+
+    accessToken = newToken.getAccessToken();
+    accessTokenExpiry = OrbitalProperties.getCurrentTime() +
+        TimeUnit.MILLISECONDS.convert(newToken.getExpiresIn(), TimeUnit.SECONDS);
+    refreshToken = newToken.getRefreshToken();
+
+    // Update new refresh token.  Use retries as this lock is occasionally heavily
+    // contested.
+    int retries = TOKEN_LOCK_RETRY_ATTEMPTS;
+    while (retries > 0) {
+      try {
+        retries--;
+        account = update(account);
+        break;
+      } catch (IOException x) {
+        if (retries == 0 || !hasLockAcquisitionException(x)) {
+          log.log(Level.SEVERE, "failed to update refresh token with retries", x);
+          throw x;
         }
+        log.log(Level.WARNING, "retrying lock timeout on refresh token for account: " + this);
       }
-      return account.getAccessToken();
     }
+    return new TokenState(account);
   }
 
   @Override
@@ -1153,29 +1394,33 @@ public class SynchronizedEveAccount implements PersistentPropertyKey<String> {
     return "SyncAccount." + String.valueOf(userAccount.getID()) + "." + String.valueOf(aid) + "." + field;
   }
 
-  // Convenient in-memory per-sync account locking map.  Callers can use "getTrackerLock" and synchronize
-  // on the returned object to ensure serialization among all activities performed for a given synchronized
+  // Convenient in-memory per-sync account locking registry.  Callers can use "getSyncAccountLock" and lock
+  // the returned lock to ensure serialization among all activities performed for a given synchronized
   // account.  This is needed because serializing on the SynchronizedEveAccount reference itself won't
-  // always work as such an instance may actually be a wrapper created by Hibernate.  This map is in-memory
+  // always work as such an instance may actually be a wrapper created by Hibernate.  This registry is in-memory
   // only and will not prevent separate processes from acting on a synch account concurrently.
-  private static final Map<Long, ReentrantLock> trackerLock = new HashMap<>();
+  private static final SyncAccountLockRegistry trackerLock = new SyncAccountLockRegistry();
 
   /**
    * Return the lock object which should be used if serialization on a given sync account is needed.
+   * The lock is reentrant and fair.  The same instance is returned for an account as long as any caller
+   * still references it.  Registry entries are reclaimed once the lock is no longer referenced.
    *
    * @param acct the SynchronizedEveAccount for which a lock object should be retrieved.
    * @return the appropriate lock object.
    */
-  @SuppressWarnings("Duplicates")
   public static ReentrantLock getSyncAccountLock(SynchronizedEveAccount acct) {
-    synchronized (trackerLock) {
-      ReentrantLock lck = trackerLock.get(acct.getAid());
-      if (lck == null) {
-        lck = new ReentrantLock(true);
-        trackerLock.put(acct.getAid(), lck);
-      }
-      return lck;
-    }
+    return trackerLock.getLock(acct.getAid());
+  }
+
+  /**
+   * Return the registry which manages sync account locks.  Mainly useful for reporting contention
+   * and lock counts.
+   *
+   * @return the sync account lock registry.
+   */
+  public static SyncAccountLockRegistry getSyncAccountLockRegistry() {
+    return trackerLock;
   }
 
 }
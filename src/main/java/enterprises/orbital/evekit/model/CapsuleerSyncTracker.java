@@ -1,14 +1,13 @@
 package enterprises.orbital.evekit.model;
 
 import java.io.IOException;
-import java.text.DateFormat;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,12 +25,16 @@ import enterprises.orbital.evekit.account.EveKitUserAccountProvider;
 import enterprises.orbital.evekit.account.SynchronizedEveAccount;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Object to track synchronization request for character. A synchronization tracker starts out empty and fills in each supported field type until it is marked
  * as finished. This makes it relatively straightforward to cache a tracker since slightly stale copies are usually harmless.
  */
 @Entity
+@DynamicInsert
+@DynamicUpdate
 @Table(
     name = "evekit_char_sync")
 @NamedQueries({
@@ -337,42 +340,73 @@ public class CapsuleerSyncTracker extends SyncTracker {
   @JsonProperty("locationsDetail")
   private String                locationsDetail;
 
+  // Per-state column accessors, used to keep the columns and the packed state vector in step
+  private static final Map<SynchronizationState, StateField<CapsuleerSyncTracker>> FIELDS;
+  static {
+    Map<SynchronizationState, StateField<CapsuleerSyncTracker>> fields = new EnumMap<>(SynchronizationState.class);
+    fields.put(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS, new StateField<CapsuleerSyncTracker>("accountStatus", t -> t.accountStatusStatus, (t, v) -> t.accountStatusStatus = v, t -> t.accountStatusDetail, (t, v) -> t.accountStatusDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE, new StateField<CapsuleerSyncTracker>("accountBalance", t -> t.accountBalanceStatus, (t, v) -> t.accountBalanceStatus = v, t -> t.accountBalanceDetail, (t, v) -> t.accountBalanceDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_ASSETLIST, new StateField<CapsuleerSyncTracker>("assetList", t -> t.assetListStatus, (t, v) -> t.assetListStatus = v, t -> t.assetListDetail, (t, v) -> t.assetListDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, new StateField<CapsuleerSyncTracker>("calendarEventAttendees", t -> t.calendarEventAttendeesStatus, (t, v) -> t.calendarEventAttendeesStatus = v, t -> t.calendarEventAttendeesDetail, (t, v) -> t.calendarEventAttendeesDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CHARACTERSHEET, new StateField<CapsuleerSyncTracker>("characterSheet", t -> t.characterSheetStatus, (t, v) -> t.characterSheetStatus = v, t -> t.characterSheetDetail, (t, v) -> t.characterSheetDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_PARTIALCHARACTERSHEET, new StateField<CapsuleerSyncTracker>("partialCharacterSheet", t -> t.partialCharacterSheetStatus, (t, v) -> t.partialCharacterSheetStatus = v, t -> t.partialCharacterSheetDetail, (t, v) -> t.partialCharacterSheetDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CHATCHANNELS, new StateField<CapsuleerSyncTracker>("chatChannels", t -> t.chatChannelsStatus, (t, v) -> t.chatChannelsStatus = v, t -> t.chatChannelsDetail, (t, v) -> t.chatChannelsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CONTACTLIST, new StateField<CapsuleerSyncTracker>("contactList", t -> t.contactListStatus, (t, v) -> t.contactListStatus = v, t -> t.contactListDetail, (t, v) -> t.contactListDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CONTACTNOTIFICATIONS, new StateField<CapsuleerSyncTracker>("contactNotifications", t -> t.contactNotificationsStatus, (t, v) -> t.contactNotificationsStatus = v, t -> t.contactNotificationsDetail, (t, v) -> t.contactNotificationsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_BLUEPRINTS, new StateField<CapsuleerSyncTracker>("blueprints", t -> t.blueprintsStatus, (t, v) -> t.blueprintsStatus = v, t -> t.blueprintsDetail, (t, v) -> t.blueprintsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_BOOKMARKS, new StateField<CapsuleerSyncTracker>("bookmarks", t -> t.bookmarksStatus, (t, v) -> t.bookmarksStatus = v, t -> t.bookmarksDetail, (t, v) -> t.bookmarksDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CONTRACTS, new StateField<CapsuleerSyncTracker>("contracts", t -> t.contractsStatus, (t, v) -> t.contractsStatus = v, t -> t.contractsDetail, (t, v) -> t.contractsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CONTRACTITEMS, new StateField<CapsuleerSyncTracker>("contractItems", t -> t.contractItemsStatus, (t, v) -> t.contractItemsStatus = v, t -> t.contractItemsDetail, (t, v) -> t.contractItemsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_CONTRACTBIDS, new StateField<CapsuleerSyncTracker>("contractBids", t -> t.contractBidsStatus, (t, v) -> t.contractBidsStatus = v, t -> t.contractBidsDetail, (t, v) -> t.contractBidsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_FACWARSTATS, new StateField<CapsuleerSyncTracker>("facWarStats", t -> t.facWarStatsStatus, (t, v) -> t.facWarStatsStatus = v, t -> t.facWarStatsDetail, (t, v) -> t.facWarStatsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_INDUSTRYJOBS, new StateField<CapsuleerSyncTracker>("industryJobs", t -> t.industryJobsStatus, (t, v) -> t.industryJobsStatus = v, t -> t.industryJobsDetail, (t, v) -> t.industryJobsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_INDUSTRYJOBSHISTORY, new StateField<CapsuleerSyncTracker>("industryJobsHistory", t -> t.industryJobsHistoryStatus, (t, v) -> t.industryJobsHistoryStatus = v, t -> t.industryJobsHistoryDetail, (t, v) -> t.industryJobsHistoryDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_KILLLOG, new StateField<CapsuleerSyncTracker>("killlog", t -> t.killlogStatus, (t, v) -> t.killlogStatus = v, t -> t.killlogDetail, (t, v) -> t.killlogDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_MAILBODIES, new StateField<CapsuleerSyncTracker>("mailBodies", t -> t.mailBodiesStatus, (t, v) -> t.mailBodiesStatus = v, t -> t.mailBodiesDetail, (t, v) -> t.mailBodiesDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_MAILINGLISTS, new StateField<CapsuleerSyncTracker>("mailingLists", t -> t.mailingListsStatus, (t, v) -> t.mailingListsStatus = v, t -> t.mailingListsDetail, (t, v) -> t.mailingListsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_MAILMESSAGES, new StateField<CapsuleerSyncTracker>("mailMessages", t -> t.mailMessagesStatus, (t, v) -> t.mailMessagesStatus = v, t -> t.mailMessagesDetail, (t, v) -> t.mailMessagesDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_MARKETORDERS, new StateField<CapsuleerSyncTracker>("marketOrders", t -> t.marketOrdersStatus, (t, v) -> t.marketOrdersStatus = v, t -> t.marketOrdersDetail, (t, v) -> t.marketOrdersDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_MEDALS, new StateField<CapsuleerSyncTracker>("medals", t -> t.medalsStatus, (t, v) -> t.medalsStatus = v, t -> t.medalsDetail, (t, v) -> t.medalsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_NOTIFICATIONS, new StateField<CapsuleerSyncTracker>("notifications", t -> t.notificationsStatus, (t, v) -> t.notificationsStatus = v, t -> t.notificationsDetail, (t, v) -> t.notificationsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_NOTIFICATIONTEXTS, new StateField<CapsuleerSyncTracker>("notificationTexts", t -> t.notificationTextsStatus, (t, v) -> t.notificationTextsStatus = v, t -> t.notificationTextsDetail, (t, v) -> t.notificationTextsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_PLANETARY_COLONIES, new StateField<CapsuleerSyncTracker>("planetaryColonies", t -> t.planetaryColoniesStatus, (t, v) -> t.planetaryColoniesStatus = v, t -> t.planetaryColoniesDetail, (t, v) -> t.planetaryColoniesDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_RESEARCH, new StateField<CapsuleerSyncTracker>("research", t -> t.researchStatus, (t, v) -> t.researchStatus = v, t -> t.researchDetail, (t, v) -> t.researchDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_SKILLINTRAINING, new StateField<CapsuleerSyncTracker>("skillInTraining", t -> t.skillInTrainingStatus, (t, v) -> t.skillInTrainingStatus = v, t -> t.skillInTrainingDetail, (t, v) -> t.skillInTrainingDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_SKILLQUEUE, new StateField<CapsuleerSyncTracker>("skillQueue", t -> t.skillQueueStatus, (t, v) -> t.skillQueueStatus = v, t -> t.skillQueueDetail, (t, v) -> t.skillQueueDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_SKILLS, new StateField<CapsuleerSyncTracker>("skills", t -> t.skillsStatus, (t, v) -> t.skillsStatus = v, t -> t.skillsDetail, (t, v) -> t.skillsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_STANDINGS, new StateField<CapsuleerSyncTracker>("standings", t -> t.standingsStatus, (t, v) -> t.standingsStatus = v, t -> t.standingsDetail, (t, v) -> t.standingsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS, new StateField<CapsuleerSyncTracker>("upcomingCalendarEvents", t -> t.upcomingCalendarEventsStatus, (t, v) -> t.upcomingCalendarEventsStatus = v, t -> t.upcomingCalendarEventsDetail, (t, v) -> t.upcomingCalendarEventsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_WALLETJOURNAL, new StateField<CapsuleerSyncTracker>("walletJournal", t -> t.walletJournalStatus, (t, v) -> t.walletJournalStatus = v, t -> t.walletJournalDetail, (t, v) -> t.walletJournalDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_WALLETTRANSACTIONS, new StateField<CapsuleerSyncTracker>("walletTransactions", t -> t.walletTransactionsStatus, (t, v) -> t.walletTransactionsStatus = v, t -> t.walletTransactionsDetail, (t, v) -> t.walletTransactionsDetail = v));
+    fields.put(SynchronizationState.SYNC_CHAR_LOCATIONS, new StateField<CapsuleerSyncTracker>("locations", t -> t.locationsStatus, (t, v) -> t.locationsStatus = v, t -> t.locationsDetail, (t, v) -> t.locationsDetail = v));
+    FIELDS = Collections.unmodifiableMap(fields);
+  }
+
+  // Ordering rules between states: each state may only be synchronized after its prerequisites are processed
+  private static final SyncStateGraph GRAPH;
+  static {
+    Map<SynchronizationState, Set<SynchronizationState>> prerequisites = new EnumMap<>(SynchronizationState.class);
+    // Attendees require both upcoming calendar events and the character sheet
+    prerequisites.put(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, EnumSet.of(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS, SynchronizationState.SYNC_CHAR_CHARACTERSHEET));
+    // Always try the full character sheet first
+    prerequisites.put(SynchronizationState.SYNC_CHAR_PARTIALCHARACTERSHEET, EnumSet.of(SynchronizationState.SYNC_CHAR_CHARACTERSHEET));
+    // Contract items require contracts
+    prerequisites.put(SynchronizationState.SYNC_CHAR_CONTRACTITEMS, EnumSet.of(SynchronizationState.SYNC_CHAR_CONTRACTS));
+    // Mail bodies require mail messages
+    prerequisites.put(SynchronizationState.SYNC_CHAR_MAILBODIES, EnumSet.of(SynchronizationState.SYNC_CHAR_MAILMESSAGES));
+    // Notification texts require notifications
+    prerequisites.put(SynchronizationState.SYNC_CHAR_NOTIFICATIONTEXTS, EnumSet.of(SynchronizationState.SYNC_CHAR_NOTIFICATIONS));
+    // Always try the full character sheet first
+    prerequisites.put(SynchronizationState.SYNC_CHAR_SKILLS, EnumSet.of(SynchronizationState.SYNC_CHAR_CHARACTERSHEET));
+    // Locations require assets
+    prerequisites.put(SynchronizationState.SYNC_CHAR_LOCATIONS, EnumSet.of(SynchronizationState.SYNC_CHAR_ASSETLIST));
+    GRAPH = new SyncStateGraph(FIELDS.keySet(), prerequisites);
+  }
+
   public CapsuleerSyncTracker() {
-    accountStatusStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    accountBalanceStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    assetListStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    calendarEventAttendeesStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    characterSheetStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    partialCharacterSheetStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    chatChannelsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contactListStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contactNotificationsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    blueprintsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    bookmarksStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contractsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contractItemsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contractBidsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    facWarStatsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    industryJobsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    industryJobsHistoryStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    killlogStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    mailBodiesStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    mailingListsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    mailMessagesStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    marketOrdersStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    medalsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    notificationsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    notificationTextsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    planetaryColoniesStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    researchStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    skillInTrainingStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    skillQueueStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    skillsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    standingsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    upcomingCalendarEventsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    walletJournalStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    walletTransactionsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    locationsStatus = SyncTracker.SyncState.NOT_PROCESSED;
+    for (SynchronizationState next : FIELDS.keySet()) {
+      setState(next, SyncTracker.SyncState.NOT_PROCESSED, null);
+    }
   }
 
   @Override
@@ -380,1058 +414,660 @@ public class CapsuleerSyncTracker extends SyncTracker {
                        SynchronizationState state,
                        SyncTracker.SyncState status,
                        String msg) {
-    switch (state) {
-    case SYNC_CHAR_ACCOUNTSTATUS:
-      setAccountStatusStatus(status);
-      setAccountStatusDetail(msg);
-      break;
-
-    case SYNC_CHAR_ACCOUNTBALANCE:
-      setAccountBalanceStatus(status);
-      setAccountBalanceDetail(msg);
-      break;
-
-    case SYNC_CHAR_ASSETLIST:
-      setAssetListStatus(status);
-      setAssetListDetail(msg);
-      break;
-
-    case SYNC_CHAR_CALENDAREVENTATTENDEES:
-      setCalendarEventAttendeesStatus(status);
-      setCalendarEventAttendeesDetail(msg);
-      break;
-
-    case SYNC_CHAR_CHARACTERSHEET:
-      setCharacterSheetStatus(status);
-      setCharacterSheetDetail(msg);
-      break;
-
-    case SYNC_CHAR_PARTIALCHARACTERSHEET:
-      setPartialCharacterSheetStatus(status);
-      setPartialCharacterSheetDetail(msg);
-      break;
-
-    case SYNC_CHAR_CHATCHANNELS:
-      setChatChannelsStatus(status);
-      setChatChannelsDetail(msg);
-      break;
-
-    case SYNC_CHAR_CONTACTLIST:
-      setContactListStatus(status);
-      setContactListDetail(msg);
-      break;
-
-    case SYNC_CHAR_CONTACTNOTIFICATIONS:
-      setContactNotificationsStatus(status);
-      setContactNotificationsDetail(msg);
-      break;
-
-    case SYNC_CHAR_BLUEPRINTS:
-      setBlueprintsStatus(status);
-      setBlueprintsDetail(msg);
-      break;
-
-    case SYNC_CHAR_BOOKMARKS:
-      setBookmarksStatus(status);
-      setBookmarksDetail(msg);
-      break;
-
-    case SYNC_CHAR_CONTRACTS:
-      setContractsStatus(status);
-      setContractsDetail(msg);
-      break;
-
-    case SYNC_CHAR_CONTRACTITEMS:
-      setContractItemsStatus(status);
-      setContractItemsDetail(msg);
-      break;
-
-    case SYNC_CHAR_CONTRACTBIDS:
-      setContractBidsStatus(status);
-      setContractBidsDetail(msg);
-      break;
-
-    case SYNC_CHAR_FACWARSTATS:
-      setFacWarStatsStatus(status);
-      setFacWarStatsDetail(msg);
-      break;
-
-    case SYNC_CHAR_INDUSTRYJOBS:
-      setIndustryJobsStatus(status);
-      setIndustryJobsDetail(msg);
-      break;
-
-    case SYNC_CHAR_INDUSTRYJOBSHISTORY:
-      setIndustryJobsHistoryStatus(status);
-      setIndustryJobsHistoryDetail(msg);
-      break;
-
-    case SYNC_CHAR_KILLLOG:
-      setKilllogStatus(status);
-      setKilllogDetail(msg);
-      break;
-
-    case SYNC_CHAR_MAILBODIES:
-      setMailBodiesStatus(status);
-      setMailBodiesDetail(msg);
-      break;
-
-    case SYNC_CHAR_MAILINGLISTS:
-      setMailingListsStatus(status);
-      setMailingListsDetail(msg);
-      break;
-
-    case SYNC_CHAR_MAILMESSAGES:
-      setMailMessagesStatus(status);
-      setMailMessagesDetail(msg);
-      break;
-
-    case SYNC_CHAR_MARKETORDERS:
-      setMarketOrdersStatus(status);
-      setMarketOrdersDetail(msg);
-      break;
-
-    case SYNC_CHAR_MEDALS:
-      setMedalsStatus(status);
-      setMedalsDetail(msg);
-      break;
-
-    case SYNC_CHAR_NOTIFICATIONS:
-      setNotificationsStatus(status);
-      setNotificationsDetail(msg);
-      break;
-
-    case SYNC_CHAR_NOTIFICATIONTEXTS:
-      setNotificationTextsStatus(status);
-      setNotificationTextsDetail(msg);
-      break;
-
-    case SYNC_CHAR_PLANETARY_COLONIES:
-      setPlanetaryColoniesStatus(status);
-      setPlanetaryColoniesDetail(msg);
-      break;
-
-    case SYNC_CHAR_RESEARCH:
-      setResearchStatus(status);
-      setResearchDetail(msg);
-      break;
-
-    case SYNC_CHAR_SKILLINTRAINING:
-      setSkillInTrainingStatus(status);
-      setSkillInTrainingDetail(msg);
-      break;
-
-    case SYNC_CHAR_SKILLQUEUE:
-      setSkillQueueStatus(status);
-      setSkillQueueDetail(msg);
-      break;
-
-    case SYNC_CHAR_SKILLS:
-      setSkillsStatus(status);
-      setSkillsDetail(msg);
-      break;
-
-    case SYNC_CHAR_STANDINGS:
-      setStandingsStatus(status);
-      setStandingsDetail(msg);
-      break;
-
-    case SYNC_CHAR_UPCOMINGCALENDAREVENTS:
-      setUpcomingCalendarEventsStatus(status);
-      setUpcomingCalendarEventsDetail(msg);
-      break;
-
-    case SYNC_CHAR_WALLETJOURNAL:
-      setWalletJournalStatus(status);
-      setWalletJournalDetail(msg);
-      break;
-
-    case SYNC_CHAR_WALLETTRANSACTIONS:
-      setWalletTransactionsStatus(status);
-      setWalletTransactionsDetail(msg);
-      break;
-
-    case SYNC_CHAR_LOCATIONS:
-      setLocationsStatus(status);
-      setLocationsDetail(msg);
-      break;
-
-    default:
-      // NOP
-      ;
-    }
+    StateField<CapsuleerSyncTracker> field = FIELDS.get(state);
+    if (field == null) return;
+    // Legacy columns are only written until packed-only storage is enabled
+    if (writeStateColumns()) field.set(this, status, msg);
+    updateStateVector(state, status, msg);
   }
 
   @Override
-  public SynchronizationState trackerComplete(
-                                              Set<SynchronizationState> checkState) {
-    for (SynchronizationState next : checkState) {
-      switch (next) {
-      case SYNC_CHAR_ACCOUNTSTATUS:
-        if (accountStatusStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_ACCOUNTBALANCE:
-        if (accountBalanceStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_ASSETLIST:
-        if (assetListStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CALENDAREVENTATTENDEES:
-        // This can only be next if UpcomingCalendarEvents and CharacterSheet have been done first.
-        if (upcomingCalendarEventsStatus != SyncTracker.SyncState.NOT_PROCESSED && characterSheetStatus != SyncTracker.SyncState.NOT_PROCESSED
-            && calendarEventAttendeesStatus == SyncTracker.SyncState.NOT_PROCESSED)
-          return next;
-        break;
-
-      case SYNC_CHAR_CHARACTERSHEET:
-        if (characterSheetStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_PARTIALCHARACTERSHEET:
-        // Always try the full character sheet first
-        if (characterSheetStatus != SyncTracker.SyncState.NOT_PROCESSED && partialCharacterSheetStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CHATCHANNELS:
-        if (chatChannelsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CONTACTLIST:
-        if (contactListStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CONTACTNOTIFICATIONS:
-        if (contactNotificationsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_BLUEPRINTS:
-        if (blueprintsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_BOOKMARKS:
-        if (bookmarksStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CONTRACTS:
-        if (contractsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CONTRACTITEMS:
-        // Contract items can only be next if we've completed contracts
-        if (contractsStatus != SyncTracker.SyncState.NOT_PROCESSED && contractItemsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_CONTRACTBIDS:
-        if (contractBidsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_FACWARSTATS:
-        if (facWarStatsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_INDUSTRYJOBS:
-        if (industryJobsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_INDUSTRYJOBSHISTORY:
-        if (industryJobsHistoryStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_KILLLOG:
-        if (killlogStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_MAILBODIES:
-        // Mail bodies can only be next if we've completed mail messages
-        if (mailMessagesStatus != SyncTracker.SyncState.NOT_PROCESSED && mailBodiesStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_MAILINGLISTS:
-        if (mailingListsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_MAILMESSAGES:
-        if (mailMessagesStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_MARKETORDERS:
-        if (marketOrdersStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_MEDALS:
-        if (medalsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_NOTIFICATIONS:
-        if (notificationsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_NOTIFICATIONTEXTS:
-        // Notification texts can only be next if we processed notifications
-        if (notificationsStatus != SyncTracker.SyncState.NOT_PROCESSED && notificationTextsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_PLANETARY_COLONIES:
-        if (planetaryColoniesStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_RESEARCH:
-        if (researchStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_SKILLINTRAINING:
-        if (skillInTrainingStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_SKILLQUEUE:
-        if (skillQueueStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_SKILLS:
-        // Always try the full character sheet first
-        if (characterSheetStatus != SyncTracker.SyncState.NOT_PROCESSED && skillsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_STANDINGS:
-        if (standingsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_UPCOMINGCALENDAREVENTS:
-        if (upcomingCalendarEventsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_WALLETJOURNAL:
-        if (walletJournalStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_WALLETTRANSACTIONS:
-        if (walletTransactionsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_LOCATIONS:
-        // Only sync locations after sync'ing assets
-        if (assetListStatus != SyncTracker.SyncState.NOT_PROCESSED && locationsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CHAR_START:
-      case SYNC_CHAR_END:
-      default:
-        // NOP
-        ;
-      }
+  protected SyncStateVector buildStateVector() {
+    SyncStateVector vector = new SyncStateVector();
+    for (Map.Entry<SynchronizationState, StateField<CapsuleerSyncTracker>> next : FIELDS.entrySet()) {
+      vector.set(next.getKey(), next.getValue().getStatus(this), next.getValue().getDetail(this));
     }
+    return vector;
+  }
 
-    return null;
+  @Override
+  protected SyncStateGraph getStateGraph() {
+    return GRAPH;
   }
 
   public SyncTracker.SyncState getAccountStatusStatus() {
-    return accountStatusStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS);
   }
 
   public void setAccountStatusStatus(
                                      SyncTracker.SyncState accountStatus) {
-    this.accountStatusStatus = accountStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS, accountStatus);
   }
 
   public String getAccountStatusDetail() {
-    return accountStatusDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS);
   }
 
   public void setAccountStatusDetail(
                                      String accountDetail) {
-    this.accountStatusDetail = accountDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS, accountDetail);
   }
 
   public SyncTracker.SyncState getAccountBalanceStatus() {
-    return accountBalanceStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE);
   }
 
   public void setAccountBalanceStatus(
                                       SyncTracker.SyncState accountBalanceStatus) {
-    this.accountBalanceStatus = accountBalanceStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE, accountBalanceStatus);
   }
 
   public String getAccountBalanceDetail() {
-    return accountBalanceDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE);
   }
 
   public void setAccountBalanceDetail(
                                       String accountBalanceDetail) {
-    this.accountBalanceDetail = accountBalanceDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE, accountBalanceDetail);
   }
 
   public SyncTracker.SyncState getAssetListStatus() {
-    return assetListStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_ASSETLIST);
   }
 
   public void setAssetListStatus(
                                  SyncTracker.SyncState assetListStatus) {
-    this.assetListStatus = assetListStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_ASSETLIST, assetListStatus);
   }
 
   public String getAssetListDetail() {
-    return assetListDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_ASSETLIST);
   }
 
   public void setAssetListDetail(
                                  String assetListDetail) {
-    this.assetListDetail = assetListDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_ASSETLIST, assetListDetail);
   }
 
   public SyncTracker.SyncState getCalendarEventAttendeesStatus() {
-    return calendarEventAttendeesStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES);
   }
 
   public void setCalendarEventAttendeesStatus(
                                               SyncTracker.SyncState calendarEventAttendeesStatus) {
-    this.calendarEventAttendeesStatus = calendarEventAttendeesStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, calendarEventAttendeesStatus);
   }
 
   public String getCalendarEventAttendeesDetail() {
-    return calendarEventAttendeesDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES);
   }
 
   public void setCalendarEventAttendeesDetail(
                                               String calendarEventAttendeesDetail) {
-    this.calendarEventAttendeesDetail = calendarEventAttendeesDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, calendarEventAttendeesDetail);
   }
 
   public SyncTracker.SyncState getCharacterSheetStatus() {
-    return characterSheetStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CHARACTERSHEET);
   }
 
   public void setCharacterSheetStatus(
                                       SyncTracker.SyncState characterSheetStatus) {
-    this.characterSheetStatus = characterSheetStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_CHARACTERSHEET, characterSheetStatus);
   }
 
   public String getCharacterSheetDetail() {
-    return characterSheetDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CHARACTERSHEET);
   }
 
   public void setCharacterSheetDetail(
                                       String characterSheetDetail) {
-    this.characterSheetDetail = characterSheetDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CHARACTERSHEET, characterSheetDetail);
   }
 
   public SyncTracker.SyncState getPartialCharacterSheetStatus() {
-    return partialCharacterSheetStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_PARTIALCHARACTERSHEET);
   }
 
   public void setPartialCharacterSheetStatus(
                                              SyncTracker.SyncState partialCharacterSheetStatus) {
-    this.partialCharacterSheetStatus = partialCharacterSheetStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_PARTIALCHARACTERSHEET, partialCharacterSheetStatus);
   }
 
   public String getPartialCharacterSheetDetail() {
-    return partialCharacterSheetDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_PARTIALCHARACTERSHEET);
   }
 
   public void setPartialCharacterSheetDetail(
                                              String partialCharacterSheetDetail) {
-    this.partialCharacterSheetDetail = partialCharacterSheetDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_PARTIALCHARACTERSHEET, partialCharacterSheetDetail);
   }
 
   public SyncTracker.SyncState getChatChannelsStatus() {
-    return chatChannelsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CHATCHANNELS);
   }
 
   public void setChatChannelsStatus(
                                     SyncTracker.SyncState chatChannelsStatus) {
-    this.chatChannelsStatus = chatChannelsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_CHATCHANNELS, chatChannelsStatus);
   }
 
   public String getChatChannelsDetail() {
-    return chatChannelsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CHATCHANNELS);
   }
 
   public void setChatChannelsDetail(
                                     String chatChannelsDetail) {
-    this.chatChannelsDetail = chatChannelsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CHATCHANNELS, chatChannelsDetail);
   }
 
   public SyncTracker.SyncState getContactListStatus() {
-    return contactListStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CONTACTLIST);
   }
 
   public void setContactListStatus(
                                    SyncTracker.SyncState contactListStatus) {
-    this.contactListStatus = contactListStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_CONTACTLIST, contactListStatus);
   }
 
   public String getContactListDetail() {
-    return contactListDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CONTACTLIST);
   }
 
   public void setContactListDetail(
                                    String contactListDetail) {
-    this.contactListDetail = contactListDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CONTACTLIST, contactListDetail);
   }
 
   public SyncTracker.SyncState getContactNotificationsStatus() {
-    return contactNotificationsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CONTACTNOTIFICATIONS);
   }
 
   public void setContactNotificationsStatus(
                                             SyncTracker.SyncState contactNotificationsStatus) {
-    this.contactNotificationsStatus = contactNotificationsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_CONTACTNOTIFICATIONS, contactNotificationsStatus);
   }
 
   public String getContactNotificationsDetail() {
-    return contactNotificationsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CONTACTNOTIFICATIONS);
   }
 
   public void setContactNotificationsDetail(
                                             String contactNotificationsDetail) {
-    this.contactNotificationsDetail = contactNotificationsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CONTACTNOTIFICATIONS, contactNotificationsDetail);
   }
 
   public String getBlueprintsDetail() {
-    return blueprintsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_BLUEPRINTS);
   }
 
   public void setBlueprintsDetail(
                                   String blueprintsDetail) {
-    this.blueprintsDetail = blueprintsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_BLUEPRINTS, blueprintsDetail);
   }
 
   public String getBookmarksDetail() {
-    return bookmarksDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_BOOKMARKS);
   }
 
   public void setBookmarksDetail(
                                  String bookmarksDetail) {
-    this.bookmarksDetail = bookmarksDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_BOOKMARKS, bookmarksDetail);
   }
 
   public String getContractsDetail() {
-    return contractsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CONTRACTS);
   }
 
   public void setContractsDetail(
                                  String contractDetail) {
-    this.contractsDetail = contractDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CONTRACTS, contractDetail);
   }
 
   public String getContractItemsDetail() {
-    return contractItemsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CONTRACTITEMS);
   }
 
   public void setContractItemsDetail(
                                      String contractItemDetail) {
-    this.contractItemsDetail = contractItemDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CONTRACTITEMS, contractItemDetail);
   }
 
   public String getContractBidsDetail() {
-    return contractBidsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_CONTRACTBIDS);
   }
 
   public void setContractBidsDetail(
                                     String contractBidsDetail) {
-    this.contractBidsDetail = contractBidsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_CONTRACTBIDS, contractBidsDetail);
   }
 
   public SyncTracker.SyncState getBlueprintsStatus() {
-    return blueprintsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_BLUEPRINTS);
   }
 
   public void setBlueprintsStatus(
                                   SyncTracker.SyncState status) {
-    this.blueprintsStatus = status;
+    setStatus(SynchronizationState.SYNC_CHAR_BLUEPRINTS, status);
   }
 
   public SyncTracker.SyncState getBookmarksStatus() {
-    return bookmarksStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_BOOKMARKS);
   }
 
   public void setBookmarksStatus(
                                  SyncTracker.SyncState status) {
-    this.bookmarksStatus = status;
+    setStatus(SynchronizationState.SYNC_CHAR_BOOKMARKS, status);
   }
 
   public SyncTracker.SyncState getContractsStatus() {
-    return contractsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CONTRACTS);
   }
 
   public void setContractsStatus(
                                  SyncTracker.SyncState status) {
-    this.contractsStatus = status;
+    setStatus(SynchronizationState.SYNC_CHAR_CONTRACTS, status);
   }
 
   public SyncTracker.SyncState getContractItemsStatus() {
-    return contractItemsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CONTRACTITEMS);
   }
 
   public void setContractItemsStatus(
                                      SyncTracker.SyncState status) {
-    this.contractItemsStatus = status;
+    setStatus(SynchronizationState.SYNC_CHAR_CONTRACTITEMS, status);
   }
 
   public SyncTracker.SyncState getContractBidsStatus() {
-    return contractBidsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_CONTRACTBIDS);
   }
 
   public void setContractBidsStatus(
                                     SyncTracker.SyncState status) {
-    this.contractBidsStatus = status;
+    setStatus(SynchronizationState.SYNC_CHAR_CONTRACTBIDS, status);
   }
 
   public SyncTracker.SyncState getFacWarStatsStatus() {
-    return facWarStatsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_FACWARSTATS);
   }
 
   public void setFacWarStatsStatus(
                                    SyncTracker.SyncState facWarStatsStatus) {
-    this.facWarStatsStatus = facWarStatsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_FACWARSTATS, facWarStatsStatus);
   }
 
   public String getFacWarStatsDetail() {
-    return facWarStatsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_FACWARSTATS);
   }
 
   public void setFacWarStatsDetail(
                                    String facWarStatsDetail) {
-    this.facWarStatsDetail = facWarStatsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_FACWARSTATS, facWarStatsDetail);
   }
 
   public SyncTracker.SyncState getIndustryJobsStatus() {
-    return industryJobsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_INDUSTRYJOBS);
   }
 
   public void setIndustryJobsStatus(
                                     SyncTracker.SyncState industryJobsStatus) {
-    this.industryJobsStatus = industryJobsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_INDUSTRYJOBS, industryJobsStatus);
   }
 
   public String getIndustryJobsDetail() {
-    return industryJobsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_INDUSTRYJOBS);
   }
 
   public void setIndustryJobsDetail(
                                     String industryJobsDetail) {
-    this.industryJobsDetail = industryJobsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_INDUSTRYJOBS, industryJobsDetail);
   }
 
   public SyncTracker.SyncState getIndustryJobsHistoryStatus() {
-    return industryJobsHistoryStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_INDUSTRYJOBSHISTORY);
   }
 
   public void setIndustryJobsHistoryStatus(
                                            SyncTracker.SyncState industryJobsHistoryStatus) {
-    this.industryJobsHistoryStatus = industryJobsHistoryStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_INDUSTRYJOBSHISTORY, industryJobsHistoryStatus);
   }
 
   public String getIndustryJobsHistoryDetail() {
-    return industryJobsHistoryDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_INDUSTRYJOBSHISTORY);
   }
 
   public void setIndustryJobsHistoryDetail(
                                            String industryJobsHistoryDetail) {
-    this.industryJobsHistoryDetail = industryJobsHistoryDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_INDUSTRYJOBSHISTORY, industryJobsHistoryDetail);
   }
 
   public SyncTracker.SyncState getKilllogStatus() {
-    return killlogStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_KILLLOG);
   }
 
   public void setKilllogStatus(
                                SyncTracker.SyncState killlogStatus) {
-    this.killlogStatus = killlogStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_KILLLOG, killlogStatus);
   }
 
   public String getKilllogDetail() {
-    return killlogDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_KILLLOG);
   }
 
   public void setKilllogDetail(
                                String killlogDetail) {
-    this.killlogDetail = killlogDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_KILLLOG, killlogDetail);
   }
 
   public SyncTracker.SyncState getMailBodiesStatus() {
-    return mailBodiesStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_MAILBODIES);
   }
 
   public void setMailBodiesStatus(
                                   SyncTracker.SyncState mailBodiesStatus) {
-    this.mailBodiesStatus = mailBodiesStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_MAILBODIES, mailBodiesStatus);
   }
 
   public String getMailBodiesDetail() {
-    return mailBodiesDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_MAILBODIES);
   }
 
   public void setMailBodiesDetail(
                                   String mailBodiesDetail) {
-    this.mailBodiesDetail = mailBodiesDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_MAILBODIES, mailBodiesDetail);
   }
 
   public SyncTracker.SyncState getMailingListsStatus() {
-    return mailingListsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_MAILINGLISTS);
   }
 
   public void setMailingListsStatus(
                                     SyncTracker.SyncState mailingListsStatus) {
-    this.mailingListsStatus = mailingListsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_MAILINGLISTS, mailingListsStatus);
   }
 
   public String getMailingListsDetail() {
-    return mailingListsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_MAILINGLISTS);
   }
 
   public void setMailingListsDetail(
                                     String mailingListsDetail) {
-    this.mailingListsDetail = mailingListsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_MAILINGLISTS, mailingListsDetail);
   }
 
   public SyncTracker.SyncState getMailMessagesStatus() {
-    return mailMessagesStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_MAILMESSAGES);
   }
 
   public void setMailMessagesStatus(
                                     SyncTracker.SyncState mailMessagesStatus) {
-    this.mailMessagesStatus = mailMessagesStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_MAILMESSAGES, mailMessagesStatus);
   }
 
   public String getMailMessagesDetail() {
-    return mailMessagesDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_MAILMESSAGES);
   }
 
   public void setMailMessagesDetail(
                                     String mailMessagesDetail) {
-    this.mailMessagesDetail = mailMessagesDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_MAILMESSAGES, mailMessagesDetail);
   }
 
   public SyncTracker.SyncState getMarketOrdersStatus() {
-    return marketOrdersStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_MARKETORDERS);
   }
 
   public void setMarketOrdersStatus(
                                     SyncTracker.SyncState marketOrdersStatus) {
-    this.marketOrdersStatus = marketOrdersStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_MARKETORDERS, marketOrdersStatus);
   }
 
   public String getMarketOrdersDetail() {
-    return marketOrdersDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_MARKETORDERS);
   }
 
   public void setMarketOrdersDetail(
                                     String marketOrdersDetail) {
-    this.marketOrdersDetail = marketOrdersDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_MARKETORDERS, marketOrdersDetail);
   }
 
   public SyncTracker.SyncState getMedalsStatus() {
-    return medalsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_MEDALS);
   }
 
   public void setMedalsStatus(
                               SyncTracker.SyncState medalsStatus) {
-    this.medalsStatus = medalsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_MEDALS, medalsStatus);
   }
 
   public String getMedalsDetail() {
-    return medalsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_MEDALS);
   }
 
   public void setMedalsDetail(
                               String medalsDetail) {
-    this.medalsDetail = medalsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_MEDALS, medalsDetail);
   }
 
   public SyncTracker.SyncState getNotificationsStatus() {
-    return notificationsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_NOTIFICATIONS);
   }
 
   public void setNotificationsStatus(
                                      SyncTracker.SyncState notificationsStatus) {
-    this.notificationsStatus = notificationsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_NOTIFICATIONS, notificationsStatus);
   }
 
   public String getNotificationsDetail() {
-    return notificationsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_NOTIFICATIONS);
   }
 
   public void setNotificationsDetail(
                                      String notificationsDetail) {
-    this.notificationsDetail = notificationsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_NOTIFICATIONS, notificationsDetail);
   }
 
   public SyncTracker.SyncState getNotificationTextsStatus() {
-    return notificationTextsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_NOTIFICATIONTEXTS);
   }
 
   public void setNotificationTextsStatus(
                                          SyncTracker.SyncState notificationTextsStatus) {
-    this.notificationTextsStatus = notificationTextsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_NOTIFICATIONTEXTS, notificationTextsStatus);
   }
 
   public String getNotificationTextsDetail() {
-    return notificationTextsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_NOTIFICATIONTEXTS);
   }
 
   public void setNotificationTextsDetail(
                                          String notificationTextsDetail) {
-    this.notificationTextsDetail = notificationTextsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_NOTIFICATIONTEXTS, notificationTextsDetail);
   }
 
   public SyncTracker.SyncState getPlanetaryColoniesStatus() {
-    return planetaryColoniesStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_PLANETARY_COLONIES);
   }
 
   public void setPlanetaryColoniesStatus(
                                          SyncTracker.SyncState planetaryColoniesStatus) {
-    this.planetaryColoniesStatus = planetaryColoniesStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_PLANETARY_COLONIES, planetaryColoniesStatus);
   }
 
   public String getPlanetaryColoniesDetail() {
-    return planetaryColoniesDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_PLANETARY_COLONIES);
   }
 
   public void setPlanetaryColoniesDetail(
                                          String planetaryColoniesDetail) {
-    this.planetaryColoniesDetail = planetaryColoniesDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_PLANETARY_COLONIES, planetaryColoniesDetail);
   }
 
   public SyncTracker.SyncState getResearchStatus() {
-    return researchStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_RESEARCH);
   }
 
   public void setResearchStatus(
                                 SyncTracker.SyncState researchStatus) {
-    this.researchStatus = researchStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_RESEARCH, researchStatus);
   }
 
   public String getResearchDetail() {
-    return researchDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_RESEARCH);
   }
 
   public void setResearchDetail(
                                 String researchDetail) {
-    this.researchDetail = researchDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_RESEARCH, researchDetail);
   }
 
   public SyncTracker.SyncState getSkillInTrainingStatus() {
-    return skillInTrainingStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_SKILLINTRAINING);
   }
 
   public void setSkillInTrainingStatus(
                                        SyncTracker.SyncState skillInTrainingStatus) {
-    this.skillInTrainingStatus = skillInTrainingStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_SKILLINTRAINING, skillInTrainingStatus);
   }
 
   public String getSkillInTrainingDetail() {
-    return skillInTrainingDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_SKILLINTRAINING);
   }
 
   public void setSkillInTrainingDetail(
                                        String skillInTrainingDetail) {
-    this.skillInTrainingDetail = skillInTrainingDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_SKILLINTRAINING, skillInTrainingDetail);
   }
 
   public SyncTracker.SyncState getSkillQueueStatus() {
-    return skillQueueStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_SKILLQUEUE);
   }
 
   public void setSkillQueueStatus(
                                   SyncTracker.SyncState skillQueueStatus) {
-    this.skillQueueStatus = skillQueueStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_SKILLQUEUE, skillQueueStatus);
   }
 
   public String getSkillQueueDetail() {
-    return skillQueueDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_SKILLQUEUE);
   }
 
   public void setSkillQueueDetail(
                                   String skillQueueDetail) {
-    this.skillQueueDetail = skillQueueDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_SKILLQUEUE, skillQueueDetail);
   }
 
   public SyncTracker.SyncState getSkillsStatus() {
-    return skillsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_SKILLS);
   }
 
   public void setSkillsStatus(
                               SyncTracker.SyncState skillsStatus) {
-    this.skillsStatus = skillsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_SKILLS, skillsStatus);
   }
 
   public String getSkillsDetail() {
-    return skillsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_SKILLS);
   }
 
   public void setSkillsDetail(
                               String skillsDetail) {
-    this.skillsDetail = skillsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_SKILLS, skillsDetail);
   }
 
   public SyncTracker.SyncState getStandingsStatus() {
-    return standingsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_STANDINGS);
   }
 
   public void setStandingsStatus(
                                  SyncTracker.SyncState standingsStatus) {
-    this.standingsStatus = standingsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_STANDINGS, standingsStatus);
   }
 
   public String getStandingsDetail() {
-    return standingsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_STANDINGS);
   }
 
   public void setStandingsDetail(
                                  String standingsDetail) {
-    this.standingsDetail = standingsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_STANDINGS, standingsDetail);
   }
 
   public SyncTracker.SyncState getUpcomingCalendarEventsStatus() {
-    return upcomingCalendarEventsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS);
   }
 
   public void setUpcomingCalendarEventsStatus(
                                               SyncTracker.SyncState upcomingCalendarEventsStatus) {
-    this.upcomingCalendarEventsStatus = upcomingCalendarEventsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS, upcomingCalendarEventsStatus);
   }
 
   public String getUpcomingCalendarEventsDetail() {
-    return upcomingCalendarEventsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS);
   }
 
   public void setUpcomingCalendarEventsDetail(
                                               String upcomingCalendarEventsDetail) {
-    this.upcomingCalendarEventsDetail = upcomingCalendarEventsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS, upcomingCalendarEventsDetail);
   }
 
   public SyncTracker.SyncState getWalletJournalStatus() {
-    return walletJournalStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_WALLETJOURNAL);
   }
 
   public void setWalletJournalStatus(
                                      SyncTracker.SyncState walletJournalStatus) {
-    this.walletJournalStatus = walletJournalStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_WALLETJOURNAL, walletJournalStatus);
   }
 
   public String getWalletJournalDetail() {
-    return walletJournalDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_WALLETJOURNAL);
   }
 
   public void setWalletJournalDetail(
                                      String walletJournalDetail) {
-    this.walletJournalDetail = walletJournalDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_WALLETJOURNAL, walletJournalDetail);
   }
 
   public SyncTracker.SyncState getWalletTransactionsStatus() {
-    return walletTransactionsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_WALLETTRANSACTIONS);
   }
 
   public void setWalletTransactionsStatus(
                                           SyncTracker.SyncState walletTransactionsStatus) {
-    this.walletTransactionsStatus = walletTransactionsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_WALLETTRANSACTIONS, walletTransactionsStatus);
   }
 
   public String getWalletTransactionsDetail() {
-    return walletTransactionsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_WALLETTRANSACTIONS);
   }
 
   public void setWalletTransactionsDetail(
                                           String walletTransactionsDetail) {
-    this.walletTransactionsDetail = walletTransactionsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_WALLETTRANSACTIONS, walletTransactionsDetail);
   }
 
   public SyncTracker.SyncState getLocationsStatus() {
-    return locationsStatus;
+    return getStatus(SynchronizationState.SYNC_CHAR_LOCATIONS);
   }
 
   public void setLocationsStatus(
                                  SyncTracker.SyncState locationsStatus) {
-    this.locationsStatus = locationsStatus;
+    setStatus(SynchronizationState.SYNC_CHAR_LOCATIONS, locationsStatus);
   }
 
   public String getLocationsDetail() {
-    return locationsDetail;
+    return getDetail(SynchronizationState.SYNC_CHAR_LOCATIONS);
   }
 
   public void setLocationsDetail(
                                  String locationsDetail) {
-    this.locationsDetail = locationsDetail;
+    setDetail(SynchronizationState.SYNC_CHAR_LOCATIONS, locationsDetail);
   }
 
   @Override
   public int hashCode() {
-    final int prime = 31;
-    int result = super.hashCode();
-    result = prime * result + ((accountBalanceDetail == null) ? 0 : accountBalanceDetail.hashCode());
-    result = prime * result + ((accountBalanceStatus == null) ? 0 : accountBalanceStatus.hashCode());
-    result = prime * result + ((accountStatusDetail == null) ? 0 : accountStatusDetail.hashCode());
-    result = prime * result + ((accountStatusStatus == null) ? 0 : accountStatusStatus.hashCode());
-    result = prime * result + ((assetListDetail == null) ? 0 : assetListDetail.hashCode());
-    result = prime * result + ((assetListStatus == null) ? 0 : assetListStatus.hashCode());
-    result = prime * result + ((blueprintsDetail == null) ? 0 : blueprintsDetail.hashCode());
-    result = prime * result + ((blueprintsStatus == null) ? 0 : blueprintsStatus.hashCode());
-    result = prime * result + ((bookmarksDetail == null) ? 0 : bookmarksDetail.hashCode());
-    result = prime * result + ((bookmarksStatus == null) ? 0 : bookmarksStatus.hashCode());
-    result = prime * result + ((calendarEventAttendeesDetail == null) ? 0 : calendarEventAttendeesDetail.hashCode());
-    result = prime * result + ((calendarEventAttendeesStatus == null) ? 0 : calendarEventAttendeesStatus.hashCode());
-    result = prime * result + ((characterSheetDetail == null) ? 0 : characterSheetDetail.hashCode());
-    result = prime * result + ((characterSheetStatus == null) ? 0 : characterSheetStatus.hashCode());
-    result = prime * result + ((chatChannelsDetail == null) ? 0 : chatChannelsDetail.hashCode());
-    result = prime * result + ((chatChannelsStatus == null) ? 0 : chatChannelsStatus.hashCode());
-    result = prime * result + ((contactListDetail == null) ? 0 : contactListDetail.hashCode());
-    result = prime * result + ((contactListStatus == null) ? 0 : contactListStatus.hashCode());
-    result = prime * result + ((contactNotificationsDetail == null) ? 0 : contactNotificationsDetail.hashCode());
-    result = prime * result + ((contactNotificationsStatus == null) ? 0 : contactNotificationsStatus.hashCode());
-    result = prime * result + ((contractBidsDetail == null) ? 0 : contractBidsDetail.hashCode());
-    result = prime * result + ((contractBidsStatus == null) ? 0 : contractBidsStatus.hashCode());
-    result = prime * result + ((contractItemsDetail == null) ? 0 : contractItemsDetail.hashCode());
-    result = prime * result + ((contractItemsStatus == null) ? 0 : contractItemsStatus.hashCode());
-    result = prime * result + ((contractsDetail == null) ? 0 : contractsDetail.hashCode());
-    result = prime * result + ((contractsStatus == null) ? 0 : contractsStatus.hashCode());
-    result = prime * result + ((facWarStatsDetail == null) ? 0 : facWarStatsDetail.hashCode());
-    result = prime * result + ((facWarStatsStatus == null) ? 0 : facWarStatsStatus.hashCode());
-    result = prime * result + ((industryJobsDetail == null) ? 0 : industryJobsDetail.hashCode());
-    result = prime * result + ((industryJobsHistoryDetail == null) ? 0 : industryJobsHistoryDetail.hashCode());
-    result = prime * result + ((industryJobsHistoryStatus == null) ? 0 : industryJobsHistoryStatus.hashCode());
-    result = prime * result + ((industryJobsStatus == null) ? 0 : industryJobsStatus.hashCode());
-    result = prime * result + ((killlogDetail == null) ? 0 : killlogDetail.hashCode());
-    result = prime * result + ((killlogStatus == null) ? 0 : killlogStatus.hashCode());
-    result = prime * result + ((locationsDetail == null) ? 0 : locationsDetail.hashCode());
-    result = prime * result + ((locationsStatus == null) ? 0 : locationsStatus.hashCode());
-    result = prime * result + ((mailBodiesDetail == null) ? 0 : mailBodiesDetail.hashCode());
-    result = prime * result + ((mailBodiesStatus == null) ? 0 : mailBodiesStatus.hashCode());
-    result = prime * result + ((mailMessagesDetail == null) ? 0 : mailMessagesDetail.hashCode());
-    result = prime * result + ((mailMessagesStatus == null) ? 0 : mailMessagesStatus.hashCode());
-    result = prime * result + ((mailingListsDetail == null) ? 0 : mailingListsDetail.hashCode());
-    result = prime * result + ((mailingListsStatus == null) ? 0 : mailingListsStatus.hashCode());
-    result = prime * result + ((marketOrdersDetail == null) ? 0 : marketOrdersDetail.hashCode());
-    result = prime * result + ((marketOrdersStatus == null) ? 0 : marketOrdersStatus.hashCode());
-    result = prime * result + ((medalsDetail == null) ? 0 : medalsDetail.hashCode());
-    result = prime * result + ((medalsStatus == null) ? 0 : medalsStatus.hashCode());
-    result = prime * result + ((notificationTextsDetail == null) ? 0 : notificationTextsDetail.hashCode());
-    result = prime * result + ((notificationTextsStatus == null) ? 0 : notificationTextsStatus.hashCode());
-    result = prime * result + ((notificationsDetail == null) ? 0 : notificationsDetail.hashCode());
-    result = prime * result + ((notificationsStatus == null) ? 0 : notificationsStatus.hashCode());
-    result = prime * result + ((partialCharacterSheetDetail == null) ? 0 : partialCharacterSheetDetail.hashCode());
-    result = prime * result + ((partialCharacterSheetStatus == null) ? 0 : partialCharacterSheetStatus.hashCode());
-    result = prime * result + ((planetaryColoniesDetail == null) ? 0 : planetaryColoniesDetail.hashCode());
-    result = prime * result + ((planetaryColoniesStatus == null) ? 0 : planetaryColoniesStatus.hashCode());
-    result = prime * result + ((researchDetail == null) ? 0 : researchDetail.hashCode());
-    result = prime * result + ((researchStatus == null) ? 0 : researchStatus.hashCode());
-    result = prime * result + ((skillInTrainingDetail == null) ? 0 : skillInTrainingDetail.hashCode());
-    result = prime * result + ((skillInTrainingStatus == null) ? 0 : skillInTrainingStatus.hashCode());
-    result = prime * result + ((skillQueueDetail == null) ? 0 : skillQueueDetail.hashCode());
-    result = prime * result + ((skillQueueStatus == null) ? 0 : skillQueueStatus.hashCode());
-    result = prime * result + ((skillsDetail == null) ? 0 : skillsDetail.hashCode());
-    result = prime * result + ((skillsStatus == null) ? 0 : skillsStatus.hashCode());
-    result = prime * result + ((standingsDetail == null) ? 0 : standingsDetail.hashCode());
-    result = prime * result + ((standingsStatus == null) ? 0 : standingsStatus.hashCode());
-    result = prime * result + ((upcomingCalendarEventsDetail == null) ? 0 : upcomingCalendarEventsDetail.hashCode());
-    result = prime * result + ((upcomingCalendarEventsStatus == null) ? 0 : upcomingCalendarEventsStatus.hashCode());
-    result = prime * result + ((walletJournalDetail == null) ? 0 : walletJournalDetail.hashCode());
-    result = prime * result + ((walletJournalStatus == null) ? 0 : walletJournalStatus.hashCode());
-    result = prime * result + ((walletTransactionsDetail == null) ? 0 : walletTransactionsDetail.hashCode());
-    result = prime * result + ((walletTransactionsStatus == null) ? 0 : walletTransactionsStatus.hashCode());
-    return result;
+    return 31 * super.hashCode() + getStateVector().hashCode();
   }
 
   @Override
@@ -1440,177 +1076,12 @@ public class CapsuleerSyncTracker extends SyncTracker {
     if (this == obj) return true;
     if (!super.equals(obj)) return false;
     if (getClass() != obj.getClass()) return false;
-    CapsuleerSyncTracker other = (CapsuleerSyncTracker) obj;
-    if (accountBalanceDetail == null) {
-      if (other.accountBalanceDetail != null) return false;
-    } else if (!accountBalanceDetail.equals(other.accountBalanceDetail)) return false;
-    if (accountBalanceStatus != other.accountBalanceStatus) return false;
-    if (accountStatusDetail == null) {
-      if (other.accountStatusDetail != null) return false;
-    } else if (!accountStatusDetail.equals(other.accountStatusDetail)) return false;
-    if (accountStatusStatus != other.accountStatusStatus) return false;
-    if (assetListDetail == null) {
-      if (other.assetListDetail != null) return false;
-    } else if (!assetListDetail.equals(other.assetListDetail)) return false;
-    if (assetListStatus != other.assetListStatus) return false;
-    if (blueprintsDetail == null) {
-      if (other.blueprintsDetail != null) return false;
-    } else if (!blueprintsDetail.equals(other.blueprintsDetail)) return false;
-    if (blueprintsStatus != other.blueprintsStatus) return false;
-    if (bookmarksDetail == null) {
-      if (other.bookmarksDetail != null) return false;
-    } else if (!bookmarksDetail.equals(other.bookmarksDetail)) return false;
-    if (bookmarksStatus != other.bookmarksStatus) return false;
-    if (calendarEventAttendeesDetail == null) {
-      if (other.calendarEventAttendeesDetail != null) return false;
-    } else if (!calendarEventAttendeesDetail.equals(other.calendarEventAttendeesDetail)) return false;
-    if (calendarEventAttendeesStatus != other.calendarEventAttendeesStatus) return false;
-    if (characterSheetDetail == null) {
-      if (other.characterSheetDetail != null) return false;
-    } else if (!characterSheetDetail.equals(other.characterSheetDetail)) return false;
-    if (characterSheetStatus != other.characterSheetStatus) return false;
-    if (chatChannelsDetail == null) {
-      if (other.chatChannelsDetail != null) return false;
-    } else if (!chatChannelsDetail.equals(other.chatChannelsDetail)) return false;
-    if (chatChannelsStatus != other.chatChannelsStatus) return false;
-    if (contactListDetail == null) {
-      if (other.contactListDetail != null) return false;
-    } else if (!contactListDetail.equals(other.contactListDetail)) return false;
-    if (contactListStatus != other.contactListStatus) return false;
-    if (contactNotificationsDetail == null) {
-      if (other.contactNotificationsDetail != null) return false;
-    } else if (!contactNotificationsDetail.equals(other.contactNotificationsDetail)) return false;
-    if (contactNotificationsStatus != other.contactNotificationsStatus) return false;
-    if (contractBidsDetail == null) {
-      if (other.contractBidsDetail != null) return false;
-    } else if (!contractBidsDetail.equals(other.contractBidsDetail)) return false;
-    if (contractBidsStatus != other.contractBidsStatus) return false;
-    if (contractItemsDetail == null) {
-      if (other.contractItemsDetail != null) return false;
-    } else if (!contractItemsDetail.equals(other.contractItemsDetail)) return false;
-    if (contractItemsStatus != other.contractItemsStatus) return false;
-    if (contractsDetail == null) {
-      if (other.contractsDetail != null) return false;
-    } else if (!contractsDetail.equals(other.contractsDetail)) return false;
-    if (contractsStatus != other.contractsStatus) return false;
-    if (facWarStatsDetail == null) {
-      if (other.facWarStatsDetail != null) return false;
-    } else if (!facWarStatsDetail.equals(other.facWarStatsDetail)) return false;
-    if (facWarStatsStatus != other.facWarStatsStatus) return false;
-    if (industryJobsDetail == null) {
-      if (other.industryJobsDetail != null) return false;
-    } else if (!industryJobsDetail.equals(other.industryJobsDetail)) return false;
-    if (industryJobsHistoryDetail == null) {
-      if (other.industryJobsHistoryDetail != null) return false;
-    } else if (!industryJobsHistoryDetail.equals(other.industryJobsHistoryDetail)) return false;
-    if (industryJobsHistoryStatus != other.industryJobsHistoryStatus) return false;
-    if (industryJobsStatus != other.industryJobsStatus) return false;
-    if (killlogDetail == null) {
-      if (other.killlogDetail != null) return false;
-    } else if (!killlogDetail.equals(other.killlogDetail)) return false;
-    if (killlogStatus != other.killlogStatus) return false;
-    if (locationsDetail == null) {
-      if (other.locationsDetail != null) return false;
-    } else if (!locationsDetail.equals(other.locationsDetail)) return false;
-    if (locationsStatus != other.locationsStatus) return false;
-    if (mailBodiesDetail == null) {
-      if (other.mailBodiesDetail != null) return false;
-    } else if (!mailBodiesDetail.equals(other.mailBodiesDetail)) return false;
-    if (mailBodiesStatus != other.mailBodiesStatus) return false;
-    if (mailMessagesDetail == null) {
-      if (other.mailMessagesDetail != null) return false;
-    } else if (!mailMessagesDetail.equals(other.mailMessagesDetail)) return false;
-    if (mailMessagesStatus != other.mailMessagesStatus) return false;
-    if (mailingListsDetail == null) {
-      if (other.mailingListsDetail != null) return false;
-    } else if (!mailingListsDetail.equals(other.mailingListsDetail)) return false;
-    if (mailingListsStatus != other.mailingListsStatus) return false;
-    if (marketOrdersDetail == null) {
-      if (other.marketOrdersDetail != null) return false;
-    } else if (!marketOrdersDetail.equals(other.marketOrdersDetail)) return false;
-    if (marketOrdersStatus != other.marketOrdersStatus) return false;
-    if (medalsDetail == null) {
-      if (other.medalsDetail != null) return false;
-    } else if (!medalsDetail.equals(other.medalsDetail)) return false;
-    if (medalsStatus != other.medalsStatus) return false;
-    if (notificationTextsDetail == null) {
-      if (other.notificationTextsDetail != null) return false;
-    } else if (!notificationTextsDetail.equals(other.notificationTextsDetail)) return false;
-    if (notificationTextsStatus != other.notificationTextsStatus) return false;
-    if (notificationsDetail == null) {
-      if (other.notificationsDetail != null) return false;
-    } else if (!notificationsDetail.equals(other.notificationsDetail)) return false;
-    if (notificationsStatus != other.notificationsStatus) return false;
-    if (partialCharacterSheetDetail == null) {
-      if (other.partialCharacterSheetDetail != null) return false;
-    } else if (!partialCharacterSheetDetail.equals(other.partialCharacterSheetDetail)) return false;
-    if (partialCharacterSheetStatus != other.partialCharacterSheetStatus) return false;
-    if (planetaryColoniesDetail == null) {
-      if (other.planetaryColoniesDetail != null) return false;
-    } else if (!planetaryColoniesDetail.equals(other.planetaryColoniesDetail)) return false;
-    if (planetaryColoniesStatus != other.planetaryColoniesStatus) return false;
-    if (researchDetail == null) {
-      if (other.researchDetail != null) return false;
-    } else if (!researchDetail.equals(other.researchDetail)) return false;
-    if (researchStatus != other.researchStatus) return false;
-    if (skillInTrainingDetail == null) {
-      if (other.skillInTrainingDetail != null) return false;
-    } else if (!skillInTrainingDetail.equals(other.skillInTrainingDetail)) return false;
-    if (skillInTrainingStatus != other.skillInTrainingStatus) return false;
-    if (skillQueueDetail == null) {
-      if (other.skillQueueDetail != null) return false;
-    } else if (!skillQueueDetail.equals(other.skillQueueDetail)) return false;
-    if (skillQueueStatus != other.skillQueueStatus) return false;
-    if (skillsDetail == null) {
-      if (other.skillsDetail != null) return false;
-    } else if (!skillsDetail.equals(other.skillsDetail)) return false;
-    if (skillsStatus != other.skillsStatus) return false;
-    if (standingsDetail == null) {
-      if (other.standingsDetail != null) return false;
-    } else if (!standingsDetail.equals(other.standingsDetail)) return false;
-    if (standingsStatus != other.standingsStatus) return false;
-    if (upcomingCalendarEventsDetail == null) {
-      if (other.upcomingCalendarEventsDetail != null) return false;
-    } else if (!upcomingCalendarEventsDetail.equals(other.upcomingCalendarEventsDetail)) return false;
-    if (upcomingCalendarEventsStatus != other.upcomingCalendarEventsStatus) return false;
-    if (walletJournalDetail == null) {
-      if (other.walletJournalDetail != null) return false;
-    } else if (!walletJournalDetail.equals(other.walletJournalDetail)) return false;
-    if (walletJournalStatus != other.walletJournalStatus) return false;
-    if (walletTransactionsDetail == null) {
-      if (other.walletTransactionsDetail != null) return false;
-    } else if (!walletTransactionsDetail.equals(other.walletTransactionsDetail)) return false;
-    if (walletTransactionsStatus != other.walletTransactionsStatus) return false;
-    return true;
+    return getStateVector().equals(((CapsuleerSyncTracker) obj).getStateVector());
   }
 
   @Override
   public String toString() {
-    return "CapsuleerSyncTracker [accountStatusStatus=" + accountStatusStatus + ", accountStatusDetail=" + accountStatusDetail + ", accountBalanceStatus="
-        + accountBalanceStatus + ", accountBalanceDetail=" + accountBalanceDetail + ", assetListStatus=" + assetListStatus + ", assetListDetail="
-        + assetListDetail + ", calendarEventAttendeesStatus=" + calendarEventAttendeesStatus + ", calendarEventAttendeesDetail=" + calendarEventAttendeesDetail
-        + ", characterSheetStatus=" + characterSheetStatus + ", characterSheetDetail=" + characterSheetDetail + ", partialCharacterSheetStatus="
-        + partialCharacterSheetStatus + ", partialCharacterSheetDetail=" + partialCharacterSheetDetail + ", chatChannelsStatus=" + chatChannelsStatus
-        + ", chatChannelsDetail=" + chatChannelsDetail + ", contactListStatus=" + contactListStatus + ", contactListDetail=" + contactListDetail
-        + ", contactNotificationsStatus=" + contactNotificationsStatus + ", contactNotificationsDetail=" + contactNotificationsDetail + ", blueprintsStatus="
-        + blueprintsStatus + ", blueprintsDetail=" + blueprintsDetail + ", bookmarksStatus=" + bookmarksStatus + ", bookmarksDetail=" + bookmarksDetail
-        + ", contractsStatus=" + contractsStatus + ", contractsDetail=" + contractsDetail + ", contractItemsStatus=" + contractItemsStatus
-        + ", contractItemsDetail=" + contractItemsDetail + ", contractBidsStatus=" + contractBidsStatus + ", contractBidsDetail=" + contractBidsDetail
-        + ", facWarStatsStatus=" + facWarStatsStatus + ", facWarStatsDetail=" + facWarStatsDetail + ", industryJobsStatus=" + industryJobsStatus
-        + ", industryJobsDetail=" + industryJobsDetail + ", industryJobsHistoryStatus=" + industryJobsHistoryStatus + ", industryJobsHistoryDetail="
-        + industryJobsHistoryDetail + ", killlogStatus=" + killlogStatus + ", killlogDetail=" + killlogDetail + ", mailBodiesStatus=" + mailBodiesStatus
-        + ", mailBodiesDetail=" + mailBodiesDetail + ", mailingListsStatus=" + mailingListsStatus + ", mailingListsDetail=" + mailingListsDetail
-        + ", mailMessagesStatus=" + mailMessagesStatus + ", mailMessagesDetail=" + mailMessagesDetail + ", marketOrdersStatus=" + marketOrdersStatus
-        + ", marketOrdersDetail=" + marketOrdersDetail + ", medalsStatus=" + medalsStatus + ", medalsDetail=" + medalsDetail + ", notificationsStatus="
-        + notificationsStatus + ", notificationsDetail=" + notificationsDetail + ", notificationTextsStatus=" + notificationTextsStatus
-        + ", notificationTextsDetail=" + notificationTextsDetail + ", planetaryColoniesStatus=" + planetaryColoniesStatus + ", planetaryColoniesDetail="
-        + planetaryColoniesDetail + ", researchStatus=" + researchStatus + ", researchDetail=" + researchDetail + ", skillInTrainingStatus="
-        + skillInTrainingStatus + ", skillInTrainingDetail=" + skillInTrainingDetail + ", skillQueueStatus=" + skillQueueStatus + ", skillQueueDetail="
-        + skillQueueDetail + ", skillsStatus=" + skillsStatus + ", skillsDetail=" + skillsDetail + ", standingsStatus=" + standingsStatus + ", standingsDetail="
-        + standingsDetail + ", upcomingCalendarEventsStatus=" + upcomingCalendarEventsStatus + ", upcomingCalendarEventsDetail=" + upcomingCalendarEventsDetail
-        + ", walletJournalStatus=" + walletJournalStatus + ", walletJournalDetail=" + walletJournalDetail + ", walletTransactionsStatus="
-        + walletTransactionsStatus + ", walletTransactionsDetail=" + walletTransactionsDetail + ", locationsStatus=" + locationsStatus + ", locationsDetail="
-        + locationsDetail + "]";
+    return "CapsuleerSyncTracker [" + formatStates(FIELDS) + "]";
   }
 
   public static CapsuleerSyncTracker createOrGetUnfinishedTracker(
@@ -1692,7 +1163,7 @@ public class CapsuleerSyncTracker extends SyncTracker {
         public List<CapsuleerSyncTracker> run() throws Exception {
           TypedQuery<CapsuleerSyncTracker> getter = EveKitUserAccountProvider.getFactory().getEntityManager()
               .createNamedQuery("CapsuleerSyncTracker.getSummary", CapsuleerSyncTracker.class);
-          getter.setParameter("account", fromDate);
+          getter.setParameter("start", fromDate.getTime());
           return getter.getResultList();
         }
       });
@@ -1702,135 +1173,24 @@ public class CapsuleerSyncTracker extends SyncTracker {
     return null;
   }
 
+  /**
+   * Summarize the errors recorded by trackers which finished on the given day.
+   * 
+   * @param day
+   *          the day to summarize.
+   * @return the error summary.
+   * @throws IOException
+   *           on any database error.
+   */
+  public static SyncErrorSummary getErrorSummary(
+                                                 Date day)
+    throws IOException {
+    return SyncTracker.summarizeErrors(CapsuleerSyncTracker.class, FIELDS, day);
+  }
+
   public static String summarizeErrors(
                                        Date day)
     throws IOException {
-    StringBuilder summary = new StringBuilder();
-    summary.append("Capsuleer Sync Tracker Error Summary on ");
-    long days = day.getTime() / (1000 * 60 * 60 * 24);
-    Date dayStart = new Date(days * 1000 * 60 * 60 * 24 + 1);
-    Date nextDay = new Date(dayStart.getTime() + (1000 * 60 * 60 * 24) - 1);
-    summary.append(DateFormat.getDateInstance().format(dayStart)).append('\n');
-    List<CapsuleerSyncTracker> result = getSummary(dayStart);
-    if (result == null) result = Collections.emptyList();
-
-    // Process sync results with error.
-    int errorCount = 0;
-    Map<String, Map<String, AtomicInteger>> data = new HashMap<String, Map<String, AtomicInteger>>();
-    for (CapsuleerSyncTracker next : result) {
-      if (new Date(next.getSyncEnd()).after(nextDay)) continue;
-      if (next.accountStatusStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("accountStatus", next.accountStatusDetail, data);
-      } else if (next.accountBalanceStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("accountBalance", next.accountBalanceDetail, data);
-      } else if (next.assetListStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("assetList", next.assetListDetail, data);
-      } else if (next.calendarEventAttendeesStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("calendarEventAttendees", next.calendarEventAttendeesDetail, data);
-      } else if (next.characterSheetStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("characterSheet", next.characterSheetDetail, data);
-      } else if (next.chatChannelsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("chatChannels", next.chatChannelsDetail, data);
-      } else if (next.contactListStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contactList", next.contactListDetail, data);
-      } else if (next.contactNotificationsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contactNotifications", next.contactNotificationsDetail, data);
-      } else if (next.blueprintsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("blueprints", next.blueprintsDetail, data);
-      } else if (next.bookmarksStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("bookmarks", next.bookmarksDetail, data);
-      } else if (next.contractsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contracts", next.contractsDetail, data);
-      } else if (next.contractItemsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contractItems", next.contractItemsDetail, data);
-      } else if (next.contractBidsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contractBids", next.contractBidsDetail, data);
-      } else if (next.facWarStatsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("facWarStats", next.facWarStatsDetail, data);
-      } else if (next.industryJobsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("industryJobs", next.industryJobsDetail, data);
-      } else if (next.industryJobsHistoryStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("industryJobsHistory", next.industryJobsHistoryDetail, data);
-      } else if (next.killlogStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("killlog", next.killlogDetail, data);
-      } else if (next.mailBodiesStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("mailBodies", next.mailBodiesDetail, data);
-      } else if (next.mailingListsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("mailingLists", next.mailingListsDetail, data);
-      } else if (next.mailMessagesStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("mailMessages", next.mailMessagesDetail, data);
-      } else if (next.marketOrdersStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("marketOrders", next.marketOrdersDetail, data);
-      } else if (next.medalsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("medals", next.medalsDetail, data);
-      } else if (next.notificationsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("notifications", next.notificationsDetail, data);
-      } else if (next.notificationTextsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("notificationTexts", next.notificationTextsDetail, data);
-      } else if (next.planetaryColoniesStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("planetaryColonies", next.planetaryColoniesDetail, data);
-      } else if (next.researchStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("research", next.researchDetail, data);
-      } else if (next.skillInTrainingStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("skillInTraining", next.skillInTrainingDetail, data);
-      } else if (next.skillQueueStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("skillQueue", next.skillQueueDetail, data);
-      } else if (next.standingsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("standings", next.standingsDetail, data);
-      } else if (next.upcomingCalendarEventsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("upcomingCalendarEvents", next.upcomingCalendarEventsDetail, data);
-      } else if (next.walletJournalStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("walletJournal", next.walletJournalDetail, data);
-      } else if (next.walletTransactionsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("walletTransactions", next.walletTransactionsDetail, data);
-      } else if (next.locationsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("locations", next.locationsDetail, data);
-      }
-    }
-
-    summary.append(errorCount).append(" trackers with errors\n");
-
-    for (String category : data.keySet()) {
-      summary.append("Category - ").append(category).append(":\n");
-      for (String reason : data.get(category).keySet()) {
-        summary.append("    ").append(reason).append(" - ").append(data.get(category).get(reason).get()).append('\n');
-      }
-      summary.append('\n');
-    }
-
-    return summary.toString();
+    return getErrorSummary(day).format("Capsuleer Sync Tracker Error Summary");
   }
 }
@@ -1,14 +1,13 @@
 package enterprises.orbital.evekit.model;
 
 import java.io.IOException;
-import java.text.DateFormat;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,12 +25,16 @@ import enterprises.orbital.evekit.account.EveKitUserAccountProvider;
 import enterprises.orbital.evekit.account.SynchronizedEveAccount;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Object to track synchronization request for corporation. A synchronization tracker starts out empty and fills in each supported field type until it is marked
  * as finished. This makes it relatively straightforward to cache a tracker since slightly stale copies are usually harmless.
  */
 @Entity
+@DynamicInsert
+@DynamicUpdate
 @Table(
     name = "evekit_corp_sync")
 @NamedQueries({
@@ -312,39 +315,64 @@ public class CorporationSyncTracker extends SyncTracker {
   @JsonProperty("locationsDetail")
   private String                locationsDetail;
 
+  // Per-state column accessors, used to keep the columns and the packed state vector in step
+  private static final Map<SynchronizationState, StateField<CorporationSyncTracker>> FIELDS;
+  static {
+    Map<SynchronizationState, StateField<CorporationSyncTracker>> fields = new EnumMap<>(SynchronizationState.class);
+    fields.put(SynchronizationState.SYNC_CORP_ACCOUNTBALANCE, new StateField<CorporationSyncTracker>("accountBalance", t -> t.accountBalanceStatus, (t, v) -> t.accountBalanceStatus = v, t -> t.accountBalanceDetail, (t, v) -> t.accountBalanceDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_ASSETLIST, new StateField<CorporationSyncTracker>("assetList", t -> t.assetListStatus, (t, v) -> t.assetListStatus = v, t -> t.assetListDetail, (t, v) -> t.assetListDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CORPSHEET, new StateField<CorporationSyncTracker>("corporationSheet", t -> t.corporationSheetStatus, (t, v) -> t.corporationSheetStatus = v, t -> t.corporationSheetDetail, (t, v) -> t.corporationSheetDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CONTACTLIST, new StateField<CorporationSyncTracker>("contactList", t -> t.contactListStatus, (t, v) -> t.contactListStatus = v, t -> t.contactListDetail, (t, v) -> t.contactListDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE, new StateField<CorporationSyncTracker>("customsOffice", t -> t.customsOfficeStatus, (t, v) -> t.customsOfficeStatus = v, t -> t.customsOfficeDetail, (t, v) -> t.customsOfficeDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_BLUEPRINTS, new StateField<CorporationSyncTracker>("blueprints", t -> t.blueprintsStatus, (t, v) -> t.blueprintsStatus = v, t -> t.blueprintsDetail, (t, v) -> t.blueprintsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_BOOKMARKS, new StateField<CorporationSyncTracker>("bookmarks", t -> t.bookmarksStatus, (t, v) -> t.bookmarksStatus = v, t -> t.bookmarksDetail, (t, v) -> t.bookmarksDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CONTRACTS, new StateField<CorporationSyncTracker>("contracts", t -> t.contractsStatus, (t, v) -> t.contractsStatus = v, t -> t.contractsDetail, (t, v) -> t.contractsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CONTRACTITEMS, new StateField<CorporationSyncTracker>("contractItems", t -> t.contractItemsStatus, (t, v) -> t.contractItemsStatus = v, t -> t.contractItemsDetail, (t, v) -> t.contractItemsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CONTRACTBIDS, new StateField<CorporationSyncTracker>("contractBids", t -> t.contractBidsStatus, (t, v) -> t.contractBidsStatus = v, t -> t.contractBidsDetail, (t, v) -> t.contractBidsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_FACWARSTATS, new StateField<CorporationSyncTracker>("facWarStats", t -> t.facWarStatsStatus, (t, v) -> t.facWarStatsStatus = v, t -> t.facWarStatsDetail, (t, v) -> t.facWarStatsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_FACILITIES, new StateField<CorporationSyncTracker>("facilities", t -> t.facilitiesStatus, (t, v) -> t.facilitiesStatus = v, t -> t.facilitiesDetail, (t, v) -> t.facilitiesDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_INDUSTRYJOBS, new StateField<CorporationSyncTracker>("industryJobs", t -> t.industryJobsStatus, (t, v) -> t.industryJobsStatus = v, t -> t.industryJobsDetail, (t, v) -> t.industryJobsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_INDUSTRYJOBSHISTORY, new StateField<CorporationSyncTracker>("industryJobsHistory", t -> t.industryJobsHistoryStatus, (t, v) -> t.industryJobsHistoryStatus = v, t -> t.industryJobsHistoryDetail, (t, v) -> t.industryJobsHistoryDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_KILLLOG, new StateField<CorporationSyncTracker>("killlog", t -> t.killlogStatus, (t, v) -> t.killlogStatus = v, t -> t.killlogDetail, (t, v) -> t.killlogDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_MARKETORDERS, new StateField<CorporationSyncTracker>("marketOrders", t -> t.marketOrdersStatus, (t, v) -> t.marketOrdersStatus = v, t -> t.marketOrdersDetail, (t, v) -> t.marketOrdersDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_MEMBERMEDALS, new StateField<CorporationSyncTracker>("memberMedals", t -> t.memberMedalsStatus, (t, v) -> t.memberMedalsStatus = v, t -> t.memberMedalsDetail, (t, v) -> t.memberMedalsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_STANDINGS, new StateField<CorporationSyncTracker>("standings", t -> t.standingsStatus, (t, v) -> t.standingsStatus = v, t -> t.standingsDetail, (t, v) -> t.standingsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_WALLETJOURNAL, new StateField<CorporationSyncTracker>("walletJournal", t -> t.walletJournalStatus, (t, v) -> t.walletJournalStatus = v, t -> t.walletJournalDetail, (t, v) -> t.walletJournalDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_WALLETTRANSACTIONS, new StateField<CorporationSyncTracker>("walletTransactions", t -> t.walletTransactionsStatus, (t, v) -> t.walletTransactionsStatus = v, t -> t.walletTransactionsDetail, (t, v) -> t.walletTransactionsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_SECURITY, new StateField<CorporationSyncTracker>("memberSecurity", t -> t.memberSecurityStatus, (t, v) -> t.memberSecurityStatus = v, t -> t.memberSecurityDetail, (t, v) -> t.memberSecurityDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CONTAINERLOG, new StateField<CorporationSyncTracker>("containerLog", t -> t.containerLogStatus, (t, v) -> t.containerLogStatus = v, t -> t.containerLogDetail, (t, v) -> t.containerLogDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_MEMBERSECURITYLOG, new StateField<CorporationSyncTracker>("memberSecurityLog", t -> t.memberSecurityLogStatus, (t, v) -> t.memberSecurityLogStatus = v, t -> t.memberSecurityLogDetail, (t, v) -> t.memberSecurityLogDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_MEMBERTRACKING, new StateField<CorporationSyncTracker>("memberTracking", t -> t.memberTrackingStatus, (t, v) -> t.memberTrackingStatus = v, t -> t.memberTrackingDetail, (t, v) -> t.memberTrackingDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CORPMEDALS, new StateField<CorporationSyncTracker>("corpMedals", t -> t.corpMedalsStatus, (t, v) -> t.corpMedalsStatus = v, t -> t.corpMedalsDetail, (t, v) -> t.corpMedalsDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_OUTPOSTLIST, new StateField<CorporationSyncTracker>("outpostList", t -> t.outpostListStatus, (t, v) -> t.outpostListStatus = v, t -> t.outpostListDetail, (t, v) -> t.outpostListDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_OUTPOSTDETAIL, new StateField<CorporationSyncTracker>("outpostDetail", t -> t.outpostDetailStatus, (t, v) -> t.outpostDetailStatus = v, t -> t.outpostDetailDetail, (t, v) -> t.outpostDetailDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_SHAREHOLDERS, new StateField<CorporationSyncTracker>("shareholder", t -> t.shareholderStatus, (t, v) -> t.shareholderStatus = v, t -> t.shareholderDetail, (t, v) -> t.shareholderDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_STARBASELIST, new StateField<CorporationSyncTracker>("starbaseList", t -> t.starbaseListStatus, (t, v) -> t.starbaseListStatus = v, t -> t.starbaseListDetail, (t, v) -> t.starbaseListDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_STARBASEDETAIL, new StateField<CorporationSyncTracker>("starbaseDetail", t -> t.starbaseDetailStatus, (t, v) -> t.starbaseDetailStatus = v, t -> t.starbaseDetailDetail, (t, v) -> t.starbaseDetailDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_CORPTITLES, new StateField<CorporationSyncTracker>("corpTitles", t -> t.corpTitlesStatus, (t, v) -> t.corpTitlesStatus = v, t -> t.corpTitlesDetail, (t, v) -> t.corpTitlesDetail = v));
+    fields.put(SynchronizationState.SYNC_CORP_LOCATIONS, new StateField<CorporationSyncTracker>("locations", t -> t.locationsStatus, (t, v) -> t.locationsStatus = v, t -> t.locationsDetail, (t, v) -> t.locationsDetail = v));
+    FIELDS = Collections.unmodifiableMap(fields);
+  }
+
+  // Ordering rules between states: each state may only be synchronized after its prerequisites are processed
+  private static final SyncStateGraph GRAPH;
+  static {
+    Map<SynchronizationState, Set<SynchronizationState>> prerequisites = new EnumMap<>(SynchronizationState.class);
+    // Contract items require contracts
+    prerequisites.put(SynchronizationState.SYNC_CORP_CONTRACTITEMS, EnumSet.of(SynchronizationState.SYNC_CORP_CONTRACTS));
+    // Outpost details require the outpost list
+    prerequisites.put(SynchronizationState.SYNC_CORP_OUTPOSTDETAIL, EnumSet.of(SynchronizationState.SYNC_CORP_OUTPOSTLIST));
+    // Starbase details require the starbase list
+    prerequisites.put(SynchronizationState.SYNC_CORP_STARBASEDETAIL, EnumSet.of(SynchronizationState.SYNC_CORP_STARBASELIST));
+    // Locations require assets
+    prerequisites.put(SynchronizationState.SYNC_CORP_LOCATIONS, EnumSet.of(SynchronizationState.SYNC_CORP_ASSETLIST));
+    GRAPH = new SyncStateGraph(FIELDS.keySet(), prerequisites);
+  }
+
   public CorporationSyncTracker() {
-    accountBalanceStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    assetListStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    corporationSheetStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contactListStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    customsOfficeStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    blueprintsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    bookmarksStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contractsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contractItemsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    contractBidsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    facWarStatsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    facilitiesStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    industryJobsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    industryJobsHistoryStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    killlogStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    marketOrdersStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    memberMedalsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    standingsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    walletJournalStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    walletTransactionsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    memberSecurityStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    containerLogStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    memberSecurityLogStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    memberTrackingStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    corpMedalsStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    outpostListStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    outpostDetailStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    shareholderStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    starbaseListStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    starbaseDetailStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    corpTitlesStatus = SyncTracker.SyncState.NOT_PROCESSED;
-    locationsStatus = SyncTracker.SyncState.NOT_PROCESSED;
+    for (SynchronizationState next : FIELDS.keySet()) {
+      setState(next, SyncTracker.SyncState.NOT_PROCESSED, null);
+    }
   }
 
   @Override
@@ -352,988 +380,611 @@ public class CorporationSyncTracker extends SyncTracker {
                        SynchronizationState state,
                        SyncTracker.SyncState status,
                        String msg) {
-    switch (state) {
-
-    case SYNC_CORP_ACCOUNTBALANCE:
-      setAccountBalanceStatus(status);
-      setAccountBalanceDetail(msg);
-      break;
-
-    case SYNC_CORP_ASSETLIST:
-      setAssetListStatus(status);
-      setAssetListDetail(msg);
-      break;
-
-    case SYNC_CORP_CORPSHEET:
-      setCorporationSheetStatus(status);
-      setCorporationSheetDetail(msg);
-      break;
-
-    case SYNC_CORP_CONTACTLIST:
-      setContactListStatus(status);
-      setContactListDetail(msg);
-      break;
-
-    case SYNC_CORP_BLUEPRINTS:
-      setBlueprintsStatus(status);
-      setBlueprintsDetail(msg);
-      break;
-
-    case SYNC_CORP_BOOKMARKS:
-      setBookmarksStatus(status);
-      setBookmarksDetail(msg);
-      break;
-
-    case SYNC_CORP_CONTRACTS:
-      setContractsStatus(status);
-      setContractsDetail(msg);
-      break;
-
-    case SYNC_CORP_CONTRACTITEMS:
-      setContractItemsStatus(status);
-      setContractItemsDetail(msg);
-      break;
-
-    case SYNC_CORP_CONTRACTBIDS:
-      setContractBidsStatus(status);
-      setContractBidsDetail(msg);
-      break;
-
-    case SYNC_CORP_FACWARSTATS:
-      setFacWarStatsStatus(status);
-      setFacWarStatsDetail(msg);
-      break;
-
-    case SYNC_CORP_FACILITIES:
-      setFacilitiesStatus(status);
-      setFacilitiesDetail(msg);
-      break;
-
-    case SYNC_CORP_INDUSTRYJOBS:
-      setIndustryJobsStatus(status);
-      setIndustryJobsDetail(msg);
-      break;
-
-    case SYNC_CORP_INDUSTRYJOBSHISTORY:
-      setIndustryJobsHistoryStatus(status);
-      setIndustryJobsHistoryDetail(msg);
-      break;
-
-    case SYNC_CORP_KILLLOG:
-      setKilllogStatus(status);
-      setKilllogDetail(msg);
-      break;
-
-    case SYNC_CORP_MARKETORDERS:
-      setMarketOrdersStatus(status);
-      setMarketOrdersDetail(msg);
-      break;
-
-    case SYNC_CORP_MEMBERMEDALS:
-      setMemberMedalsStatus(status);
-      setMemberMedalsDetail(msg);
-      break;
-
-    case SYNC_CORP_STANDINGS:
-      setStandingsStatus(status);
-      setStandingsDetail(msg);
-      break;
-
-    case SYNC_CORP_WALLETJOURNAL:
-      setWalletJournalStatus(status);
-      setWalletJournalDetail(msg);
-      break;
-
-    case SYNC_CORP_WALLETTRANSACTIONS:
-      setWalletTransactionsStatus(status);
-      setWalletTransactionsDetail(msg);
-      break;
-
-    case SYNC_CORP_SECURITY:
-      setMemberSecurityStatus(status);
-      setMemberSecurityDetail(msg);
-      break;
-
-    case SYNC_CORP_CONTAINERLOG:
-      setContainerLogStatus(status);
-      setContainerLogDetail(msg);
-      break;
-
-    case SYNC_CORP_MEMBERSECURITYLOG:
-      setMemberSecurityLogStatus(status);
-      setMemberSecurityLogDetail(msg);
-      break;
-
-    case SYNC_CORP_MEMBERTRACKING:
-      setMemberTrackingStatus(status);
-      setMemberTrackingDetail(msg);
-      break;
-
-    case SYNC_CORP_CORPMEDALS:
-      setCorpMedalsStatus(status);
-      setCorpMedalsDetail(msg);
-      break;
-
-    case SYNC_CORP_OUTPOSTLIST:
-      setOutpostListStatus(status);
-      setOutpostListDetail(msg);
-      break;
-
-    case SYNC_CORP_OUTPOSTDETAIL:
-      setOutpostDetailStatus(status);
-      setOutpostDetailDetail(msg);
-      break;
-
-    case SYNC_CORP_SHAREHOLDERS:
-      setShareholderStatus(status);
-      setShareholderDetail(msg);
-      break;
-
-    case SYNC_CORP_STARBASELIST:
-      setStarbaseListStatus(status);
-      setStarbaseListDetail(msg);
-      break;
-
-    case SYNC_CORP_STARBASEDETAIL:
-      setStarbaseDetailStatus(status);
-      setStarbaseDetailDetail(msg);
-      break;
-
-    case SYNC_CORP_CORPTITLES:
-      setCorpTitlesStatus(status);
-      setCorpTitlesDetail(msg);
-      break;
-
-    case SYNC_CORP_LOCATIONS:
-      setLocationsStatus(status);
-      setLocationsDetail(msg);
-      break;
-
-    default:
-      // NOP
-      ;
-    }
+    StateField<CorporationSyncTracker> field = FIELDS.get(state);
+    if (field == null) return;
+    // Legacy columns are only written until packed-only storage is enabled
+    if (writeStateColumns()) field.set(this, status, msg);
+    updateStateVector(state, status, msg);
   }
 
   @Override
-  public SynchronizationState trackerComplete(
-                                              Set<SynchronizationState> checkState) {
-    for (SynchronizationState next : checkState) {
-      switch (next) {
-      case SYNC_CORP_ACCOUNTBALANCE:
-        if (accountBalanceStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_ASSETLIST:
-        if (assetListStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CORPSHEET:
-        if (corporationSheetStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CONTACTLIST:
-        if (contactListStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CUSTOMSOFFICE:
-        if (customsOfficeStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_BLUEPRINTS:
-        if (blueprintsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_BOOKMARKS:
-        if (bookmarksStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CONTRACTS:
-        if (contractsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CONTRACTITEMS:
-        // Contract items can only be next if we've completed contracts
-        if (contractsStatus != SyncTracker.SyncState.NOT_PROCESSED && contractItemsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CONTRACTBIDS:
-        if (contractBidsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_FACILITIES:
-        if (facilitiesStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_FACWARSTATS:
-        if (facWarStatsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_INDUSTRYJOBS:
-        if (industryJobsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_INDUSTRYJOBSHISTORY:
-        if (industryJobsHistoryStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_KILLLOG:
-        if (killlogStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_MARKETORDERS:
-        if (marketOrdersStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_MEMBERMEDALS:
-        if (memberMedalsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_STANDINGS:
-        if (standingsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_WALLETJOURNAL:
-        if (walletJournalStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_WALLETTRANSACTIONS:
-        if (walletTransactionsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_SECURITY:
-        if (memberSecurityStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CONTAINERLOG:
-        if (containerLogStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_MEMBERSECURITYLOG:
-        if (memberSecurityLogStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_MEMBERTRACKING:
-        if (memberTrackingStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CORPMEDALS:
-        if (corpMedalsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_OUTPOSTLIST:
-        if (outpostListStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_OUTPOSTDETAIL:
-        // Outpost details can only be next if we've completed outpost list
-        if (outpostListStatus != SyncTracker.SyncState.NOT_PROCESSED && outpostDetailStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_SHAREHOLDERS:
-        if (shareholderStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_STARBASELIST:
-        if (starbaseListStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_STARBASEDETAIL:
-        // Starbase details can only be next if we've completed starbase list
-        if (starbaseListStatus != SyncTracker.SyncState.NOT_PROCESSED && starbaseDetailStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_CORPTITLES:
-        if (corpTitlesStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_LOCATIONS:
-        // Only sync locations after sync'ing assets
-        if (assetListStatus != SyncTracker.SyncState.NOT_PROCESSED && locationsStatus == SyncTracker.SyncState.NOT_PROCESSED) return next;
-        break;
-
-      case SYNC_CORP_START:
-      case SYNC_CORP_END:
-      default:
-        // NOP
-        ;
-      }
+  protected SyncStateVector buildStateVector() {
+    SyncStateVector vector = new SyncStateVector();
+    for (Map.Entry<SynchronizationState, StateField<CorporationSyncTracker>> next : FIELDS.entrySet()) {
+      vector.set(next.getKey(), next.getValue().getStatus(this), next.getValue().getDetail(this));
     }
+    return vector;
+  }
 
-    return null;
+  @Override
+  protected SyncStateGraph getStateGraph() {
+    return GRAPH;
   }
 
   public void setMemberMedalsStatus(
                                     SyncTracker.SyncState memberMedalsStatus) {
-    this.memberMedalsStatus = memberMedalsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_MEMBERMEDALS, memberMedalsStatus);
   }
 
   public void setMemberSecurityStatus(
                                       SyncTracker.SyncState memberSecurityStatus) {
-    this.memberSecurityStatus = memberSecurityStatus;
+    setStatus(SynchronizationState.SYNC_CORP_SECURITY, memberSecurityStatus);
   }
 
   public void setContainerLogStatus(
                                     SyncTracker.SyncState containerLogStatus) {
-    this.containerLogStatus = containerLogStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CONTAINERLOG, containerLogStatus);
   }
 
   public void setMemberSecurityLogStatus(
                                          SyncTracker.SyncState memberSecurityLogStatus) {
-    this.memberSecurityLogStatus = memberSecurityLogStatus;
+    setStatus(SynchronizationState.SYNC_CORP_MEMBERSECURITYLOG, memberSecurityLogStatus);
   }
 
   public void setMemberTrackingStatus(
                                       SyncTracker.SyncState memberTrackingStatus) {
-    this.memberTrackingStatus = memberTrackingStatus;
+    setStatus(SynchronizationState.SYNC_CORP_MEMBERTRACKING, memberTrackingStatus);
   }
 
   public void setCorpMedalsStatus(
                                   SyncTracker.SyncState corpMedalsStatus) {
-    this.corpMedalsStatus = corpMedalsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CORPMEDALS, corpMedalsStatus);
   }
 
   public void setOutpostListStatus(
                                    SyncTracker.SyncState outpostListStatus) {
-    this.outpostListStatus = outpostListStatus;
+    setStatus(SynchronizationState.SYNC_CORP_OUTPOSTLIST, outpostListStatus);
   }
 
   public void setOutpostDetailStatus(
                                      SyncTracker.SyncState outpostDetailStatus) {
-    this.outpostDetailStatus = outpostDetailStatus;
+    setStatus(SynchronizationState.SYNC_CORP_OUTPOSTDETAIL, outpostDetailStatus);
   }
 
   public void setShareholderStatus(
                                    SyncTracker.SyncState shareholderStatus) {
-    this.shareholderStatus = shareholderStatus;
+    setStatus(SynchronizationState.SYNC_CORP_SHAREHOLDERS, shareholderStatus);
   }
 
   public void setStarbaseListStatus(
                                     SyncTracker.SyncState starbaseListStatus) {
-    this.starbaseListStatus = starbaseListStatus;
+    setStatus(SynchronizationState.SYNC_CORP_STARBASELIST, starbaseListStatus);
   }
 
   public void setStarbaseDetailStatus(
                                       SyncTracker.SyncState starbaseDetailStatus) {
-    this.starbaseDetailStatus = starbaseDetailStatus;
+    setStatus(SynchronizationState.SYNC_CORP_STARBASEDETAIL, starbaseDetailStatus);
   }
 
   public void setCorpTitlesStatus(
                                   SyncTracker.SyncState corpTitlesStatus) {
-    this.corpTitlesStatus = corpTitlesStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CORPTITLES, corpTitlesStatus);
   }
 
   public SyncTracker.SyncState getAccountBalanceStatus() {
-    return accountBalanceStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_ACCOUNTBALANCE);
   }
 
   public void setAccountBalanceStatus(
                                       SyncTracker.SyncState accountBalanceStatus) {
-    this.accountBalanceStatus = accountBalanceStatus;
+    setStatus(SynchronizationState.SYNC_CORP_ACCOUNTBALANCE, accountBalanceStatus);
   }
 
   public String getAccountBalanceDetail() {
-    return accountBalanceDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_ACCOUNTBALANCE);
   }
 
   public void setAccountBalanceDetail(
                                       String accountBalanceDetail) {
-    this.accountBalanceDetail = accountBalanceDetail;
+    setDetail(SynchronizationState.SYNC_CORP_ACCOUNTBALANCE, accountBalanceDetail);
   }
 
   public SyncTracker.SyncState getAssetListStatus() {
-    return assetListStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_ASSETLIST);
   }
 
   public void setAssetListStatus(
                                  SyncTracker.SyncState assetListStatus) {
-    this.assetListStatus = assetListStatus;
+    setStatus(SynchronizationState.SYNC_CORP_ASSETLIST, assetListStatus);
   }
 
   public String getAssetListDetail() {
-    return assetListDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_ASSETLIST);
   }
 
   public void setAssetListDetail(
                                  String assetListDetail) {
-    this.assetListDetail = assetListDetail;
+    setDetail(SynchronizationState.SYNC_CORP_ASSETLIST, assetListDetail);
   }
 
   public SyncTracker.SyncState getCorporationSheetStatus() {
-    return corporationSheetStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CORPSHEET);
   }
 
   public void setCorporationSheetStatus(
                                         SyncTracker.SyncState corporationSheetStatus) {
-    this.corporationSheetStatus = corporationSheetStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CORPSHEET, corporationSheetStatus);
   }
 
   public String getCorporationSheetDetail() {
-    return corporationSheetDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CORPSHEET);
   }
 
   public void setCorporationSheetDetail(
                                         String corporationSheetDetail) {
-    this.corporationSheetDetail = corporationSheetDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CORPSHEET, corporationSheetDetail);
   }
 
   public SyncTracker.SyncState getContactListStatus() {
-    return contactListStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CONTACTLIST);
   }
 
   public void setContactListStatus(
                                    SyncTracker.SyncState contactListStatus) {
-    this.contactListStatus = contactListStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CONTACTLIST, contactListStatus);
   }
 
   public String getContactListDetail() {
-    return contactListDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CONTACTLIST);
   }
 
   public void setContactListDetail(
                                    String contactListDetail) {
-    this.contactListDetail = contactListDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CONTACTLIST, contactListDetail);
   }
 
   public SyncTracker.SyncState getCustomsOfficeStatus() {
-    return customsOfficeStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE);
   }
 
   public void setCustomsOfficeStatus(
                                      SyncTracker.SyncState customsOfficeStatus) {
-    this.customsOfficeStatus = customsOfficeStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE, customsOfficeStatus);
   }
 
   public String getCustomsOfficeDetail() {
-    return customsOfficeDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE);
   }
 
   public void setCustomsOfficeDetail(
                                      String customsOfficeDetail) {
-    this.customsOfficeDetail = customsOfficeDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE, customsOfficeDetail);
   }
 
   public SyncTracker.SyncState getBlueprintsStatus() {
-    return blueprintsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_BLUEPRINTS);
   }
 
   public void setBlueprintsStatus(
                                   SyncTracker.SyncState blueprintsStatus) {
-    this.blueprintsStatus = blueprintsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_BLUEPRINTS, blueprintsStatus);
   }
 
   public String getBlueprintsDetail() {
-    return blueprintsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_BLUEPRINTS);
   }
 
   public void setBlueprintsDetail(
                                   String blueprintsDetail) {
-    this.blueprintsDetail = blueprintsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_BLUEPRINTS, blueprintsDetail);
   }
 
   public SyncTracker.SyncState getBookmarksStatus() {
-    return bookmarksStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_BOOKMARKS);
   }
 
   public void setBookmarksStatus(
                                  SyncTracker.SyncState bookmarksStatus) {
-    this.bookmarksStatus = bookmarksStatus;
+    setStatus(SynchronizationState.SYNC_CORP_BOOKMARKS, bookmarksStatus);
   }
 
   public String getBookmarksDetail() {
-    return bookmarksDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_BOOKMARKS);
   }
 
   public void setBookmarksDetail(
                                  String bookmarksDetail) {
-    this.bookmarksDetail = bookmarksDetail;
+    setDetail(SynchronizationState.SYNC_CORP_BOOKMARKS, bookmarksDetail);
   }
 
   public SyncTracker.SyncState getContractsStatus() {
-    return contractsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CONTRACTS);
   }
 
   public void setContractsStatus(
                                  SyncTracker.SyncState contractsStatus) {
-    this.contractsStatus = contractsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CONTRACTS, contractsStatus);
   }
 
   public String getContractsDetail() {
-    return contractsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CONTRACTS);
   }
 
   public void setContractsDetail(
                                  String contractsDetail) {
-    this.contractsDetail = contractsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CONTRACTS, contractsDetail);
   }
 
   public SyncTracker.SyncState getContractItemsStatus() {
-    return contractItemsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CONTRACTITEMS);
   }
 
   public void setContractItemsStatus(
                                      SyncTracker.SyncState contractItemsStatus) {
-    this.contractItemsStatus = contractItemsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CONTRACTITEMS, contractItemsStatus);
   }
 
   public String getContractItemsDetail() {
-    return contractItemsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CONTRACTITEMS);
   }
 
   public void setContractItemsDetail(
                                      String contractItemsDetail) {
-    this.contractItemsDetail = contractItemsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CONTRACTITEMS, contractItemsDetail);
   }
 
   public SyncTracker.SyncState getContractBidsStatus() {
-    return contractBidsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CONTRACTBIDS);
   }
 
   public void setContractBidsStatus(
                                     SyncTracker.SyncState contractBidsStatus) {
-    this.contractBidsStatus = contractBidsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_CONTRACTBIDS, contractBidsStatus);
   }
 
   public String getContractBidsDetail() {
-    return contractBidsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CONTRACTBIDS);
   }
 
   public void setContractBidsDetail(
                                     String contractBidsDetail) {
-    this.contractBidsDetail = contractBidsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CONTRACTBIDS, contractBidsDetail);
   }
 
   public SyncTracker.SyncState getFacWarStatsStatus() {
-    return facWarStatsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_FACWARSTATS);
   }
 
   public void setFacWarStatsStatus(
                                    SyncTracker.SyncState facWarStatsStatus) {
-    this.facWarStatsStatus = facWarStatsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_FACWARSTATS, facWarStatsStatus);
   }
 
   public String getFacWarStatsDetail() {
-    return facWarStatsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_FACWARSTATS);
   }
 
   public void setFacWarStatsDetail(
                                    String facWarStatsDetail) {
-    this.facWarStatsDetail = facWarStatsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_FACWARSTATS, facWarStatsDetail);
   }
 
   public String getFacilitiesDetail() {
-    return facilitiesDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_FACILITIES);
   }
 
   public void setFacilitiesDetail(
                                   String facilitiesDetail) {
-    this.facilitiesDetail = facilitiesDetail;
+    setDetail(SynchronizationState.SYNC_CORP_FACILITIES, facilitiesDetail);
   }
 
   public SyncTracker.SyncState getFacilitiesStatus() {
-    return facilitiesStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_FACILITIES);
   }
 
   public void setFacilitiesStatus(
                                   SyncTracker.SyncState facilitiesStatus) {
-    this.facilitiesStatus = facilitiesStatus;
+    setStatus(SynchronizationState.SYNC_CORP_FACILITIES, facilitiesStatus);
   }
 
   public SyncTracker.SyncState getIndustryJobsStatus() {
-    return industryJobsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_INDUSTRYJOBS);
   }
 
   public void setIndustryJobsStatus(
                                     SyncTracker.SyncState industryJobsStatus) {
-    this.industryJobsStatus = industryJobsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_INDUSTRYJOBS, industryJobsStatus);
   }
 
   public String getIndustryJobsDetail() {
-    return industryJobsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_INDUSTRYJOBS);
   }
 
   public void setIndustryJobsDetail(
                                     String industryJobsDetail) {
-    this.industryJobsDetail = industryJobsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_INDUSTRYJOBS, industryJobsDetail);
   }
 
   public SyncTracker.SyncState getIndustryJobsHistoryStatus() {
-    return industryJobsHistoryStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_INDUSTRYJOBSHISTORY);
   }
 
   public void setIndustryJobsHistoryStatus(
                                            SyncTracker.SyncState industryJobsHistoryStatus) {
-    this.industryJobsHistoryStatus = industryJobsHistoryStatus;
+    setStatus(SynchronizationState.SYNC_CORP_INDUSTRYJOBSHISTORY, industryJobsHistoryStatus);
   }
 
   public String getIndustryJobsHistoryDetail() {
-    return industryJobsHistoryDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_INDUSTRYJOBSHISTORY);
   }
 
   public void setIndustryJobsHistoryDetail(
                                            String industryJobsHistoryDetail) {
-    this.industryJobsHistoryDetail = industryJobsHistoryDetail;
+    setDetail(SynchronizationState.SYNC_CORP_INDUSTRYJOBSHISTORY, industryJobsHistoryDetail);
   }
 
   public SyncTracker.SyncState getKilllogStatus() {
-    return killlogStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_KILLLOG);
   }
 
   public void setKilllogStatus(
                                SyncTracker.SyncState killlogStatus) {
-    this.killlogStatus = killlogStatus;
+    setStatus(SynchronizationState.SYNC_CORP_KILLLOG, killlogStatus);
   }
 
   public String getKilllogDetail() {
-    return killlogDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_KILLLOG);
   }
 
   public void setKilllogDetail(
                                String killlogDetail) {
-    this.killlogDetail = killlogDetail;
+    setDetail(SynchronizationState.SYNC_CORP_KILLLOG, killlogDetail);
   }
 
   public SyncTracker.SyncState getMarketOrdersStatus() {
-    return marketOrdersStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_MARKETORDERS);
   }
 
   public void setMarketOrdersStatus(
                                     SyncTracker.SyncState marketOrdersStatus) {
-    this.marketOrdersStatus = marketOrdersStatus;
+    setStatus(SynchronizationState.SYNC_CORP_MARKETORDERS, marketOrdersStatus);
   }
 
   public String getMarketOrdersDetail() {
-    return marketOrdersDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_MARKETORDERS);
   }
 
   public void setMarketOrdersDetail(
                                     String marketOrdersDetail) {
-    this.marketOrdersDetail = marketOrdersDetail;
+    setDetail(SynchronizationState.SYNC_CORP_MARKETORDERS, marketOrdersDetail);
   }
 
   public String getMemberMedalsDetail() {
-    return memberMedalsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_MEMBERMEDALS);
   }
 
   public void setMemberMedalsDetail(
                                     String memberMedalsDetail) {
-    this.memberMedalsDetail = memberMedalsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_MEMBERMEDALS, memberMedalsDetail);
   }
 
   public SyncTracker.SyncState getStandingsStatus() {
-    return standingsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_STANDINGS);
   }
 
   public void setStandingsStatus(
                                  SyncTracker.SyncState standingsStatus) {
-    this.standingsStatus = standingsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_STANDINGS, standingsStatus);
   }
 
   public String getStandingsDetail() {
-    return standingsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_STANDINGS);
   }
 
   public void setStandingsDetail(
                                  String standingsDetail) {
-    this.standingsDetail = standingsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_STANDINGS, standingsDetail);
   }
 
   public SyncTracker.SyncState getWalletJournalStatus() {
-    return walletJournalStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_WALLETJOURNAL);
   }
 
   public void setWalletJournalStatus(
                                      SyncTracker.SyncState walletJournalStatus) {
-    this.walletJournalStatus = walletJournalStatus;
+    setStatus(SynchronizationState.SYNC_CORP_WALLETJOURNAL, walletJournalStatus);
   }
 
   public String getWalletJournalDetail() {
-    return walletJournalDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_WALLETJOURNAL);
   }
 
   public void setWalletJournalDetail(
                                      String walletJournalDetail) {
-    this.walletJournalDetail = walletJournalDetail;
+    setDetail(SynchronizationState.SYNC_CORP_WALLETJOURNAL, walletJournalDetail);
   }
 
   public SyncTracker.SyncState getWalletTransactionsStatus() {
-    return walletTransactionsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_WALLETTRANSACTIONS);
   }
 
   public void setWalletTransactionsStatus(
                                           SyncTracker.SyncState walletTransactionsStatus) {
-    this.walletTransactionsStatus = walletTransactionsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_WALLETTRANSACTIONS, walletTransactionsStatus);
   }
 
   public String getWalletTransactionsDetail() {
-    return walletTransactionsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_WALLETTRANSACTIONS);
   }
 
   public void setWalletTransactionsDetail(
                                           String walletTransactionsDetail) {
-    this.walletTransactionsDetail = walletTransactionsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_WALLETTRANSACTIONS, walletTransactionsDetail);
   }
 
   public String getMemberSecurityDetail() {
-    return memberSecurityDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_SECURITY);
   }
 
   public void setMemberSecurityDetail(
                                       String memberSecurityDetail) {
-    this.memberSecurityDetail = memberSecurityDetail;
+    setDetail(SynchronizationState.SYNC_CORP_SECURITY, memberSecurityDetail);
   }
 
   public String getContainerLogDetail() {
-    return containerLogDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CONTAINERLOG);
   }
 
   public void setContainerLogDetail(
                                     String containerLogDetail) {
-    this.containerLogDetail = containerLogDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CONTAINERLOG, containerLogDetail);
   }
 
   public String getMemberSecurityLogDetail() {
-    return memberSecurityLogDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_MEMBERSECURITYLOG);
   }
 
   public void setMemberSecurityLogDetail(
                                          String memberSecurityLogDetail) {
-    this.memberSecurityLogDetail = memberSecurityLogDetail;
+    setDetail(SynchronizationState.SYNC_CORP_MEMBERSECURITYLOG, memberSecurityLogDetail);
   }
 
   public String getMemberTrackingDetail() {
-    return memberTrackingDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_MEMBERTRACKING);
   }
 
   public void setMemberTrackingDetail(
                                       String memberTrackingDetail) {
-    this.memberTrackingDetail = memberTrackingDetail;
+    setDetail(SynchronizationState.SYNC_CORP_MEMBERTRACKING, memberTrackingDetail);
   }
 
   public String getCorpMedalsDetail() {
-    return corpMedalsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CORPMEDALS);
   }
 
   public void setCorpMedalsDetail(
                                   String corpMedalsDetail) {
-    this.corpMedalsDetail = corpMedalsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CORPMEDALS, corpMedalsDetail);
   }
 
   public String getOutpostListDetail() {
-    return outpostListDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_OUTPOSTLIST);
   }
 
   public void setOutpostListDetail(
                                    String outpostListDetail) {
-    this.outpostListDetail = outpostListDetail;
+    setDetail(SynchronizationState.SYNC_CORP_OUTPOSTLIST, outpostListDetail);
   }
 
   public String getOutpostDetailDetail() {
-    return outpostDetailDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_OUTPOSTDETAIL);
   }
 
   public void setOutpostDetailDetail(
                                      String outpostDetailDetail) {
-    this.outpostDetailDetail = outpostDetailDetail;
+    setDetail(SynchronizationState.SYNC_CORP_OUTPOSTDETAIL, outpostDetailDetail);
   }
 
   public String getShareholderDetail() {
-    return shareholderDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_SHAREHOLDERS);
   }
 
   public void setShareholderDetail(
                                    String shareholderDetail) {
-    this.shareholderDetail = shareholderDetail;
+    setDetail(SynchronizationState.SYNC_CORP_SHAREHOLDERS, shareholderDetail);
   }
 
   public String getStarbaseListDetail() {
-    return starbaseListDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_STARBASELIST);
   }
 
   public void setStarbaseListDetail(
                                     String starbaseListDetail) {
-    this.starbaseListDetail = starbaseListDetail;
+    setDetail(SynchronizationState.SYNC_CORP_STARBASELIST, starbaseListDetail);
   }
 
   public String getStarbaseDetailDetail() {
-    return starbaseDetailDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_STARBASEDETAIL);
   }
 
   public void setStarbaseDetailDetail(
                                       String starbaseDetailDetail) {
-    this.starbaseDetailDetail = starbaseDetailDetail;
+    setDetail(SynchronizationState.SYNC_CORP_STARBASEDETAIL, starbaseDetailDetail);
   }
 
   public String getCorpTitlesDetail() {
-    return corpTitlesDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_CORPTITLES);
   }
 
   public void setCorpTitlesDetail(
                                   String corpTitlesDetail) {
-    this.corpTitlesDetail = corpTitlesDetail;
+    setDetail(SynchronizationState.SYNC_CORP_CORPTITLES, corpTitlesDetail);
   }
 
   public SyncTracker.SyncState getMemberMedalsStatus() {
-    return memberMedalsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_MEMBERMEDALS);
   }
 
   public SyncTracker.SyncState getMemberSecurityStatus() {
-    return memberSecurityStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_SECURITY);
   }
 
   public SyncTracker.SyncState getContainerLogStatus() {
-    return containerLogStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CONTAINERLOG);
   }
 
   public SyncTracker.SyncState getMemberSecurityLogStatus() {
-    return memberSecurityLogStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_MEMBERSECURITYLOG);
   }
 
   public SyncTracker.SyncState getMemberTrackingStatus() {
-    return memberTrackingStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_MEMBERTRACKING);
   }
 
   public SyncTracker.SyncState getCorpMedalsStatus() {
-    return corpMedalsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CORPMEDALS);
   }
 
   public SyncTracker.SyncState getOutpostListStatus() {
-    return outpostListStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_OUTPOSTLIST);
   }
 
   public SyncTracker.SyncState getOutpostDetailStatus() {
-    return outpostDetailStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_OUTPOSTDETAIL);
   }
 
   public SyncTracker.SyncState getShareholderStatus() {
-    return shareholderStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_SHAREHOLDERS);
   }
 
   public SyncTracker.SyncState getStarbaseListStatus() {
-    return starbaseListStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_STARBASELIST);
   }
 
   public SyncTracker.SyncState getStarbaseDetailStatus() {
-    return starbaseDetailStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_STARBASEDETAIL);
   }
 
   public SyncTracker.SyncState getCorpTitlesStatus() {
-    return corpTitlesStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_CORPTITLES);
   }
 
   public SyncTracker.SyncState getLocationsStatus() {
-    return locationsStatus;
+    return getStatus(SynchronizationState.SYNC_CORP_LOCATIONS);
   }
 
   public void setLocationsStatus(
                                  SyncTracker.SyncState locationsStatus) {
-    this.locationsStatus = locationsStatus;
+    setStatus(SynchronizationState.SYNC_CORP_LOCATIONS, locationsStatus);
   }
 
   public String getLocationsDetail() {
-    return locationsDetail;
+    return getDetail(SynchronizationState.SYNC_CORP_LOCATIONS);
   }
 
   public void setLocationsDetail(
                                  String locationsDetail) {
-    this.locationsDetail = locationsDetail;
+    setDetail(SynchronizationState.SYNC_CORP_LOCATIONS, locationsDetail);
   }
 
   @Override
   public String toString() {
-    return "CorporationSyncTracker [accountBalanceStatus=" + accountBalanceStatus + ", accountBalanceDetail=" + accountBalanceDetail + ", assetListStatus="
-        + assetListStatus + ", assetListDetail=" + assetListDetail + ", corporationSheetStatus=" + corporationSheetStatus + ", corporationSheetDetail="
-        + corporationSheetDetail + ", contactListStatus=" + contactListStatus + ", contactListDetail=" + contactListDetail + ", customsOfficeStatus="
-        + customsOfficeStatus + ", customsOfficeDetail=" + customsOfficeDetail + ", blueprintsStatus=" + blueprintsStatus + ", blueprintsDetail="
-        + blueprintsDetail + ", bookmarksStatus=" + bookmarksStatus + ", bookmarksDetail=" + bookmarksDetail + ", contractsStatus=" + contractsStatus
-        + ", contractsDetail=" + contractsDetail + ", contractItemsStatus=" + contractItemsStatus + ", contractItemsDetail=" + contractItemsDetail
-        + ", contractBidsStatus=" + contractBidsStatus + ", contractBidsDetail=" + contractBidsDetail + ", facWarStatsStatus=" + facWarStatsStatus
-        + ", facWarStatsDetail=" + facWarStatsDetail + ", facilitiesStatus=" + facilitiesStatus + ", facilitiesDetail=" + facilitiesDetail
-        + ", industryJobsStatus=" + industryJobsStatus + ", industryJobsDetail=" + industryJobsDetail + ", industryJobsHistoryStatus="
-        + industryJobsHistoryStatus + ", industryJobsHistoryDetail=" + industryJobsHistoryDetail + ", killlogStatus=" + killlogStatus + ", killlogDetail="
-        + killlogDetail + ", marketOrdersStatus=" + marketOrdersStatus + ", marketOrdersDetail=" + marketOrdersDetail + ", memberMedalsStatus="
-        + memberMedalsStatus + ", memberMedalsDetail=" + memberMedalsDetail + ", standingsStatus=" + standingsStatus + ", standingsDetail=" + standingsDetail
-        + ", walletJournalStatus=" + walletJournalStatus + ", walletJournalDetail=" + walletJournalDetail + ", walletTransactionsStatus="
-        + walletTransactionsStatus + ", walletTransactionsDetail=" + walletTransactionsDetail + ", memberSecurityStatus=" + memberSecurityStatus
-        + ", memberSecurityDetail=" + memberSecurityDetail + ", containerLogStatus=" + containerLogStatus + ", containerLogDetail=" + containerLogDetail
-        + ", memberSecurityLogStatus=" + memberSecurityLogStatus + ", memberSecurityLogDetail=" + memberSecurityLogDetail + ", memberTrackingStatus="
-        + memberTrackingStatus + ", memberTrackingDetail=" + memberTrackingDetail + ", corpMedalsStatus=" + corpMedalsStatus + ", corpMedalsDetail="
-        + corpMedalsDetail + ", outpostListStatus=" + outpostListStatus + ", outpostListDetail=" + outpostListDetail + ", outpostDetailStatus="
-        + outpostDetailStatus + ", outpostDetailDetail=" + outpostDetailDetail + ", shareholderStatus=" + shareholderStatus + ", shareholderDetail="
-        + shareholderDetail + ", starbaseListStatus=" + starbaseListStatus + ", starbaseListDetail=" + starbaseListDetail + ", starbaseDetailStatus="
-        + starbaseDetailStatus + ", starbaseDetailDetail=" + starbaseDetailDetail + ", corpTitlesStatus=" + corpTitlesStatus + ", corpTitlesDetail="
-        + corpTitlesDetail + ", locationsStatus=" + locationsStatus + ", locationsDetail=" + locationsDetail + "]";
+    return "CorporationSyncTracker [" + formatStates(FIELDS) + "]";
   }
 
   @Override
   public int hashCode() {
-    final int prime = 31;
-    int result = super.hashCode();
-    result = prime * result + ((accountBalanceDetail == null) ? 0 : accountBalanceDetail.hashCode());
-    result = prime * result + ((accountBalanceStatus == null) ? 0 : accountBalanceStatus.hashCode());
-    result = prime * result + ((assetListDetail == null) ? 0 : assetListDetail.hashCode());
-    result = prime * result + ((assetListStatus == null) ? 0 : assetListStatus.hashCode());
-    result = prime * result + ((blueprintsDetail == null) ? 0 : blueprintsDetail.hashCode());
-    result = prime * result + ((blueprintsStatus == null) ? 0 : blueprintsStatus.hashCode());
-    result = prime * result + ((bookmarksDetail == null) ? 0 : bookmarksDetail.hashCode());
-    result = prime * result + ((bookmarksStatus == null) ? 0 : bookmarksStatus.hashCode());
-    result = prime * result + ((contactListDetail == null) ? 0 : contactListDetail.hashCode());
-    result = prime * result + ((contactListStatus == null) ? 0 : contactListStatus.hashCode());
-    result = prime * result + ((containerLogDetail == null) ? 0 : containerLogDetail.hashCode());
-    result = prime * result + ((containerLogStatus == null) ? 0 : containerLogStatus.hashCode());
-    result = prime * result + ((contractBidsDetail == null) ? 0 : contractBidsDetail.hashCode());
-    result = prime * result + ((contractBidsStatus == null) ? 0 : contractBidsStatus.hashCode());
-    result = prime * result + ((contractItemsDetail == null) ? 0 : contractItemsDetail.hashCode());
-    result = prime * result + ((contractItemsStatus == null) ? 0 : contractItemsStatus.hashCode());
-    result = prime * result + ((contractsDetail == null) ? 0 : contractsDetail.hashCode());
-    result = prime * result + ((contractsStatus == null) ? 0 : contractsStatus.hashCode());
-    result = prime * result + ((corpMedalsDetail == null) ? 0 : corpMedalsDetail.hashCode());
-    result = prime * result + ((corpMedalsStatus == null) ? 0 : corpMedalsStatus.hashCode());
-    result = prime * result + ((corpTitlesDetail == null) ? 0 : corpTitlesDetail.hashCode());
-    result = prime * result + ((corpTitlesStatus == null) ? 0 : corpTitlesStatus.hashCode());
-    result = prime * result + ((corporationSheetDetail == null) ? 0 : corporationSheetDetail.hashCode());
-    result = prime * result + ((corporationSheetStatus == null) ? 0 : corporationSheetStatus.hashCode());
-    result = prime * result + ((customsOfficeDetail == null) ? 0 : customsOfficeDetail.hashCode());
-    result = prime * result + ((customsOfficeStatus == null) ? 0 : customsOfficeStatus.hashCode());
-    result = prime * result + ((facWarStatsDetail == null) ? 0 : facWarStatsDetail.hashCode());
-    result = prime * result + ((facWarStatsStatus == null) ? 0 : facWarStatsStatus.hashCode());
-    result = prime * result + ((facilitiesDetail == null) ? 0 : facilitiesDetail.hashCode());
-    result = prime * result + ((facilitiesStatus == null) ? 0 : facilitiesStatus.hashCode());
-    result = prime * result + ((industryJobsDetail == null) ? 0 : industryJobsDetail.hashCode());
-    result = prime * result + ((industryJobsHistoryDetail == null) ? 0 : industryJobsHistoryDetail.hashCode());
-    result = prime * result + ((industryJobsHistoryStatus == null) ? 0 : industryJobsHistoryStatus.hashCode());
-    result = prime * result + ((industryJobsStatus == null) ? 0 : industryJobsStatus.hashCode());
-    result = prime * result + ((killlogDetail == null) ? 0 : killlogDetail.hashCode());
-    result = prime * result + ((killlogStatus == null) ? 0 : killlogStatus.hashCode());
-    result = prime * result + ((locationsDetail == null) ? 0 : locationsDetail.hashCode());
-    result = prime * result + ((locationsStatus == null) ? 0 : locationsStatus.hashCode());
-    result = prime * result + ((marketOrdersDetail == null) ? 0 : marketOrdersDetail.hashCode());
-    result = prime * result + ((marketOrdersStatus == null) ? 0 : marketOrdersStatus.hashCode());
-    result = prime * result + ((memberMedalsDetail == null) ? 0 : memberMedalsDetail.hashCode());
-    result = prime * result + ((memberMedalsStatus == null) ? 0 : memberMedalsStatus.hashCode());
-    result = prime * result + ((memberSecurityDetail == null) ? 0 : memberSecurityDetail.hashCode());
-    result = prime * result + ((memberSecurityLogDetail == null) ? 0 : memberSecurityLogDetail.hashCode());
-    result = prime * result + ((memberSecurityLogStatus == null) ? 0 : memberSecurityLogStatus.hashCode());
-    result = prime * result + ((memberSecurityStatus == null) ? 0 : memberSecurityStatus.hashCode());
-    result = prime * result + ((memberTrackingDetail == null) ? 0 : memberTrackingDetail.hashCode());
-    result = prime * result + ((memberTrackingStatus == null) ? 0 : memberTrackingStatus.hashCode());
-    result = prime * result + ((outpostDetailDetail == null) ? 0 : outpostDetailDetail.hashCode());
-    result = prime * result + ((outpostDetailStatus == null) ? 0 : outpostDetailStatus.hashCode());
-    result = prime * result + ((outpostListDetail == null) ? 0 : outpostListDetail.hashCode());
-    result = prime * result + ((outpostListStatus == null) ? 0 : outpostListStatus.hashCode());
-    result = prime * result + ((shareholderDetail == null) ? 0 : shareholderDetail.hashCode());
-    result = prime * result + ((shareholderStatus == null) ? 0 : shareholderStatus.hashCode());
-    result = prime * result + ((standingsDetail == null) ? 0 : standingsDetail.hashCode());
-    result = prime * result + ((standingsStatus == null) ? 0 : standingsStatus.hashCode());
-    result = prime * result + ((starbaseDetailDetail == null) ? 0 : starbaseDetailDetail.hashCode());
-    result = prime * result + ((starbaseDetailStatus == null) ? 0 : starbaseDetailStatus.hashCode());
-    result = prime * result + ((starbaseListDetail == null) ? 0 : starbaseListDetail.hashCode());
-    result = prime * result + ((starbaseListStatus == null) ? 0 : starbaseListStatus.hashCode());
-    result = prime * result + ((walletJournalDetail == null) ? 0 : walletJournalDetail.hashCode());
-    result = prime * result + ((walletJournalStatus == null) ? 0 : walletJournalStatus.hashCode());
-    result = prime * result + ((walletTransactionsDetail == null) ? 0 : walletTransactionsDetail.hashCode());
-    result = prime * result + ((walletTransactionsStatus == null) ? 0 : walletTransactionsStatus.hashCode());
-    return result;
+    return 31 * super.hashCode() + getStateVector().hashCode();
   }
 
   @Override
@@ -1342,136 +993,7 @@ public class CorporationSyncTracker extends SyncTracker {
     if (this == obj) return true;
     if (!super.equals(obj)) return false;
     if (getClass() != obj.getClass()) return false;
-    CorporationSyncTracker other = (CorporationSyncTracker) obj;
-    if (accountBalanceDetail == null) {
-      if (other.accountBalanceDetail != null) return false;
-    } else if (!accountBalanceDetail.equals(other.accountBalanceDetail)) return false;
-    if (accountBalanceStatus != other.accountBalanceStatus) return false;
-    if (assetListDetail == null) {
-      if (other.assetListDetail != null) return false;
-    } else if (!assetListDetail.equals(other.assetListDetail)) return false;
-    if (assetListStatus != other.assetListStatus) return false;
-    if (blueprintsDetail == null) {
-      if (other.blueprintsDetail != null) return false;
-    } else if (!blueprintsDetail.equals(other.blueprintsDetail)) return false;
-    if (blueprintsStatus != other.blueprintsStatus) return false;
-    if (bookmarksDetail == null) {
-      if (other.bookmarksDetail != null) return false;
-    } else if (!bookmarksDetail.equals(other.bookmarksDetail)) return false;
-    if (bookmarksStatus != other.bookmarksStatus) return false;
-    if (contactListDetail == null) {
-      if (other.contactListDetail != null) return false;
-    } else if (!contactListDetail.equals(other.contactListDetail)) return false;
-    if (contactListStatus != other.contactListStatus) return false;
-    if (containerLogDetail == null) {
-      if (other.containerLogDetail != null) return false;
-    } else if (!containerLogDetail.equals(other.containerLogDetail)) return false;
-    if (containerLogStatus != other.containerLogStatus) return false;
-    if (contractBidsDetail == null) {
-      if (other.contractBidsDetail != null) return false;
-    } else if (!contractBidsDetail.equals(other.contractBidsDetail)) return false;
-    if (contractBidsStatus != other.contractBidsStatus) return false;
-    if (contractItemsDetail == null) {
-      if (other.contractItemsDetail != null) return false;
-    } else if (!contractItemsDetail.equals(other.contractItemsDetail)) return false;
-    if (contractItemsStatus != other.contractItemsStatus) return false;
-    if (contractsDetail == null) {
-      if (other.contractsDetail != null) return false;
-    } else if (!contractsDetail.equals(other.contractsDetail)) return false;
-    if (contractsStatus != other.contractsStatus) return false;
-    if (corpMedalsDetail == null) {
-      if (other.corpMedalsDetail != null) return false;
-    } else if (!corpMedalsDetail.equals(other.corpMedalsDetail)) return false;
-    if (corpMedalsStatus != other.corpMedalsStatus) return false;
-    if (corpTitlesDetail == null) {
-      if (other.corpTitlesDetail != null) return false;
-    } else if (!corpTitlesDetail.equals(other.corpTitlesDetail)) return false;
-    if (corpTitlesStatus != other.corpTitlesStatus) return false;
-    if (corporationSheetDetail == null) {
-      if (other.corporationSheetDetail != null) return false;
-    } else if (!corporationSheetDetail.equals(other.corporationSheetDetail)) return false;
-    if (corporationSheetStatus != other.corporationSheetStatus) return false;
-    if (customsOfficeDetail == null) {
-      if (other.customsOfficeDetail != null) return false;
-    } else if (!customsOfficeDetail.equals(other.customsOfficeDetail)) return false;
-    if (customsOfficeStatus != other.customsOfficeStatus) return false;
-    if (facWarStatsDetail == null) {
-      if (other.facWarStatsDetail != null) return false;
-    } else if (!facWarStatsDetail.equals(other.facWarStatsDetail)) return false;
-    if (facWarStatsStatus != other.facWarStatsStatus) return false;
-    if (facilitiesDetail == null) {
-      if (other.facilitiesDetail != null) return false;
-    } else if (!facilitiesDetail.equals(other.facilitiesDetail)) return false;
-    if (facilitiesStatus != other.facilitiesStatus) return false;
-    if (industryJobsDetail == null) {
-      if (other.industryJobsDetail != null) return false;
-    } else if (!industryJobsDetail.equals(other.industryJobsDetail)) return false;
-    if (industryJobsHistoryDetail == null) {
-      if (other.industryJobsHistoryDetail != null) return false;
-    } else if (!industryJobsHistoryDetail.equals(other.industryJobsHistoryDetail)) return false;
-    if (industryJobsHistoryStatus != other.industryJobsHistoryStatus) return false;
-    if (industryJobsStatus != other.industryJobsStatus) return false;
-    if (killlogDetail == null) {
-      if (other.killlogDetail != null) return false;
-    } else if (!killlogDetail.equals(other.killlogDetail)) return false;
-    if (killlogStatus != other.killlogStatus) return false;
-    if (locationsDetail == null) {
-      if (other.locationsDetail != null) return false;
-    } else if (!locationsDetail.equals(other.locationsDetail)) return false;
-    if (locationsStatus != other.locationsStatus) return false;
-    if (marketOrdersDetail == null) {
-      if (other.marketOrdersDetail != null) return false;
-    } else if (!marketOrdersDetail.equals(other.marketOrdersDetail)) return false;
-    if (marketOrdersStatus != other.marketOrdersStatus) return false;
-    if (memberMedalsDetail == null) {
-      if (other.memberMedalsDetail != null) return false;
-    } else if (!memberMedalsDetail.equals(other.memberMedalsDetail)) return false;
-    if (memberMedalsStatus != other.memberMedalsStatus) return false;
-    if (memberSecurityDetail == null) {
-      if (other.memberSecurityDetail != null) return false;
-    } else if (!memberSecurityDetail.equals(other.memberSecurityDetail)) return false;
-    if (memberSecurityLogDetail == null) {
-      if (other.memberSecurityLogDetail != null) return false;
-    } else if (!memberSecurityLogDetail.equals(other.memberSecurityLogDetail)) return false;
-    if (memberSecurityLogStatus != other.memberSecurityLogStatus) return false;
-    if (memberSecurityStatus != other.memberSecurityStatus) return false;
-    if (memberTrackingDetail == null) {
-      if (other.memberTrackingDetail != null) return false;
-    } else if (!memberTrackingDetail.equals(other.memberTrackingDetail)) return false;
-    if (memberTrackingStatus != other.memberTrackingStatus) return false;
-    if (outpostDetailDetail == null) {
-      if (other.outpostDetailDetail != null) return false;
-    } else if (!outpostDetailDetail.equals(other.outpostDetailDetail)) return false;
-    if (outpostDetailStatus != other.outpostDetailStatus) return false;
-    if (outpostListDetail == null) {
-      if (other.outpostListDetail != null) return false;
-    } else if (!outpostListDetail.equals(other.outpostListDetail)) return false;
-    if (outpostListStatus != other.outpostListStatus) return false;
-    if (shareholderDetail == null) {
-      if (other.shareholderDetail != null) return false;
-    } else if (!shareholderDetail.equals(other.shareholderDetail)) return false;
-    if (shareholderStatus != other.shareholderStatus) return false;
-    if (standingsDetail == null) {
-      if (other.standingsDetail != null) return false;
-    } else if (!standingsDetail.equals(other.standingsDetail)) return false;
-    if (standingsStatus != other.standingsStatus) return false;
-    if (starbaseDetailDetail == null) {
-      if (other.starbaseDetailDetail != null) return false;
-    } else if (!starbaseDetailDetail.equals(other.starbaseDetailDetail)) return false;
-    if (starbaseDetailStatus != other.starbaseDetailStatus) return false;
-    if (starbaseListDetail == null) {
-      if (other.starbaseListDetail != null) return false;
-    } else if (!starbaseListDetail.equals(other.starbaseListDetail)) return false;
-    if (starbaseListStatus != other.starbaseListStatus) return false;
-    if (walletJournalDetail == null) {
-      if (other.walletJournalDetail != null) return false;
-    } else if (!walletJournalDetail.equals(other.walletJournalDetail)) return false;
-    if (walletJournalStatus != other.walletJournalStatus) return false;
-    if (walletTransactionsDetail == null) {
-      if (other.walletTransactionsDetail != null) return false;
-    } else if (!walletTransactionsDetail.equals(other.walletTransactionsDetail)) return false;
-    if (walletTransactionsStatus != other.walletTransactionsStatus) return false;
-    return true;
+    return getStateVector().equals(((CorporationSyncTracker) obj).getStateVector());
   }
 
   public static CorporationSyncTracker createOrGetUnfinishedTracker(
@@ -1553,7 +1075,7 @@ public class CorporationSyncTracker extends SyncTracker {
         public List<CorporationSyncTracker> run() throws Exception {
           TypedQuery<CorporationSyncTracker> getter = EveKitUserAccountProvider.getFactory().getEntityManager()
               .createNamedQuery("CorporationSyncTracker.getSummary", CorporationSyncTracker.class);
-          getter.setParameter("account", fromDate);
+          getter.setParameter("start", fromDate.getTime());
           return getter.getResultList();
         }
       });
@@ -1563,133 +1085,25 @@ public class CorporationSyncTracker extends SyncTracker {
     return null;
   }
 
+  /**
+   * Summarize the errors recorded by trackers which finished on the given day.
+   * 
+   * @param day
+   *          the day to summarize.
+   * @return the error summary.
+   * @throws IOException
+   *           on any database error.
+   */
+  public static SyncErrorSummary getErrorSummary(
+                                                 Date day)
+    throws IOException {
+    return SyncTracker.summarizeErrors(CorporationSyncTracker.class, FIELDS, day);
+  }
+
   public static String summarizeErrors(
                                        Date day)
     throws IOException {
-    StringBuilder summary = new StringBuilder();
-    summary.append("Corporation Sync Tracker Error Summary on ");
-    long days = day.getTime() / (1000 * 60 * 60 * 24);
-    Date dayStart = new Date(days * 1000 * 60 * 60 * 24 + 1);
-    Date nextDay = new Date(dayStart.getTime() + (1000 * 60 * 60 * 24) - 1);
-    summary.append(DateFormat.getDateInstance().format(dayStart)).append('\n');
-    List<CorporationSyncTracker> result = getSummary(dayStart);
-    if (result == null) result = Collections.emptyList();
-
-    // Process sync results with error.
-    int errorCount = 0;
-    Map<String, Map<String, AtomicInteger>> data = new HashMap<String, Map<String, AtomicInteger>>();
-    for (CorporationSyncTracker next : result) {
-      if (new Date(next.getSyncEnd()).after(nextDay)) continue;
-      if (next.accountBalanceStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("accountBalance", next.accountBalanceDetail, data);
-      } else if (next.assetListStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("assetList", next.assetListDetail, data);
-      } else if (next.corporationSheetStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("corporationSheet", next.corporationSheetDetail, data);
-      } else if (next.contactListStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contactList", next.contactListDetail, data);
-      } else if (next.customsOfficeStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("customsOffice", next.customsOfficeDetail, data);
-      } else if (next.blueprintsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("blueprints", next.blueprintsDetail, data);
-      } else if (next.bookmarksStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("bookmarks", next.bookmarksDetail, data);
-      } else if (next.contractsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contracts", next.contractsDetail, data);
-      } else if (next.contractItemsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contractItems", next.contractItemsDetail, data);
-      } else if (next.contractBidsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("contractBids", next.contractBidsDetail, data);
-      } else if (next.facWarStatsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("facWarStats", next.facWarStatsDetail, data);
-      } else if (next.facilitiesStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("facilities", next.facilitiesDetail, data);
-      } else if (next.industryJobsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("industryJobs", next.industryJobsDetail, data);
-      } else if (next.industryJobsHistoryStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("industryJobsHistory", next.industryJobsHistoryDetail, data);
-      } else if (next.killlogStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("killlog", next.killlogDetail, data);
-      } else if (next.marketOrdersStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("marketOrders", next.marketOrdersDetail, data);
-      } else if (next.memberMedalsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("memberMedals", next.memberMedalsDetail, data);
-      } else if (next.standingsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("standings", next.standingsDetail, data);
-      } else if (next.walletJournalStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("walletJournal", next.walletJournalDetail, data);
-      } else if (next.walletTransactionsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("walletTransactions", next.walletTransactionsDetail, data);
-      } else if (next.memberSecurityStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("memberSecurity", next.memberSecurityDetail, data);
-      } else if (next.containerLogStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("containerLog", next.containerLogDetail, data);
-      } else if (next.memberSecurityLogStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("memberSecurityLog", next.memberSecurityLogDetail, data);
-      } else if (next.memberTrackingStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("memberTracking", next.memberTrackingDetail, data);
-      } else if (next.corpMedalsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("corpMedals", next.corpMedalsDetail, data);
-      } else if (next.outpostListStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("outpostList", next.outpostListDetail, data);
-      } else if (next.outpostDetailStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("outpostDetail", next.outpostDetailDetail, data);
-      } else if (next.shareholderStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("shareholder", next.shareholderDetail, data);
-      } else if (next.starbaseListStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("starbaseList", next.starbaseListDetail, data);
-      } else if (next.starbaseDetailStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("starbaseDetail", next.starbaseDetailDetail, data);
-      } else if (next.corpTitlesStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("corpTitles", next.corpTitlesDetail, data);
-      } else if (next.locationsStatus == SyncState.SYNC_ERROR) {
-        errorCount++;
-        SyncTracker.incrementSummary("locations", next.locationsDetail, data);
-      }
-    }
-
-    summary.append(errorCount).append(" trackers with errors\n");
-
-    for (String category : data.keySet()) {
-      summary.append("Category - ").append(category).append(":\n");
-      for (String reason : data.get(category).keySet()) {
-        summary.append("    ").append(reason).append(" - ").append(data.get(category).get(reason).get()).append('\n');
-      }
-      summary.append('\n');
-    }
-
-    return summary.toString();
+    return getErrorSummary(day).format("Corporation Sync Tracker Error Summary");
   }
 
 }
@@ -0,0 +1,278 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.base.OrbitalProperties;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory, site-wide ESI synchronization health aggregates.  Each finished tracker (see
+ * ESIEndpointSyncTracker.finishTracker) is recorded against its endpoint in an hourly bucket of a per-endpoint
+ * ring buffer covering the last N hours.  Each bucket holds counts of final tracker status, a histogram of run
+ * time (syncEnd - syncStart) and a histogram of start lag (syncStart - scheduled).
+ * <p>
+ * Aggregates are maintained by the process which finishes trackers and are not persisted, so they start empty
+ * on restart and only reflect trackers finished by this process.  Queries never touch the tracker table.
+ */
+public class ESIEndpointSyncHealth {
+  // Number of hourly buckets retained for each endpoint
+  public static final String PROP_HEALTH_WINDOW_HOURS = "enterprises.orbital.evekit.model.syncHealthWindowHours";
+  public static final long DEF_HEALTH_WINDOW_HOURS = 24;
+
+  private static final long BUCKET_LENGTH = TimeUnit.MILLISECONDS.convert(1, TimeUnit.HOURS);
+
+  /**
+   * Aggregate health of one endpoint over some time range.
+   */
+  public static class EndpointHealth {
+    private final ESISyncEndpoint endpoint;
+    private final long start;
+    private final long end;
+    private final Map<ESISyncState, Long> counts = new EnumMap<>(ESISyncState.class);
+    private final LatencyHistogram runTime = new LatencyHistogram();
+    private final LatencyHistogram startLag = new LatencyHistogram();
+
+    EndpointHealth(ESISyncEndpoint endpoint, long start, long end) {
+      this.endpoint = endpoint;
+      this.start = start;
+      this.end = end;
+      for (ESISyncState next : ESISyncState.values()) {
+        counts.put(next, 0L);
+      }
+    }
+
+    void add(Bucket bucket) {
+      for (ESISyncState next : ESISyncState.values()) {
+        counts.put(next, counts.get(next) + bucket.counts[next.ordinal()]);
+      }
+      runTime.merge(bucket.runTime);
+      startLag.merge(bucket.startLag);
+    }
+
+    public ESISyncEndpoint getEndpoint() {
+      return endpoint;
+    }
+
+    /**
+     * @return start (inclusive) of the time range covered by this aggregate.
+     */
+    public long getStart() {
+      return start;
+    }
+
+    /**
+     * @return end (exclusive) of the time range covered by this aggregate.
+     */
+    public long getEnd() {
+      return end;
+    }
+
+    public long getCount(ESISyncState status) {
+      return counts.get(status);
+    }
+
+    public Map<ESISyncState, Long> getCounts() {
+      return Collections.unmodifiableMap(counts);
+    }
+
+    public long getFinished() {
+      return getCount(ESISyncState.FINISHED);
+    }
+
+    public long getWarning() {
+      return getCount(ESISyncState.WARNING);
+    }
+
+    public long getError() {
+      return getCount(ESISyncState.ERROR);
+    }
+
+    /**
+     * @return histogram of syncEnd - syncStart.
+     */
+    public LatencyHistogram getRunTime() {
+      return runTime;
+    }
+
+    /**
+     * @return histogram of syncStart - scheduled.
+     */
+    public LatencyHistogram getStartLag() {
+      return startLag;
+    }
+
+    @Override
+    public String toString() {
+      return "EndpointHealth{" +
+          "endpoint=" + endpoint +
+          ", start=" + start +
+          ", end=" + end +
+          ", counts=" + counts +
+          ", runTime=" + runTime +
+          ", startLag=" + startLag +
+          '}';
+    }
+  }
+
+  // One hour of aggregates for an endpoint
+  private static class Bucket {
+    private long hour = -1;
+    private final long[] counts = new long[ESISyncState.values().length];
+    private final LatencyHistogram runTime = new LatencyHistogram();
+    private final LatencyHistogram startLag = new LatencyHistogram();
+
+    void reset(long newHour) {
+      hour = newHour;
+      for (int i = 0; i < counts.length; i++) counts[i] = 0;
+      runTime.clear();
+      startLag.clear();
+    }
+  }
+
+  // Ring of hourly buckets for an endpoint.  Bucket for hour h is at h % length.
+  private static class Ring {
+    private final Bucket[] buckets;
+
+    Ring(int hours) {
+      buckets = new Bucket[hours];
+      for (int i = 0; i < hours; i++) buckets[i] = new Bucket();
+    }
+
+    synchronized void record(long hour, ESISyncState status, long runTime, long startLag) {
+      Bucket bucket = buckets[(int) Math.floorMod(hour, (long) buckets.length)];
+      if (bucket.hour != hour) {
+        // Don't let a late record for an hour which has left the window overwrite a newer bucket
+        if (bucket.hour > hour) return;
+        bucket.reset(hour);
+      }
+      if (status != null) bucket.counts[status.ordinal()]++;
+      if (runTime >= 0) bucket.runTime.record(runTime);
+      if (startLag >= 0) bucket.startLag.record(startLag);
+    }
+
+    synchronized void collect(long fromHour, long toHour, EndpointHealth target) {
+      for (long hour = Math.max(fromHour, toHour - buckets.length + 1); hour <= toHour; hour++) {
+        Bucket bucket = buckets[(int) Math.floorMod(hour, (long) buckets.length)];
+        if (bucket.hour == hour) target.add(bucket);
+      }
+    }
+  }
+
+  private static volatile Map<ESISyncEndpoint, Ring> rings;
+  private static volatile int windowHours;
+
+  private ESIEndpointSyncHealth() {}
+
+  private static Map<ESISyncEndpoint, Ring> getRings() {
+    Map<ESISyncEndpoint, Ring> current = rings;
+    if (current == null) {
+      synchronized (ESIEndpointSyncHealth.class) {
+        if (rings == null)
+          reset((int) OrbitalProperties.getLongGlobalProperty(PROP_HEALTH_WINDOW_HOURS, DEF_HEALTH_WINDOW_HOURS));
+        current = rings;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Discard all aggregates and change the number of hours retained.
+   *
+   * @param hours number of hourly buckets to retain for each endpoint.
+   */
+  public static synchronized void reset(int hours) {
+    int size = Math.max(1, hours);
+    Map<ESISyncEndpoint, Ring> fresh = new EnumMap<>(ESISyncEndpoint.class);
+    for (ESISyncEndpoint next : ESISyncEndpoint.values()) {
+      fresh.put(next, new Ring(size));
+    }
+    windowHours = size;
+    rings = Collections.unmodifiableMap(fresh);
+  }
+
+  /**
+   * @return the number of hours of aggregates retained for each endpoint.
+   */
+  public static int getWindowHours() {
+    getRings();
+    return windowHours;
+  }
+
+  /**
+   * Record a finished tracker.  The tracker is assigned to the hourly bucket containing its end time.
+   *
+   * @param tracker the finished tracker to record.
+   */
+  public static void record(ESIEndpointSyncTracker tracker) {
+    if (tracker.getEndpoint() == null || tracker.getSyncEnd() < 0) return;
+    // Negative values mean "not available" and are not recorded
+    long runTime = SyncMetrics.runTime(tracker.getSyncStart(), tracker.getSyncEnd());
+    long startLag = SyncMetrics.startLag(tracker.getScheduled(), tracker.getSyncStart());
+    getRings().get(tracker.getEndpoint())
+              .record(tracker.getSyncEnd() / BUCKET_LENGTH, tracker.getStatus(), runTime, startLag);
+  }
+
+  /**
+   * Get aggregate health for an endpoint over the entire retained window.
+   *
+   * @param endpoint the endpoint to retrieve.
+   * @return aggregate health for the endpoint.
+   */
+  public static EndpointHealth getHealth(ESISyncEndpoint endpoint) {
+    return getHealth(endpoint, getWindowHours());
+  }
+
+  /**
+   * Get aggregate health for an endpoint over the last few hours, including the current hour.  The range is
+   * limited to the retained window.
+   *
+   * @param endpoint the endpoint to retrieve.
+   * @param hours    number of hourly buckets to aggregate.
+   * @return aggregate health for the endpoint.
+   */
+  public static EndpointHealth getHealth(ESISyncEndpoint endpoint, int hours) {
+    long now = OrbitalProperties.getCurrentTime() / BUCKET_LENGTH;
+    long from = now - Math.max(1, Math.min(hours, getWindowHours())) + 1;
+    EndpointHealth result = new EndpointHealth(endpoint, from * BUCKET_LENGTH, (now + 1) * BUCKET_LENGTH);
+    getRings().get(endpoint)
+              .collect(from, now, result);
+    return result;
+  }
+
+  /**
+   * Get aggregate health for all endpoints over the last few hours, including the current hour.
+   *
+   * @param hours number of hourly buckets to aggregate.
+   * @return aggregate health for each endpoint.
+   */
+  public static Map<ESISyncEndpoint, EndpointHealth> getAllHealth(int hours) {
+    Map<ESISyncEndpoint, EndpointHealth> result = new EnumMap<>(ESISyncEndpoint.class);
+    for (ESISyncEndpoint next : ESISyncEndpoint.values()) {
+      result.put(next, getHealth(next, hours));
+    }
+    return result;
+  }
+
+  /**
+   * Get hourly health for an endpoint, oldest first, over the entire retained window.  Hours with no finished
+   * trackers are included with zero counts.
+   *
+   * @param endpoint the endpoint to retrieve.
+   * @return one aggregate per hour.
+   */
+  public static EndpointHealth[] getHourlyHealth(ESISyncEndpoint endpoint) {
+    int hours = getWindowHours();
+    long now = OrbitalProperties.getCurrentTime() / BUCKET_LENGTH;
+    EndpointHealth[] result = new EndpointHealth[hours];
+    Ring ring = getRings().get(endpoint);
+    for (int i = 0; i < hours; i++) {
+      long hour = now - hours + 1 + i;
+      result[i] = new EndpointHealth(endpoint, hour * BUCKET_LENGTH, (hour + 1) * BUCKET_LENGTH);
+      ring.collect(hour, hour, result[i]);
+    }
+    return result;
+  }
+
+}
@@ -10,10 +10,21 @@ import io.swagger.annotations.ApiModelProperty;
 
 import javax.persistence.*;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Object to track synchronization of an ESI endpoint (see ESISyncEndpoint) for a synchronized account.
@@ -47,6 +58,19 @@ import java.util.logging.Logger;
         @Index(
             name = "syncEndIndex",
             columnList = "syncEnd"),
+        // Unfinished, last finished and history lookups by account and endpoint
+        @Index(
+            name = "accountEndpointEndIndex",
+            columnList = "aid, endpoint, syncEnd"),
+        // Unfinished trackers by account ordered by schedule.  Finished tracker lookups by account alone (last
+        // finished and history) only match aid by equality and are served by the account foreign key index.
+        @Index(
+            name = "accountEndScheduledIndex",
+            columnList = "aid, syncEnd, scheduled"),
+        // Due but unclaimed trackers ordered by schedule (see claimNextDue)
+        @Index(
+            name = "dueIndex",
+            columnList = "syncStart, syncEnd, scheduled"),
     })
 @NamedQueries({
     @NamedQuery(
@@ -55,6 +79,9 @@ import java.util.logging.Logger;
     @NamedQuery(
         name = "ESIEndpointSyncTracker.getUnfinished",
         query = "SELECT c FROM ESIEndpointSyncTracker c where c.account = :account and c.endpoint = :endpoint and c.syncEnd = -1"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getUnfinishedByEndpoints",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.account = :account and c.endpoint in :endpoints and c.syncEnd = -1"),
     @NamedQuery(
         name = "ESIEndpointSyncTracker.getAllStartedUnfinished",
         query = "SELECT c FROM ESIEndpointSyncTracker c where c.syncStart <> -1 and c.syncEnd = -1"),
@@ -82,12 +109,73 @@ import java.util.logging.Logger;
     @NamedQuery(
         name = "ESIEndpointSyncTracker.getAllHistoryByEndpoint",
         query = "SELECT c FROM ESIEndpointSyncTracker c where c.syncEnd <> -1 and c.endpoint = :endpoint and c.syncStart < :start order by c.syncStart desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getHistoryPage",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.account = :account and c.endpoint = :endpoint and c.syncEnd <> -1 and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getAllHistoryPage",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.account = :account and c.syncEnd <> -1 and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getDue",
+        query = "SELECT c.tid FROM ESIEndpointSyncTracker c where c.syncStart = -1 and c.syncEnd = -1 and c.scheduled <= :now order by c.scheduled asc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.claim",
+        query = "UPDATE ESIEndpointSyncTracker c SET c.syncStart = :now, c.claimedBy = :worker, c.leaseExpiry = :lease where c.tid in :tids and c.syncStart = -1 and c.syncEnd = -1"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.renewLease",
+        query = "UPDATE ESIEndpointSyncTracker c SET c.leaseExpiry = :lease where c.tid = :tid and c.claimedBy = :worker and c.syncEnd = -1 and c.leaseExpiry >= :now"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getExpired",
+        query = "SELECT c.tid FROM ESIEndpointSyncTracker c where c.syncEnd = -1 and c.syncStart <> -1 and c.leaseExpiry <> -1 and c.leaseExpiry < :now order by c.syncStart asc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.reap",
+        query = "UPDATE ESIEndpointSyncTracker c SET c.syncEnd = :now, c.status = :status, c.detail = :detail where c.tid in :tids and c.syncEnd = -1 and c.syncStart <> -1 and c.leaseExpiry <> -1 and c.leaseExpiry < :now"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getExpiredUnleased",
+        query = "SELECT c.tid FROM ESIEndpointSyncTracker c where c.syncEnd = -1 and c.syncStart <> -1 and c.leaseExpiry = -1 and c.syncStart < :unleasedStart order by c.syncStart asc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.reapUnleased",
+        query = "UPDATE ESIEndpointSyncTracker c SET c.syncEnd = :now, c.status = :status, c.detail = :detail where c.tid in :tids and c.syncEnd = -1 and c.syncStart <> -1 and c.leaseExpiry = -1 and c.syncStart < :unleasedStart"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getReaped",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.tid in :tids and c.syncEnd = :now and c.status = :status and c.detail = :detail"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getClaimed",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.tid in :tids and c.syncStart = :now and c.claimedBy = :worker order by c.scheduled asc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getAllSiteHistoryPage",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.syncEnd <> -1 and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTracker.getAllHistoryByEndpointPage",
+        query = "SELECT c FROM ESIEndpointSyncTracker c where c.syncEnd <> -1 and c.endpoint = :endpoint and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
 })
 @ApiModel(
     description = "ESI endpoint synchronization tracker")
 public class ESIEndpointSyncTracker {
   private static final Logger log = Logger.getLogger(ESIEndpointSyncTracker.class.getName());
 
+  // Number of trackers retrieved per page when streaming history
+  public static final String PROP_HISTORY_PAGE_SIZE = "enterprises.orbital.evekit.model.historyPageSize";
+  public static final long DEF_HISTORY_PAGE_SIZE = 1000;
+
+  // Length (milliseconds) of the lease granted to a worker which claims a tracker.  Started trackers whose lease
+  // has expired are finished by the reaper (see reapExpired).
+  public static final String PROP_LEASE_DURATION = "enterprises.orbital.evekit.model.trackerLeaseDuration";
+  public static final long DEF_LEASE_DURATION = TimeUnit.MILLISECONDS.convert(15, TimeUnit.MINUTES);
+
+  // Age (milliseconds since syncStart) after which trackers started without a lease (i.e. not through
+  // claimNextDue) are also reaped.  Workers using the legacy start path can't renew a lease, so this should only
+  // be enabled if no such worker runs longer than this age.  Zero (the default) never reaps unleased trackers.
+  public static final String PROP_REAP_UNLEASED_AGE = "enterprises.orbital.evekit.model.trackerReapUnleasedAge";
+  public static final long DEF_REAP_UNLEASED_AGE = 0;
+
+  // Maximum number of trackers finished per reaper transaction
+  public static final String PROP_REAP_BATCH_SIZE = "enterprises.orbital.evekit.model.trackerReapBatchSize";
+  public static final long DEF_REAP_BATCH_SIZE = 500;
+
+  // Detail message assigned to trackers finished by the reaper
+  public static final String REAPED_DETAIL = "Lease expired before tracker finished";
+
   // Unique tracker ID
   @Id
   @GeneratedValue(
@@ -152,9 +240,38 @@ public class ESIEndpointSyncTracker {
   @JsonIgnore
   private String context;
 
+  // ID of the worker which claimed this tracker (see claimNextDue)
+  // null if not claimed through claimNextDue
+  @ApiModelProperty(
+      value = "ID of the worker which claimed this tracker")
+  @JsonProperty("claimedBy")
+  private String claimedBy;
+
+  // Time when the lease of the claiming worker expires (see claimNextDue and renewLease)
+  // -1 if not claimed with a lease
+  @ApiModelProperty(
+      value = "Lease expiry time of the claiming worker (milliseconds UTC)")
+  @JsonProperty("leaseExpiry")
+  private long leaseExpiry = -1;
+
   public ESIEndpointSyncTracker() {
   }
 
+  // Copy constructor used by ESIEndpointSyncTrackerCache so cached instances are never shared with callers
+  ESIEndpointSyncTracker(ESIEndpointSyncTracker other) {
+    this.tid = other.tid;
+    this.account = other.account;
+    this.endpoint = other.endpoint;
+    this.scheduled = other.scheduled;
+    this.syncStart = other.syncStart;
+    this.syncEnd = other.syncEnd;
+    this.status = other.status;
+    this.detail = other.detail;
+    this.context = other.context;
+    this.claimedBy = other.claimedBy;
+    this.leaseExpiry = other.leaseExpiry;
+  }
+
   public void setSyncStart(long syncStart) {
     this.syncStart = syncStart;
   }
@@ -211,6 +328,14 @@ public class ESIEndpointSyncTracker {
     this.context = context;
   }
 
+  public String getClaimedBy() {
+    return claimedBy;
+  }
+
+  public long getLeaseExpiry() {
+    return leaseExpiry;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -249,6 +374,8 @@ public class ESIEndpointSyncTracker {
         ", status=" + status +
         ", detail='" + detail + '\'' +
         ", context='" + context + '\'' +
+        ", claimedBy='" + claimedBy + '\'' +
+        ", leaseExpiry=" + leaseExpiry +
         '}';
   }
 
@@ -271,7 +398,10 @@ public class ESIEndpointSyncTracker {
    */
   public static ESIEndpointSyncTracker finishTracker(ESIEndpointSyncTracker tracker) throws IOException {
     tracker.setSyncEnd(OrbitalProperties.getCurrentTime());
-    return EveKitUserAccountProvider.update(tracker);
+    ESIEndpointSyncTracker result = EveKitUserAccountProvider.update(tracker);
+    ESIEndpointSyncHealth.record(result);
+    SyncMetrics.trackerFinished(result);
+    return result;
   }
 
   /**
@@ -318,7 +448,12 @@ public class ESIEndpointSyncTracker {
    */
   public static ESIEndpointSyncTracker getUnfinishedTracker(SynchronizedEveAccount account,
                                                             ESISyncEndpoint endpoint) throws IOException, TrackerNotFoundException {
-    ReentrantLock lck = SynchronizedEveAccount.getSyncAccountLock(account);
+    if (ESIEndpointSyncTrackerCache.isUsable()) {
+      ESIEndpointSyncTracker cached = ESIEndpointSyncTrackerCache.getUnfinished(account.getAid(), endpoint);
+      if (cached == null) throw new TrackerNotFoundException();
+      return cached;
+    }
+    Lock lck = SynchronizedEveAccount.getSyncAccountLock(account);
     lck.lock();
     try {
       return EveKitUserAccountProvider.getFactory()
@@ -352,7 +487,8 @@ public class ESIEndpointSyncTracker {
    * @return the list of all unfinished trackers ordered in increasing order by
    * @throws IOException on any database error.
    */
-  public static synchronized List<ESIEndpointSyncTracker> getAllUnfinishedTrackers(SynchronizedEveAccount account) throws IOException {
+  public static List<ESIEndpointSyncTracker> getAllUnfinishedTrackers(SynchronizedEveAccount account) throws IOException {
+    if (ESIEndpointSyncTrackerCache.isUsable()) return ESIEndpointSyncTrackerCache.getUnfinished(account.getAid());
     try {
       return EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
@@ -378,7 +514,18 @@ public class ESIEndpointSyncTracker {
    * @return the list of all unfinished trackers
    * @throws IOException on any database error.
    */
-  public static synchronized List<ESIEndpointSyncTracker> getAllUnfinishedTrackers() throws IOException {
+  public static List<ESIEndpointSyncTracker> getAllUnfinishedTrackers() throws IOException {
+    if (ESIEndpointSyncTrackerCache.isUsable()) return ESIEndpointSyncTrackerCache.getAllUnfinished(false);
+    return queryAllUnfinishedTrackers();
+  }
+
+  /**
+   * Retrieve all unfinished trackers directly from the database, bypassing the tracker cache.
+   *
+   * @return the list of all unfinished trackers
+   * @throws IOException on any database error.
+   */
+  static List<ESIEndpointSyncTracker> queryAllUnfinishedTrackers() throws IOException {
     try {
       return EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
@@ -402,7 +549,8 @@ public class ESIEndpointSyncTracker {
    * @return the list of all started but unfinished trackers
    * @throws IOException on any database error.
    */
-  public static synchronized List<ESIEndpointSyncTracker> getAllStartedUnfinishedTrackers() throws IOException {
+  public static List<ESIEndpointSyncTracker> getAllStartedUnfinishedTrackers() throws IOException {
+    if (ESIEndpointSyncTrackerCache.isUsable()) return ESIEndpointSyncTrackerCache.getAllUnfinished(true);
     try {
       return EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
@@ -420,6 +568,199 @@ public class ESIEndpointSyncTracker {
     }
   }
 
+  /**
+   * Claim up to limit due trackers (scheduled at or before now and not yet started) for a worker.  Claimed trackers
+   * have their start time set to now and are marked with the worker ID.  Trackers are claimed by a single
+   * conditional update which only changes trackers which are still unstarted, so concurrent callers in this or
+   * other processes never claim the same tracker.  Trackers lost to a concurrent claimer are skipped, so fewer
+   * than limit trackers may be returned even when more are due.
+   * <p>
+   * Worker IDs should be unique among concurrent callers.  Claimed trackers are identified by worker ID and
+   * start time.  Each claimed tracker is given a lease (see PROP_LEASE_DURATION) which the worker must renew
+   * with renewLease until the tracker is finished.
+   *
+   * @param now      the current time.  Trackers scheduled at or before this time are due.
+   * @param limit    the maximum number of trackers to claim.
+   * @param workerId the ID of the claiming worker.
+   * @return the claimed trackers in scheduled order.
+   * @throws IOException on any database error.
+   */
+  public static List<ESIEndpointSyncTracker> claimNextDue(long now, int limit, String workerId) throws IOException {
+    List<ESIEndpointSyncTracker> claimed;
+    try {
+      claimed = EveKitUserAccountProvider.getFactory()
+                                         .runTransaction(() -> {
+                                           EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                       .getEntityManager();
+                                           TypedQuery<Long> getter = em.createNamedQuery("ESIEndpointSyncTracker.getDue",
+                                                                                         Long.class);
+                                           getter.setParameter("now", now);
+                                           getter.setMaxResults(limit);
+                                           List<Long> due = getter.getResultList();
+                                           if (due.isEmpty()) return new ArrayList<ESIEndpointSyncTracker>();
+                                           int updated = em.createNamedQuery("ESIEndpointSyncTracker.claim")
+                                                           .setParameter("now", now)
+                                                           .setParameter("worker", workerId)
+                                                           .setParameter("lease", now + getLeaseDuration())
+                                                           .setParameter("tids", due)
+                                                           .executeUpdate();
+                                           if (updated == 0) return new ArrayList<ESIEndpointSyncTracker>();
+                                           // Bulk updates bypass the persistence context, so make sure we read claimed state
+                                           em.clear();
+                                           TypedQuery<ESIEndpointSyncTracker> result = em.createNamedQuery(
+                                               "ESIEndpointSyncTracker.getClaimed", ESIEndpointSyncTracker.class);
+                                           result.setParameter("tids", due);
+                                           result.setParameter("now", now);
+                                           result.setParameter("worker", workerId);
+                                           return result.getResultList();
+                                         });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+    for (ESIEndpointSyncTracker next : claimed) {
+      ESIEndpointSyncTrackerCache.update(next);
+    }
+    return claimed;
+  }
+
+  private static long getLeaseDuration() {
+    return OrbitalProperties.getLongGlobalProperty(PROP_LEASE_DURATION, DEF_LEASE_DURATION);
+  }
+
+  /**
+   * Extend the lease on a claimed tracker.  Workers should call this periodically while synchronizing a tracker
+   * claimed by claimNextDue.  The lease can only be renewed by the claiming worker, before the lease expires and
+   * before the tracker is finished.
+   *
+   * @param tracker  the claimed tracker.
+   * @param workerId the ID of the worker which claimed the tracker.
+   * @return true if the lease was renewed.  False means the lease was lost (e.g. the tracker was reaped) and the
+   * worker should abandon the tracker.
+   * @throws IOException on any database error.
+   */
+  public static boolean renewLease(ESIEndpointSyncTracker tracker, String workerId) throws IOException {
+    long now = OrbitalProperties.getCurrentTime();
+    long lease = now + getLeaseDuration();
+    try {
+      boolean renewed = EveKitUserAccountProvider.getFactory()
+                                                 .runTransaction(() -> EveKitUserAccountProvider.getFactory()
+                                                                                                .getEntityManager()
+                                                                                                .createNamedQuery(
+                                                                                                    "ESIEndpointSyncTracker.renewLease")
+                                                                                                .setParameter("tid", tracker.tid)
+                                                                                                .setParameter("worker", workerId)
+                                                                                                .setParameter("now", now)
+                                                                                                .setParameter("lease", lease)
+                                                                                                .executeUpdate() == 1);
+      if (renewed) tracker.leaseExpiry = lease;
+      return renewed;
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Finish one batch of started trackers whose lease has expired.  Such trackers were most likely abandoned by a
+   * worker which died mid-synchronization.  Reaped trackers are finished with status ERROR and detail
+   * REAPED_DETAIL, which unblocks the endpoint so that getOrCreateUnfinishedTracker will schedule a new tracker.
+   * Expiry is re-checked by the update, so a tracker whose lease is renewed concurrently is not reaped.
+   * <p>
+   * Trackers started without a lease are only reaped if PROP_REAP_UNLEASED_AGE is enabled, in which case they are
+   * reaped once they have been running for longer than that age.
+   *
+   * @param now       the current time.
+   * @param batchSize the maximum number of trackers to reap.
+   * @param reaped    incremented with the number of trackers reaped for each endpoint.
+   * @return the number of trackers reaped.  Less than batchSize means no expired trackers remained, or some were
+   * renewed or finished concurrently.
+   * @throws IOException on any database error.
+   */
+  public static int reapExpired(long now, int batchSize, Map<ESISyncEndpoint, Integer> reaped) throws IOException {
+    return reapExpired(now, batchSize, reaped,
+                       OrbitalProperties.getLongGlobalProperty(PROP_REAP_UNLEASED_AGE, DEF_REAP_UNLEASED_AGE));
+  }
+
+  // Reap as above, also reaping unleased trackers older than unleasedAge if unleasedAge is positive.
+  static int reapExpired(long now, int batchSize, Map<ESISyncEndpoint, Integer> reaped, long unleasedAge)
+      throws IOException {
+    int count = reap("ESIEndpointSyncTracker.getExpired", "ESIEndpointSyncTracker.reap", null, now, batchSize, reaped);
+    if (unleasedAge > 0 && count < batchSize)
+      count += reap("ESIEndpointSyncTracker.getExpiredUnleased", "ESIEndpointSyncTracker.reapUnleased",
+                    now - unleasedAge, now, batchSize - count, reaped);
+    return count;
+  }
+
+  // Reap one batch of trackers selected by the given query pair.  unleasedStart is only bound for the unleased
+  // queries.
+  private static int reap(String expiredQuery, String reapQuery, Long unleasedStart, long now, int batchSize,
+                          Map<ESISyncEndpoint, Integer> reaped) throws IOException {
+    List<ESIEndpointSyncTracker> result;
+    try {
+      result = EveKitUserAccountProvider.getFactory()
+                                        .runTransaction(() -> {
+                                          EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                      .getEntityManager();
+                                          TypedQuery<Long> getter = em.createNamedQuery(expiredQuery, Long.class);
+                                          if (unleasedStart == null)
+                                            getter.setParameter("now", now);
+                                          else
+                                            getter.setParameter("unleasedStart", unleasedStart);
+                                          getter.setMaxResults(batchSize);
+                                          List<Long> expired = getter.getResultList();
+                                          if (expired.isEmpty()) return new ArrayList<ESIEndpointSyncTracker>();
+                                          Query reaper = em.createNamedQuery(reapQuery)
+                                                           .setParameter("tids", expired)
+                                                           .setParameter("now", now)
+                                                           .setParameter("status", ESISyncState.ERROR)
+                                                           .setParameter("detail", REAPED_DETAIL);
+                                          if (unleasedStart != null) reaper.setParameter("unleasedStart", unleasedStart);
+                                          reaper.executeUpdate();
+                                          // Bulk updates bypass the persistence context, so make sure we read reaped state
+                                          em.clear();
+                                          TypedQuery<ESIEndpointSyncTracker> reader = em.createNamedQuery(
+                                              "ESIEndpointSyncTracker.getReaped", ESIEndpointSyncTracker.class);
+                                          reader.setParameter("tids", expired);
+                                          reader.setParameter("now", now);
+                                          reader.setParameter("status", ESISyncState.ERROR);
+                                          reader.setParameter("detail", REAPED_DETAIL);
+                                          return reader.getResultList();
+                                        });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+    for (ESIEndpointSyncTracker tracker : result) {
+      reaped.merge(tracker.getEndpoint(), 1, Integer::sum);
+      // Reaped trackers are finished, so this removes them from the unfinished tracker cache
+      ESIEndpointSyncTrackerCache.update(tracker);
+      ESIEndpointSyncHealth.record(tracker);
+      SyncMetrics.trackerFinished(tracker);
+    }
+    return result.size();
+  }
+
+  /**
+   * Finish all started trackers whose lease has expired, one batch (see PROP_REAP_BATCH_SIZE) at a time.
+   *
+   * @return the number of trackers reaped for each endpoint.  Endpoints with no reaped trackers are omitted.
+   * @throws IOException on any database error.
+   */
+  public static Map<ESISyncEndpoint, Integer> reapExpired() throws IOException {
+    long now = OrbitalProperties.getCurrentTime();
+    int batchSize = (int) OrbitalProperties.getLongGlobalProperty(PROP_REAP_BATCH_SIZE, DEF_REAP_BATCH_SIZE);
+    Map<ESISyncEndpoint, Integer> reaped = new EnumMap<>(ESISyncEndpoint.class);
+    int count;
+    do {
+      count = reapExpired(now, batchSize, reaped);
+    } while (count == batchSize);
+    return reaped;
+  }
+
   /**
    * Get the unfinished tracker for the given account and endpoint.  If no such tracker exists, then create one
    * and assign a scheduled start time.
@@ -434,24 +775,101 @@ public class ESIEndpointSyncTracker {
   public static ESIEndpointSyncTracker getOrCreateUnfinishedTracker(SynchronizedEveAccount account,
                                                                     ESISyncEndpoint endpoint, long scheduled,
                                                                     String context) throws IOException {
-    ReentrantLock lck = SynchronizedEveAccount.getSyncAccountLock(account);
+    // A cached tracker can be returned directly.  A cache miss may only mean the cache is behind (e.g. the
+    // tracker was created by another process), so we confirm it against the database before creating a tracker.
+    if (ESIEndpointSyncTrackerCache.isUsable()) {
+      ESIEndpointSyncTracker cached = ESIEndpointSyncTrackerCache.getUnfinished(account.getAid(), endpoint);
+      if (cached != null) return cached;
+    }
+    Lock lck = SynchronizedEveAccount.getSyncAccountLock(account);
     lck.lock();
     try {
-      return EveKitUserAccountProvider.getFactory()
+      ESIEndpointSyncTracker result = EveKitUserAccountProvider.getFactory()
+                                                               .runTransaction(() -> {
+                                                                 EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                                             .getEntityManager();
+                                                                 TypedQuery<ESIEndpointSyncTracker> getter = em.createNamedQuery(
+                                                                     "ESIEndpointSyncTracker.getUnfinished",
+                                                                     ESIEndpointSyncTracker.class);
+                                                                 getter.setParameter("account", account);
+                                                                 getter.setParameter("endpoint", endpoint);
+                                                                 try {
+                                                                   return getter.getSingleResult();
+                                                                 } catch (NoResultException e) {
+                                                                   // No unfinished tracker, create and schedule one
+                                                                   ESIEndpointSyncTracker tracker = new ESIEndpointSyncTracker();
+                                                                   tracker.account = account;
+                                                                   tracker.endpoint = endpoint;
+                                                                   tracker.scheduled = scheduled;
+                                                                   tracker.context = context;
+                                                                   em.persist(tracker);
+                                                                   return tracker;
+                                                                 }
+                                                               });
+      // Only update the cache once the transaction has committed
+      ESIEndpointSyncTrackerCache.update(result);
+      return result;
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    } finally {
+      lck.unlock();
+    }
+  }
+
+  /**
+   * Bulk version of getOrCreateUnfinishedTracker.  Existing unfinished trackers for all requested endpoints
+   * are retrieved with a single query, and trackers are created for any endpoints which don't have one.
+   * All work is done in one transaction while holding the account lock.  New trackers are persisted together
+   * and flushed once, so inserts are batched when the persistence unit enables JDBC batching
+   * (hibernate.jdbc.batch_size).
+   *
+   * @param account   the owner of the unfinished trackers
+   * @param scheduled map from endpoint to the scheduled start time to use if a new tracker is needed
+   * @param context   optional context for new sync events
+   * @return map from each requested endpoint to its existing or newly created unfinished tracker
+   * @throws IOException on any database error
+   */
+  public static Map<ESISyncEndpoint, ESIEndpointSyncTracker> getOrCreateUnfinishedTrackers(
+      SynchronizedEveAccount account,
+      Map<ESISyncEndpoint, Long> scheduled,
+      String context) throws IOException {
+    Map<ESISyncEndpoint, ESIEndpointSyncTracker> result = new EnumMap<>(ESISyncEndpoint.class);
+    if (scheduled.isEmpty()) return result;
+    Lock lck = SynchronizedEveAccount.getSyncAccountLock(account);
+    lck.lock();
+    try {
+      EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
-                                        try {
-                                          // If this call succeeds without throwing an exception then we already have an unfinished tracker
-                                          return getUnfinishedTracker(account, endpoint);
-                                        } catch (TrackerNotFoundException e) {
-                                          // Otherwise, create and schedule a tracker
+                                        EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                    .getEntityManager();
+                                        TypedQuery<ESIEndpointSyncTracker> getter = em.createNamedQuery(
+                                            "ESIEndpointSyncTracker.getUnfinishedByEndpoints",
+                                            ESIEndpointSyncTracker.class);
+                                        getter.setParameter("account", account);
+                                        getter.setParameter("endpoints", new ArrayList<>(scheduled.keySet()));
+                                        for (ESIEndpointSyncTracker next : getter.getResultList()) {
+                                          result.put(next.endpoint, next);
+                                        }
+                                        // Create and schedule trackers for any endpoints we didn't find
+                                        boolean created = false;
+                                        for (Map.Entry<ESISyncEndpoint, Long> next : scheduled.entrySet()) {
+                                          if (result.containsKey(next.getKey())) continue;
                                           ESIEndpointSyncTracker tracker = new ESIEndpointSyncTracker();
                                           tracker.account = account;
-                                          tracker.endpoint = endpoint;
-                                          tracker.scheduled = scheduled;
+                                          tracker.endpoint = next.getKey();
+                                          tracker.scheduled = next.getValue();
                                           tracker.context = context;
-                                          return EveKitUserAccountProvider.update(tracker);
+                                          em.persist(tracker);
+                                          result.put(tracker.endpoint, tracker);
+                                          created = true;
                                         }
+                                        if (created) em.flush();
+                                        return result;
                                       });
+      for (ESIEndpointSyncTracker next : result.values()) ESIEndpointSyncTrackerCache.update(next);
+      return result;
     } catch (Exception e) {
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
@@ -472,7 +890,8 @@ public class ESIEndpointSyncTracker {
    */
   public static ESIEndpointSyncTracker getLatestFinishedTracker(SynchronizedEveAccount account,
                                                                 ESISyncEndpoint endpoint) throws IOException, TrackerNotFoundException {
-    ReentrantLock lck = SynchronizedEveAccount.getSyncAccountLock(account);
+    // The tracker cache only holds unfinished trackers, so this query always goes to the database
+    Lock lck = SynchronizedEveAccount.getSyncAccountLock(account);
     lck.lock();
     try {
       return EveKitUserAccountProvider.getFactory()
@@ -488,7 +907,14 @@ public class ESIEndpointSyncTracker {
                                         try {
                                           return getter.getSingleResult();
                                         } catch (NoResultException e) {
-                                          throw new TrackerNotFoundException();
+                                          // All finished trackers for this endpoint may have been archived
+                                          List<ESIEndpointSyncTracker> archived = ESIEndpointSyncTrackerArchive.query(
+                                              "ESIEndpointSyncTrackerArchive.getLastFinished", archive -> {
+                                                archive.setParameter("account", account);
+                                                archive.setParameter("endpoint", endpoint);
+                                              }, 1);
+                                          if (archived.isEmpty()) throw new TrackerNotFoundException();
+                                          return archived.get(0);
                                         }
                                       });
     } catch (Exception e) {
@@ -511,7 +937,7 @@ public class ESIEndpointSyncTracker {
    */
   public static ESIEndpointSyncTracker getAnyLatestFinishedTracker(
       SynchronizedEveAccount account) throws IOException, TrackerNotFoundException {
-    ReentrantLock lck = SynchronizedEveAccount.getSyncAccountLock(account);
+    Lock lck = SynchronizedEveAccount.getSyncAccountLock(account);
     lck.lock();
     try {
       return EveKitUserAccountProvider.getFactory()
@@ -524,6 +950,12 @@ public class ESIEndpointSyncTracker {
                                         getter.setParameter("account", account);
                                         getter.setMaxResults(1);
                                         List<ESIEndpointSyncTracker> results = getter.getResultList();
+                                        if (results.isEmpty()) {
+                                          // All finished trackers for this account may have been archived
+                                          results = ESIEndpointSyncTrackerArchive.query(
+                                              "ESIEndpointSyncTrackerArchive.getAnyLastFinished",
+                                              archive -> archive.setParameter("account", account), 1);
+                                        }
                                         if (results.isEmpty()) throw new TrackerNotFoundException();
                                         return results.get(0);
                                       });
@@ -539,7 +971,8 @@ public class ESIEndpointSyncTracker {
 
   /**
    * Retrieve history of finished trackers for a given account and endpoint.  Retrieved items are ordered in
-   * descending order by start time.
+   * descending order by start time.  Archived trackers which fall in the range of retrieved trackers are merged
+   * in (see ESIEndpointSyncTrackerArchive.extendHistory).
    *
    * @param account    the owner of retrieved trackers.
    * @param endpoint   the endpoint of retrieved trackers.
@@ -550,8 +983,9 @@ public class ESIEndpointSyncTracker {
    */
   public static List<ESIEndpointSyncTracker> getHistory(SynchronizedEveAccount account, ESISyncEndpoint endpoint,
                                                         long contid, int maxResults) throws IOException {
+    List<ESIEndpointSyncTracker> hot;
     try {
-      return EveKitUserAccountProvider.getFactory()
+      hot = EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
                                         TypedQuery<ESIEndpointSyncTracker> getter = EveKitUserAccountProvider.getFactory()
                                                                                                              .getEntityManager()
@@ -569,6 +1003,10 @@ public class ESIEndpointSyncTracker {
       log.log(Level.SEVERE, "query error", e);
       throw new IOException(e.getCause());
     }
+    return ESIEndpointSyncTrackerArchive.extendHistory(hot, "ESIEndpointSyncTrackerArchive.getHistory", getter -> {
+      getter.setParameter("account", account);
+      getter.setParameter("endpoint", endpoint);
+    }, contid, maxResults);
   }
 
   /**
@@ -583,8 +1021,9 @@ public class ESIEndpointSyncTracker {
    */
   public static List<ESIEndpointSyncTracker> getAllHistory(SynchronizedEveAccount account, long contid,
                                                            int maxResults) throws IOException {
+    List<ESIEndpointSyncTracker> hot;
     try {
-      return EveKitUserAccountProvider.getFactory()
+      hot = EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
                                         TypedQuery<ESIEndpointSyncTracker> getter = EveKitUserAccountProvider.getFactory()
                                                                                                              .getEntityManager()
@@ -601,6 +1040,9 @@ public class ESIEndpointSyncTracker {
       log.log(Level.SEVERE, "query error", e);
       throw new IOException(e.getCause());
     }
+    return ESIEndpointSyncTrackerArchive.extendHistory(hot, "ESIEndpointSyncTrackerArchive.getAllHistory",
+                                                       getter -> getter.setParameter("account", account), contid,
+                                                       maxResults);
   }
 
   /**
@@ -613,8 +1055,9 @@ public class ESIEndpointSyncTracker {
    * @throws IOException on any database error.
    */
   public static List<ESIEndpointSyncTracker> getAllSiteHistory(long contid, int maxResults) throws IOException {
+    List<ESIEndpointSyncTracker> hot;
     try {
-      return EveKitUserAccountProvider.getFactory()
+      hot = EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
                                         TypedQuery<ESIEndpointSyncTracker> getter = EveKitUserAccountProvider.getFactory()
                                                                                                              .getEntityManager()
@@ -630,6 +1073,8 @@ public class ESIEndpointSyncTracker {
       log.log(Level.SEVERE, "query error", e);
       throw new IOException(e.getCause());
     }
+    return ESIEndpointSyncTrackerArchive.extendHistory(hot, "ESIEndpointSyncTrackerArchive.getAllSiteHistory",
+                                                       getter -> {}, contid, maxResults);
   }
 
   /**
@@ -643,8 +1088,9 @@ public class ESIEndpointSyncTracker {
    * @throws IOException on any database error.
    */
   public static List<ESIEndpointSyncTracker> getAllSiteHistory(ESISyncEndpoint endpoint, long contid, int maxResults) throws IOException {
+    List<ESIEndpointSyncTracker> hot;
     try {
-      return EveKitUserAccountProvider.getFactory()
+      hot = EveKitUserAccountProvider.getFactory()
                                       .runTransaction(() -> {
                                         TypedQuery<ESIEndpointSyncTracker> getter = EveKitUserAccountProvider.getFactory()
                                                                                                              .getEntityManager()
@@ -661,6 +1107,159 @@ public class ESIEndpointSyncTracker {
       log.log(Level.SEVERE, "query error", e);
       throw new IOException(e.getCause());
     }
+    return ESIEndpointSyncTrackerArchive.extendHistory(hot, "ESIEndpointSyncTrackerArchive.getAllHistoryByEndpoint",
+                                                       getter -> getter.setParameter("endpoint", endpoint), contid,
+                                                       maxResults);
+  }
+
+  /**
+   * Stream history of finished trackers for a given account and endpoint.  Streamed items are ordered in
+   * descending order by start time, with ties broken in descending order by tracker ID.  Trackers are retrieved
+   * lazily one page at a time (see PROP_HISTORY_PAGE_SIZE), so the stream holds at most one page in memory
+   * regardless of how much history exists.  Archived trackers are merged into each page in order.  Database
+   * errors are thrown as UncheckedIOException.
+   *
+   * @param account  the owner of streamed trackers.
+   * @param endpoint the endpoint of streamed trackers.
+   * @param contid   the upper bound (exclusive) on tracker start time, or -1 to start with the latest tracker.
+   * @return a stream of finished trackers ordered in descending order by start time.
+   */
+  public static Stream<ESIEndpointSyncTracker> streamHistory(SynchronizedEveAccount account,
+                                                             ESISyncEndpoint endpoint, long contid) {
+    return streamHistory("ESIEndpointSyncTracker.getHistoryPage", "ESIEndpointSyncTrackerArchive.getHistoryPage",
+                         contid, getHistoryPageSize(), getter -> {
+      getter.setParameter("account", account);
+      getter.setParameter("endpoint", endpoint);
+    });
+  }
+
+  /**
+   * Stream history of finished trackers for a given account and all endpoints.  Ordering and paging are the
+   * same as streamHistory.
+   *
+   * @param account the owner of streamed trackers.
+   * @param contid  the upper bound (exclusive) on tracker start time, or -1 to start with the latest tracker.
+   * @return a stream of finished trackers ordered in descending order by start time.
+   */
+  public static Stream<ESIEndpointSyncTracker> streamAllHistory(SynchronizedEveAccount account, long contid) {
+    return streamHistory("ESIEndpointSyncTracker.getAllHistoryPage", "ESIEndpointSyncTrackerArchive.getAllHistoryPage",
+                         contid, getHistoryPageSize(), getter -> getter.setParameter("account", account));
+  }
+
+  /**
+   * Stream history of finished trackers for all accounts and endpoints.  Ordering and paging are the same as
+   * streamHistory.
+   *
+   * @param contid the upper bound (exclusive) on tracker start time, or -1 to start with the latest tracker.
+   * @return a stream of finished trackers ordered in descending order by start time.
+   */
+  public static Stream<ESIEndpointSyncTracker> streamAllSiteHistory(long contid) {
+    return streamHistory("ESIEndpointSyncTracker.getAllSiteHistoryPage",
+                         "ESIEndpointSyncTrackerArchive.getAllSiteHistoryPage", contid, getHistoryPageSize(),
+                         getter -> {});
+  }
+
+  /**
+   * Stream history of finished trackers for all accounts for a given endpoint.  Ordering and paging are the
+   * same as streamHistory.
+   *
+   * @param endpoint target endpoint
+   * @param contid   the upper bound (exclusive) on tracker start time, or -1 to start with the latest tracker.
+   * @return a stream of finished trackers ordered in descending order by start time.
+   */
+  public static Stream<ESIEndpointSyncTracker> streamAllSiteHistory(ESISyncEndpoint endpoint, long contid) {
+    return streamHistory("ESIEndpointSyncTracker.getAllHistoryByEndpointPage",
+                         "ESIEndpointSyncTrackerArchive.getAllHistoryByEndpointPage", contid, getHistoryPageSize(),
+                         getter -> getter.setParameter("endpoint", endpoint));
+  }
+
+  private static int getHistoryPageSize() {
+    return (int) Math.max(1, OrbitalProperties.getLongGlobalProperty(PROP_HISTORY_PAGE_SIZE, DEF_HISTORY_PAGE_SIZE));
+  }
+
+  static Stream<ESIEndpointSyncTracker> streamHistory(String queryName, String archiveQueryName, long contid,
+                                                      int pageSize, Consumer<Query> binder) {
+    return StreamSupport.stream(new HistorySpliterator(queryName, archiveQueryName, contid, pageSize, binder), false);
+  }
+
+  /**
+   * Walks tracker history using keyset pagination on (syncStart, tid).  Each page is fetched in its own
+   * transaction starting strictly after the last tracker of the previous page, so rows with equal start
+   * times are neither skipped nor repeated.  The hot table and the archive are both read from the same
+   * position and merged, so archived trackers are returned in order and once the hot table runs out.
+   */
+  private static class HistorySpliterator extends Spliterators.AbstractSpliterator<ESIEndpointSyncTracker> {
+    private final String queryName;
+    private final String archiveQueryName;
+    private final int pageSize;
+    private final Consumer<Query> binder;
+    // Keyset position of the last tracker returned.  The initial tid of Long.MIN_VALUE means the first page
+    // starts strictly before the requested start time, matching the contid contract of getHistory.
+    private long lastStart;
+    private long lastTid = Long.MIN_VALUE;
+    private Iterator<ESIEndpointSyncTracker> page;
+    private boolean exhausted;
+
+    HistorySpliterator(String queryName, String archiveQueryName, long contid, int pageSize,
+                       Consumer<Query> binder) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+      this.queryName = queryName;
+      this.archiveQueryName = archiveQueryName;
+      this.pageSize = pageSize;
+      this.binder = binder;
+      this.lastStart = contid < 0 ? Long.MAX_VALUE : contid;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ESIEndpointSyncTracker> action) {
+      if (page == null || !page.hasNext()) {
+        if (exhausted) return false;
+        page = nextPage().iterator();
+        if (!page.hasNext()) return false;
+      }
+      ESIEndpointSyncTracker tracker = page.next();
+      lastStart = tracker.syncStart;
+      lastTid = tracker.tid;
+      action.accept(tracker);
+      return true;
+    }
+
+    private List<ESIEndpointSyncTracker> nextPage() {
+      try {
+        return EveKitUserAccountProvider.getFactory()
+                                        .runTransaction(() -> {
+                                          EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                      .getEntityManager();
+                                          TypedQuery<ESIEndpointSyncTracker> getter = em.createNamedQuery(
+                                              queryName, ESIEndpointSyncTracker.class);
+                                          binder.accept(getter);
+                                          getter.setParameter("start", lastStart);
+                                          getter.setParameter("tid", lastTid);
+                                          getter.setMaxResults(pageSize);
+                                          List<ESIEndpointSyncTracker> hot = getter.getResultList();
+                                          // Detach so the persistence context doesn't grow with the history
+                                          em.clear();
+                                          List<ESIEndpointSyncTracker> archived = ESIEndpointSyncTrackerArchive.query(
+                                              archiveQueryName, archive -> {
+                                                binder.accept(archive);
+                                                archive.setParameter("start", lastStart);
+                                                archive.setParameter("tid", lastTid);
+                                              }, pageSize);
+                                          em.clear();
+                                          List<ESIEndpointSyncTracker> merged = ESIEndpointSyncTrackerArchive.merge(
+                                              hot, archived, pageSize + 1);
+                                          // Both sources are exhausted once neither fills a page and everything
+                                          // left fits in this page
+                                          exhausted = hot.size() < pageSize && archived.size() < pageSize &&
+                                              merged.size() <= pageSize;
+                                          return merged.size() > pageSize ? merged.subList(0, pageSize) : merged;
+                                        });
+      } catch (Exception e) {
+        if (e.getCause() instanceof IOException) throw new UncheckedIOException((IOException) e.getCause());
+        log.log(Level.SEVERE, "query error", e);
+        throw new UncheckedIOException(new IOException(e.getCause()));
+      }
+    }
   }
 
 }
@@ -0,0 +1,307 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.base.OrbitalProperties;
+import enterprises.orbital.evekit.account.EveKitUserAccountProvider;
+import enterprises.orbital.evekit.account.SynchronizedEveAccount;
+
+import javax.persistence.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Archive storage for finished ESI endpoint sync trackers.  Finished trackers older than a configurable
+ * retention age are moved here from evekit_esi_sync_tracker in small batches (see archive).  Archived rows
+ * keep the tracker ID, schedule, timing, status and detail of the original tracker, but drop the opaque
+ * sync context which is only needed while a tracker is in progress.
+ * <p>
+ * Archived trackers are not normally accessed directly.  The history and latest finished tracker queries in
+ * ESIEndpointSyncTracker fall back to this table when the hot table can't satisfy a request.  Trackers are
+ * archived in order of end time, but history is ordered by start time, so a tracker which ran for a long time
+ * may still be in the hot table after trackers which started later have been archived.  History queries
+ * therefore merge hot and archived trackers over the same start time range whenever that range starts before the
+ * archive cutoff (see extendHistory and merge).
+ */
+@Entity
+@Table(
+    name = "evekit_esi_sync_tracker_archive",
+    indexes = {
+        @Index(
+            name = "archiveAccountEndpointStartIndex",
+            columnList = "aid, endpoint, syncStart, tid"),
+        @Index(
+            name = "archiveAccountStartIndex",
+            columnList = "aid, syncStart, tid"),
+        @Index(
+            name = "archiveEndpointStartIndex",
+            columnList = "endpoint, syncStart, tid"),
+        @Index(
+            name = "archiveStartIndex",
+            columnList = "syncStart, tid"),
+    })
+@NamedQueries({
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getLastFinished",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.account = :account and c.endpoint = :endpoint order by c.syncEnd desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAnyLastFinished",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.account = :account order by c.syncEnd desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getHistory",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.account = :account and c.endpoint = :endpoint and c.syncStart < :start and c.syncStart >= :floor order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAllHistory",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.account = :account and c.syncStart < :start and c.syncStart >= :floor order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAllSiteHistory",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.syncStart < :start and c.syncStart >= :floor order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAllHistoryByEndpoint",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.endpoint = :endpoint and c.syncStart < :start and c.syncStart >= :floor order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getHistoryPage",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.account = :account and c.endpoint = :endpoint and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAllHistoryPage",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.account = :account and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAllSiteHistoryPage",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+    @NamedQuery(
+        name = "ESIEndpointSyncTrackerArchive.getAllHistoryByEndpointPage",
+        query = "SELECT c FROM ESIEndpointSyncTrackerArchive c where c.endpoint = :endpoint and (c.syncStart < :start or (c.syncStart = :start and c.tid < :tid)) order by c.syncStart desc, c.tid desc"),
+})
+public class ESIEndpointSyncTrackerArchive {
+  private static final Logger log = Logger.getLogger(ESIEndpointSyncTrackerArchive.class.getName());
+
+  // Finished trackers which ended longer ago than this (milliseconds) are moved to the archive
+  public static final String PROP_RETENTION_AGE = "enterprises.orbital.evekit.model.trackerRetentionAge";
+  public static final long DEF_RETENTION_AGE = TimeUnit.MILLISECONDS.convert(30, TimeUnit.DAYS);
+
+  // Number of trackers moved per archive transaction
+  public static final String PROP_ARCHIVE_BATCH_SIZE = "enterprises.orbital.evekit.model.trackerArchiveBatchSize";
+  public static final long DEF_ARCHIVE_BATCH_SIZE = 500;
+
+  // Order of history results: descending by start time, then descending by tracker ID
+  static final Comparator<ESIEndpointSyncTracker> HISTORY_ORDER =
+      Comparator.comparingLong(ESIEndpointSyncTracker::getSyncStart)
+                .thenComparingLong(ESIEndpointSyncTracker::getTid)
+                .reversed();
+
+  // Tracker ID of the original tracker
+  @Id
+  private long tid;
+
+  @ManyToOne
+  @JoinColumn(
+      name = "aid",
+      referencedColumnName = "aid")
+  private SynchronizedEveAccount account;
+
+  @Enumerated(EnumType.STRING)
+  private ESISyncEndpoint endpoint;
+
+  private long scheduled;
+  private long syncStart;
+  private long syncEnd;
+
+  @Enumerated(EnumType.STRING)
+  private ESISyncState status;
+
+  private String detail;
+
+  protected ESIEndpointSyncTrackerArchive() {
+  }
+
+  ESIEndpointSyncTrackerArchive(ESIEndpointSyncTracker tracker) {
+    this.tid = tracker.tid;
+    this.account = tracker.account;
+    this.endpoint = tracker.endpoint;
+    this.scheduled = tracker.scheduled;
+    this.syncStart = tracker.syncStart;
+    this.syncEnd = tracker.syncEnd;
+    this.status = tracker.getStatus();
+    this.detail = tracker.getDetail();
+  }
+
+  /**
+   * Convert back to a (detached) tracker so callers see archived and hot history in the same form.
+   *
+   * @return a tracker equivalent to the archived tracker.
+   */
+  ESIEndpointSyncTracker toTracker() {
+    ESIEndpointSyncTracker result = new ESIEndpointSyncTracker();
+    result.tid = tid;
+    result.account = account;
+    result.endpoint = endpoint;
+    result.scheduled = scheduled;
+    result.syncStart = syncStart;
+    result.syncEnd = syncEnd;
+    result.setStatus(status);
+    result.setDetail(detail);
+    return result;
+  }
+
+  /**
+   * Move one batch of finished trackers which ended before the given cutoff from the hot table to the
+   * archive.  The oldest trackers (by end time) are moved first.  Each batch is a single transaction.
+   *
+   * @param cutoff    trackers which ended before this time are archived.
+   * @param batchSize maximum number of trackers to move.
+   * @return the number of trackers moved.
+   * @throws IOException on any database error.
+   */
+  public static int archive(long cutoff, int batchSize) throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory()
+                                      .runTransaction(() -> {
+                                        EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                                    .getEntityManager();
+                                        TypedQuery<ESIEndpointSyncTracker> getter = em.createQuery(
+                                            "SELECT c FROM ESIEndpointSyncTracker c where c.syncEnd <> -1 and c.syncEnd < :cutoff order by c.syncEnd asc",
+                                            ESIEndpointSyncTracker.class);
+                                        getter.setParameter("cutoff", cutoff);
+                                        getter.setMaxResults(batchSize);
+                                        List<Long> moved = new ArrayList<>();
+                                        for (ESIEndpointSyncTracker next : getter.getResultList()) {
+                                          em.persist(new ESIEndpointSyncTrackerArchive(next));
+                                          moved.add(next.tid);
+                                        }
+                                        if (moved.isEmpty()) return 0;
+                                        em.flush();
+                                        em.clear();
+                                        em.createQuery("DELETE FROM ESIEndpointSyncTracker c WHERE c.tid IN :tids")
+                                          .setParameter("tids", moved)
+                                          .executeUpdate();
+                                        return moved.size();
+                                      });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Return the current archive cutoff.  Only trackers which ended, and therefore started, before this time are
+   * archived by archiveExpired.  History queries rely on this to skip the archive when a page of hot history
+   * starts after the cutoff, so trackers should not be archived with a later cutoff.
+   *
+   * @return the current archive cutoff.
+   */
+  static long archiveCutoff() {
+    return OrbitalProperties.getCurrentTime() -
+        OrbitalProperties.getLongGlobalProperty(PROP_RETENTION_AGE, DEF_RETENTION_AGE);
+  }
+
+  /**
+   * Archive all finished trackers older than the configured retention age, one batch at a time.
+   *
+   * @return the total number of trackers moved.
+   * @throws IOException on any database error.
+   */
+  public static long archiveExpired() throws IOException {
+    long cutoff = archiveCutoff();
+    int batchSize = (int) OrbitalProperties.getLongGlobalProperty(PROP_ARCHIVE_BATCH_SIZE, DEF_ARCHIVE_BATCH_SIZE);
+    long total = 0;
+    int moved;
+    do {
+      moved = archive(cutoff, batchSize);
+      total += moved;
+    } while (moved == batchSize);
+    return total;
+  }
+
+  /**
+   * Run a named archive query and convert the results to trackers.
+   *
+   * @param queryName  the name of the archive query to run.
+   * @param binder     binds query parameters.
+   * @param maxResults the maximum number of trackers to retrieve.
+   * @return trackers ordered as specified by the query.
+   * @throws IOException on any database error.
+   */
+  static List<ESIEndpointSyncTracker> query(String queryName,
+                                            Consumer<Query> binder,
+                                            int maxResults) throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory()
+                                      .runTransaction(() -> {
+                                        TypedQuery<ESIEndpointSyncTrackerArchive> getter = EveKitUserAccountProvider.getFactory()
+                                                                                                                    .getEntityManager()
+                                                                                                                    .createNamedQuery(
+                                                                                                                        queryName,
+                                                                                                                        ESIEndpointSyncTrackerArchive.class);
+                                        binder.accept(getter);
+                                        getter.setMaxResults(maxResults);
+                                        List<ESIEndpointSyncTracker> results = new ArrayList<>();
+                                        for (ESIEndpointSyncTrackerArchive next : getter.getResultList())
+                                          results.add(next.toTracker());
+                                        return results;
+                                      });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Extend a page of hot history with archived history.  Archived trackers which start in the range covered by
+   * the hot page are merged in.  If the hot page is full, that range ends at the start time of the last hot
+   * tracker, and the archive is only queried if that start time is before the archive cutoff (see
+   * archiveCutoff), since every archived tracker started before the cutoff.  Otherwise the hot page holds all
+   * matching hot trackers, and the range extends to the oldest archived tracker.  The combined list is trimmed
+   * to maxResults.
+   *
+   * @param hot        history from the hot table, ordered in descending order by start time.
+   * @param queryName  the name of the matching archive query.
+   * @param binder     binds query specific parameters other than the start time bounds.
+   * @param contid     upper bound on tracker start time, or negative for no bound.
+   * @param maxResults the maximum number of trackers to return.
+   * @return combined history ordered in descending order by start time.
+   * @throws IOException on any database error.
+   */
+  static List<ESIEndpointSyncTracker> extendHistory(List<ESIEndpointSyncTracker> hot, String queryName,
+                                                    Consumer<Query> binder, long contid,
+                                                    int maxResults) throws IOException {
+    final long floor = hot.size() >= maxResults ? hot.get(hot.size() - 1)
+                                                     .getSyncStart() : Long.MIN_VALUE;
+    if (floor >= archiveCutoff()) return merge(hot, Collections.emptyList(), maxResults);
+    List<ESIEndpointSyncTracker> archived = query(queryName, getter -> {
+      binder.accept(getter);
+      getter.setParameter("start", contid < 0 ? Long.MAX_VALUE : contid);
+      getter.setParameter("floor", floor);
+    }, maxResults);
+    return merge(hot, archived, maxResults);
+  }
+
+  /**
+   * Merge hot and archived history.  A tracker which appears in both (because it was archived between the two
+   * queries) is included once.
+   *
+   * @param hot        history from the hot table.
+   * @param archived   history from the archive.
+   * @param maxResults the maximum number of trackers to return.
+   * @return combined history in HISTORY_ORDER, trimmed to maxResults.
+   */
+  static List<ESIEndpointSyncTracker> merge(List<ESIEndpointSyncTracker> hot, List<ESIEndpointSyncTracker> archived,
+                                            int maxResults) {
+    if (archived.isEmpty()) return hot.size() > maxResults ? new ArrayList<>(hot.subList(0, maxResults)) : hot;
+    Set<Long> seen = new HashSet<>();
+    List<ESIEndpointSyncTracker> result = new ArrayList<>(hot.size() + archived.size());
+    for (ESIEndpointSyncTracker next : hot) if (seen.add(next.getTid())) result.add(next);
+    for (ESIEndpointSyncTracker next : archived) if (seen.add(next.getTid())) result.add(next);
+    result.sort(HISTORY_ORDER);
+    return result.size() > maxResults ? new ArrayList<>(result.subList(0, maxResults)) : result;
+  }
+
+}
@@ -0,0 +1,293 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.base.OrbitalProperties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Optional in-memory write-through cache of unfinished ESI endpoint sync trackers keyed by account ID and endpoint.
+ * When enabled, the cache holds every unfinished tracker and answers the unfinished tracker queries in
+ * ESIEndpointSyncTracker without a database round trip.  The cache is kept consistent by the tracker methods in
+ * this module which create, update or finish trackers (getOrCreateUnfinishedTracker(s), finishTracker and
+ * EveKitUserAccountProvider.update).
+ * <p>
+ * Changes made by other processes (or by code which merges trackers directly) are only picked up by a reconcile
+ * pass, which reloads all unfinished trackers from the database.  A reconcile is triggered automatically when the
+ * cache is older than the configured staleness bound.  Until the reconcile completes, queries fall through to
+ * the database.
+ * <p>
+ * Cached trackers are copies.  Callers always receive their own instance, so modifying a returned tracker has no
+ * effect on the cache until it is written back through one of the methods above.
+ */
+public class ESIEndpointSyncTrackerCache {
+  private static final Logger log = Logger.getLogger(ESIEndpointSyncTrackerCache.class.getName());
+
+  // Maximum time (milliseconds) between reconcile passes
+  public static final String PROP_MAX_STALENESS = "enterprises.orbital.evekit.model.trackerCacheMaxStaleness";
+  public static final long DEF_MAX_STALENESS = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+
+  private static volatile boolean enabled = false;
+  private static volatile long maxStaleness = DEF_MAX_STALENESS;
+  private static volatile long lastReconcile = -1;
+
+  // Unfinished trackers by account ID then endpoint
+  private static volatile ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>> trackers = new ConcurrentHashMap<>();
+
+  // Writes hold the read side of this lock so they can proceed concurrently.  The swap at the end of a
+  // reconcile holds the write side.
+  private static final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+  // Writes which occur while a reconcile is loading from the database.  These are replayed onto the
+  // reloaded map so they aren't lost.  Null when no reconcile is in progress.
+  private static Queue<Consumer<ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>>>> pendingWrites;
+
+  private static final AtomicBoolean reconciling = new AtomicBoolean(false);
+
+  // Metrics
+  private static final AtomicLong hits = new AtomicLong(0);
+  private static final AtomicLong misses = new AtomicLong(0);
+  private static final AtomicLong reconciles = new AtomicLong(0);
+
+  private ESIEndpointSyncTrackerCache() {}
+
+  /**
+   * Enable the cache with the staleness bound from global properties.
+   *
+   * @throws IOException on any database error during the initial load.
+   */
+  public static void enable() throws IOException {
+    enable(OrbitalProperties.getLongGlobalProperty(PROP_MAX_STALENESS, DEF_MAX_STALENESS));
+  }
+
+  /**
+   * Enable the cache and load all unfinished trackers from the database.
+   *
+   * @param staleness maximum time (milliseconds) between reconcile passes.
+   * @throws IOException on any database error during the initial load.
+   */
+  public static void enable(long staleness) throws IOException {
+    maxStaleness = staleness;
+    lastReconcile = -1;
+    // Enable before loading so that writes which race with the initial load are captured.  Queries fall through
+    // to the database until the load completes.
+    enabled = true;
+    reconcile();
+  }
+
+  /**
+   * Disable the cache and discard its contents.
+   */
+  public static void disable() {
+    enabled = false;
+    swapLock.writeLock()
+            .lock();
+    try {
+      trackers = new ConcurrentHashMap<>();
+      lastReconcile = -1;
+    } finally {
+      swapLock.writeLock()
+              .unlock();
+    }
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Reload all unfinished trackers from the database.  This is the only way changes made by other processes
+   * become visible to the cache.  Concurrent callers return immediately if a reconcile is already running.
+   *
+   * @throws IOException on any database error.
+   */
+  public static void reconcile() throws IOException {
+    reconcile(() -> {});
+  }
+
+  // Package-private for testing: afterLoad runs after trackers are loaded from the database but before the
+  // loaded trackers are swapped in, so tests can interleave writes with a reconcile.
+  static void reconcile(Runnable afterLoad) throws IOException {
+    if (!enabled || !reconciling.compareAndSet(false, true)) return;
+    try {
+      Queue<Consumer<ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>>>> writes = new ConcurrentLinkedQueue<>();
+      swapLock.writeLock()
+              .lock();
+      try {
+        pendingWrites = writes;
+      } finally {
+        swapLock.writeLock()
+                .unlock();
+      }
+
+      ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>> fresh = null;
+      long start = OrbitalProperties.getCurrentTime();
+      try {
+        ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>> loaded = new ConcurrentHashMap<>();
+        for (ESIEndpointSyncTracker next : ESIEndpointSyncTracker.queryAllUnfinishedTrackers()) {
+          store(loaded, next);
+        }
+        afterLoad.run();
+        fresh = loaded;
+      } finally {
+        // Replay writes which happened while we were loading, swap, and stop queueing writes all under the
+        // same lock.  Otherwise a write made between the replay and the swap would only reach the old map.
+        swapLock.writeLock()
+                .lock();
+        try {
+          if (fresh != null) {
+            for (Consumer<ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>>> next : writes)
+              next.accept(fresh);
+            if (enabled) {
+              trackers = fresh;
+              lastReconcile = start;
+            }
+          }
+          pendingWrites = null;
+        } finally {
+          swapLock.writeLock()
+                  .unlock();
+        }
+      }
+      reconciles.incrementAndGet();
+    } finally {
+      reconciling.set(false);
+    }
+  }
+
+  /**
+   * Check whether the cache can answer queries.  If the cache is enabled but stale, this call attempts
+   * a reconcile.  Callers should fall through to the database if this call returns false.
+   *
+   * @return true if the cache is enabled and fresh.
+   */
+  static boolean isUsable() {
+    if (!enabled) return false;
+    if (OrbitalProperties.getCurrentTime() - lastReconcile > maxStaleness) {
+      try {
+        reconcile();
+      } catch (IOException e) {
+        log.log(Level.WARNING, "tracker cache reconcile failed, falling through to database", e);
+      }
+      if (OrbitalProperties.getCurrentTime() - lastReconcile > maxStaleness) {
+        misses.incrementAndGet();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static ESIEndpointSyncTracker getUnfinished(long aid, ESISyncEndpoint endpoint) {
+    hits.incrementAndGet();
+    Map<ESISyncEndpoint, ESIEndpointSyncTracker> account = trackers.get(aid);
+    ESIEndpointSyncTracker result = account == null ? null : account.get(endpoint);
+    return result == null ? null : new ESIEndpointSyncTracker(result);
+  }
+
+  static List<ESIEndpointSyncTracker> getUnfinished(long aid) {
+    hits.incrementAndGet();
+    List<ESIEndpointSyncTracker> result = new ArrayList<>();
+    Map<ESISyncEndpoint, ESIEndpointSyncTracker> account = trackers.get(aid);
+    if (account != null)
+      for (ESIEndpointSyncTracker next : account.values()) result.add(new ESIEndpointSyncTracker(next));
+    result.sort(Comparator.comparingLong(ESIEndpointSyncTracker::getScheduled));
+    return result;
+  }
+
+  static List<ESIEndpointSyncTracker> getAllUnfinished(boolean startedOnly) {
+    hits.incrementAndGet();
+    List<ESIEndpointSyncTracker> result = new ArrayList<>();
+    for (Map<ESISyncEndpoint, ESIEndpointSyncTracker> account : trackers.values())
+      for (ESIEndpointSyncTracker next : account.values())
+        if (!startedOnly || next.getSyncStart() != -1) result.add(new ESIEndpointSyncTracker(next));
+    return result;
+  }
+
+  /**
+   * Record the current state of a tracker.  Unfinished trackers are stored, finished trackers are removed.
+   *
+   * @param tracker the tracker as stored in the database.
+   */
+  public static void update(ESIEndpointSyncTracker tracker) {
+    if (!enabled || tracker == null || tracker.getAccount() == null) return;
+    ESIEndpointSyncTracker copy = new ESIEndpointSyncTracker(tracker);
+    write(map -> store(map, copy));
+  }
+
+  /**
+   * Remove all cached trackers for an account.
+   *
+   * @param aid the ID of the account to evict.
+   */
+  public static void evict(long aid) {
+    if (!enabled) return;
+    write(map -> map.remove(aid));
+  }
+
+  private static void write(Consumer<ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>>> op) {
+    swapLock.readLock()
+            .lock();
+    try {
+      op.accept(trackers);
+      Queue<Consumer<ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>>>> pending = pendingWrites;
+      if (pending != null) pending.add(op);
+    } finally {
+      swapLock.readLock()
+              .unlock();
+    }
+  }
+
+  private static void store(ConcurrentMap<Long, ConcurrentMap<ESISyncEndpoint, ESIEndpointSyncTracker>> map,
+                            ESIEndpointSyncTracker tracker) {
+    long aid = tracker.getAccount()
+                      .getAid();
+    if (tracker.getSyncEnd() == -1) {
+      map.computeIfAbsent(aid, k -> new ConcurrentHashMap<>())
+         .put(tracker.getEndpoint(), tracker);
+    } else {
+      map.computeIfPresent(aid, (k, v) -> {
+        // Only remove if this is the tracker we have cached.  A newer unfinished tracker may already
+        // have replaced it.
+        ESIEndpointSyncTracker cached = v.get(tracker.getEndpoint());
+        if (cached != null && cached.getTid() == tracker.getTid()) v.remove(tracker.getEndpoint());
+        return v.isEmpty() ? null : v;
+      });
+    }
+  }
+
+  public static long getHitCount() {
+    return hits.get();
+  }
+
+  public static long getMissCount() {
+    return misses.get();
+  }
+
+  public static long getReconcileCount() {
+    return reconciles.get();
+  }
+
+  /**
+   * @return the number of unfinished trackers currently cached.
+   */
+  public static int size() {
+    int count = 0;
+    for (Map<ESISyncEndpoint, ESIEndpointSyncTracker> account : trackers.values()) count += account.size();
+    return count;
+  }
+
+}
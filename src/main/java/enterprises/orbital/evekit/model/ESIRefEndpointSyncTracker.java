@@ -9,8 +9,13 @@ import io.swagger.annotations.ApiModelProperty;
 
 import javax.persistence.*;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -70,6 +75,18 @@ import java.util.logging.Logger;
 public class ESIRefEndpointSyncTracker {
   private static final Logger log = Logger.getLogger(ESIRefEndpointSyncTracker.class.getName());
 
+  // Per-endpoint locks used to serialize get-or-create of unfinished trackers.  Different endpoints never
+  // contend, and reads take no lock at all.
+  private static final Map<ESIRefSyncEndpoint, Lock> endpointLocks;
+
+  static {
+    Map<ESIRefSyncEndpoint, Lock> locks = new EnumMap<>(ESIRefSyncEndpoint.class);
+    for (ESIRefSyncEndpoint next : ESIRefSyncEndpoint.values()) {
+      locks.put(next, new ReentrantLock());
+    }
+    endpointLocks = Collections.unmodifiableMap(locks);
+  }
+
   // Unique tracker ID
   @Id
   @GeneratedValue(
@@ -233,7 +250,9 @@ public class ESIRefEndpointSyncTracker {
    */
   public static ESIRefEndpointSyncTracker finishTracker(ESIRefEndpointSyncTracker tracker) throws IOException {
     tracker.setSyncEnd(OrbitalProperties.getCurrentTime());
-    return EveKitRefDataProvider.update(tracker);
+    ESIRefEndpointSyncTracker result = EveKitRefDataProvider.update(tracker);
+    SyncMetrics.trackerFinished(result);
+    return result;
   }
 
   /**
@@ -244,7 +263,7 @@ public class ESIRefEndpointSyncTracker {
    * @throws IOException              on any database error
    * @throws TrackerNotFoundException if a tracker with the given ID could not be found
    */
-  public static synchronized ESIRefEndpointSyncTracker get(long tid) throws IOException, TrackerNotFoundException {
+  public static ESIRefEndpointSyncTracker get(long tid) throws IOException, TrackerNotFoundException {
     try {
       return EveKitRefDataProvider.getFactory()
                                   .runTransaction(() -> {
@@ -276,7 +295,7 @@ public class ESIRefEndpointSyncTracker {
    * @throws IOException              on any database error
    * @throws TrackerNotFoundException if an unfinished tracker could not be found
    */
-  public static synchronized ESIRefEndpointSyncTracker getUnfinishedTracker(
+  public static ESIRefEndpointSyncTracker getUnfinishedTracker(
       ESIRefSyncEndpoint endpoint) throws IOException, TrackerNotFoundException {
     try {
       return EveKitRefDataProvider.getFactory()
@@ -309,8 +328,10 @@ public class ESIRefEndpointSyncTracker {
    * @return an existing unfinished tracker, or a new one created with the specified schedules start time
    * @throws IOException on any database error
    */
-  public static synchronized ESIRefEndpointSyncTracker getOrCreateUnfinishedTracker(ESIRefSyncEndpoint endpoint,
+  public static ESIRefEndpointSyncTracker getOrCreateUnfinishedTracker(ESIRefSyncEndpoint endpoint,
                                                                        long scheduled, String context) throws IOException {
+    Lock lck = endpointLocks.get(endpoint);
+    lck.lock();
     try {
       return EveKitRefDataProvider.getFactory()
                                   .runTransaction(() -> {
@@ -330,6 +351,8 @@ public class ESIRefEndpointSyncTracker {
       if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
       log.log(Level.SEVERE, "query error", e);
       throw new IOException(e.getCause());
+    } finally {
+      lck.unlock();
     }
   }
 
@@ -341,7 +364,7 @@ public class ESIRefEndpointSyncTracker {
    * @throws IOException              on any database error.
    * @throws TrackerNotFoundException if no tracker could be found.
    */
-  public static synchronized ESIRefEndpointSyncTracker getLatestFinishedTracker(
+  public static ESIRefEndpointSyncTracker getLatestFinishedTracker(
       ESIRefSyncEndpoint endpoint) throws IOException, TrackerNotFoundException {
     try {
       return EveKitRefDataProvider.getFactory()
@@ -401,7 +424,7 @@ public class ESIRefEndpointSyncTracker {
    * @throws IOException on any database error
    */
   @SuppressWarnings("Duplicates")
-  public static synchronized List<ESIRefEndpointSyncTracker> getAllUnfinishedTrackers() throws IOException {
+  public static List<ESIRefEndpointSyncTracker> getAllUnfinishedTrackers() throws IOException {
     try {
       return EveKitRefDataProvider.getFactory()
                                   .runTransaction(() -> {
@@ -424,7 +447,7 @@ public class ESIRefEndpointSyncTracker {
    * @return the list of all started but unfinished trackers
    * @throws IOException on any database error
    */
-  public static synchronized List<ESIRefEndpointSyncTracker> getAllStartedUnfinishedTrackers() throws IOException {
+  public static List<ESIRefEndpointSyncTracker> getAllStartedUnfinishedTrackers() throws IOException {
     try {
       return EveKitRefDataProvider.getFactory()
                                   .runTransaction(() -> {
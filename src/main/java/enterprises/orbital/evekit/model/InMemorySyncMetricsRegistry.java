@@ -0,0 +1,91 @@
+package enterprises.orbital.evekit.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * SyncMetricsRegistry which keeps a LatencyHistogram of start lag and run time for every endpoint, covering all
+ * trackers finished since the registry was created or last reset.  Getters return copies.
+ */
+public class InMemorySyncMetricsRegistry implements SyncMetricsRegistry {
+  private final Map<ESISyncEndpoint, LatencyHistogram> startLag = histograms(ESISyncEndpoint.class);
+  private final Map<ESISyncEndpoint, LatencyHistogram> runTime = histograms(ESISyncEndpoint.class);
+  private final Map<ESIRefSyncEndpoint, LatencyHistogram> refStartLag = histograms(ESIRefSyncEndpoint.class);
+  private final Map<ESIRefSyncEndpoint, LatencyHistogram> refRunTime = histograms(ESIRefSyncEndpoint.class);
+
+  private static <E extends Enum<E>> Map<E, LatencyHistogram> histograms(Class<E> type) {
+    Map<E, LatencyHistogram> result = new EnumMap<>(type);
+    for (E next : type.getEnumConstants()) {
+      result.put(next, new LatencyHistogram());
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  private static void record(LatencyHistogram histogram, long millis) {
+    synchronized (histogram) {
+      histogram.record(millis);
+    }
+  }
+
+  private static LatencyHistogram copy(LatencyHistogram histogram) {
+    synchronized (histogram) {
+      return new LatencyHistogram(histogram);
+    }
+  }
+
+  private static void clear(Map<?, LatencyHistogram> histograms) {
+    for (LatencyHistogram next : histograms.values()) {
+      synchronized (next) {
+        next.clear();
+      }
+    }
+  }
+
+  @Override
+  public void recordStartLag(ESISyncEndpoint endpoint, long millis) {
+    record(startLag.get(endpoint), millis);
+  }
+
+  @Override
+  public void recordRunTime(ESISyncEndpoint endpoint, long millis) {
+    record(runTime.get(endpoint), millis);
+  }
+
+  @Override
+  public void recordStartLag(ESIRefSyncEndpoint endpoint, long millis) {
+    record(refStartLag.get(endpoint), millis);
+  }
+
+  @Override
+  public void recordRunTime(ESIRefSyncEndpoint endpoint, long millis) {
+    record(refRunTime.get(endpoint), millis);
+  }
+
+  public LatencyHistogram getStartLag(ESISyncEndpoint endpoint) {
+    return copy(startLag.get(endpoint));
+  }
+
+  public LatencyHistogram getRunTime(ESISyncEndpoint endpoint) {
+    return copy(runTime.get(endpoint));
+  }
+
+  public LatencyHistogram getStartLag(ESIRefSyncEndpoint endpoint) {
+    return copy(refStartLag.get(endpoint));
+  }
+
+  public LatencyHistogram getRunTime(ESIRefSyncEndpoint endpoint) {
+    return copy(refRunTime.get(endpoint));
+  }
+
+  /**
+   * Discard all recorded metrics.
+   */
+  public void reset() {
+    clear(startLag);
+    clear(runTime);
+    clear(refStartLag);
+    clear(refRunTime);
+  }
+
+}
@@ -0,0 +1,123 @@
+package enterprises.orbital.evekit.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed bucket histogram of latencies in milliseconds.  Bucket upper bounds are shared by all histograms so that
+ * histograms can be merged cheaply.  Instances are not thread safe; callers must synchronize access.
+ */
+public class LatencyHistogram {
+  // Inclusive upper bound (milliseconds) of each bucket.  The last bucket holds everything larger.
+  private static final long[] BOUNDS = {
+      100, 250, 500,
+      1000, 2500, 5000, 10000, 30000,
+      60000, 120000, 300000, 600000, 1800000,
+      3600000, Long.MAX_VALUE
+  };
+
+  private final long[] counts = new long[BOUNDS.length];
+  private long count;
+  private long sum;
+  private long max;
+
+  public LatencyHistogram() {}
+
+  public LatencyHistogram(LatencyHistogram other) {
+    merge(other);
+  }
+
+  /**
+   * Record a latency.  Negative latencies (e.g. due to clock skew) are recorded as zero.
+   *
+   * @param millis the latency to record.
+   */
+  public void record(long millis) {
+    long value = Math.max(0, millis);
+    int bucket = Arrays.binarySearch(BOUNDS, value);
+    counts[bucket < 0 ? -bucket - 1 : bucket]++;
+    count++;
+    sum += value;
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Add the contents of another histogram to this histogram.
+   *
+   * @param other the histogram to add.
+   */
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    sum += other.sum;
+    max = Math.max(max, other.max);
+  }
+
+  public void clear() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    sum = 0;
+    max = 0;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getMean() {
+    return count == 0 ? 0 : sum / count;
+  }
+
+  /**
+   * @return the inclusive upper bound of each bucket.  The last bound is Long.MAX_VALUE.
+   */
+  public static long[] getBucketBounds() {
+    return BOUNDS.clone();
+  }
+
+  /**
+   * @return the number of latencies recorded in each bucket, in the same order as getBucketBounds.
+   */
+  public long[] getBucketCounts() {
+    return counts.clone();
+  }
+
+  /**
+   * Estimate a percentile.  The estimate is the upper bound of the bucket containing the percentile, capped at the
+   * largest latency recorded.
+   *
+   * @param percentile the percentile to estimate, between 0 and 100.
+   * @return the estimated latency, or 0 if no latencies have been recorded.
+   */
+  public long getPercentile(double percentile) {
+    if (count == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) return Math.min(BOUNDS[i], max);
+    }
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram{" +
+        "count=" + count +
+        ", mean=" + getMean() +
+        ", p50=" + getPercentile(50) +
+        ", p95=" + getPercentile(95) +
+        ", max=" + max +
+        '}';
+  }
+
+}
@@ -0,0 +1,111 @@
+package enterprises.orbital.evekit.model;
+
+import java.text.DateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of the errors recorded by finished synchronization trackers on a given day.  Errors are counted by
+ * category (the tracker state which failed) and reason (the detail message recorded with the error).  Every
+ * failed state of a tracker is counted, so a tracker may contribute to several categories.
+ */
+public class SyncErrorSummary {
+  private final Date day;
+  private int trackerCount;
+  private int errorCount;
+  private final Map<String, Map<String, Integer>> errors = new TreeMap<>();
+
+  SyncErrorSummary(Date day) {
+    this.day = day;
+  }
+
+  void addTracker() {
+    trackerCount++;
+  }
+
+  void addError(String category, String reason) {
+    errorCount++;
+    errors.computeIfAbsent(category, k -> new TreeMap<>())
+          .merge(String.valueOf(reason), 1, Integer::sum);
+  }
+
+  /**
+   * @return the start of the day summarized.
+   */
+  public Date getDay() {
+    return day;
+  }
+
+  /**
+   * @return the number of trackers with at least one error.
+   */
+  public int getTrackerCount() {
+    return trackerCount;
+  }
+
+  /**
+   * @return the total number of errors across all trackers.
+   */
+  public int getErrorCount() {
+    return errorCount;
+  }
+
+  /**
+   * @return error counts by category, then by reason.  Categories and reasons are sorted.  Errors without a
+   * detail message have reason "null".
+   */
+  public Map<String, Map<String, Integer>> getErrors() {
+    Map<String, Map<String, Integer>> result = new TreeMap<>();
+    for (Map.Entry<String, Map<String, Integer>> next : errors.entrySet()) {
+      result.put(next.getKey(), Collections.unmodifiableMap(next.getValue()));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * @param category the category to check.
+   * @param reason   the reason to check.
+   * @return the number of errors with the given category and reason.
+   */
+  public int getCount(String category, String reason) {
+    return errors.getOrDefault(category, Collections.emptyMap())
+                 .getOrDefault(String.valueOf(reason), 0);
+  }
+
+  /**
+   * Render this summary in the plain text format used for error summary reports.
+   *
+   * @param title the report title, e.g. "Capsuleer Sync Tracker Error Summary".
+   * @return the formatted summary.
+   */
+  public String format(String title) {
+    StringBuilder summary = new StringBuilder();
+    summary.append(title)
+           .append(" on ")
+           .append(DateFormat.getDateInstance()
+                             .format(day))
+           .append('\n');
+    summary.append(trackerCount)
+           .append(" trackers with errors\n");
+    summary.append(errorCount)
+           .append(" errors\n");
+    for (Map.Entry<String, Map<String, Integer>> category : errors.entrySet()) {
+      summary.append("Category - ")
+             .append(category.getKey())
+             .append(":\n");
+      for (Map.Entry<String, Integer> reason : category.getValue()
+                                                       .entrySet()) {
+        summary.append("    ")
+               .append(reason.getKey())
+               .append(" - ")
+               .append(reason.getValue())
+               .append('\n');
+      }
+      summary.append('\n');
+    }
+    return summary.toString();
+  }
+
+}
@@ -0,0 +1,79 @@
+package enterprises.orbital.evekit.model;
+
+/**
+ * Entry point for synchronization timing metrics.  Tracker finish methods report start lag and run time here,
+ * and these are forwarded to the configured SyncMetricsRegistry.  By default metrics are discarded.
+ */
+public class SyncMetrics {
+
+  /**
+   * Registry which discards all metrics.
+   */
+  public static final SyncMetricsRegistry NO_OP = new SyncMetricsRegistry() {
+    @Override
+    public void recordStartLag(ESISyncEndpoint endpoint, long millis) {}
+
+    @Override
+    public void recordRunTime(ESISyncEndpoint endpoint, long millis) {}
+
+    @Override
+    public void recordStartLag(ESIRefSyncEndpoint endpoint, long millis) {}
+
+    @Override
+    public void recordRunTime(ESIRefSyncEndpoint endpoint, long millis) {}
+  };
+
+  private static volatile SyncMetricsRegistry registry = NO_OP;
+
+  private SyncMetrics() {}
+
+  public static SyncMetricsRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * Change the registry which receives metrics.
+   *
+   * @param newRegistry the new registry, or null to discard metrics.
+   */
+  public static void setRegistry(SyncMetricsRegistry newRegistry) {
+    registry = newRegistry == null ? NO_OP : newRegistry;
+  }
+
+  /**
+   * @param scheduled scheduled start time of a tracker.
+   * @param syncStart actual start time of a tracker.
+   * @return start lag (never negative), or -1 if the tracker was not scheduled or has not started.
+   */
+  static long startLag(long scheduled, long syncStart) {
+    return syncStart > 0 && scheduled > 0 ? Math.max(0, syncStart - scheduled) : -1;
+  }
+
+  /**
+   * @param syncStart start time of a tracker.
+   * @param syncEnd   end time of a tracker.
+   * @return run time (never negative), or -1 if the tracker has not started or finished.
+   */
+  static long runTime(long syncStart, long syncEnd) {
+    return syncStart > 0 && syncEnd > 0 ? Math.max(0, syncEnd - syncStart) : -1;
+  }
+
+  static void trackerFinished(ESIEndpointSyncTracker tracker) {
+    SyncMetricsRegistry target = registry;
+    if (target == NO_OP || tracker.getEndpoint() == null) return;
+    long lag = startLag(tracker.getScheduled(), tracker.getSyncStart());
+    long run = runTime(tracker.getSyncStart(), tracker.getSyncEnd());
+    if (lag >= 0) target.recordStartLag(tracker.getEndpoint(), lag);
+    if (run >= 0) target.recordRunTime(tracker.getEndpoint(), run);
+  }
+
+  static void trackerFinished(ESIRefEndpointSyncTracker tracker) {
+    SyncMetricsRegistry target = registry;
+    if (target == NO_OP || tracker.getEndpoint() == null) return;
+    long lag = startLag(tracker.getScheduled(), tracker.getSyncStart());
+    long run = runTime(tracker.getSyncStart(), tracker.getSyncEnd());
+    if (lag >= 0) target.recordStartLag(tracker.getEndpoint(), lag);
+    if (run >= 0) target.recordRunTime(tracker.getEndpoint(), run);
+  }
+
+}
@@ -0,0 +1,41 @@
+package enterprises.orbital.evekit.model;
+
+/**
+ * Receives synchronization timing metrics.  Implementations must be thread safe.  The registry in use is set with
+ * SyncMetrics.setRegistry.
+ */
+public interface SyncMetricsRegistry {
+
+  /**
+   * Record how late a tracker started relative to its scheduled time.
+   *
+   * @param endpoint the endpoint synchronized by the tracker.
+   * @param millis   syncStart - scheduled.
+   */
+  void recordStartLag(ESISyncEndpoint endpoint, long millis);
+
+  /**
+   * Record how long a tracker ran.
+   *
+   * @param endpoint the endpoint synchronized by the tracker.
+   * @param millis   syncEnd - syncStart.
+   */
+  void recordRunTime(ESISyncEndpoint endpoint, long millis);
+
+  /**
+   * Record how late a reference tracker started relative to its scheduled time.
+   *
+   * @param endpoint the endpoint synchronized by the tracker.
+   * @param millis   syncStart - scheduled.
+   */
+  void recordStartLag(ESIRefSyncEndpoint endpoint, long millis);
+
+  /**
+   * Record how long a reference tracker ran.
+   *
+   * @param endpoint the endpoint synchronized by the tracker.
+   * @param millis   syncEnd - syncStart.
+   */
+  void recordRunTime(ESIRefSyncEndpoint endpoint, long millis);
+
+}
@@ -0,0 +1,121 @@
+package enterprises.orbital.evekit.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency graph over the synchronization states tracked by a SyncTracker subclass.  A state is "ready" when
+ * its status is NOT_PROCESSED and every state it depends on has been processed (i.e. has any status other than
+ * NOT_PROCESSED).  The graph is built once per tracker class.  Trackers keep the set of ready states and update it
+ * incrementally as states change (see update), so finding the next state to synchronize doesn't need to
+ * re-evaluate every ordering rule.
+ */
+public final class SyncStateGraph {
+  private final Set<SynchronizationState> tracked;
+  private final Map<SynchronizationState, Set<SynchronizationState>> prerequisites;
+  private final Map<SynchronizationState, Set<SynchronizationState>> dependents;
+
+  /**
+   * Create a dependency graph.
+   *
+   * @param tracked       the states tracked by a tracker class.  Other states are never ready.
+   * @param prerequisites for each state with dependencies, the states which must be processed first.
+   */
+  public SyncStateGraph(Set<SynchronizationState> tracked,
+                        Map<SynchronizationState, Set<SynchronizationState>> prerequisites) {
+    this.tracked = Collections.unmodifiableSet(EnumSet.copyOf(tracked));
+    Map<SynchronizationState, Set<SynchronizationState>> required = new EnumMap<>(SynchronizationState.class);
+    Map<SynchronizationState, Set<SynchronizationState>> reverse = new EnumMap<>(SynchronizationState.class);
+    for (Map.Entry<SynchronizationState, Set<SynchronizationState>> next : prerequisites.entrySet()) {
+      required.put(next.getKey(), Collections.unmodifiableSet(EnumSet.copyOf(next.getValue())));
+      for (SynchronizationState prereq : next.getValue()) {
+        reverse.computeIfAbsent(prereq, k -> EnumSet.noneOf(SynchronizationState.class))
+               .add(next.getKey());
+      }
+    }
+    for (Map.Entry<SynchronizationState, Set<SynchronizationState>> next : reverse.entrySet()) {
+      next.setValue(Collections.unmodifiableSet(next.getValue()));
+    }
+    this.prerequisites = Collections.unmodifiableMap(required);
+    this.dependents = Collections.unmodifiableMap(reverse);
+  }
+
+  public Set<SynchronizationState> getTracked() {
+    return tracked;
+  }
+
+  public Set<SynchronizationState> getPrerequisites(SynchronizationState state) {
+    return prerequisites.getOrDefault(state, Collections.emptySet());
+  }
+
+  private boolean isReady(SyncStateVector vector, SynchronizationState state) {
+    if (!tracked.contains(state) || vector.getStatus(state) != SyncTracker.SyncState.NOT_PROCESSED) return false;
+    for (SynchronizationState prereq : getPrerequisites(state)) {
+      if (vector.getStatus(prereq) == SyncTracker.SyncState.NOT_PROCESSED) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Compute the ready states of a tracker from scratch.
+   *
+   * @param vector the status vector of the tracker.
+   * @return a new, modifiable set of the ready states.
+   */
+  public EnumSet<SynchronizationState> readyStates(SyncStateVector vector) {
+    EnumSet<SynchronizationState> ready = EnumSet.noneOf(SynchronizationState.class);
+    for (SynchronizationState next : tracked) {
+      if (isReady(vector, next)) ready.add(next);
+    }
+    return ready;
+  }
+
+  /**
+   * Update a set of ready states after the status of one state has changed.  Only the changed state and the
+   * states which depend on it are re-evaluated.
+   *
+   * @param vector  the status vector of the tracker, including the change.
+   * @param ready   the ready states to update.
+   * @param changed the state which changed.
+   */
+  public void update(SyncStateVector vector, EnumSet<SynchronizationState> ready, SynchronizationState changed) {
+    refresh(vector, ready, changed);
+    for (SynchronizationState next : dependents.getOrDefault(changed, Collections.emptySet())) {
+      refresh(vector, ready, next);
+    }
+  }
+
+  private void refresh(SyncStateVector vector, EnumSet<SynchronizationState> ready, SynchronizationState state) {
+    if (isReady(vector, state))
+      ready.add(state);
+    else
+      ready.remove(state);
+  }
+
+  /**
+   * Return the first ready state in iteration order of the given set of states.
+   *
+   * @param ready      the ready states of a tracker.
+   * @param checkState the states to check.
+   * @return the first ready state in checkState, or null if none of checkState is ready.
+   */
+  public static SynchronizationState firstReady(EnumSet<SynchronizationState> ready,
+                                                Set<SynchronizationState> checkState) {
+    if (ready.isEmpty()) return null;
+    if (checkState instanceof EnumSet) {
+      // Both sets are bit vectors ordered by ordinal, so intersect them directly
+      EnumSet<SynchronizationState> candidates = EnumSet.copyOf(ready);
+      candidates.retainAll(checkState);
+      return candidates.isEmpty() ? null : candidates.iterator()
+                                                     .next();
+    }
+    for (SynchronizationState next : checkState) {
+      if (ready.contains(next)) return next;
+    }
+    return null;
+  }
+
+}
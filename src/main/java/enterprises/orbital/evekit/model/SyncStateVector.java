@@ -0,0 +1,193 @@
+package enterprises.orbital.evekit.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Compact encoding of the per-state status and detail message of a SyncTracker.  Each SynchronizationState
+ * gets a 3 bit status code (0 when unset, otherwise SyncTracker.SyncState ordinal plus one) packed into a
+ * long array indexed by SynchronizationState ordinal.  Detail messages are held in a sparse map which only
+ * contains non-null entries, and which is only allocated once a detail message is set.
+ * <p>
+ * Sizes measured for a tracker with every one of its states set and no detail messages: the encoded form is
+ * 21 bytes for a capsuleer tracker (37 states) and 20 bytes for a corporation tracker (34 states), and each
+ * detail message adds 4 bytes plus its modified UTF-8 length.  A decoded vector without detail messages
+ * occupies about 72 bytes of heap (64-bit JVM, compressed oops).
+ * <p>
+ * The encoded form (see encode) is:
+ *
+ * <ul>
+ * <li>Format version (1 byte)</li>
+ * <li>Offset of the first non-zero packed status byte (2 bytes)</li>
+ * <li>Number of packed status bytes N (2 bytes)</li>
+ * <li>N bytes of packed status codes, leading and trailing zero bytes omitted</li>
+ * <li>Number of detail messages (2 bytes)</li>
+ * <li>For each detail message: the SynchronizationState ordinal (2 bytes) and the message (modified UTF-8)</li>
+ * </ul>
+ * <p>
+ * Since states are identified by ordinal, new SynchronizationState values must be added to the end of
+ * their group without reordering existing values.
+ */
+public class SyncStateVector {
+  private static final int FORMAT_VERSION = 1;
+  private static final int BITS_PER_STATE = 3;
+  private static final int STATE_MASK = (1 << BITS_PER_STATE) - 1;
+  private static final SynchronizationState[] STATES = SynchronizationState.values();
+  private static final SyncTracker.SyncState[] STATUSES = SyncTracker.SyncState.values();
+  private static final int WORDS = (STATES.length * BITS_PER_STATE + 63) / 64;
+
+  private final long[] bits = new long[WORDS];
+  // Allocated on first use since most vectors have no detail messages
+  private Map<SynchronizationState, String> details;
+
+  public SyncStateVector() {}
+
+  /**
+   * Get the status of the given state.
+   *
+   * @param state the state to retrieve.
+   * @return the status of the state, or null if the status has not been set.
+   */
+  public SyncTracker.SyncState getStatus(SynchronizationState state) {
+    int code = code(state.ordinal());
+    return code == 0 ? null : STATUSES[code - 1];
+  }
+
+  public String getDetail(SynchronizationState state) {
+    return details == null ? null : details.get(state);
+  }
+
+  /**
+   * Set the status and detail of the given state.
+   *
+   * @param state  the state to change.
+   * @param status the new status, or null to clear the status.
+   * @param detail the new detail message, or null to clear the detail message.
+   */
+  public void set(SynchronizationState state, SyncTracker.SyncState status, String detail) {
+    setStatus(state, status);
+    if (detail != null) {
+      if (details == null) details = new EnumMap<>(SynchronizationState.class);
+      details.put(state, detail);
+    } else if (details != null) {
+      details.remove(state);
+    }
+  }
+
+  public void setStatus(SynchronizationState state, SyncTracker.SyncState status) {
+    int bit = state.ordinal() * BITS_PER_STATE;
+    int code = status == null ? 0 : status.ordinal() + 1;
+    for (int i = 0; i < BITS_PER_STATE; i++, bit++) {
+      long mask = 1L << (bit & 63);
+      if ((code & (1 << i)) != 0)
+        bits[bit >>> 6] |= mask;
+      else
+        bits[bit >>> 6] &= ~mask;
+    }
+  }
+
+  private int code(int ordinal) {
+    int bit = ordinal * BITS_PER_STATE;
+    int code = 0;
+    for (int i = 0; i < BITS_PER_STATE; i++, bit++) {
+      if ((bits[bit >>> 6] & (1L << (bit & 63))) != 0) code |= 1 << i;
+    }
+    return code & STATE_MASK;
+  }
+
+  /**
+   * @return the encoded form of this vector.
+   */
+  public byte[] encode() {
+    // Character and corporation states occupy different ordinal ranges, so trim zero bytes at both ends
+    byte[] packed = new byte[WORDS * 8];
+    int first = packed.length;
+    int end = 0;
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = (byte) (bits[i >>> 3] >>> ((i & 7) * 8));
+      if (packed[i] != 0) {
+        first = Math.min(first, i);
+        end = i + 1;
+      }
+    }
+    if (end == 0) first = 0;
+    try {
+      Map<SynchronizationState, String> allDetails = details();
+      ByteArrayOutputStream raw = new ByteArrayOutputStream(7 + end - first + allDetails.size() * 16);
+      DataOutputStream out = new DataOutputStream(raw);
+      out.writeByte(FORMAT_VERSION);
+      out.writeShort(first);
+      out.writeShort(end - first);
+      out.write(packed, first, end - first);
+      out.writeShort(allDetails.size());
+      for (Map.Entry<SynchronizationState, String> next : allDetails.entrySet()) {
+        out.writeShort(next.getKey()
+                           .ordinal());
+        out.writeUTF(next.getValue());
+      }
+      out.flush();
+      return raw.toByteArray();
+    } catch (IOException e) {
+      // Not possible when writing to a byte array
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Decode a vector from its encoded form.
+   *
+   * @param encoded the encoded vector as produced by encode.
+   * @return the decoded vector.
+   * @throws IllegalArgumentException if the encoded vector is malformed.
+   */
+  public static SyncStateVector decode(byte[] encoded) {
+    SyncStateVector result = new SyncStateVector();
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+      int version = in.readUnsignedByte();
+      if (version != FORMAT_VERSION) throw new IllegalArgumentException("Unknown state vector version: " + version);
+      int first = in.readUnsignedShort();
+      int length = in.readUnsignedShort();
+      if (first + length > WORDS * 8) throw new IllegalArgumentException("State vector too long: " + (first + length));
+      for (int i = first; i < first + length; i++) {
+        result.bits[i >>> 3] |= ((long) in.readUnsignedByte()) << ((i & 7) * 8);
+      }
+      int count = in.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+        int ordinal = in.readUnsignedShort();
+        if (ordinal >= STATES.length) throw new IllegalArgumentException("Unknown state ordinal: " + ordinal);
+        if (result.details == null) result.details = new EnumMap<>(SynchronizationState.class);
+        result.details.put(STATES[ordinal], in.readUTF());
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Malformed state vector", e);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    SyncStateVector that = (SyncStateVector) o;
+    return Arrays.equals(bits, that.bits) && details().equals(that.details());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(bits) + details().hashCode();
+  }
+
+  private Map<SynchronizationState, String> details() {
+    return details == null ? Collections.<SynchronizationState, String>emptyMap() : details;
+  }
+
+}
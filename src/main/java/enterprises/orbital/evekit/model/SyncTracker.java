@@ -1,12 +1,21 @@
 package enterprises.orbital.evekit.model;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.persistence.Access;
+import javax.persistence.AccessType;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -15,14 +24,17 @@ import javax.persistence.Index;
 import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.NoResultException;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.TypedQuery;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import enterprises.orbital.base.OrbitalProperties;
@@ -31,11 +43,16 @@ import enterprises.orbital.evekit.account.EveKitUserAccountProvider;
 import enterprises.orbital.evekit.account.SynchronizedEveAccount;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Generic indexer class for any synchronizations in progress.
  */
 @Entity
+@Access(AccessType.FIELD)
+@DynamicInsert
+@DynamicUpdate
 @Inheritance(
     strategy = InheritanceType.JOINED)
 @Table(
@@ -70,6 +87,20 @@ import io.swagger.annotations.ApiModelProperty;
 public abstract class SyncTracker {
   private static final Logger log = Logger.getLogger(SyncTracker.class.getName());
 
+  // Number of trackers retrieved per query when summarizing errors
+  private static final int SUMMARY_PAGE_SIZE = 1000;
+
+  // Storage mode for per-state status and detail.  While 0 (the default), subclasses write both the legacy per-state
+  // columns and the packed state vector.  Once migratePackedState has backfilled all stored trackers, set to 1 to stop
+  // writing the legacy columns.  Since trackers use dynamic inserts and updates, the columns are then left out of
+  // every statement and can be dropped.  Columns of rows stored before the switch are ignored once the row has a
+  // packed state vector.
+  public static final String PROP_PACKED_STATE_ONLY = "enterprises.orbital.evekit.model.packedStateOnly";
+  public static final long   DEF_PACKED_STATE_ONLY  = 0;
+
+  // Overrides PROP_PACKED_STATE_ONLY when non-null
+  private static volatile Boolean packedStateOnly;
+
   // State values to be stored in fields of a specific synchronization type.
   public enum SyncState {
                          NOT_PROCESSED, // haven't started processing this field yet.
@@ -111,10 +142,270 @@ public abstract class SyncTracker {
       value = "Tracker end time (milliseconds UTC)")
   @JsonProperty("syncEnd")
   protected long                   syncEnd   = -1;
+  // Compact encoding of the status and detail of every synchronization state (see SyncStateVector). Null for
+  // trackers stored before the packed form was introduced, in which case the vector is rebuilt from the
+  // per-state columns when first needed. Mapped through getPackedState.
+  @Transient
+  @JsonIgnore
+  protected byte[]                 packedState;
+  @Transient
+  @JsonIgnore
+  private SyncStateVector          stateVector;
+  // True if stateVector has changed since packedState was last encoded
+  @Transient
+  @JsonIgnore
+  private boolean                  stateChanged;
+  // True if subclasses should also write the legacy per-state columns
+  @Transient
+  @JsonIgnore
+  private final boolean            writeStateColumns = !isPackedStateOnly();
+  // States ready to synchronize (see SyncStateGraph), maintained incrementally once computed
+  @Transient
+  @JsonIgnore
+  private EnumSet<SynchronizationState> readyStates;
+
+  /**
+   * Accessors for the per-state status and detail columns of a tracker subclass. Subclasses keep a table of these
+   * keyed by SynchronizationState so that state changes don't need to dispatch on the state.
+   */
+  protected static final class StateField<T extends SyncTracker> {
+    private final String                   name;
+    private final Function<T, SyncState>   status;
+    private final BiConsumer<T, SyncState> setStatus;
+    private final Function<T, String>      detail;
+    private final BiConsumer<T, String>    setDetail;
+
+    protected StateField(String name, Function<T, SyncState> status, BiConsumer<T, SyncState> setStatus,
+                         Function<T, String> detail, BiConsumer<T, String> setDetail) {
+      this.name = name;
+      this.status = status;
+      this.setStatus = setStatus;
+      this.detail = detail;
+      this.setDetail = setDetail;
+    }
+
+    /**
+     * @return the property name prefix of the status and detail columns, e.g. "assetList" for assetListStatus and
+     *         assetListDetail.
+     */
+    public String getName() {
+      return name;
+    }
+
+    public SyncState getStatus(
+                               T tracker) {
+      return status.apply(tracker);
+    }
+
+    public String getDetail(
+                            T tracker) {
+      return detail.apply(tracker);
+    }
+
+    public void set(
+                    T tracker,
+                    SyncState newStatus,
+                    String newDetail) {
+      setStatus.accept(tracker, newStatus);
+      setDetail.accept(tracker, newDetail);
+    }
+  }
 
   // No-args ctor required by Objectify
   public SyncTracker() {}
 
+  /**
+   * @return true if the legacy per-state columns are no longer written (see PROP_PACKED_STATE_ONLY).
+   */
+  public static boolean isPackedStateOnly() {
+    Boolean override = packedStateOnly;
+    if (override != null) return override;
+    return OrbitalProperties.getLongGlobalProperty(PROP_PACKED_STATE_ONLY, DEF_PACKED_STATE_ONLY) != 0;
+  }
+
+  /**
+   * Override the storage mode configured by PROP_PACKED_STATE_ONLY (for testing). Only affects trackers created after
+   * this call.
+   * 
+   * @param packedOnly
+   *          true to stop writing the legacy per-state columns, false to write them, or null to use the configured
+   *          mode.
+   */
+  static void setPackedStateOnly(
+                                        Boolean packedOnly) {
+    packedStateOnly = packedOnly;
+  }
+
+  /**
+   * @return true if this tracker should write the legacy per-state columns as well as the packed state vector.
+   */
+  protected boolean writeStateColumns() {
+    return writeStateColumns;
+  }
+
+  /**
+   * Return the encoded state vector for storage. Since merge copies persistent state from the tracker being merged,
+   * the vector is encoded here when it is read for a persist or merge, and then only if it changed since it was last
+   * encoded. State changes themselves never encode.
+   * 
+   * @return the encoded state vector, or null if this tracker was stored before the packed form was introduced and
+   *         has not changed since.
+   */
+  @Access(AccessType.PROPERTY)
+  @Lob
+  @JsonIgnore
+  protected byte[] getPackedState() {
+    if (stateChanged) {
+      packedState = stateVector.encode();
+      stateChanged = false;
+    }
+    return packedState;
+  }
+
+  protected void setPackedState(
+                                byte[] packedState) {
+    this.packedState = packedState;
+    stateVector = null;
+    stateChanged = false;
+    readyStates = null;
+  }
+
+  /**
+   * Return the packed status vector for this tracker, decoding or rebuilding it if necessary.
+   * 
+   * @return the packed status vector for this tracker.
+   */
+  protected SyncStateVector getStateVector() {
+    if (stateVector == null) stateVector = packedState != null ? SyncStateVector.decode(packedState) : buildStateVector();
+    return stateVector;
+  }
+
+  /**
+   * Build a packed status vector from the per-state columns of this tracker. Subclasses with per-state columns
+   * override this method.
+   * 
+   * @return a packed status vector equivalent to the per-state columns of this tracker.
+   */
+  protected SyncStateVector buildStateVector() {
+    return new SyncStateVector();
+  }
+
+  /**
+   * Mark the packed status vector as changed so it is stored when this tracker is next written, even if no state
+   * has changed since it was loaded.
+   */
+  protected void storeStateVector() {
+    getStateVector();
+    stateChanged = true;
+  }
+
+  /**
+   * Return the dependency graph over the states tracked by this tracker. Subclasses with per-state columns override
+   * this method.
+   * 
+   * @return the dependency graph for this tracker, or null if this tracker doesn't track any states.
+   */
+  protected SyncStateGraph getStateGraph() {
+    return null;
+  }
+
+  /**
+   * Record a change to the status of the given state in the packed status vector and ready states.
+   * 
+   * @param state
+   *          the state which changed.
+   * @param status
+   *          the new status for the given state.
+   * @param msg
+   *          the new detail message for the given state.
+   */
+  protected void updateStateVector(
+                                   SynchronizationState state,
+                                   SyncState status,
+                                   String msg) {
+    SyncStateVector vector = getStateVector();
+    vector.set(state, status, msg);
+    stateChanged = true;
+    if (readyStates != null) getStateGraph().update(vector, readyStates, state);
+  }
+
+  /**
+   * Change the status of a state, keeping its detail message. Used by the per-state setters of subclasses.
+   * 
+   * @param state
+   *          the state to change.
+   * @param status
+   *          the new status for the given state.
+   */
+  protected void setStatus(
+                           SynchronizationState state,
+                           SyncState status) {
+    setState(state, status, getDetail(state));
+  }
+
+  /**
+   * Change the detail message of a state, keeping its status. Used by the per-state setters of subclasses.
+   * 
+   * @param state
+   *          the state to change.
+   * @param msg
+   *          the new detail message for the given state.
+   */
+  protected void setDetail(
+                           SynchronizationState state,
+                           String msg) {
+    setState(state, getStatus(state), msg);
+  }
+
+  /**
+   * Get the status of a synchronization state from the packed status vector.
+   * 
+   * @param state
+   *          the state to retrieve.
+   * @return the status of the given state, or null if this tracker doesn't track the given state.
+   */
+  public SyncState getStatus(
+                             SynchronizationState state) {
+    return getStateVector().getStatus(state);
+  }
+
+  /**
+   * Get the detail message of a synchronization state from the packed status vector.
+   * 
+   * @param state
+   *          the state to retrieve.
+   * @return the detail message of the given state, or null if there is none.
+   */
+  public String getDetail(
+                          SynchronizationState state) {
+    return getStateVector().getDetail(state);
+  }
+
+  /**
+   * Format the status and detail of each tracked state for toString.
+   * 
+   * @param fields
+   *          the per-state columns of this tracker type.
+   * @return comma separated name=value pairs for the status and detail of each state.
+   */
+  protected String formatStates(
+                                Map<SynchronizationState, ? extends StateField<?>> fields) {
+    StringBuilder result = new StringBuilder();
+    for (Map.Entry<SynchronizationState, ? extends StateField<?>> next : fields.entrySet()) {
+      if (result.length() > 0) result.append(", ");
+      String name = next.getValue()
+                        .getName();
+      result.append(name)
+            .append("Status=")
+            .append(getStatus(next.getKey()))
+            .append(", ")
+            .append(name)
+            .append("Detail=")
+            .append(getDetail(next.getKey()));
+    }
+    return result.toString();
+  }
+
   public long getTid() {
     return tid;
   }
@@ -152,6 +443,8 @@ public abstract class SyncTracker {
 
   /**
    * Either return the first SynchronizationState still to be completed, or return null if this tracker is complete.
+   * A state can only be returned once all states it depends on (see getStateGraph) have been processed. States are
+   * checked in iteration order of checkState.
    * 
    * @param checkState
    *          the set of tracker states to check this tracker against.
@@ -159,7 +452,10 @@ public abstract class SyncTracker {
    */
   public SynchronizationState trackerComplete(
                                               Set<SynchronizationState> checkState) {
-    return null;
+    SyncStateGraph graph = getStateGraph();
+    if (graph == null) return null;
+    if (readyStates == null) readyStates = graph.readyStates(getStateVector());
+    return SyncStateGraph.firstReady(readyStates, checkState);
   }
 
   /**
@@ -230,6 +526,87 @@ public abstract class SyncTracker {
     counter.incrementAndGet();
   }
 
+  /**
+   * Summarize the errors recorded by finished trackers of the given type which started and ended on the given day.
+   * Only trackers with at least one error in their per-state columns, or which have a packed state vector, are
+   * retrieved, and only their packed state and status and detail columns are selected. The packed state is used
+   * when present since the columns aren't written in packed-only mode. Trackers are retrieved in pages ordered by
+   * tracker ID.
+   * 
+   * @param type
+   *          the tracker entity type to summarize.
+   * @param fields
+   *          the per-state columns of the tracker type.
+   * @param day
+   *          the day to summarize.
+   * @return the error summary.
+   * @throws IOException
+   *           on any database error.
+   */
+  protected static <A extends SyncTracker> SyncErrorSummary summarizeErrors(
+                                                                            final Class<A> type,
+                                                                            final Map<SynchronizationState, StateField<A>> fields,
+                                                                            Date day)
+    throws IOException {
+    final long dayLength = 1000 * 60 * 60 * 24;
+    final long dayStart = (day.getTime() / dayLength) * dayLength + 1;
+    final long dayEnd = dayStart + dayLength - 1;
+    final List<SynchronizationState> states = new ArrayList<SynchronizationState>();
+    final List<String> columns = new ArrayList<String>();
+    StringBuilder select = new StringBuilder("SELECT c.tid, c.packedState");
+    StringBuilder anyError = new StringBuilder("c.packedState is not null");
+    for (Map.Entry<SynchronizationState, StateField<A>> next : fields.entrySet()) {
+      String name = next.getValue().getName();
+      states.add(next.getKey());
+      columns.add(name);
+      select.append(", c.").append(name).append("Status, c.").append(name).append("Detail");
+      anyError.append(" or c.").append(name).append("Status = :error");
+    }
+    final String query = select + " FROM " + type.getSimpleName()
+        + " c where c.finished = true and c.syncStart >= :start and c.syncEnd <= :end and c.tid > :tid and (" + anyError
+        + ") order by c.tid asc";
+    final SyncErrorSummary summary = new SyncErrorSummary(new Date(dayStart));
+    long lastTid = Long.MIN_VALUE;
+    List<Object[]> page;
+    do {
+      final long fromTid = lastTid;
+      try {
+        page = EveKitUserAccountProvider.getFactory().runTransaction(new RunInTransaction<List<Object[]>>() {
+          @Override
+          public List<Object[]> run() throws Exception {
+            TypedQuery<Object[]> getter = EveKitUserAccountProvider.getFactory().getEntityManager().createQuery(query,
+                                                                                                                 Object[].class);
+            getter.setParameter("start", dayStart);
+            getter.setParameter("end", dayEnd);
+            getter.setParameter("tid", fromTid);
+            getter.setParameter("error", SyncState.SYNC_ERROR);
+            getter.setMaxResults(SUMMARY_PAGE_SIZE);
+            return getter.getResultList();
+          }
+        });
+      } catch (Exception e) {
+        if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+        log.log(Level.SEVERE, "query error", e);
+        throw new IOException(e.getCause());
+      }
+      for (Object[] row : page) {
+        lastTid = (Long) row[0];
+        SyncStateVector packed = row[1] == null ? null : SyncStateVector.decode((byte[]) row[1]);
+        boolean counted = false;
+        for (int i = 0; i < columns.size(); i++) {
+          SyncState status = packed == null ? (SyncState) row[2 * i + 2] : packed.getStatus(states.get(i));
+          if (status != SyncState.SYNC_ERROR) continue;
+          if (!counted) {
+            summary.addTracker();
+            counted = true;
+          }
+          summary.addError(columns.get(i), packed == null ? (String) row[2 * i + 3] : packed.getDetail(states.get(i)));
+        }
+      }
+    } while (page.size() == SUMMARY_PAGE_SIZE);
+    return summary;
+  }
+
   public static <A extends SyncTracker> A finishTracker(
                                                         final A tracker) {
     try {
@@ -333,4 +710,37 @@ public abstract class SyncTracker {
     return null;
   }
 
+  /**
+   * Populate the packed status vector of finished trackers stored before the packed form was introduced. Trackers
+   * are migrated in batches so this can run incrementally against a live database. Unfinished trackers are skipped
+   * since a synchronizer may be updating them concurrently. These store their packed vector on their next state
+   * change, and are rebuilt from the per-state columns when loaded until then.
+   * 
+   * @param batchSize
+   *          maximum number of trackers to migrate.
+   * @return the number of trackers migrated. Zero means migration is complete.
+   * @throws IOException
+   *           on any database error.
+   */
+  public static int migratePackedState(
+                                       final int batchSize)
+    throws IOException {
+    try {
+      return EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+        TypedQuery<SyncTracker> getter = EveKitUserAccountProvider.getFactory().getEntityManager()
+            .createQuery("SELECT c FROM SyncTracker c where c.packedState is null and c.syncEnd <> -1", SyncTracker.class);
+        getter.setMaxResults(batchSize);
+        List<SyncTracker> batch = getter.getResultList();
+        for (SyncTracker next : batch) {
+          next.storeStateVector();
+        }
+        return batch.size();
+      });
+    } catch (Exception e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      log.log(Level.SEVERE, "query error", e);
+      throw new IOException(e.getCause());
+    }
+  }
+
 }
@@ -0,0 +1,133 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.evekit.TestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Rough throughput measurements for access key checks.  These report rates rather than asserting them since
+ * timing depends on the machine and test database, so they are excluded from the normal test run.  Remove the
+ * Ignore annotation to run them locally.
+ */
+@Ignore("Benchmark, run manually")
+public class AccessKeyBenchmark extends TestBase {
+  private static final Logger log = Logger.getLogger(AccessKeyBenchmark.class.getName());
+
+  private SynchronizedEveAccount testAccount;
+
+  @Override
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    AccessKeyCredentialCache.clear();
+    try {
+      EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+      testAccount = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    } catch (AccountCreationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException {
+    AccessKeyCredentialCache.clear();
+    super.tearDown();
+  }
+
+  private static long rate(long count, long elapsed) {
+    return count * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+  }
+
+  @Test
+  public void benchCheckHash() throws Exception {
+    // Cached versus uncached auth checks
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+    int count = 1000;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      AccessKeyCredentialCache.clear();
+      Assert.assertNotNull(SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash));
+    }
+    long uncached = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      Assert.assertNotNull(SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash));
+    }
+    long cached = System.nanoTime() - start;
+
+    log.info("Uncached auth checks/sec: " + rate(count, uncached));
+    log.info("Cached auth checks/sec: " + rate(count, cached));
+  }
+
+  @Test
+  public void benchMaskChecks() {
+    // Raw mask checks versus decoded permission checks
+    byte[] mask = AccountAccessMask.createMask(Arrays.asList(AccountAccessMask.ACCESS_ACCOUNT_BALANCE,
+                                                             AccountAccessMask.ACCESS_SKILL_QUEUE));
+    AccountAccessPermissions permissions = AccountAccessPermissions.decode(mask);
+    AccountAccessMask[] values = AccountAccessMask.values();
+    int count = 1000000;
+    int allowed = 0;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      if (AccountAccessMask.isAccessAllowed(mask, values[i % values.length])) allowed++;
+    }
+    long raw = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      if (permissions.isAccessAllowed(values[i % values.length])) allowed--;
+    }
+    long decoded = System.nanoTime() - start;
+
+    Assert.assertEquals(0, allowed);
+    log.info("Raw mask checks/sec: " + rate(count, raw));
+    log.info("Decoded mask checks/sec: " + rate(count, decoded));
+  }
+
+  @Test
+  public void benchSeedGeneration() throws Exception {
+    // Concurrent seed generation
+    int threads = 16;
+    int perThread = 10000;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(pool.submit(() -> {
+          start.await();
+          for (int j = 0; j < perThread; j++) SeedGenerator.nextSeed();
+          return null;
+        }));
+      }
+      long begin = System.nanoTime();
+      start.countDown();
+      for (Future<?> next : results) next.get();
+      long elapsed = System.nanoTime() - begin;
+      log.info("Seeds/sec with " + threads + " threads: " + rate((long) threads * perThread, elapsed));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+}
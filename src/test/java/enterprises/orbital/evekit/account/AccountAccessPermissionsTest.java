@@ -0,0 +1,79 @@
+package enterprises.orbital.evekit.account;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+public class AccountAccessPermissionsTest {
+
+  private static BigInteger oldMaskValue(byte[] mask) {
+    BigInteger value = new BigInteger("0");
+    for (AccountAccessMask next : AccountAccessMask.values()) {
+      if (AccountAccessMask.isAccessAllowed(mask, next)) value = value.flipBit(next.getMaskValue());
+    }
+    return value;
+  }
+
+  @Test
+  public void testDecode() {
+    byte[] mask = AccountAccessMask.createMask(Arrays.asList(AccountAccessMask.ACCESS_ACCOUNT_BALANCE,
+                                                             AccountAccessMask.ACCESS_SKILL_QUEUE,
+                                                             AccountAccessMask.ACCESS_STRUCTURES));
+    AccountAccessPermissions permissions = AccountAccessPermissions.decode(mask);
+    for (AccountAccessMask next : AccountAccessMask.values()) {
+      Assert.assertEquals(AccountAccessMask.isAccessAllowed(mask, next), permissions.isAccessAllowed(next));
+    }
+    Assert.assertEquals(EnumSet.of(AccountAccessMask.ACCESS_ACCOUNT_BALANCE, AccountAccessMask.ACCESS_SKILL_QUEUE,
+                                   AccountAccessMask.ACCESS_STRUCTURES), permissions.getAllowed());
+    Assert.assertEquals(oldMaskValue(mask), permissions.getMaskValue());
+    Assert.assertEquals(AccountAccessMask.stringifyMask(mask), permissions.getMaskValueString());
+  }
+
+  @Test
+  public void testDecodeAll() {
+    byte[] mask = AccountAccessMask.createMask(EnumSet.allOf(AccountAccessMask.class));
+    AccountAccessPermissions permissions = AccountAccessPermissions.decode(mask);
+    Assert.assertEquals(EnumSet.allOf(AccountAccessMask.class), permissions.getAllowed());
+    Assert.assertEquals(oldMaskValue(mask), permissions.getMaskValue());
+    Assert.assertEquals(AccountAccessMask.stringifyMask(mask), permissions.getMaskValueString());
+  }
+
+  @Test
+  public void testDecodeEmpty() {
+    AccountAccessPermissions permissions = AccountAccessPermissions.decode(null);
+    Assert.assertTrue(permissions.getAllowed()
+                                 .isEmpty());
+    Assert.assertEquals(BigInteger.ZERO, permissions.getMaskValue());
+    Assert.assertEquals("", permissions.getMaskValueString());
+    Assert.assertEquals(permissions, AccountAccessPermissions.decode(new byte[0]));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testImmutable() {
+    AccountAccessPermissions.decode(AccountAccessMask.createMask(AccountAccessMask.ACCESS_ASSETS))
+                            .getAllowed()
+                            .add(AccountAccessMask.ACCESS_MAIL);
+  }
+
+  @Test
+  public void testKeyPermissions() {
+    SynchronizedAccountAccessKey key = new SynchronizedAccountAccessKey();
+    key.setAccessMask(AccountAccessMask.createMask(AccountAccessMask.ACCESS_ASSETS));
+    Assert.assertTrue(key.isAccessAllowed(AccountAccessMask.ACCESS_ASSETS));
+    Assert.assertFalse(key.isAccessAllowed(AccountAccessMask.ACCESS_MAIL));
+    Assert.assertSame(key.getPermissions(), key.getPermissions());
+
+    // Replacing the mask discards the decoded form
+    key.setAccessMask(AccountAccessMask.createMask(AccountAccessMask.ACCESS_MAIL));
+    Assert.assertFalse(key.isAccessAllowed(AccountAccessMask.ACCESS_ASSETS));
+    Assert.assertTrue(key.isAccessAllowed(AccountAccessMask.ACCESS_MAIL));
+    key.generateMaskValue();
+    key.generateMaskValueString();
+    Assert.assertEquals(BigInteger.ZERO.setBit(AccountAccessMask.ACCESS_MAIL.getMaskValue()), key.getMaskValue());
+    Assert.assertEquals("ACCESS_MAIL", key.getMaskValueString());
+  }
+
+}
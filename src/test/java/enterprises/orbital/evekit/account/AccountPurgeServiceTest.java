@@ -0,0 +1,121 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.evekit.TestBase;
+import enterprises.orbital.evekit.model.ESIEndpointSyncTracker;
+import enterprises.orbital.evekit.model.ESISyncEndpoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class AccountPurgeServiceTest extends TestBase {
+
+  private static void waitForPurges(AccountPurgeService service, long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    while ((service.getPurgedCount() + service.getFailureCount() < count || !service.getProgress()
+                                                                                   .isEmpty()) &&
+        System.currentTimeMillis() < deadline)
+      Thread.sleep(10);
+  }
+
+  @Test
+  public void testPurgeMarkedAccounts() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount keep = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "keep", true);
+    for (int i = 0; i < 3; i++) {
+      SynchronizedEveAccount next = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "purge" + i, true);
+      ESIEndpointSyncTracker.finishTracker(
+          ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(next, ESISyncEndpoint.CHAR_ASSETS, 1234L, null));
+      SynchronizedEveAccount.deleteAccount(userAccount, next.getAid());
+    }
+
+    AccountPurgeService service = new AccountPurgeService(
+        (account, listener) -> SynchronizedEveAccount.remove(account, 10, listener), 2, 0);
+    try {
+      Assert.assertEquals(3, service.submitMarked());
+      waitForPurges(service, 3);
+      Assert.assertEquals(3, service.getPurgedCount());
+      Assert.assertEquals(0, service.getFailureCount());
+      // One tracker plus one account row for each purged account
+      Assert.assertEquals(6, service.getDeletedRows());
+      Assert.assertEquals(0, service.getQueueLength());
+      Assert.assertTrue(service.getProgress()
+                               .isEmpty());
+      Assert.assertTrue(SynchronizedEveAccount.getAllMarkedForDelete()
+                                              .isEmpty());
+      Assert.assertEquals(keep, SynchronizedEveAccount.getSynchronizedAccount(userAccount, keep.getAid(), false));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testThrottle() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+
+    // Stub remover reports 4 chunks of 100 rows.  At 1000 rows per second this should take at least 300ms
+    // since the first chunk is free.
+    AccountPurgeService service = new AccountPurgeService((account, listener) -> {
+      for (int i = 0; i < 4; i++) listener.chunkRemoved(account.getAid(), AccountRemovalReport.PHASE_ESI_TRACKERS, 100);
+      return new AccountRemovalReport(account.getAid());
+    }, 1, 1000);
+    try {
+      long start = System.nanoTime();
+      Assert.assertTrue(service.submit(acct));
+      waitForPurges(service, 1);
+      long elapsed = TimeUnit.MILLISECONDS.convert(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      Assert.assertEquals(1, service.getPurgedCount());
+      Assert.assertEquals(400, service.getDeletedRows());
+      Assert.assertTrue("elapsed " + elapsed, elapsed >= 300);
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailedPurgeCanResume() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    for (int i = 0; i < 5; i++) {
+      ESIEndpointSyncTracker.finishTracker(
+          ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(acct, ESISyncEndpoint.CHAR_ASSETS, 1234L, null));
+    }
+    SynchronizedEveAccount.deleteAccount(userAccount, acct.getAid());
+
+    // Abort after the first chunk of ESI trackers
+    AccountPurgeService failing = new AccountPurgeService((account, listener) -> SynchronizedEveAccount.remove(
+        account, 2, (aid, phase, rows) -> {
+          listener.chunkRemoved(aid, phase, rows);
+          if (AccountRemovalReport.PHASE_ESI_TRACKERS.equals(phase))
+            throw new IOException("simulated failure");
+        }), 1, 0);
+    try {
+      Assert.assertTrue(failing.submit(acct));
+      waitForPurges(failing, 1);
+      Assert.assertEquals(1, failing.getFailureCount());
+      Assert.assertEquals(2, failing.getDeletedRows());
+    } finally {
+      failing.shutdown();
+    }
+
+    // Account is still marked for delete and resumes with the remaining rows
+    Assert.assertEquals(1, SynchronizedEveAccount.getAllMarkedForDelete()
+                                                 .size());
+    AccountPurgeService service = new AccountPurgeService(
+        (account, listener) -> SynchronizedEveAccount.remove(account, 2, listener), 1, 0);
+    try {
+      Assert.assertEquals(1, service.submitMarked());
+      waitForPurges(service, 1);
+      Assert.assertEquals(1, service.getPurgedCount());
+      // 3 remaining trackers plus the account
+      Assert.assertEquals(4, service.getDeletedRows());
+      Assert.assertTrue(SynchronizedEveAccount.getAllMarkedForDelete()
+                                              .isEmpty());
+    } finally {
+      service.shutdown();
+    }
+  }
+
+}
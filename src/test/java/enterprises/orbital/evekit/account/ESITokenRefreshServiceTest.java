@@ -0,0 +1,191 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.base.OrbitalProperties;
+import enterprises.orbital.evekit.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class ESITokenRefreshServiceTest extends TestBase {
+
+  @Test
+  public void testRefreshAheadOfExpiry() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    long soon = OrbitalProperties.getCurrentTime() + TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+    acct = SynchronizedEveAccount.setESICredential(userAccount, acct.getAid(), "abcd", soon, "efgh", "scope_list", 5678, "charname", 8765, "corpname");
+
+    // Stub refresher issues a token valid for one hour
+    AtomicInteger calls = new AtomicInteger(0);
+    CountDownLatch refreshed = new CountDownLatch(1);
+    ESITokenRefreshService.TokenRefresher stub = (account, window) -> {
+      calls.incrementAndGet();
+      long expiry = OrbitalProperties.getCurrentTime() + TimeUnit.MILLISECONDS.convert(1, TimeUnit.HOURS);
+      try {
+        SynchronizedEveAccount.setESICredential(account.getUserAccount(), account.getAid(), "newtoken", expiry, "efgh",
+                                                account.getScopes(), account.getEveCharacterID(), account.getEveCharacterName(),
+                                                account.getEveCorporationID(), account.getEveCorporationName());
+      } catch (AccountUpdateException | AccountNotFoundException e) {
+        throw new IOException(e);
+      }
+      refreshed.countDown();
+    };
+
+    // Token expires inside the five minute margin so should be refreshed immediately
+    ESITokenRefreshService service = new ESITokenRefreshService(stub, TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES),
+                                                                1, TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES));
+    try {
+      service.register(acct);
+      Assert.assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+
+      // Wait for the next refresh to be scheduled
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+      while (service.getRefreshCount() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+      Assert.assertEquals(1, calls.get());
+      Assert.assertEquals(1, service.getRefreshCount());
+      Assert.assertEquals(0, service.getFailureCount());
+      Assert.assertEquals(1, service.getRegisteredCount());
+      Assert.assertEquals(1, service.getQueueDepth());
+      Assert.assertEquals("newtoken", SynchronizedEveAccount.getSynchronizedAccount(userAccount, acct.getAid(), false)
+                                                            .getAccessToken());
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  // Wait up to ten seconds for a condition to hold
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+  }
+
+  @Test
+  public void testRefreshThroughSSO() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    long soon = OrbitalProperties.getCurrentTime() + TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+    acct = SynchronizedEveAccount.setESICredential(userAccount, acct.getAid(), "abcd", soon, "efgh", "scope_list", 5678, "charname", 8765, "corpname");
+
+    // Refresh through the real SSO client against a local token endpoint
+    try (StubTokenServer server = new StubTokenServer()) {
+      SSOServiceRegistry.setApi(server.getApi());
+      ESITokenRefreshService service = new ESITokenRefreshService("clientid", "secretkey");
+      try {
+        service.register(acct);
+        await(() -> service.getRefreshCount() > 0);
+
+        Assert.assertEquals(1, server.getRequestCount());
+        Assert.assertEquals("efgh", server.getLastRefreshToken());
+        Assert.assertEquals(1, service.getRefreshCount());
+        Assert.assertEquals(0, service.getFailureCount());
+        SynchronizedEveAccount check = SynchronizedEveAccount.getSynchronizedAccount(userAccount, acct.getAid(), false);
+        Assert.assertEquals("access1", check.getAccessToken());
+        Assert.assertEquals("refresh1", check.getRefreshToken());
+        Assert.assertTrue(check.getAccessTokenExpiry() > soon);
+      } finally {
+        service.shutdown();
+      }
+    } finally {
+      SSOServiceRegistry.setApi(null);
+    }
+  }
+
+  @Test
+  public void testRevokedTokenThroughSSO() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    long soon = OrbitalProperties.getCurrentTime() + TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+    acct = SynchronizedEveAccount.setESICredential(userAccount, acct.getAid(), "abcd", soon, "efgh", "scope_list", 5678, "charname", 8765, "corpname");
+
+    // Token endpoint answers with an invalid_grant error, which means the refresh token was revoked
+    try (StubTokenServer server = new StubTokenServer()) {
+      server.reject("efgh");
+      SSOServiceRegistry.setApi(server.getApi());
+      ESITokenRefreshService service = new ESITokenRefreshService("clientid", "secretkey");
+      try {
+        service.register(acct);
+        await(() -> service.getFailureCount() > 0 && service.getRegisteredCount() == 0);
+
+        Assert.assertEquals(1, server.getRequestCount());
+        Assert.assertEquals(0, service.getRefreshCount());
+        Assert.assertEquals(1, service.getFailureCount());
+        // The revoked token is cleared and the account is no longer refreshed
+        Assert.assertEquals(0, service.getRegisteredCount());
+        SynchronizedEveAccount check = SynchronizedEveAccount.getSynchronizedAccount(userAccount, acct.getAid(), false);
+        Assert.assertNull(check.getRefreshToken());
+        Assert.assertEquals("abcd", check.getAccessToken());
+      } finally {
+        service.shutdown();
+      }
+    } finally {
+      SSOServiceRegistry.setApi(null);
+    }
+  }
+
+  @Test
+  public void testUnregisterDuringRefresh() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    long soon = OrbitalProperties.getCurrentTime() + TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+    acct = SynchronizedEveAccount.setESICredential(userAccount, acct.getAid(), "abcd", soon, "efgh", "scope_list", 5678, "charname", 8765, "corpname");
+    SynchronizedEveAccount other = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "otheraccount", true);
+    other = SynchronizedEveAccount.setESICredential(userAccount, other.getAid(), "abcd", soon, "efgh", "scope_list", 5679, "charname", 8765, "corpname");
+    final long otherID = other.getAid();
+
+    // Stub refresher blocks until released so we can unregister while the refresh is in flight.  The other
+    // account is refreshed by the same (single) worker, so its refresh can only start once the first has finished.
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch otherRefreshed = new CountDownLatch(1);
+    ESITokenRefreshService.TokenRefresher stub = (account, window) -> {
+      if (account.getAid() == otherID) {
+        otherRefreshed.countDown();
+        return;
+      }
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+    };
+
+    // Token stays inside the margin, so a completed refresh would normally be rescheduled after the retry delay
+    ESITokenRefreshService service = new ESITokenRefreshService(stub, TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES),
+                                                                1, TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES));
+    try {
+      service.register(acct);
+      Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+      service.unregister(acct.getAid());
+      service.register(other);
+      release.countDown();
+      Assert.assertTrue(otherRefreshed.await(10, TimeUnit.SECONDS));
+
+      // The unregistered account must not have been put back in the queue
+      Assert.assertEquals(1, service.getRegisteredCount());
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testIgnoreAccountWithoutRefreshToken() throws Exception {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    ESITokenRefreshService service = new ESITokenRefreshService((account, window) -> Assert.fail(), 0, 1, 0);
+    try {
+      service.register(acct);
+      Assert.assertEquals(0, service.getRegisteredCount());
+      Assert.assertEquals(0, service.getQueueDepth());
+    } finally {
+      service.shutdown();
+    }
+  }
+
+}
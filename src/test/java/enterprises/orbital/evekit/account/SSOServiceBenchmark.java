@@ -0,0 +1,99 @@
+package enterprises.orbital.evekit.account;
+
+import com.github.scribejava.core.builder.ServiceBuilder;
+import com.github.scribejava.core.oauth.OAuth20Service;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Rough token refresh throughput against a local stub token endpoint, building a new SSO service for every
+ * refresh versus sharing services through SSOServiceRegistry.  These report rates rather than asserting them
+ * since timing depends on the machine, so they are excluded from the normal test run.  Remove the Ignore
+ * annotation to run them locally.
+ */
+@Ignore("Benchmark, run manually")
+public class SSOServiceBenchmark {
+  private static final Logger log = Logger.getLogger(SSOServiceBenchmark.class.getName());
+
+  private StubTokenServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new StubTokenServer();
+    SSOServiceRegistry.setApi(server.getApi());
+  }
+
+  @After
+  public void tearDown() {
+    SSOServiceRegistry.setApi(null);
+    server.close();
+  }
+
+  private static long rate(long count, long elapsed) {
+    return count * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+  }
+
+  private interface ServiceSource {
+    OAuth20Service get() throws Exception;
+  }
+
+  // Refreshes per second with the given number of threads each refreshing perThread times
+  private static long refreshRate(ServiceSource source, int threads, int perThread) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      Callable<Object> task = () -> {
+        start.await();
+        for (int j = 0; j < perThread; j++)
+          Assert.assertNotNull(source.get()
+                                     .refreshAccessToken("refresh")
+                                     .getAccessToken());
+        return null;
+      };
+      for (int i = 0; i < threads; i++) results.add(pool.submit(task));
+      long begin = System.nanoTime();
+      start.countDown();
+      for (Future<?> next : results) next.get();
+      return rate((long) threads * perThread, System.nanoTime() - begin);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void benchRefresh() throws Exception {
+    String clientID = "clientid";
+    String secretKey = "secretkey";
+    int perThread = 500;
+    // Warm up both paths
+    refreshRate(() -> new ServiceBuilder().apiKey(clientID)
+                                          .apiSecret(secretKey)
+                                          .build(server.getApi()), 4, perThread / 10);
+    refreshRate(() -> SSOServiceRegistry.getService(clientID, secretKey), 4, perThread / 10);
+
+    for (int threads : new int[] {1, 4, 16}) {
+      long perCall = refreshRate(() -> new ServiceBuilder().apiKey(clientID)
+                                                           .apiSecret(secretKey)
+                                                           .build(server.getApi()), threads, perThread);
+      long shared = refreshRate(() -> SSOServiceRegistry.getService(clientID, secretKey), threads, perThread);
+      log.info("Refreshes/sec with " + threads + " threads, service per refresh: " + perCall);
+      log.info("Refreshes/sec with " + threads + " threads, shared service: " + shared);
+    }
+  }
+
+}
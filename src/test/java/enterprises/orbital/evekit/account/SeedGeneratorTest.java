@@ -0,0 +1,46 @@
+package enterprises.orbital.evekit.account;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SeedGeneratorTest {
+
+  @Test
+  public void testConcurrentSeedsUnique() throws Exception {
+    int threads = 16;
+    int perThread = 10000;
+    Set<Long> seen = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(pool.submit(() -> {
+          start.await();
+          long duplicates = 0;
+          for (int j = 0; j < perThread; j++) {
+            if (!seen.add(SeedGenerator.nextSeed())) duplicates++;
+          }
+          return duplicates;
+        }));
+      }
+      start.countDown();
+      for (Future<Long> next : results) {
+        Assert.assertEquals(0L, (long) next.get());
+      }
+      Assert.assertEquals(threads * perThread, seen.size());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+}
@@ -0,0 +1,127 @@
+package enterprises.orbital.evekit.account;
+
+import com.github.scribejava.core.builder.api.DefaultApi20;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import enterprises.orbital.oauth.EVEApi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the EVE SSO token endpoint.  Refresh requests for a rejected refresh token receive an
+ * OAuth2 error response, all other refresh requests receive a new access and refresh token.
+ */
+class StubTokenServer implements AutoCloseable {
+  static final String TOKEN_PATH = "/oauth/token";
+  static final int EXPIRES_IN = 1200;
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger requests = new AtomicInteger(0);
+  private volatile String lastRefreshToken;
+
+  StubTokenServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(TOKEN_PATH, this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  String getTokenEndpoint() {
+    return "http://" + server.getAddress()
+                             .getHostString() + ":" + server.getAddress()
+                                                            .getPort() + TOKEN_PATH;
+  }
+
+  // EVE SSO API with the token endpoint pointed at this server
+  DefaultApi20 getApi() {
+    final String endpoint = getTokenEndpoint();
+    return new EVEApi() {
+      @Override
+      public String getAccessTokenEndpoint() {
+        return endpoint;
+      }
+    };
+  }
+
+  // Reject future refreshes of the given refresh token
+  void reject(String refreshToken) {
+    rejected.add(refreshToken);
+  }
+
+  int getRequestCount() {
+    return requests.get();
+  }
+
+  String getLastRefreshToken() {
+    return lastRefreshToken;
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      int count = requests.incrementAndGet();
+      Map<String, String> params = parseForm(readBody(exchange.getRequestBody()));
+      String refreshToken = params.get("refresh_token");
+      lastRefreshToken = refreshToken;
+      if (!"POST".equals(exchange.getRequestMethod()) || !"refresh_token".equals(params.get("grant_type")) || refreshToken == null) {
+        respond(exchange, 400, "{\"error\":\"invalid_request\",\"error_description\":\"Expected a refresh token grant\"}");
+      } else if (rejected.contains(refreshToken)) {
+        respond(exchange, 400, "{\"error\":\"invalid_grant\",\"error_description\":\"Invalid refresh token\"}");
+      } else {
+        respond(exchange, 200, "{\"access_token\":\"access" + count + "\",\"token_type\":\"Bearer\",\"expires_in\":" +
+            EXPIRES_IN + ",\"refresh_token\":\"refresh" + count + "\"}");
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static String readBody(InputStream in) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    for (int len = in.read(buffer); len != -1; len = in.read(buffer)) body.write(buffer, 0, len);
+    return new String(body.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, String> parseForm(String body) throws IOException {
+    Map<String, String> params = new HashMap<>();
+    for (String next : body.split("&")) {
+      int split = next.indexOf('=');
+      if (split <= 0) continue;
+      params.put(URLDecoder.decode(next.substring(0, split), "UTF-8"), URLDecoder.decode(next.substring(split + 1), "UTF-8"));
+    }
+    return params;
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] body = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders()
+            .set("Content-Type", "application/json;charset=UTF-8");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+}
@@ -0,0 +1,124 @@
+package enterprises.orbital.evekit.account;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class SyncAccountLockRegistryTest {
+
+  @Test
+  public void testEntryReclaimedAfterUnlock() {
+    SyncAccountLockRegistry registry = new SyncAccountLockRegistry();
+    Lock lck = registry.getLock(1234L);
+    lck.lock();
+    Assert.assertEquals(1, registry.getLockCount());
+    // Reentrant acquisition through a second lookup, which returns the same lock
+    Lock other = registry.getLock(1234L);
+    Assert.assertSame(lck, other);
+    other.lock();
+    Assert.assertEquals(1, registry.getLockCount());
+    other.unlock();
+    Assert.assertEquals(1, registry.getLockCount());
+    lck.unlock();
+    Assert.assertEquals(0, registry.getLockCount());
+    Assert.assertEquals(2, registry.getAcquisitionCount());
+    Assert.assertEquals(0, registry.getContentionCount());
+  }
+
+  @Test
+  public void testMutualExclusion() throws InterruptedException {
+    SyncAccountLockRegistry registry = new SyncAccountLockRegistry();
+    Lock lck = registry.getLock(1234L);
+    lck.lock();
+
+    // A different account should not be blocked
+    Assert.assertTrue(registry.getLock(5678L).tryLock());
+    registry.getLock(5678L).unlock();
+
+    // Same account should block until we release
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean acquired = new AtomicBoolean(false);
+    Thread waiter = new Thread(() -> {
+      Lock mine = registry.getLock(1234L);
+      started.countDown();
+      mine.lock();
+      acquired.set(true);
+      mine.unlock();
+    });
+    waiter.start();
+    started.await();
+    Thread.sleep(100);
+    Assert.assertFalse(acquired.get());
+    lck.unlock();
+    waiter.join(TimeUnit.SECONDS.toMillis(10));
+    Assert.assertTrue(acquired.get());
+    Assert.assertEquals(0, registry.getLockCount());
+    Assert.assertEquals(1, registry.getContentionCount());
+  }
+
+  @Test
+  public void testFailedTryLockReleasesEntry() throws InterruptedException {
+    SyncAccountLockRegistry registry = new SyncAccountLockRegistry();
+    Lock lck = registry.getLock(1234L);
+    lck.lock();
+    AtomicBoolean result = new AtomicBoolean(true);
+    Thread other = new Thread(() -> result.set(registry.getLock(1234L).tryLock()));
+    other.start();
+    other.join();
+    Assert.assertFalse(result.get());
+    Assert.assertEquals(1, registry.getLockCount());
+    lck.unlock();
+    Assert.assertEquals(0, registry.getLockCount());
+  }
+
+  @Test
+  public void testCondition() throws InterruptedException {
+    SyncAccountLockRegistry registry = new SyncAccountLockRegistry();
+    ReentrantLock lck = registry.getLock(1234L);
+    Condition ready = lck.newCondition();
+    AtomicBoolean signalled = new AtomicBoolean(false);
+    Thread other = new Thread(() -> {
+      Lock mine = registry.getLock(1234L);
+      mine.lock();
+      try {
+        signalled.set(true);
+        ready.signalAll();
+      } finally {
+        mine.unlock();
+      }
+    });
+    lck.lock();
+    try {
+      other.start();
+      while (!signalled.get()) Assert.assertTrue(ready.await(10, TimeUnit.SECONDS));
+    } finally {
+      lck.unlock();
+    }
+    other.join();
+    Assert.assertEquals(0, registry.getLockCount());
+  }
+
+  @Test
+  public void testEntryCollected() throws InterruptedException {
+    SyncAccountLockRegistry registry = new SyncAccountLockRegistry();
+    ReentrantLock lck = registry.getLock(1234L);
+    lck.lock();
+    lck.unlock();
+    // Still referenced, so the same lock is returned
+    Assert.assertSame(lck, registry.getLock(1234L));
+    Assert.assertEquals(1, registry.getEntryCount());
+    lck = null;
+    for (int i = 0; i < 50 && registry.getEntryCount() > 0; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, registry.getEntryCount());
+  }
+
+}
@@ -0,0 +1,485 @@
+package enterprises.orbital.evekit.account;
+
+import enterprises.orbital.base.OrbitalProperties;
+import enterprises.orbital.evekit.TestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SynchronizedAccountAccessKeyTest extends TestBase {
+
+  private SynchronizedEveAccount testAccount;
+
+  @Override
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    AccessKeyCredentialCache.clear();
+    try {
+      EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+      testAccount = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    } catch (AccountCreationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException {
+    OrbitalProperties.setTimeGenerator(null);
+    AccessKeyCredentialCache.clear();
+    super.tearDown();
+  }
+
+  // Change a key directly in the database so we can tell whether checkHash consulted the database
+  private static void changeExpiry(final SynchronizedAccountAccessKey key, final long expiry) throws IOException {
+    try {
+      EveKitUserAccountProvider.getFactory()
+                               .runTransaction(() -> {
+                                 SynchronizedAccountAccessKey attached = SynchronizedAccountAccessKey.getKeyByAccessKey(key.getAccessKey());
+                                 attached.setExpiry(expiry);
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .merge(attached);
+                               });
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Test
+  public void testCheckHashCached() throws Exception {
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+
+    SynchronizedAccountAccessKey first = SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+    Assert.assertNotNull(first);
+    Assert.assertEquals(1234L, first.getExpiry());
+    Assert.assertEquals(1, AccessKeyCredentialCache.size());
+
+    // A cached credential does not see changes made directly in the database
+    changeExpiry(key, 4321L);
+    long hits = AccessKeyCredentialCache.getHitCount();
+    SynchronizedAccountAccessKey second = SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+    Assert.assertEquals(hits + 1, AccessKeyCredentialCache.getHitCount());
+    Assert.assertEquals(1234L, second.getExpiry());
+    Assert.assertEquals(5678L, second.getLimit());
+    Assert.assertArrayEquals(new byte[] {1}, second.getAccessMask());
+    Assert.assertEquals(testAccount.getAid(), second.getSyncAccount()
+                                                    .getAid());
+
+    // Callers receive copies
+    Assert.assertNotSame(first, second);
+    second.getAccessMask()[0] = 2;
+    Assert.assertArrayEquals(new byte[] {1}, SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                                        .getAccessMask());
+  }
+
+  @Test
+  public void testCheckHashWrongHashNotCached() throws Exception {
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    Assert.assertNull(SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), "badhash"));
+    Assert.assertEquals(0, AccessKeyCredentialCache.size());
+  }
+
+  @Test
+  public void testCheckHashExpires() throws Exception {
+    final long start = OrbitalProperties.getCurrentTime();
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+    OrbitalProperties.setTimeGenerator(() -> start);
+    SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+    changeExpiry(key, 4321L);
+
+    long ttl = OrbitalProperties.getLongGlobalProperty(AccessKeyCredentialCache.PROP_CREDENTIAL_TTL, AccessKeyCredentialCache.DEF_CREDENTIAL_TTL);
+    OrbitalProperties.setTimeGenerator(() -> start + ttl - 1);
+    Assert.assertEquals(1234L, SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                           .getExpiry());
+    OrbitalProperties.setTimeGenerator(() -> start + ttl);
+    Assert.assertEquals(4321L, SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                           .getExpiry());
+  }
+
+  @Test
+  public void testUpdateKeyInvalidates() throws Exception {
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+    SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+
+    SynchronizedAccountAccessKey.updateKey(testAccount, "testkey", "newkey", 4321L, 8765L, new byte[] {2});
+    Assert.assertEquals(0, AccessKeyCredentialCache.size());
+    SynchronizedAccountAccessKey check = SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+    Assert.assertEquals("newkey", check.getKeyName());
+    Assert.assertEquals(4321L, check.getExpiry());
+    Assert.assertEquals(8765L, check.getLimit());
+    Assert.assertArrayEquals(new byte[] {2}, check.getAccessMask());
+  }
+
+  @Test(expected = AccessKeyNotFoundException.class)
+  public void testDeleteKeyInvalidates() throws Exception {
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+    SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+
+    SynchronizedAccountAccessKey.deleteKey(testAccount, key.kid);
+    Assert.assertEquals(0, AccessKeyCredentialCache.size());
+    SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+  }
+
+  @Test
+  public void testRemoveInvalidates() throws Exception {
+    EveKitUserAccount otherUser = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount otherAccount = SynchronizedEveAccount.createSynchronizedEveAccount(otherUser, "otheraccount", true);
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    SynchronizedAccountAccessKey other = SynchronizedAccountAccessKey.createKey(otherAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), SynchronizedAccountAccessKey.generateHash(key));
+    SynchronizedAccountAccessKey.checkHash(other.getAccessKey(), SynchronizedAccountAccessKey.generateHash(other));
+    Assert.assertEquals(2, AccessKeyCredentialCache.size());
+
+    // Only credentials for the removed account are invalidated
+    SynchronizedAccountAccessKey.remove(testAccount);
+    Assert.assertEquals(1, AccessKeyCredentialCache.size());
+    Assert.assertNotNull(SynchronizedAccountAccessKey.checkHash(other.getAccessKey(), SynchronizedAccountAccessKey.generateHash(other)));
+
+    SynchronizedEveAccount.remove(otherAccount);
+    Assert.assertEquals(0, AccessKeyCredentialCache.size());
+  }
+
+  @Test
+  public void testMarkForDeleteInvalidates() throws Exception {
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+    Assert.assertEquals(-1L, SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                         .getSyncAccount()
+                                                         .getMarkedForDelete());
+
+    // Callers see the account is marked for delete on the next check, and again when it is restored
+    SynchronizedEveAccount.deleteAccount(testAccount.getUserAccount(), testAccount.getAid());
+    Assert.assertEquals(0, AccessKeyCredentialCache.size());
+    Assert.assertTrue(SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                  .getSyncAccount()
+                                                  .getMarkedForDelete() > 0);
+    SynchronizedEveAccount.restoreAccount(testAccount.getUserAccount(), testAccount.getAid());
+    Assert.assertEquals(0, AccessKeyCredentialCache.size());
+    Assert.assertEquals(-1L, SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                         .getSyncAccount()
+                                                         .getMarkedForDelete());
+  }
+
+  @Test
+  public void testUserDisableInvalidates() throws Exception {
+    EveKitUserAccount otherUser = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount otherAccount = SynchronizedEveAccount.createSynchronizedEveAccount(otherUser, "otheraccount", true);
+    SynchronizedAccountAccessKey key = SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    SynchronizedAccountAccessKey other = SynchronizedAccountAccessKey.createKey(otherAccount, "testkey", 1234L, 5678L, new byte[] {1});
+    String hash = SynchronizedAccountAccessKey.generateHash(key);
+    SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash);
+    SynchronizedAccountAccessKey.checkHash(other.getAccessKey(), SynchronizedAccountAccessKey.generateHash(other));
+    Assert.assertEquals(2, AccessKeyCredentialCache.size());
+
+    // Only credentials for the disabled user are invalidated
+    EveKitUserAccount user = EveKitUserAccount.getAccount(testAccount.getUserAccount()
+                                                                     .getID());
+    user.setActive(false);
+    EveKitUserAccount.update(user);
+    Assert.assertEquals(1, AccessKeyCredentialCache.size());
+    Assert.assertTrue(SynchronizedAccountAccessKey.checkHash(key.getAccessKey(), hash)
+                                                  .getSyncAccount()
+                                                  .getUserAccount()
+                                                  .isDisabled());
+  }
+
+  @Test
+  public void testCheckHashes() throws Exception {
+    EveKitUserAccount otherUser = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount otherAccount = SynchronizedEveAccount.createSynchronizedEveAccount(otherUser, "otheraccount", true);
+    Map<Long, String> credentials = new HashMap<>();
+    List<SynchronizedAccountAccessKey> keys = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      SynchronizedAccountAccessKey next = SynchronizedAccountAccessKey.createKey(i % 2 == 0 ? testAccount : otherAccount,
+                                                                                 "testkey" + i, 1234L, 5678L, new byte[] {1});
+      keys.add(next);
+      // Give every third key a bad hash
+      credentials.put(next.getAccessKey(), i % 3 == 0 ? "badhash" : SynchronizedAccountAccessKey.generateHash(next));
+    }
+    // Unknown key IDs are ignored
+    credentials.put(-1L, "badhash");
+    // Cached credentials are included
+    SynchronizedAccountAccessKey.checkHash(keys.get(1)
+                                               .getAccessKey(), credentials.get(keys.get(1)
+                                                                                    .getAccessKey()));
+
+    Map<Long, SynchronizedAccountAccessKey> result = SynchronizedAccountAccessKey.checkHashes(credentials);
+    Assert.assertEquals(6, result.size());
+    for (int i = 0; i < 10; i++) {
+      SynchronizedAccountAccessKey next = keys.get(i);
+      if (i % 3 == 0) {
+        Assert.assertFalse(result.containsKey(next.getAccessKey()));
+      } else {
+        SynchronizedAccountAccessKey check = result.get(next.getAccessKey());
+        Assert.assertEquals("testkey" + i, check.getKeyName());
+        Assert.assertEquals((i % 2 == 0 ? testAccount : otherAccount).getAid(), check.getSyncAccount()
+                                                                                     .getAid());
+      }
+    }
+
+    // Verified credentials are now cached
+    Assert.assertEquals(6, AccessKeyCredentialCache.size());
+    changeExpiry(keys.get(2), 4321L);
+    Assert.assertEquals(1234L, SynchronizedAccountAccessKey.checkHashes(credentials)
+                                                           .get(keys.get(2)
+                                                                    .getAccessKey())
+                                                           .getExpiry());
+  }
+
+  @Test
+  public void testCheckHashesEmpty() throws Exception {
+    Assert.assertTrue(SynchronizedAccountAccessKey.checkHashes(new HashMap<>())
+                                                  .isEmpty());
+  }
+
+  // Clear the inline access key value of a key to simulate a key created before the inline column existed
+  private static void clearAccessKeyValue(final SynchronizedAccountAccessKey key) throws IOException {
+    try {
+      EveKitUserAccountProvider.getFactory()
+                               .runTransaction(() -> {
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .createQuery("UPDATE SynchronizedAccountAccessKey c SET c.accessKeyValue = null WHERE c.kid = :kid")
+                                                          .setParameter("kid", key.kid)
+                                                          .executeUpdate();
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .clear();
+                               });
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Test
+  public void testCreateInlineKey() throws Exception {
+    SynchronizedAccountAccessKey legacy = SynchronizedAccountAccessKey.createKey(testAccount, "legacykey", 1234L, 5678L, new byte[] {1}, false);
+    SynchronizedAccountAccessKey inline = SynchronizedAccountAccessKey.createKey(testAccount, "inlinekey", 1234L, 5678L, new byte[] {1}, true);
+    Assert.assertNotNull(legacy.getAccessKeySequence());
+    Assert.assertEquals(legacy.getAccessKeySequence().getValue(), legacy.getAccessKey());
+    Assert.assertNull(inline.getAccessKeySequence());
+    Assert.assertTrue(inline.getAccessKey() > legacy.getAccessKey());
+
+    for (SynchronizedAccountAccessKey next : new SynchronizedAccountAccessKey[] {legacy, inline}) {
+      Assert.assertEquals(next.getKeyName(), SynchronizedAccountAccessKey.getKeyByAccessKey(next.getAccessKey())
+                                                                         .getKeyName());
+      Assert.assertNotNull(SynchronizedAccountAccessKey.checkHash(next.getAccessKey(), SynchronizedAccountAccessKey.generateHash(next)));
+    }
+  }
+
+  @Test
+  public void testInlineToggle() throws Exception {
+    // A value issued through the deprecated create(), which now draws from the allocator as well
+    @SuppressWarnings("deprecation")
+    GeneralSequenceNumber preexisting = GeneralSequenceNumber.create();
+    Assert.assertNotNull(preexisting);
+    Set<Long> seen = new HashSet<>();
+    seen.add(preexisting.getValue());
+
+    // Switch inline access keys on, then off, then on again, creating keys in each mode.  Reset the allocator
+    // between modes so each switch also reserves a fresh block.
+    boolean[] modes = {true, false, true, false};
+    List<SynchronizedAccountAccessKey> created = new ArrayList<>();
+    for (int i = 0; i < modes.length; i++) {
+      AccessKeyAllocator.reset();
+      for (int j = 0; j < 3; j++) {
+        SynchronizedAccountAccessKey next = SynchronizedAccountAccessKey.createKey(testAccount, "key" + i + "_" + j, 1234L, 5678L,
+                                                                                   new byte[] {1}, modes[i]);
+        Assert.assertTrue(seen.add(next.getAccessKey()));
+        if (modes[i]) {
+          Assert.assertNull(next.getAccessKeySequence());
+        } else {
+          Assert.assertEquals(next.getAccessKey(), next.getAccessKeySequence()
+                                                       .getValue());
+        }
+        created.add(next);
+      }
+    }
+
+    for (SynchronizedAccountAccessKey next : created) {
+      Assert.assertTrue(next.getAccessKey() > preexisting.getValue());
+      Assert.assertEquals(next.getKeyName(), SynchronizedAccountAccessKey.getKeyByAccessKey(next.getAccessKey())
+                                                                         .getKeyName());
+      Assert.assertNotNull(SynchronizedAccountAccessKey.checkHash(next.getAccessKey(), SynchronizedAccountAccessKey.generateHash(next)));
+    }
+  }
+
+  @Test
+  public void testAllocatorUnique() throws Exception {
+    Set<Long> seen = new HashSet<>();
+    SynchronizedAccountAccessKey legacy = SynchronizedAccountAccessKey.createKey(testAccount, "legacykey", 1234L, 5678L, new byte[] {1}, false);
+    seen.add(legacy.getAccessKey());
+    for (int i = 0; i < 250; i++) {
+      // Force a new block now and then
+      if (i % 75 == 0) AccessKeyAllocator.reset();
+      long next = AccessKeyAllocator.nextValue();
+      Assert.assertTrue(next > legacy.getAccessKey());
+      Assert.assertTrue(seen.add(next));
+    }
+  }
+
+  @Test
+  public void testAllocatorConcurrent() throws Exception {
+    // Enough values to switch blocks several times while other threads are allocating
+    int threads = 8;
+    int perThread = 2 * (int) AccessKeyAllocator.DEF_BLOCK_SIZE;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<Long>>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(pool.submit(() -> {
+          start.await();
+          List<Long> allocated = new ArrayList<>();
+          for (int j = 0; j < perThread; j++) {
+            allocated.add(AccessKeyAllocator.nextValue());
+          }
+          return allocated;
+        }));
+      }
+      start.countDown();
+      Set<Long> seen = new HashSet<>();
+      for (Future<List<Long>> next : results) {
+        for (Long value : next.get()) {
+          Assert.assertTrue(seen.add(value));
+        }
+      }
+      Assert.assertEquals(threads * perThread, seen.size());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testSequenceBlockConcurrentCreate() throws Exception {
+    // Every thread finds no row for a new sequence and tries to create it
+    final String name = "testSequence" + OrbitalProperties.getCurrentTime();
+    final long size = 10;
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(pool.submit(() -> {
+          start.await();
+          return SequenceBlock.reserve(name, size, 1000L);
+        }));
+      }
+      start.countDown();
+      Set<Long> firsts = new HashSet<>();
+      for (Future<Long> next : results) {
+        long first = next.get();
+        Assert.assertTrue(first >= 1000L);
+        Assert.assertEquals(0, (first - 1000L) % size);
+        Assert.assertTrue(firsts.add(first));
+      }
+      Assert.assertEquals(threads, firsts.size());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testCreateUsesAllocator() throws Exception {
+    // Values from create() and the allocator come from the same blocks, so they never collide
+    Set<Long> seen = new HashSet<>();
+    for (int i = 0; i < 5; i++) {
+      Assert.assertTrue(seen.add(AccessKeyAllocator.nextValue()));
+      GeneralSequenceNumber next = GeneralSequenceNumber.create();
+      Assert.assertNotNull(next);
+      Assert.assertTrue(seen.add(next.getValue()));
+    }
+  }
+
+  @Test
+  public void testMigrateAccessKeyValues() throws Exception {
+    List<SynchronizedAccountAccessKey> keys = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      SynchronizedAccountAccessKey next = SynchronizedAccountAccessKey.createKey(testAccount, "testkey" + i, 1234L, 5678L, new byte[] {1}, false);
+      clearAccessKeyValue(next);
+      keys.add(next);
+    }
+
+    // Unmigrated keys are still found through the legacy join
+    Map<Long, String> credentials = new HashMap<>();
+    for (SynchronizedAccountAccessKey next : keys) {
+      Assert.assertEquals(next.getKeyName(), SynchronizedAccountAccessKey.getKeyByAccessKey(next.getAccessKey())
+                                                                         .getKeyName());
+      credentials.put(next.getAccessKey(), SynchronizedAccountAccessKey.generateHash(next));
+    }
+    Assert.assertEquals(5, SynchronizedAccountAccessKey.checkHashes(credentials)
+                                                       .size());
+
+    Assert.assertEquals(2, SynchronizedAccountAccessKey.migrateAccessKeyValues(2));
+    Assert.assertEquals(3, SynchronizedAccountAccessKey.migrateAccessKeyValues());
+    Assert.assertEquals(0, SynchronizedAccountAccessKey.migrateAccessKeyValues(2));
+
+    // Values and hashes are preserved
+    AccessKeyCredentialCache.clear();
+    for (SynchronizedAccountAccessKey next : keys) {
+      SynchronizedAccountAccessKey check = SynchronizedAccountAccessKey.checkHash(next.getAccessKey(), credentials.get(next.getAccessKey()));
+      Assert.assertNotNull(check);
+      Assert.assertEquals(next.getKeyName(), check.getKeyName());
+      Assert.assertEquals(Long.valueOf(next.getAccessKey()), check.getAccessKeyValue());
+    }
+  }
+
+  @Test
+  public void testConcurrentCreateKeySeedsUnique() throws Exception {
+    // Keys created in the same millisecond used to receive the same seed
+    final long now = OrbitalProperties.getCurrentTime();
+    OrbitalProperties.setTimeGenerator(() -> now);
+    int threads = 8;
+    int perThread = 10;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<SynchronizedAccountAccessKey>>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        final int thread = i;
+        results.add(pool.submit(() -> {
+          start.await();
+          List<SynchronizedAccountAccessKey> created = new ArrayList<>();
+          for (int j = 0; j < perThread; j++) {
+            created.add(SynchronizedAccountAccessKey.createKey(testAccount, "testkey" + thread + "_" + j, 1234L, 5678L, new byte[] {1}));
+          }
+          return created;
+        }));
+      }
+      start.countDown();
+      Set<Long> seeds = new HashSet<>();
+      Set<Long> values = new HashSet<>();
+      for (Future<List<SynchronizedAccountAccessKey>> next : results) {
+        for (SynchronizedAccountAccessKey key : next.get()) {
+          Assert.assertTrue(seeds.add(key.getRandomSeed()));
+          Assert.assertTrue(values.add(key.getAccessKey()));
+        }
+      }
+      Assert.assertEquals(threads * perThread, seeds.size());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+}
@@ -1,5 +1,6 @@
 package enterprises.orbital.evekit.account;
 
+import com.github.scribejava.core.model.OAuth2AccessToken;
 import enterprises.orbital.base.OrbitalProperties;
 import enterprises.orbital.evekit.TestBase;
 import enterprises.orbital.evekit.model.CapsuleerSyncTracker;
@@ -11,8 +12,17 @@ import org.junit.Test;
 
 import javax.persistence.TypedQuery;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SynchronizedEveAccountTest extends TestBase {
 
@@ -356,6 +366,7 @@ public class SynchronizedEveAccountTest extends TestBase {
 
     // Create items typically attached to a sync account: access keys and sync trackers
     int count = TestBase.getRandomInt(2000) + 2000;
+    long syncTrackerCount = count;
     for (int i = 0; i < count; i++) {
       CorporationSyncTracker next = CorporationSyncTracker.createOrGetUnfinishedTracker(testAccount);
       CorporationSyncTracker.finishTracker(next);
@@ -363,6 +374,7 @@ public class SynchronizedEveAccountTest extends TestBase {
     System.out.println("Created CorporationSyncTrackers");
 
     count = TestBase.getRandomInt(2000) + 2000;
+    syncTrackerCount += count;
     for (int i = 0; i < count; i++) {
       CapsuleerSyncTracker next = CapsuleerSyncTracker.createOrGetUnfinishedTracker(testAccount);
       CapsuleerSyncTracker.finishTracker(next);
@@ -387,8 +399,11 @@ public class SynchronizedEveAccountTest extends TestBase {
     }
     System.out.println("Created AccessKeys");
 
-    // Remove and verify proper cleanup
-    SynchronizedEveAccount.remove(testAccount);
+    // Remove and verify proper cleanup.  Use a chunk size which doesn't evenly divide the tracker counts.
+    AccountRemovalReport report = SynchronizedEveAccount.remove(testAccount, 333, null);
+    Assert.assertEquals(syncTrackerCount, report.getPhases()
+                                                .get(0)
+                                                .getRows());
 
     // Account and anything associated with it should be removed
     try {
@@ -405,6 +420,13 @@ public class SynchronizedEveAccountTest extends TestBase {
         return query.getSingleResult();
       });
     Assert.assertEquals(0, remaining);
+    remaining = EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+        TypedQuery<Long> query = EveKitUserAccountProvider.getFactory().getEntityManager()
+            .createQuery("SELECT count(c) FROM ESIEndpointSyncTracker c where c.account= :acct", Long.class);
+        query.setParameter("acct", check);
+        return query.getSingleResult();
+      });
+    Assert.assertEquals(0, remaining);
     remaining = EveKitUserAccountProvider.getFactory().runTransaction(() -> {
         TypedQuery<Long> query = EveKitUserAccountProvider.getFactory().getEntityManager()
             .createQuery("SELECT count(c) FROM SynchronizedAccountAccessKey c where c.account= :acct", Long.class);
@@ -414,4 +436,141 @@ public class SynchronizedEveAccountTest extends TestBase {
     Assert.assertEquals(0, remaining);
   }
 
+  @Test
+  public void testRemoveAccountReport() throws IOException, AccountCreationException, AccessKeyCreationException {
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount testAccount = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    for (int i = 0; i < 7; i++) {
+      CapsuleerSyncTracker.finishTracker(CapsuleerSyncTracker.createOrGetUnfinishedTracker(testAccount));
+    }
+    for (int i = 0; i < 5; i++) {
+      ESIEndpointSyncTracker.finishTracker(
+          ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS, 1234L, null));
+    }
+    SynchronizedAccountAccessKey.createKey(testAccount, "testkey", 1234L, 5678L, new byte[] {1});
+
+    List<Long> chunks = new ArrayList<>();
+    AccountRemovalReport report = SynchronizedEveAccount.remove(testAccount, 3, (aid, phase, rows) -> chunks.add(rows));
+    Assert.assertEquals(testAccount.getAid(), report.getAid());
+    Assert.assertEquals(4, report.getPhases().size());
+    Assert.assertEquals(7, report.getPhases().get(0).getRows());
+    Assert.assertEquals(5, report.getPhases().get(1).getRows());
+    Assert.assertEquals(1, report.getPhases().get(2).getRows());
+    Assert.assertEquals(1, report.getPhases().get(3).getRows());
+    Assert.assertEquals(14, report.getTotalRows());
+    // 3 + 3 + 1 sync trackers, 3 + 2 ESI trackers, 1 key, 1 account
+    Assert.assertEquals(Arrays.asList(3L, 3L, 1L, 3L, 2L, 1L, 1L), chunks);
+  }
+
+  private static SynchronizedEveAccount createExpiringAccount(EveKitUserAccount userAccount, String name, long charID)
+      throws AccountCreationException, AccountUpdateException, AccountNotFoundException, IOException {
+    SynchronizedEveAccount acct = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, name, true);
+    long soon = OrbitalProperties.getCurrentTime() + TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+    return SynchronizedEveAccount.setESICredential(userAccount, acct.getAid(), "abcd", soon, "efgh", "scope_list",
+                                                   charID, "charname", 8765, "corpname");
+  }
+
+  @Test
+  public void testConcurrentRefreshSingleFlight() throws Exception {
+    final int callers = 8;
+    final long window = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    SynchronizedEveAccount acct = createExpiringAccount(userAccount, "testaccount", 5678);
+
+    // Stub SSO holds the refresh until every caller has started.  Callers which haven't yet claimed the
+    // refresh when it completes must find the refreshed token rather than calling SSO again.
+    CountDownLatch started = new CountDownLatch(callers);
+    AtomicInteger calls = new AtomicInteger(0);
+    SynchronizedEveAccount.TokenSource stub = rToken -> {
+      calls.incrementAndGet();
+      Assert.assertEquals("efgh", rToken);
+      Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+      return new OAuth2AccessToken("newtoken", "Bearer", 3600, "newrefresh", "scope_list", null);
+    };
+    Semaphore permits = new Semaphore(callers, true);
+
+    // Each caller refreshes its own copy of the account, as separate requests would
+    List<SynchronizedEveAccount> copies = new ArrayList<>();
+    for (int i = 0; i < callers; i++) {
+      copies.add(SynchronizedEveAccount.getSynchronizedAccount(userAccount, acct.getAid(), false));
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(callers);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (SynchronizedEveAccount next : copies) {
+        results.add(pool.submit(() -> {
+          started.countDown();
+          return next.refreshToken(window, stub, permits);
+        }));
+      }
+      for (Future<String> next : results) {
+        Assert.assertEquals("newtoken", next.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    Assert.assertEquals(1, calls.get());
+    Assert.assertEquals(callers, permits.availablePermits());
+    SynchronizedEveAccount stored = SynchronizedEveAccount.getSynchronizedAccount(userAccount, acct.getAid(), false);
+    Assert.assertEquals("newtoken", stored.getAccessToken());
+    Assert.assertEquals("newrefresh", stored.getRefreshToken());
+  }
+
+  @Test
+  public void testConcurrentRefreshLimit() throws Exception {
+    final int accounts = 5;
+    final int limit = 2;
+    final long window = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    List<SynchronizedEveAccount> accts = new ArrayList<>();
+    for (int i = 0; i < accounts; i++) {
+      accts.add(createExpiringAccount(userAccount, "testaccount" + i, 5678 + i));
+    }
+
+    // Stub SSO blocks until released and records the largest number of refreshes in progress at once
+    AtomicInteger active = new AtomicInteger(0);
+    AtomicInteger maxActive = new AtomicInteger(0);
+    AtomicInteger calls = new AtomicInteger(0);
+    CountDownLatch release = new CountDownLatch(1);
+    SynchronizedEveAccount.TokenSource stub = rToken -> {
+      calls.incrementAndGet();
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } finally {
+        active.decrementAndGet();
+      }
+      return new OAuth2AccessToken("newtoken", "Bearer", 3600, "newrefresh", "scope_list", null);
+    };
+    Semaphore permits = new Semaphore(limit, true);
+
+    ExecutorService pool = Executors.newFixedThreadPool(accounts);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (SynchronizedEveAccount next : accts) {
+        results.add(pool.submit(() -> next.refreshToken(window, stub, permits)));
+      }
+
+      // Wait for the limit to be reached, then give the remaining callers a chance to exceed it
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+      while (active.get() < limit && System.currentTimeMillis() < deadline) Thread.sleep(10);
+      Thread.sleep(200);
+      Assert.assertEquals(limit, active.get());
+      Assert.assertEquals(0, permits.availablePermits());
+
+      release.countDown();
+      for (Future<String> next : results) {
+        Assert.assertEquals("newtoken", next.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      release.countDown();
+      pool.shutdownNow();
+    }
+
+    Assert.assertEquals(accounts, calls.get());
+    Assert.assertEquals(limit, maxActive.get());
+    Assert.assertEquals(limit, permits.availablePermits());
+  }
+
 }
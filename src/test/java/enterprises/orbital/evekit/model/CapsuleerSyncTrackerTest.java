@@ -12,7 +12,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.persistence.TypedQuery;
 import java.io.IOException;
+import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -166,4 +169,169 @@ public class CapsuleerSyncTrackerTest extends TestBase {
     List<CapsuleerSyncTracker> results = CapsuleerSyncTracker.getAllUnfinishedTrackers();
     Assert.assertEquals(0, results.size());
   }
+
+  @SuppressWarnings("Duplicates")
+  @Test
+  public void testPackedStateStored() throws IOException, ExecutionException {
+    CapsuleerSyncTracker existing;
+
+    // Populate an existing unfinished tracker.
+    existing = EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+      CapsuleerSyncTracker result = new CapsuleerSyncTracker();
+      result.account = testAccount;
+      result.syncStart = OrbitalProperties.getCurrentTime();
+      result.setFinished(false);
+      return EveKitUserAccountProvider.getFactory().getEntityManager().merge(result);
+    });
+
+    // Update through setState, which writes both the columns and the packed vector.
+    existing.setState(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE, SyncState.UPDATED, "test detail");
+    existing.setState(SynchronizationState.SYNC_CHAR_ASSETLIST, SyncState.SYNC_ERROR, null);
+    SyncTracker.updateTracker(existing);
+
+    CapsuleerSyncTracker result = CapsuleerSyncTracker.getUnfinishedTracker(testAccount);
+    Assert.assertNotNull(result.packedState);
+    Assert.assertEquals(SyncState.UPDATED, result.getAccountBalanceStatus());
+    Assert.assertEquals("test detail", result.getAccountBalanceDetail());
+    Assert.assertEquals(SyncState.UPDATED, result.getStatus(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE));
+    Assert.assertEquals(SyncState.SYNC_ERROR, result.getStatus(SynchronizationState.SYNC_CHAR_ASSETLIST));
+    Assert.assertEquals(SyncState.NOT_PROCESSED, result.getStatus(SynchronizationState.SYNC_CHAR_WALLETJOURNAL));
+    Assert.assertEquals(result.buildStateVector(), SyncStateVector.decode(result.packedState));
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS,
+                        result.trackerComplete(EnumSet.of(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE,
+                                                            SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS)));
+  }
+
+  @SuppressWarnings("Duplicates")
+  @Test
+  public void testMigratePackedState() throws IOException, ExecutionException {
+    // Populate a finished and an unfinished tracker with only the per-state columns set, as stored before the
+    // packed vector existed.
+    long start = OrbitalProperties.getCurrentTime();
+    EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+      CapsuleerSyncTracker finished = new CapsuleerSyncTracker();
+      finished.account = testAccount;
+      finished.syncStart = start;
+      finished.setSyncEnd(start + 1);
+      finished.setFinished(true);
+      finished.setSkillsStatus(SyncState.UPDATED);
+      finished.setSkillsDetail("legacy detail");
+      EveKitUserAccountProvider.getFactory().getEntityManager().merge(finished);
+      CapsuleerSyncTracker unfinished = new CapsuleerSyncTracker();
+      unfinished.account = testAccount;
+      unfinished.syncStart = start;
+      unfinished.setFinished(false);
+      unfinished.setSkillsStatus(SyncState.SYNC_ERROR);
+      return EveKitUserAccountProvider.getFactory().getEntityManager().merge(unfinished);
+    });
+    EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+      EveKitUserAccountProvider.getFactory().getEntityManager().createQuery("UPDATE SyncTracker c SET c.packedState = null")
+          .executeUpdate();
+    });
+    Assert.assertNull(CapsuleerSyncTracker.getLatestFinishedTracker(testAccount).packedState);
+
+    // Migrate and verify the vector matches the columns.  The unfinished tracker is left alone.
+    Assert.assertEquals(1, SyncTracker.migratePackedState(10));
+    Assert.assertEquals(0, SyncTracker.migratePackedState(10));
+    CapsuleerSyncTracker result = CapsuleerSyncTracker.getLatestFinishedTracker(testAccount);
+    SyncStateVector vector = SyncStateVector.decode(result.packedState);
+    Assert.assertEquals(SyncState.UPDATED, vector.getStatus(SynchronizationState.SYNC_CHAR_SKILLS));
+    Assert.assertEquals("legacy detail", vector.getDetail(SynchronizationState.SYNC_CHAR_SKILLS));
+    Assert.assertEquals(SyncState.NOT_PROCESSED, vector.getStatus(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS));
+    CapsuleerSyncTracker unfinished = CapsuleerSyncTracker.getUnfinishedTracker(testAccount);
+    Assert.assertNull(unfinished.packedState);
+    Assert.assertEquals(SyncState.SYNC_ERROR, unfinished.getStatus(SynchronizationState.SYNC_CHAR_SKILLS));
+  }
+
+  @SuppressWarnings("Duplicates")
+  @Test
+  public void testPackedStateOnly() throws IOException, ExecutionException {
+    SyncTracker.setPackedStateOnly(true);
+    try {
+      CapsuleerSyncTracker existing = EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+        CapsuleerSyncTracker result = new CapsuleerSyncTracker();
+        result.account = testAccount;
+        result.syncStart = OrbitalProperties.getCurrentTime();
+        result.setFinished(false);
+        return EveKitUserAccountProvider.getFactory().getEntityManager().merge(result);
+      });
+
+      // State changes don't encode the vector, that only happens when the tracker is written
+      byte[] stored = existing.packedState;
+      existing.setState(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE, SyncState.UPDATED, "test detail");
+      existing.setSkillsStatus(SyncState.SYNC_ERROR);
+      Assert.assertSame(stored, existing.packedState);
+      existing = SyncTracker.updateTracker(existing);
+
+      // Legacy columns are not written
+      Object[] columns = EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+        TypedQuery<Object[]> getter = EveKitUserAccountProvider.getFactory().getEntityManager()
+            .createQuery("SELECT c.accountBalanceStatus, c.accountBalanceDetail, c.skillsStatus, c.walletJournalStatus FROM CapsuleerSyncTracker c where c.account = :account",
+                         Object[].class);
+        getter.setParameter("account", testAccount);
+        return getter.getSingleResult();
+      });
+      for (Object next : columns) {
+        Assert.assertNull(next);
+      }
+
+      CapsuleerSyncTracker result = CapsuleerSyncTracker.getUnfinishedTracker(testAccount);
+      Assert.assertEquals(existing, result);
+      Assert.assertEquals(SyncState.UPDATED, result.getAccountBalanceStatus());
+      Assert.assertEquals("test detail", result.getAccountBalanceDetail());
+      Assert.assertEquals(SyncState.SYNC_ERROR, result.getSkillsStatus());
+      Assert.assertEquals(SyncState.NOT_PROCESSED, result.getWalletJournalStatus());
+
+      // Error summaries read the packed vector
+      long dayLength = TimeUnit.DAYS.toMillis(1);
+      long dayStart = (OrbitalProperties.getCurrentTime() / dayLength - 2) * dayLength;
+      makeFinishedTracker(dayStart + TimeUnit.HOURS.toMillis(1), SyncState.SYNC_ERROR, SyncState.UPDATED, "timeout");
+      makeFinishedTracker(dayStart + TimeUnit.HOURS.toMillis(2), SyncState.UPDATED, SyncState.UPDATED, null);
+      SyncErrorSummary summary = CapsuleerSyncTracker.getErrorSummary(new Date(dayStart + TimeUnit.HOURS.toMillis(12)));
+      Assert.assertEquals(1, summary.getTrackerCount());
+      Assert.assertEquals(1, summary.getErrorCount());
+      Assert.assertEquals(1, summary.getCount("skills", "timeout"));
+    } finally {
+      SyncTracker.setPackedStateOnly(null);
+    }
+  }
+
+  private CapsuleerSyncTracker makeFinishedTracker(long start, SyncState skills, SyncState walletJournal, String detail)
+      throws IOException, ExecutionException {
+    return EveKitUserAccountProvider.getFactory().runTransaction(() -> {
+      CapsuleerSyncTracker result = new CapsuleerSyncTracker();
+      result.account = testAccount;
+      result.syncStart = start;
+      result.setSyncEnd(start + TimeUnit.MINUTES.toMillis(5));
+      result.setFinished(true);
+      result.setState(SynchronizationState.SYNC_CHAR_SKILLS, skills, detail);
+      result.setState(SynchronizationState.SYNC_CHAR_WALLETJOURNAL, walletJournal, detail);
+      return EveKitUserAccountProvider.getFactory().getEntityManager().merge(result);
+    });
+  }
+
+  @Test
+  public void testSummarizeErrors() throws IOException, ExecutionException {
+    long dayLength = TimeUnit.DAYS.toMillis(1);
+    long dayStart = (OrbitalProperties.getCurrentTime() / dayLength - 2) * dayLength;
+    long hour = TimeUnit.HOURS.toMillis(1);
+
+    // Two errors on one tracker, one on another, plus a clean tracker and an error on the next day
+    makeFinishedTracker(dayStart + hour, SyncState.SYNC_ERROR, SyncState.SYNC_ERROR, "timeout");
+    makeFinishedTracker(dayStart + 2 * hour, SyncState.SYNC_ERROR, SyncState.UPDATED, "forbidden");
+    makeFinishedTracker(dayStart + 3 * hour, SyncState.UPDATED, SyncState.UPDATED, null);
+    makeFinishedTracker(dayStart + dayLength + hour, SyncState.SYNC_ERROR, SyncState.UPDATED, "timeout");
+
+    SyncErrorSummary summary = CapsuleerSyncTracker.getErrorSummary(new Date(dayStart + 12 * hour));
+    Assert.assertEquals(2, summary.getTrackerCount());
+    Assert.assertEquals(3, summary.getErrorCount());
+    Assert.assertEquals(1, summary.getCount("skills", "timeout"));
+    Assert.assertEquals(1, summary.getCount("skills", "forbidden"));
+    Assert.assertEquals(1, summary.getCount("walletJournal", "timeout"));
+    Assert.assertEquals(2, summary.getErrors().size());
+    Assert.assertTrue(CapsuleerSyncTracker.summarizeErrors(new Date(dayStart + 12 * hour)).contains("3 errors"));
+
+    // Summary query returns all finished trackers started on or after the given date
+    Assert.assertEquals(3, CapsuleerSyncTracker.getSummary(new Date(dayStart + 2 * hour)).size());
+  }
 }
@@ -0,0 +1,99 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.base.OrbitalProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ESIEndpointSyncHealthTest {
+  private static final long HOUR = TimeUnit.MILLISECONDS.convert(1, TimeUnit.HOURS);
+
+  private long testTime;
+
+  @Before
+  public void setUp() {
+    testTime = 1000 * HOUR + HOUR / 2;
+    OrbitalProperties.setTimeGenerator(() -> testTime);
+    ESIEndpointSyncHealth.reset(4);
+  }
+
+  @After
+  public void tearDown() {
+    OrbitalProperties.setTimeGenerator(null);
+  }
+
+  private static void finish(ESISyncEndpoint endpoint, ESISyncState status, long scheduled, long start, long end) {
+    ESIEndpointSyncTracker tracker = new ESIEndpointSyncTracker();
+    tracker.endpoint = endpoint;
+    tracker.scheduled = scheduled;
+    tracker.syncStart = start;
+    tracker.setSyncEnd(end);
+    tracker.setStatus(status);
+    ESIEndpointSyncHealth.record(tracker);
+  }
+
+  @Test
+  public void testCountsAndHistograms() {
+    ESISyncEndpoint endpoint = ESISyncEndpoint.values()[0];
+    finish(endpoint, ESISyncState.FINISHED, testTime - 3000, testTime - 2000, testTime);
+    finish(endpoint, ESISyncState.FINISHED, testTime - 3000, testTime - 1000, testTime);
+    finish(endpoint, ESISyncState.WARNING, testTime - 5000, testTime - 5000, testTime);
+    finish(endpoint, ESISyncState.ERROR, testTime - HOUR, testTime - HOUR, testTime - HOUR);
+
+    ESIEndpointSyncHealth.EndpointHealth health = ESIEndpointSyncHealth.getHealth(endpoint);
+    Assert.assertEquals(2, health.getFinished());
+    Assert.assertEquals(1, health.getWarning());
+    Assert.assertEquals(1, health.getError());
+    Assert.assertEquals(4, health.getRunTime()
+                              .getCount());
+    Assert.assertEquals(5000, health.getRunTime()
+                                    .getMax());
+    Assert.assertEquals(2000, health.getStartLag()
+                                    .getMax());
+    // Percentiles are estimated by bucket upper bound
+    Assert.assertEquals(100, health.getStartLag()
+                                   .getPercentile(50));
+    Assert.assertEquals(2000, health.getStartLag()
+                                    .getPercentile(100));
+
+    // Only the current hour
+    health = ESIEndpointSyncHealth.getHealth(endpoint, 1);
+    Assert.assertEquals(0, health.getError());
+    Assert.assertEquals(3, health.getRunTime()
+                              .getCount());
+
+    // Other endpoints are unaffected
+    Assert.assertEquals(0, ESIEndpointSyncHealth.getHealth(ESISyncEndpoint.values()[1])
+                                                .getFinished());
+  }
+
+  @Test
+  public void testWindowExpiry() {
+    ESISyncEndpoint endpoint = ESISyncEndpoint.values()[0];
+    finish(endpoint, ESISyncState.FINISHED, testTime, testTime, testTime);
+
+    // Still visible three hours later, gone once the bucket leaves the four hour window
+    testTime += 3 * HOUR;
+    Assert.assertEquals(1, ESIEndpointSyncHealth.getHealth(endpoint)
+                                                .getFinished());
+    ESIEndpointSyncHealth.EndpointHealth[] hourly = ESIEndpointSyncHealth.getHourlyHealth(endpoint);
+    Assert.assertEquals(4, hourly.length);
+    Assert.assertEquals(1, hourly[0].getFinished());
+    Assert.assertEquals(0, hourly[3].getFinished());
+
+    testTime += HOUR;
+    Assert.assertEquals(0, ESIEndpointSyncHealth.getHealth(endpoint)
+                                                .getFinished());
+
+    // A new record reusing the slot replaces the old bucket, and late records for expired hours are dropped
+    finish(endpoint, ESISyncState.ERROR, testTime, testTime, testTime);
+    finish(endpoint, ESISyncState.ERROR, testTime - 4 * HOUR, testTime - 4 * HOUR, testTime - 4 * HOUR);
+    ESIEndpointSyncHealth.EndpointHealth health = ESIEndpointSyncHealth.getHealth(endpoint);
+    Assert.assertEquals(0, health.getFinished());
+    Assert.assertEquals(1, health.getError());
+  }
+
+}
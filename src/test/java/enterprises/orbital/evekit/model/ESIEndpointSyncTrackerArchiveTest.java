@@ -0,0 +1,215 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.base.OrbitalProperties;
+import enterprises.orbital.evekit.TestBase;
+import enterprises.orbital.evekit.account.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+public class ESIEndpointSyncTrackerArchiveTest extends TestBase {
+
+  public EveKitUserAccount userAccount;
+  public SynchronizedEveAccount testAccount;
+
+  @Override
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    try {
+      testAccount = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    } catch (AccountCreationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException {
+    OrbitalProperties.setTimeGenerator(null);
+    // Remove all trackers after each test
+    try {
+      EveKitUserAccountProvider.getFactory()
+                               .runTransaction(() -> {
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .createQuery("DELETE FROM ESIEndpointSyncTracker")
+                                                          .executeUpdate();
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .createQuery("DELETE FROM ESIEndpointSyncTrackerArchive")
+                                                          .executeUpdate();
+                               });
+    } catch (ExecutionException e) {
+      throw new IOException(e);
+    }
+    super.tearDown();
+  }
+
+  // Create finished trackers with start times 1000, 1001, ... and end times 2000, 2001, ...
+  private void createFinishedTrackers(int count) throws IOException, ExecutionException {
+    for (int i = 0; i < count; i++) {
+      createFinishedTracker(1000L + i, 2000L + i);
+    }
+  }
+
+  private void createFinishedTracker(long start, long end) throws IOException, ExecutionException {
+    EveKitUserAccountProvider.getFactory()
+                             .runTransaction(() -> {
+                               ESIEndpointSyncTracker temp = new ESIEndpointSyncTracker();
+                               temp.account = testAccount;
+                               temp.endpoint = ESISyncEndpoint.CHAR_ASSETS;
+                               temp.scheduled = start;
+                               temp.syncStart = start;
+                               temp.syncEnd = end;
+                               temp.setStatus(ESISyncState.FINISHED);
+                               temp.setContext("context");
+                               return EveKitUserAccountProvider.getFactory()
+                                                               .getEntityManager()
+                                                               .merge(temp);
+                             });
+  }
+
+  @Test
+  public void testArchiveInBatches() throws IOException, ExecutionException {
+    createFinishedTrackers(5);
+    // An unfinished tracker should never be archived
+    ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS, 1234L, null);
+
+    Assert.assertEquals(1, ESIEndpointSyncTrackerArchive.archive(2003L, 1));
+    Assert.assertEquals(2, ESIEndpointSyncTrackerArchive.archive(2003L, 2));
+    Assert.assertEquals(0, ESIEndpointSyncTrackerArchive.archive(2003L, 2));
+
+    long hot = EveKitUserAccountProvider.getFactory()
+                                        .runTransaction(() -> EveKitUserAccountProvider.getFactory()
+                                                                                       .getEntityManager()
+                                                                                       .createQuery(
+                                                                                           "SELECT count(c) FROM ESIEndpointSyncTracker c",
+                                                                                           Long.class)
+                                                                                       .getSingleResult());
+    Assert.assertEquals(3, hot);
+    Assert.assertEquals(1, ESIEndpointSyncTracker.getAllUnfinishedTrackers(testAccount)
+                                                 .size());
+  }
+
+  @Test
+  public void testHistorySpansArchive() throws IOException, ExecutionException, TrackerNotFoundException {
+    createFinishedTrackers(5);
+    ESIEndpointSyncTrackerArchive.archive(2003L, 10);
+
+    // Short pages are served from the hot table
+    List<ESIEndpointSyncTracker> history = ESIEndpointSyncTracker.getHistory(testAccount, ESISyncEndpoint.CHAR_ASSETS, -1, 2);
+    Assert.assertEquals(2, history.size());
+    Assert.assertEquals(1004L, history.get(0)
+                                      .getSyncStart());
+    Assert.assertEquals(1003L, history.get(1)
+                                      .getSyncStart());
+
+    // Longer or older ranges include archived trackers
+    history = ESIEndpointSyncTracker.getAllHistory(testAccount, -1, 10);
+    Assert.assertEquals(5, history.size());
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(1004L - i, history.get(i)
+                                            .getSyncStart());
+      Assert.assertEquals(testAccount, history.get(i)
+                                              .getAccount());
+      Assert.assertEquals(ESISyncState.FINISHED, history.get(i)
+                                                        .getStatus());
+    }
+    history = ESIEndpointSyncTracker.getAllSiteHistory(ESISyncEndpoint.CHAR_ASSETS, 1002L, 10);
+    Assert.assertEquals(2, history.size());
+    Assert.assertEquals(1001L, history.get(0)
+                                      .getSyncStart());
+    Assert.assertEquals(2, ESIEndpointSyncTracker.getAllSiteHistory(1002L, 10)
+                                                 .size());
+
+    // Latest finished falls back to the archive once everything is archived
+    ESIEndpointSyncTrackerArchive.archive(Long.MAX_VALUE, 10);
+    Assert.assertEquals(2004L, ESIEndpointSyncTracker.getLatestFinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS)
+                                                     .getSyncEnd());
+    Assert.assertEquals(2004L, ESIEndpointSyncTracker.getAnyLatestFinishedTracker(testAccount)
+                                                     .getSyncEnd());
+  }
+
+  @Test
+  public void testHistoryMergesArchivedRange() throws IOException, ExecutionException {
+    // A long running tracker which started before the archived trackers but is still hot
+    createFinishedTrackers(5);
+    createFinishedTracker(990L, 5000L);
+    ESIEndpointSyncTrackerArchive.archive(2003L, 10);
+
+    // The hot table alone would return 1004, 1003, 990 since 1002 has been archived
+    List<ESIEndpointSyncTracker> history = ESIEndpointSyncTracker.getHistory(testAccount, ESISyncEndpoint.CHAR_ASSETS, -1, 3);
+    Assert.assertEquals(3, history.size());
+    Assert.assertEquals(1004L, history.get(0)
+                                      .getSyncStart());
+    Assert.assertEquals(1003L, history.get(1)
+                                      .getSyncStart());
+    Assert.assertEquals(1002L, history.get(2)
+                                      .getSyncStart());
+    Assert.assertEquals(1002L, ESIEndpointSyncTracker.getAllSiteHistory(-1, 3)
+                                                     .get(2)
+                                                     .getSyncStart());
+  }
+
+  @Test
+  public void testFullPageSkipsArchive() throws IOException, ExecutionException {
+    // Same layout as testHistoryMergesArchivedRange, shifted past an archive cutoff of 2500
+    for (int i = 0; i < 5; i++) {
+      createFinishedTracker(3000L + i, 4000L + i);
+    }
+    createFinishedTracker(2990L, 5000L);
+    // Archive with a later cutoff than archiveExpired would use, so we can tell whether the archive was queried
+    ESIEndpointSyncTrackerArchive.archive(4003L, 10);
+    OrbitalProperties.setTimeGenerator(() -> 2500L + ESIEndpointSyncTrackerArchive.DEF_RETENTION_AGE);
+
+    // Full hot page starting after the cutoff, the archive is not queried
+    List<ESIEndpointSyncTracker> history = ESIEndpointSyncTracker.getHistory(testAccount, ESISyncEndpoint.CHAR_ASSETS, -1, 3);
+    Assert.assertEquals(3, history.size());
+    Assert.assertEquals(2990L, history.get(2)
+                                      .getSyncStart());
+
+    // Short pages still include the archive
+    Assert.assertEquals(6, ESIEndpointSyncTracker.getAllHistory(testAccount, -1, 10)
+                                                 .size());
+
+    // Once the cutoff passes the page, the archived range is merged in again
+    OrbitalProperties.setTimeGenerator(() -> 4500L + ESIEndpointSyncTrackerArchive.DEF_RETENTION_AGE);
+    history = ESIEndpointSyncTracker.getHistory(testAccount, ESISyncEndpoint.CHAR_ASSETS, -1, 3);
+    Assert.assertEquals(3002L, history.get(2)
+                                      .getSyncStart());
+  }
+
+  @Test
+  public void testStreamSpansArchive() throws IOException, ExecutionException {
+    createFinishedTrackers(5);
+    createFinishedTracker(990L, 5000L);
+    ESIEndpointSyncTrackerArchive.archive(2003L, 10);
+
+    // Small pages so the hot table runs out part way through the stream
+    long[] expected = {1004L, 1003L, 1002L, 1001L, 1000L, 990L};
+    List<ESIEndpointSyncTracker> streamed = ESIEndpointSyncTracker.streamHistory(
+        "ESIEndpointSyncTracker.getAllHistoryPage", "ESIEndpointSyncTrackerArchive.getAllHistoryPage", -1, 2,
+        getter -> getter.setParameter("account", testAccount))
+                                                                  .collect(Collectors.toList());
+    Assert.assertEquals(expected.length, streamed.size());
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], streamed.get(i)
+                                               .getSyncStart());
+    }
+
+    // The public streams include the archive as well
+    Assert.assertEquals(6, ESIEndpointSyncTracker.streamHistory(testAccount, ESISyncEndpoint.CHAR_ASSETS, -1)
+                                                 .count());
+    Assert.assertEquals(2, ESIEndpointSyncTracker.streamAllSiteHistory(ESISyncEndpoint.CHAR_ASSETS, 1001L)
+                                                 .count());
+  }
+
+}
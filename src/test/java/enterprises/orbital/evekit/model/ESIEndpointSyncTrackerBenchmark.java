@@ -0,0 +1,210 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.evekit.TestBase;
+import enterprises.orbital.evekit.account.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Rough per-query latency for tracker lookups against a large tracker table, with and without the composite
+ * account indexes, and throughput of concurrent unfinished tracker queries.  Row and account counts can be set
+ * with the benchmark.trackers and benchmark.accounts system properties.  These report latencies rather than asserting them since timing depends on the machine and test
+ * database, so they are excluded from the normal test run.  Remove the Ignore annotation to run them locally.
+ */
+@Ignore("Benchmark, run manually")
+public class ESIEndpointSyncTrackerBenchmark extends TestBase {
+  private static final Logger log = Logger.getLogger(ESIEndpointSyncTrackerBenchmark.class.getName());
+
+  // Composite indexes dropped for the "before" measurements, and how to recreate them afterwards
+  private static final String[][] COMPOSITE_INDEXES = {
+      {"accountEndpointEndIndex", "aid, endpoint, syncEnd"},
+      {"accountEndScheduledIndex", "aid, syncEnd, scheduled"},
+      };
+
+  private final List<SynchronizedEveAccount> accounts = new ArrayList<>();
+
+  @Override
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    EveKitUserAccount userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    int accountCount = Integer.getInteger("benchmark.accounts", 100);
+    try {
+      for (int i = 0; i < accountCount; i++)
+        accounts.add(SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount" + i, true));
+    } catch (AccountCreationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException {
+    try {
+      EveKitUserAccountProvider.getFactory()
+                               .runTransaction(() -> {
+                                 EveKitUserAccountProvider.getFactory()
+                                                          .getEntityManager()
+                                                          .createQuery("DELETE FROM ESIEndpointSyncTracker")
+                                                          .executeUpdate();
+                               });
+    } catch (ExecutionException e) {
+      throw new IOException(e);
+    }
+    super.tearDown();
+  }
+
+  // Seed finished history for every account plus one unfinished tracker per account and endpoint
+  private void seed(int count) throws ExecutionException {
+    ESISyncEndpoint[] endpoints = ESISyncEndpoint.values();
+    int batch = 10000;
+    for (int done = 0; done < count; done += batch) {
+      final int first = done;
+      final int last = Math.min(count, done + batch);
+      EveKitUserAccountProvider.getFactory()
+                               .runTransaction(() -> {
+                                 EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                             .getEntityManager();
+                                 for (int i = first; i < last; i++) {
+                                   ESIEndpointSyncTracker next = new ESIEndpointSyncTracker();
+                                   next.account = accounts.get(i % accounts.size());
+                                   next.endpoint = endpoints[(i / accounts.size()) % endpoints.length];
+                                   next.scheduled = i;
+                                   next.syncStart = i;
+                                   next.syncEnd = i + 1;
+                                   em.persist(next);
+                                   if (i % 1000 == 0) {
+                                     em.flush();
+                                     em.clear();
+                                   }
+                                 }
+                               });
+    }
+    EveKitUserAccountProvider.getFactory()
+                             .runTransaction(() -> {
+                               EntityManager em = EveKitUserAccountProvider.getFactory()
+                                                                           .getEntityManager();
+                               for (SynchronizedEveAccount account : accounts) {
+                                 for (ESISyncEndpoint endpoint : endpoints) {
+                                   ESIEndpointSyncTracker next = new ESIEndpointSyncTracker();
+                                   next.account = account;
+                                   next.endpoint = endpoint;
+                                   next.scheduled = count;
+                                   em.persist(next);
+                                 }
+                               }
+                             });
+  }
+
+  private static void execute(String sql) throws ExecutionException {
+    EveKitUserAccountProvider.getFactory()
+                             .runTransaction(() -> {
+                               EveKitUserAccountProvider.getFactory()
+                                                        .getEntityManager()
+                                                        .createNativeQuery(sql)
+                                                        .executeUpdate();
+                             });
+  }
+
+  private interface Lookup {
+    void run(SynchronizedEveAccount account, ESISyncEndpoint endpoint) throws Exception;
+  }
+
+  // Average latency in microseconds of a lookup against random accounts and endpoints
+  private long latency(Lookup lookup, int count) throws Exception {
+    Random gen = new Random(0);
+    ESISyncEndpoint[] endpoints = ESISyncEndpoint.values();
+    // Warm up
+    for (int i = 0; i < count / 10; i++)
+      lookup.run(accounts.get(gen.nextInt(accounts.size())), endpoints[gen.nextInt(endpoints.length)]);
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++)
+      lookup.run(accounts.get(gen.nextInt(accounts.size())), endpoints[gen.nextInt(endpoints.length)]);
+    return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / count;
+  }
+
+  private void report(String label, int count) throws Exception {
+    log.info(label + " getUnfinishedTracker usec: " + latency((a, e) -> Assert.assertNotNull(
+        ESIEndpointSyncTracker.getUnfinishedTracker(a, e)), count));
+    log.info(label + " getAllUnfinishedTrackers usec: " + latency((a, e) -> Assert.assertFalse(
+        ESIEndpointSyncTracker.getAllUnfinishedTrackers(a)
+                              .isEmpty()), count));
+    log.info(label + " getLatestFinishedTracker usec: " + latency((a, e) -> Assert.assertNotNull(
+        ESIEndpointSyncTracker.getLatestFinishedTracker(a, e)), count));
+    log.info(label + " getAnyLatestFinishedTracker usec: " + latency((a, e) -> Assert.assertNotNull(
+        ESIEndpointSyncTracker.getAnyLatestFinishedTracker(a)), count));
+    log.info(label + " getHistory usec: " + latency((a, e) -> ESIEndpointSyncTracker.getHistory(a, e, -1, 100), count));
+    log.info(label + " getAllHistory usec: " + latency((a, e) -> ESIEndpointSyncTracker.getAllHistory(a, -1, 100), count));
+  }
+
+  @Test
+  public void benchAccountLookups() throws Exception {
+    int trackers = Integer.getInteger("benchmark.trackers", 1000000);
+    int count = 1000;
+    long start = System.nanoTime();
+    seed(trackers);
+    log.info("Seeded " + trackers + " trackers in " + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + " sec");
+
+    report("With composite indexes", count);
+    for (String[] next : COMPOSITE_INDEXES)
+      execute("DROP INDEX " + next[0]);
+    try {
+      report("Without composite indexes", count);
+    } finally {
+      for (String[] next : COMPOSITE_INDEXES)
+        execute("CREATE INDEX " + next[0] + " ON evekit_esi_sync_tracker (" + next[1] + ")");
+    }
+  }
+
+  @Test
+  public void benchConcurrentUnfinishedQueries() throws Exception {
+    // Each thread queries unfinished trackers for its own accounts, so throughput should scale with threads
+    seed(0);
+    int perThread = 2000;
+    for (int threads : new int[] {1, 2, 4, 8, 16}) {
+      CountDownLatch start = new CountDownLatch(1);
+      ExecutorService pool = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          final int thread = i;
+          final int threadCount = threads;
+          results.add(pool.submit(() -> {
+            start.await();
+            for (int j = 0; j < perThread; j++) {
+              SynchronizedEveAccount account = accounts.get((thread + j * threadCount) % accounts.size());
+              Assert.assertFalse(ESIEndpointSyncTracker.getAllUnfinishedTrackers(account)
+                                                       .isEmpty());
+            }
+            return null;
+          }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> next : results) next.get();
+        long elapsed = System.nanoTime() - begin;
+        log.info("Unfinished tracker queries/sec with " + threads + " threads: " +
+                     (long) threads * perThread * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed));
+      } finally {
+        pool.shutdownNow();
+      }
+    }
+  }
+
+}
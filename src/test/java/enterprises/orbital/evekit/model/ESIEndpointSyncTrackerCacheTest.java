@@ -0,0 +1,232 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.evekit.TestBase;
+import enterprises.orbital.evekit.account.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class ESIEndpointSyncTrackerCacheTest extends TestBase {
+
+  public EveKitUserAccount userAccount;
+  public SynchronizedEveAccount testAccount;
+
+  @Override
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    userAccount = EveKitUserAccount.createNewUserAccount(true, true);
+    try {
+      testAccount = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "testaccount", true);
+    } catch (AccountCreationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException {
+    ESIEndpointSyncTrackerCache.disable();
+    try {
+      EveKitRefDataProvider.getFactory()
+                           .runTransaction(() -> {
+                             EveKitRefDataProvider.getFactory()
+                                                  .getEntityManager()
+                                                  .createQuery("DELETE FROM ESIEndpointSyncTracker")
+                                                  .executeUpdate();
+                           });
+    } catch (ExecutionException e) {
+      throw new IOException(e);
+    }
+    super.tearDown();
+  }
+
+  @Test
+  public void testPopulatedAtStartup() throws IOException, TrackerNotFoundException {
+    ESIEndpointSyncTracker existing = ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount,
+                                                                                          ESISyncEndpoint.CHAR_ASSETS,
+                                                                                          1234L, null);
+    ESIEndpointSyncTrackerCache.enable(TimeUnit.MINUTES.toMillis(5));
+    Assert.assertEquals(1, ESIEndpointSyncTrackerCache.size());
+
+    long hits = ESIEndpointSyncTrackerCache.getHitCount();
+    ESIEndpointSyncTracker cached = ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS);
+    Assert.assertEquals(existing, cached);
+    Assert.assertNotSame(existing, cached);
+    Assert.assertEquals(hits + 1, ESIEndpointSyncTrackerCache.getHitCount());
+  }
+
+  @Test
+  public void testWriteThrough() throws IOException, TrackerNotFoundException {
+    ESIEndpointSyncTrackerCache.enable(TimeUnit.MINUTES.toMillis(5));
+
+    // Create goes into the cache
+    ESIEndpointSyncTracker tracker = ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount,
+                                                                                         ESISyncEndpoint.CHAR_ASSETS,
+                                                                                         1234L, null);
+    List<ESIEndpointSyncTracker> unfinished = ESIEndpointSyncTracker.getAllUnfinishedTrackers(testAccount);
+    Assert.assertEquals(1, unfinished.size());
+    Assert.assertEquals(tracker, unfinished.get(0));
+    Assert.assertTrue(ESIEndpointSyncTracker.getAllStartedUnfinishedTrackers()
+                                            .isEmpty());
+
+    // Updates replace the cached copy
+    tracker.setSyncStart(5678L);
+    tracker = EveKitUserAccountProvider.update(tracker);
+    Assert.assertEquals(1, ESIEndpointSyncTracker.getAllStartedUnfinishedTrackers()
+                                                 .size());
+
+    // Modifying a returned copy doesn't change the cache
+    ESIEndpointSyncTracker copy = ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS);
+    copy.setDetail("not stored");
+    Assert.assertNull(ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS)
+                                            .getDetail());
+
+    // Finish removes from the cache
+    ESIEndpointSyncTracker.finishTracker(tracker);
+    Assert.assertEquals(0, ESIEndpointSyncTrackerCache.size());
+    try {
+      ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS);
+      Assert.fail("should have thrown TrackerNotFoundException");
+    } catch (TrackerNotFoundException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testLatestFinishedIgnoresCache() throws IOException, TrackerNotFoundException {
+    ESIEndpointSyncTrackerCache.enable(TimeUnit.MINUTES.toMillis(5));
+
+    // No finished tracker yet, even though one is in flight
+    ESIEndpointSyncTracker first = ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount,
+                                                                                       ESISyncEndpoint.CHAR_ASSETS,
+                                                                                       1234L, null);
+    try {
+      ESIEndpointSyncTracker.getLatestFinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS);
+      Assert.fail("should have thrown TrackerNotFoundException");
+    } catch (TrackerNotFoundException e) {
+      // expected
+    }
+
+    // With a finished tracker and a new unfinished tracker, the finished tracker is returned
+    first.setSyncStart(2345L);
+    first = ESIEndpointSyncTracker.finishTracker(first);
+    ESIEndpointSyncTracker second = ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount,
+                                                                                        ESISyncEndpoint.CHAR_ASSETS,
+                                                                                        5678L, null);
+    Assert.assertEquals(1, ESIEndpointSyncTrackerCache.size());
+    ESIEndpointSyncTracker latest = ESIEndpointSyncTracker.getLatestFinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS);
+    Assert.assertEquals(first.getTid(), latest.getTid());
+    Assert.assertNotEquals(second.getTid(), latest.getTid());
+    Assert.assertNotEquals(-1L, latest.getSyncEnd());
+  }
+
+  @Test
+  public void testReconcile() throws IOException, ExecutionException {
+    ESIEndpointSyncTrackerCache.enable(TimeUnit.MINUTES.toMillis(5));
+
+    // Simulate a tracker created by another process
+    EveKitUserAccountProvider.getFactory()
+                             .runTransaction(() -> {
+                               ESIEndpointSyncTracker temp = new ESIEndpointSyncTracker();
+                               temp.account = testAccount;
+                               temp.endpoint = ESISyncEndpoint.CHAR_WALLET_BALANCE;
+                               temp.scheduled = 1234L;
+                               EveKitUserAccountProvider.getFactory()
+                                                        .getEntityManager()
+                                                        .persist(temp);
+                             });
+    Assert.assertTrue(ESIEndpointSyncTracker.getAllUnfinishedTrackers()
+                                            .isEmpty());
+
+    ESIEndpointSyncTrackerCache.reconcile();
+    Assert.assertEquals(1, ESIEndpointSyncTracker.getAllUnfinishedTrackers()
+                                                 .size());
+  }
+
+  @Test
+  public void testCreateConfirmsCacheMiss() throws IOException, ExecutionException {
+    ESIEndpointSyncTrackerCache.enable(TimeUnit.MINUTES.toMillis(5));
+
+    // Simulate a tracker created by another process, so the cache is behind
+    long existing = EveKitUserAccountProvider.getFactory()
+                                             .runTransaction(() -> {
+                                               ESIEndpointSyncTracker temp = new ESIEndpointSyncTracker();
+                                               temp.account = testAccount;
+                                               temp.endpoint = ESISyncEndpoint.CHAR_ASSETS;
+                                               temp.scheduled = 1234L;
+                                               EveKitUserAccountProvider.getFactory()
+                                                                        .getEntityManager()
+                                                                        .persist(temp);
+                                               return temp.getTid();
+                                             });
+    Assert.assertEquals(0, ESIEndpointSyncTrackerCache.size());
+
+    // The existing tracker is found rather than a second unfinished tracker being created
+    ESIEndpointSyncTracker tracker = ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount,
+                                                                                         ESISyncEndpoint.CHAR_ASSETS,
+                                                                                         5678L, null);
+    Assert.assertEquals(existing, tracker.getTid());
+    Assert.assertEquals(1, ESIEndpointSyncTracker.queryAllUnfinishedTrackers()
+                                                 .size());
+    Assert.assertEquals(1, ESIEndpointSyncTrackerCache.size());
+  }
+
+  @Test
+  public void testWriteDuringReconcile() throws IOException, ExecutionException {
+    ESIEndpointSyncTrackerCache.enable(TimeUnit.MINUTES.toMillis(5));
+
+    // A tracker created while the reconcile is loading isn't in the loaded set, but its write must survive the swap
+    ESIEndpointSyncTrackerCache.reconcile(() -> {
+      try {
+        ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS, 1234L, null);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    Assert.assertEquals(1, ESIEndpointSyncTrackerCache.size());
+    Assert.assertEquals(1, ESIEndpointSyncTracker.getAllUnfinishedTrackers(testAccount)
+                                                 .size());
+
+    // A tracker finished while the reconcile is loading must be removed after the swap
+    ESIEndpointSyncTrackerCache.reconcile(() -> {
+      try {
+        ESIEndpointSyncTracker.finishTracker(
+            ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_ASSETS));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (TrackerNotFoundException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    Assert.assertEquals(0, ESIEndpointSyncTrackerCache.size());
+  }
+
+  @Test
+  public void testStaleCacheFallsThrough() throws IOException, ExecutionException {
+    // Zero staleness forces a reconcile on every query
+    ESIEndpointSyncTrackerCache.enable(-1);
+    long misses = ESIEndpointSyncTrackerCache.getMissCount();
+    EveKitUserAccountProvider.getFactory()
+                             .runTransaction(() -> {
+                               ESIEndpointSyncTracker temp = new ESIEndpointSyncTracker();
+                               temp.account = testAccount;
+                               temp.endpoint = ESISyncEndpoint.CHAR_WALLET_BALANCE;
+                               temp.scheduled = 1234L;
+                               EveKitUserAccountProvider.getFactory()
+                                                        .getEntityManager()
+                                                        .persist(temp);
+                             });
+    Assert.assertEquals(1, ESIEndpointSyncTracker.getAllUnfinishedTrackers()
+                                                 .size());
+    Assert.assertTrue(ESIEndpointSyncTrackerCache.getMissCount() > misses);
+  }
+
+}
@@ -9,9 +9,18 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class ESIEndpointSyncTrackerTest extends TestBase {
 
@@ -167,4 +176,346 @@ public class ESIEndpointSyncTrackerTest extends TestBase {
     // Verify no unfinished trackers
     ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, ESISyncEndpoint.CHAR_BLUEPRINTS);
   }
+
+  @Test
+  public void testGetOrCreateUnfinishedTrackers() throws IOException, ExecutionException {
+    // Populate an existing unfinished tracker which should be returned as is.
+    ESIEndpointSyncTracker existing = EveKitUserAccountProvider.getFactory()
+                                                               .runTransaction(() -> {
+                                                                 ESIEndpointSyncTracker temp = createUnfinishedTracker();
+                                                                 temp.scheduled = 1234L;
+                                                                 return EveKitUserAccountProvider.getFactory()
+                                                                                                 .getEntityManager()
+                                                                                                 .merge(temp);
+                                                               });
+
+    Map<ESISyncEndpoint, Long> request = new EnumMap<>(ESISyncEndpoint.class);
+    request.put(ESISyncEndpoint.CHAR_BLUEPRINTS, 5678L);
+    request.put(ESISyncEndpoint.CHAR_ASSETS, 5678L);
+    request.put(ESISyncEndpoint.CHAR_MAIL, 8765L);
+    Map<ESISyncEndpoint, ESIEndpointSyncTracker> result = ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(testAccount, request, null);
+
+    Assert.assertEquals(3, result.size());
+    Assert.assertEquals(existing, result.get(ESISyncEndpoint.CHAR_BLUEPRINTS));
+    Assert.assertEquals(5678L, result.get(ESISyncEndpoint.CHAR_ASSETS).getScheduled());
+    Assert.assertEquals(8765L, result.get(ESISyncEndpoint.CHAR_MAIL).getScheduled());
+    for (ESIEndpointSyncTracker next : result.values()) {
+      Assert.assertEquals(testAccount, next.getAccount());
+      Assert.assertEquals(-1L, next.getSyncEnd());
+    }
+
+    // A second call should return the same trackers without creating new ones
+    Map<ESISyncEndpoint, ESIEndpointSyncTracker> again = ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(testAccount, request, null);
+    Assert.assertEquals(result, again);
+    Assert.assertEquals(3, ESIEndpointSyncTracker.getAllUnfinishedTrackers(testAccount).size());
+  }
+
+  @Test
+  public void testConcurrentUnfinishedQueries() throws Exception {
+    // Populate a few accounts with a distinct number of unfinished trackers each
+    final int accountCount = 4;
+    final ESISyncEndpoint[] endpoints = ESISyncEndpoint.values();
+    List<SynchronizedEveAccount> accounts = new ArrayList<>();
+    for (int i = 0; i < accountCount; i++) {
+      SynchronizedEveAccount next;
+      try {
+        next = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "concurrent" + i, true);
+      } catch (AccountCreationException e) {
+        throw new IOException(e);
+      }
+      accounts.add(next);
+      Map<ESISyncEndpoint, Long> request = new EnumMap<>(ESISyncEndpoint.class);
+      for (int j = 0; j <= i; j++) request.put(endpoints[j], 1234L);
+      ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(next, request, null);
+    }
+
+    // Query all accounts concurrently and verify each thread sees its own trackers
+    final int rounds = 20;
+    ExecutorService pool = Executors.newFixedThreadPool(accountCount);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (SynchronizedEveAccount next : accounts) {
+        results.add(pool.submit(() -> {
+          int count = 0;
+          for (int i = 0; i < rounds; i++) {
+            List<ESIEndpointSyncTracker> found = ESIEndpointSyncTracker.getAllUnfinishedTrackers(next);
+            for (ESIEndpointSyncTracker tracker : found) Assert.assertEquals(next, tracker.getAccount());
+            count = found.size();
+            ESIEndpointSyncTracker.getAllStartedUnfinishedTrackers();
+          }
+          return count;
+        }));
+      }
+      for (int i = 0; i < accountCount; i++) {
+        Assert.assertEquals(i + 1, (int) results.get(i)
+                                                .get(1, TimeUnit.MINUTES));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    Assert.assertEquals(accountCount * (accountCount + 1) / 2, ESIEndpointSyncTracker.getAllUnfinishedTrackers()
+                                                                                     .size());
+  }
+
+  @Test
+  public void testStreamHistoryWithTies() throws IOException, ExecutionException {
+    // Populate finished trackers where many share the same start time
+    final int count = 25;
+    Set<Long> expected = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      final long start = 1000L + (i / 4);
+      ESIEndpointSyncTracker next = EveKitUserAccountProvider.getFactory()
+                                                             .runTransaction(() -> {
+                                                               ESIEndpointSyncTracker temp = createUnfinishedTracker();
+                                                               temp.syncStart = start;
+                                                               temp.scheduled = start;
+                                                               temp.syncEnd = start + 1;
+                                                               return EveKitUserAccountProvider.getFactory()
+                                                                                               .getEntityManager()
+                                                                                               .merge(temp);
+                                                             });
+      expected.add(next.getTid());
+    }
+
+    // Use a page size which splits runs of equal start times across pages
+    List<ESIEndpointSyncTracker> streamed = ESIEndpointSyncTracker.streamHistory(
+        "ESIEndpointSyncTracker.getAllHistoryPage", "ESIEndpointSyncTrackerArchive.getAllHistoryPage", -1, 3,
+        getter -> getter.setParameter("account", testAccount))
+                                                                  .collect(Collectors.toList());
+    Assert.assertEquals(count, streamed.size());
+    Set<Long> seen = new HashSet<>();
+    for (int i = 0; i < streamed.size(); i++) {
+      Assert.assertTrue(seen.add(streamed.get(i)
+                                         .getTid()));
+      if (i > 0) {
+        ESIEndpointSyncTracker prev = streamed.get(i - 1);
+        ESIEndpointSyncTracker cur = streamed.get(i);
+        Assert.assertTrue(prev.getSyncStart() > cur.getSyncStart() ||
+                              (prev.getSyncStart() == cur.getSyncStart() && prev.getTid() > cur.getTid()));
+      }
+    }
+    Assert.assertEquals(expected, seen);
+
+    // Start bound is exclusive
+    Assert.assertEquals(8, ESIEndpointSyncTracker.streamHistory(testAccount, ESISyncEndpoint.CHAR_BLUEPRINTS, 1002L)
+                                                 .count());
+    Assert.assertEquals(0, ESIEndpointSyncTracker.streamAllSiteHistory(ESISyncEndpoint.CHAR_ASSETS, -1)
+                                                 .count());
+  }
+
+  @Test
+  public void testClaimNextDue() throws IOException {
+    // Schedule every endpoint, half due now and half in the future
+    ESISyncEndpoint[] endpoints = ESISyncEndpoint.values();
+    Map<ESISyncEndpoint, Long> request = new EnumMap<>(ESISyncEndpoint.class);
+    int due = 0;
+    for (int i = 0; i < endpoints.length; i++) {
+      boolean isDue = i % 2 == 0;
+      request.put(endpoints[i], isDue ? 1000L + i : 5000L);
+      if (isDue) due++;
+    }
+    ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(testAccount, request, null);
+
+    // Claim in small batches, earliest scheduled first
+    List<ESIEndpointSyncTracker> first = ESIEndpointSyncTracker.claimNextDue(2000L, 2, "worker-1");
+    Assert.assertEquals(2, first.size());
+    Assert.assertEquals(endpoints[0], first.get(0)
+                                           .getEndpoint());
+    Assert.assertEquals(endpoints[2], first.get(1)
+                                           .getEndpoint());
+    for (ESIEndpointSyncTracker next : first) {
+      Assert.assertEquals(2000L, next.getSyncStart());
+      Assert.assertEquals("worker-1", next.getClaimedBy());
+    }
+
+    List<ESIEndpointSyncTracker> rest = ESIEndpointSyncTracker.claimNextDue(2000L, endpoints.length, "worker-2");
+    Assert.assertEquals(due - 2, rest.size());
+    for (ESIEndpointSyncTracker next : rest) Assert.assertEquals("worker-2", next.getClaimedBy());
+
+    // Nothing left to claim until later trackers become due
+    Assert.assertTrue(ESIEndpointSyncTracker.claimNextDue(2000L, endpoints.length, "worker-3")
+                                            .isEmpty());
+    Assert.assertEquals(endpoints.length - due, ESIEndpointSyncTracker.claimNextDue(6000L, endpoints.length, "worker-3")
+                                                                      .size());
+  }
+
+  @Test
+  public void testConcurrentClaimNextDue() throws Exception {
+    // Create many due trackers across several accounts
+    final int accountCount = 5;
+    Map<ESISyncEndpoint, Long> request = new EnumMap<>(ESISyncEndpoint.class);
+    for (ESISyncEndpoint next : ESISyncEndpoint.values()) request.put(next, 1000L);
+    for (int i = 0; i < accountCount; i++) {
+      SynchronizedEveAccount next;
+      try {
+        next = SynchronizedEveAccount.createSynchronizedEveAccount(userAccount, "claim" + i, true);
+      } catch (AccountCreationException e) {
+        throw new IOException(e);
+      }
+      ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(next, request, null);
+    }
+    final int total = accountCount * request.size();
+
+    // Claim concurrently and verify no tracker is claimed twice
+    final int workers = 4;
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    try {
+      List<Future<List<Long>>> results = new ArrayList<>();
+      for (int i = 0; i < workers; i++) {
+        final String workerId = "worker-" + i;
+        results.add(pool.submit(() -> {
+          List<Long> claimed = new ArrayList<>();
+          List<ESIEndpointSyncTracker> batch;
+          do {
+            batch = ESIEndpointSyncTracker.claimNextDue(2000L, 3, workerId);
+            for (ESIEndpointSyncTracker next : batch) claimed.add(next.getTid());
+          } while (!batch.isEmpty());
+          return claimed;
+        }));
+      }
+      Set<Long> seen = new HashSet<>();
+      int count = 0;
+      for (Future<List<Long>> next : results) {
+        for (Long tid : next.get(1, TimeUnit.MINUTES)) {
+          Assert.assertTrue(seen.add(tid));
+          count++;
+        }
+      }
+      Assert.assertEquals(total, count);
+    } finally {
+      pool.shutdownNow();
+    }
+    Assert.assertTrue(ESIEndpointSyncTracker.claimNextDue(2000L, total, "check")
+                                            .isEmpty());
+  }
+
+  @Test
+  public void testReapExpired() throws IOException, TrackerNotFoundException {
+    final long lease = ESIEndpointSyncTracker.DEF_LEASE_DURATION;
+    final long start = 2000L;
+    ESISyncEndpoint[] endpoints = ESISyncEndpoint.values();
+    Map<ESISyncEndpoint, Long> request = new EnumMap<>(ESISyncEndpoint.class);
+    for (int i = 0; i < 3; i++) request.put(endpoints[i], 1000L + i);
+    ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(testAccount, request, null);
+
+    // Claim two trackers with a lease, and start the third the old way without a lease
+    List<ESIEndpointSyncTracker> claimed = ESIEndpointSyncTracker.claimNextDue(start, 2, "worker");
+    Assert.assertEquals(2, claimed.size());
+    Assert.assertEquals(start + lease, claimed.get(0)
+                                              .getLeaseExpiry());
+    ESIEndpointSyncTracker unleased = ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, endpoints[2]);
+    unleased.setSyncStart(start);
+    EveKitUserAccountProvider.update(unleased);
+
+    // Nothing has expired yet
+    Map<ESISyncEndpoint, Integer> reaped = new EnumMap<>(ESISyncEndpoint.class);
+    Assert.assertEquals(0, ESIEndpointSyncTracker.reapExpired(start + lease / 2, 10, reaped));
+    Assert.assertTrue(reaped.isEmpty());
+
+    // Renew one lease, then reap after the original lease expired
+    OrbitalProperties.setTimeGenerator(() -> start + lease / 2);
+    try {
+      Assert.assertTrue(ESIEndpointSyncTracker.renewLease(claimed.get(0), "worker"));
+      Assert.assertFalse(ESIEndpointSyncTracker.renewLease(claimed.get(1), "other-worker"));
+    } finally {
+      OrbitalProperties.setTimeGenerator(null);
+    }
+    InMemorySyncMetricsRegistry metrics = new InMemorySyncMetricsRegistry();
+    SyncMetrics.setRegistry(metrics);
+    try {
+      Assert.assertEquals(1, ESIEndpointSyncTracker.reapExpired(start + lease + 1, 10, reaped));
+    } finally {
+      SyncMetrics.setRegistry(null);
+    }
+    Assert.assertEquals(1, reaped.size());
+    Assert.assertEquals(1, (int) reaped.get(endpoints[1]));
+    // Reaped trackers are recorded like any other finished tracker
+    Assert.assertEquals(1, metrics.getRunTime(endpoints[1])
+                                  .getCount());
+    Assert.assertEquals(lease + 1, metrics.getRunTime(endpoints[1])
+                                          .getSum());
+
+    // The unleased tracker is never reaped by default, no matter how long it has been running
+    Assert.assertEquals(0, ESIEndpointSyncTracker.reapExpired(start + 100 * lease, 10, reaped));
+    Assert.assertEquals(-1L, ESIEndpointSyncTracker.get(unleased.getTid())
+                                                   .getSyncEnd());
+
+    // Reaped trackers are finished with an error, the renewed tracker is still running
+    ESIEndpointSyncTracker check = ESIEndpointSyncTracker.get(claimed.get(1)
+                                                                     .getTid());
+    Assert.assertEquals(start + lease + 1, check.getSyncEnd());
+    Assert.assertEquals(ESISyncState.ERROR, check.getStatus());
+    Assert.assertEquals(ESIEndpointSyncTracker.REAPED_DETAIL, check.getDetail());
+    Assert.assertEquals(-1L, ESIEndpointSyncTracker.get(claimed.get(0)
+                                                              .getTid())
+                                                   .getSyncEnd());
+
+    // The endpoint is unblocked so a new tracker can be scheduled
+    ESIEndpointSyncTracker replacement = ESIEndpointSyncTracker.getOrCreateUnfinishedTracker(testAccount, endpoints[1],
+                                                                                             5000L, null);
+    Assert.assertNotEquals(check.getTid(), replacement.getTid());
+    Assert.assertEquals(-1L, replacement.getSyncStart());
+  }
+
+  @Test
+  public void testReapUnleasedOptIn() throws IOException, TrackerNotFoundException {
+    final long age = ESIEndpointSyncTracker.DEF_LEASE_DURATION;
+    final long start = 2000L;
+    ESISyncEndpoint[] endpoints = ESISyncEndpoint.values();
+    Map<ESISyncEndpoint, Long> request = new EnumMap<>(ESISyncEndpoint.class);
+    for (int i = 0; i < 2; i++) request.put(endpoints[i], 1000L + i);
+    ESIEndpointSyncTracker.getOrCreateUnfinishedTrackers(testAccount, request, null);
+
+    // One leased tracker and one unleased tracker, both started at the same time
+    List<ESIEndpointSyncTracker> claimed = ESIEndpointSyncTracker.claimNextDue(start, 1, "worker");
+    Assert.assertEquals(1, claimed.size());
+    ESISyncEndpoint unleasedEndpoint = claimed.get(0)
+                                              .getEndpoint() == endpoints[0] ? endpoints[1] : endpoints[0];
+    ESIEndpointSyncTracker unleased = ESIEndpointSyncTracker.getUnfinishedTracker(testAccount, unleasedEndpoint);
+    unleased.setSyncStart(start);
+    EveKitUserAccountProvider.update(unleased);
+
+    // The unleased tracker is not reaped until it is older than the configured age
+    Map<ESISyncEndpoint, Integer> reaped = new EnumMap<>(ESISyncEndpoint.class);
+    Assert.assertEquals(0, ESIEndpointSyncTracker.reapExpired(start + age / 2, 10, reaped, age));
+    Assert.assertEquals(2, ESIEndpointSyncTracker.reapExpired(start + age + 1, 10, reaped, age));
+    Assert.assertEquals(1, (int) reaped.get(unleasedEndpoint));
+    ESIEndpointSyncTracker check = ESIEndpointSyncTracker.get(unleased.getTid());
+    Assert.assertEquals(start + age + 1, check.getSyncEnd());
+    Assert.assertEquals(ESIEndpointSyncTracker.REAPED_DETAIL, check.getDetail());
+  }
+
+  // Return the HSQLDB query plan for the given SQL as a single string
+  private static String explain(String sql) throws IOException, ExecutionException {
+    List<?> plan = EveKitUserAccountProvider.getFactory()
+                                            .runTransaction(() -> EveKitUserAccountProvider.getFactory()
+                                                                                           .getEntityManager()
+                                                                                           .createNativeQuery("EXPLAIN PLAN FOR " + sql)
+                                                                                           .getResultList());
+    return plan.stream()
+               .map(String::valueOf)
+               .collect(Collectors.joining("\n"));
+  }
+
+  @Test
+  public void testAccountIndexesUsed() throws IOException, ExecutionException {
+    // SQL equivalents of the named queries served by the composite account indexes.  HSQLDB chooses an index by
+    // the number of leading columns matched by equality conditions, breaking ties by creation order, so only
+    // queries which match one index on more equality columns than any other can be checked here.
+    String select = "SELECT * FROM evekit_esi_sync_tracker c WHERE c.aid = " + testAccount.getAid();
+    String endpoint = " AND c.endpoint = '" + ESISyncEndpoint.CHAR_ASSETS.name() + "'";
+    String[][] expected = {
+        // getUnfinished
+        {select + endpoint + " AND c.syncEnd = -1", "ACCOUNTENDPOINTENDINDEX"},
+        // getUnfinishedByAccount
+        {select + " AND c.syncEnd = -1 ORDER BY c.scheduled ASC", "ACCOUNTENDSCHEDULEDINDEX"},
+        // getUnfinishedByEndpoints
+        {select + " AND c.endpoint IN ('CHAR_ASSETS', 'CHAR_MAIL') AND c.syncEnd = -1", "ACCOUNTENDSCHEDULEDINDEX"},
+        };
+    for (String[] next : expected) {
+      String plan = explain(next[0]);
+      Assert.assertTrue(next[0] + "\n" + plan, plan.contains("index=" + next[1]));
+    }
+  }
+
 }
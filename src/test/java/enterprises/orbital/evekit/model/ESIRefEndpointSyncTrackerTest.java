@@ -9,7 +9,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 public class ESIRefEndpointSyncTrackerTest extends TestBase {
@@ -155,4 +163,34 @@ public class ESIRefEndpointSyncTrackerTest extends TestBase {
     // Verify no unfinished trackers
     ESIRefEndpointSyncTracker.getUnfinishedTracker(ESIRefSyncEndpoint.REF_SERVER_STATUS);
   }
+
+  @Test
+  public void testConcurrentGetOrCreate() throws Exception {
+    // Several threads race to create trackers for every endpoint.  Each endpoint should end up with
+    // exactly one unfinished tracker.
+    final int threads = 4;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(pool.submit(() -> {
+          start.await();
+          for (ESIRefSyncEndpoint next : ESIRefSyncEndpoint.values()) {
+            ESIRefEndpointSyncTracker.getOrCreateUnfinishedTracker(next, 1234L, null);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> next : results) next.get(1, TimeUnit.MINUTES);
+    } finally {
+      pool.shutdownNow();
+    }
+
+    List<ESIRefEndpointSyncTracker> unfinished = ESIRefEndpointSyncTracker.getAllUnfinishedTrackers();
+    Assert.assertEquals(ESIRefSyncEndpoint.values().length, unfinished.size());
+    Set<ESIRefSyncEndpoint> seen = EnumSet.noneOf(ESIRefSyncEndpoint.class);
+    for (ESIRefEndpointSyncTracker next : unfinished) Assert.assertTrue(seen.add(next.getEndpoint()));
+  }
 }
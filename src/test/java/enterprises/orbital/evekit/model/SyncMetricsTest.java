@@ -0,0 +1,79 @@
+package enterprises.orbital.evekit.model;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SyncMetricsTest {
+
+  private InMemorySyncMetricsRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new InMemorySyncMetricsRegistry();
+    SyncMetrics.setRegistry(registry);
+  }
+
+  @After
+  public void tearDown() {
+    SyncMetrics.setRegistry(null);
+  }
+
+  @Test
+  public void testEndpointMetrics() {
+    ESISyncEndpoint endpoint = ESISyncEndpoint.values()[0];
+    ESIEndpointSyncTracker tracker = new ESIEndpointSyncTracker();
+    tracker.endpoint = endpoint;
+    tracker.scheduled = 10000;
+    tracker.syncStart = 12500;
+    tracker.setSyncEnd(20000);
+    SyncMetrics.trackerFinished(tracker);
+
+    // A tracker which never started contributes nothing
+    tracker = new ESIEndpointSyncTracker();
+    tracker.endpoint = endpoint;
+    tracker.scheduled = 10000;
+    tracker.setSyncEnd(20000);
+    SyncMetrics.trackerFinished(tracker);
+
+    Assert.assertEquals(1, registry.getStartLag(endpoint)
+                                   .getCount());
+    Assert.assertEquals(2500, registry.getStartLag(endpoint)
+                                      .getMax());
+    Assert.assertEquals(1, registry.getRunTime(endpoint)
+                                   .getCount());
+    Assert.assertEquals(7500, registry.getRunTime(endpoint)
+                                      .getSum());
+    Assert.assertEquals(0, registry.getRunTime(ESISyncEndpoint.values()[1])
+                                   .getCount());
+
+    registry.reset();
+    Assert.assertEquals(0, registry.getStartLag(endpoint)
+                                   .getCount());
+  }
+
+  @Test
+  public void testRefEndpointMetrics() {
+    ESIRefSyncEndpoint endpoint = ESIRefSyncEndpoint.values()[0];
+    ESIRefEndpointSyncTracker tracker = new ESIRefEndpointSyncTracker();
+    tracker.endpoint = endpoint;
+    tracker.scheduled = 10000;
+    tracker.syncStart = 9000;
+    tracker.syncEnd = 9500;
+    SyncMetrics.trackerFinished(tracker);
+
+    // Trackers started early have no lag
+    Assert.assertEquals(0, registry.getStartLag(endpoint)
+                                   .getMax());
+    Assert.assertEquals(500, registry.getRunTime(endpoint)
+                                     .getMax());
+  }
+
+  @Test
+  public void testNoOpDefault() {
+    SyncMetrics.setRegistry(null);
+    Assert.assertSame(SyncMetrics.NO_OP, SyncMetrics.getRegistry());
+  }
+
+}
@@ -0,0 +1,87 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.evekit.model.SyncTracker.SyncState;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Rough throughput for synchronization state bookkeeping: choosing the next state from the incrementally
+ * maintained ready set versus re-evaluating every ordering rule on each call, and encoding and decoding state
+ * vectors.  These report rates rather than asserting them since timing depends on the machine, so they are
+ * excluded from the normal test run.  Remove the Ignore annotation to run them locally.
+ */
+@Ignore("Benchmark, run manually")
+public class SyncStateBenchmark {
+  private static final Logger log = Logger.getLogger(SyncStateBenchmark.class.getName());
+
+  private static long rate(long count, long elapsed) {
+    return count * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+  }
+
+  // Run a full sync loop over a new tracker, returning the number of states processed
+  private static int syncLoop(SyncTracker tracker, Set<SynchronizationState> check, boolean incremental) {
+    SyncStateGraph graph = tracker.getStateGraph();
+    int processed = 0;
+    while (true) {
+      SynchronizationState next = incremental ? tracker.trackerComplete(check) :
+          SyncStateGraph.firstReady(graph.readyStates(tracker.getStateVector()), check);
+      if (next == null) return processed;
+      tracker.setState(next, SyncState.UPDATED, null);
+      processed++;
+    }
+  }
+
+  private static void benchSyncLoop(String label, Supplier<SyncTracker> factory, int count) {
+    Set<SynchronizationState> check = EnumSet.copyOf(factory.get()
+                                                            .getStateGraph()
+                                                            .getTracked());
+    for (boolean incremental : new boolean[] {false, true}) {
+      // Warm up
+      for (int i = 0; i < count / 10; i++) syncLoop(factory.get(), check, incremental);
+      long steps = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < count; i++) steps += syncLoop(factory.get(), check, incremental);
+      long elapsed = System.nanoTime() - start;
+      Assert.assertEquals((long) count * check.size(), steps);
+      log.info(label + (incremental ? " incremental" : " full re-evaluation") + " sync steps/sec: " + rate(steps, elapsed));
+    }
+  }
+
+  @Test
+  public void benchNextState() {
+    int count = 20000;
+    benchSyncLoop("Capsuleer", CapsuleerSyncTracker::new, count);
+    benchSyncLoop("Corporation", CorporationSyncTracker::new, count);
+  }
+
+  @Test
+  public void benchEncodeDecode() {
+    SyncStateVector vector = new SyncStateVector();
+    SyncState[] statuses = SyncState.values();
+    SynchronizationState[] states = SynchronizationState.values();
+    for (int i = 0; i < states.length; i++)
+      vector.set(states[i], statuses[i % statuses.length], i % 10 == 0 ? "error" + i : null);
+    int count = 1000000;
+
+    long start = System.nanoTime();
+    byte[] encoded = null;
+    for (int i = 0; i < count; i++) encoded = vector.encode();
+    long encode = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < count; i++) Assert.assertNotNull(SyncStateVector.decode(encoded));
+    long decode = System.nanoTime() - start;
+
+    log.info("Encoded vector size: " + encoded.length);
+    log.info("Vector encodes/sec: " + rate(count, encode));
+    log.info("Vector decodes/sec: " + rate(count, decode));
+  }
+
+}
@@ -0,0 +1,100 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.evekit.model.SyncTracker.SyncState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class SyncStateGraphTest {
+
+  private static Set<SynchronizationState> charStates() {
+    Set<SynchronizationState> result = EnumSet.noneOf(SynchronizationState.class);
+    for (SynchronizationState next : SynchronizationState.values()) {
+      if (next.name()
+              .startsWith("SYNC_CHAR_")) result.add(next);
+    }
+    return result;
+  }
+
+  @Test
+  public void testPrerequisitesRespected() {
+    CapsuleerSyncTracker tracker = new CapsuleerSyncTracker();
+    Set<SynchronizationState> check = EnumSet.of(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES,
+                                                 SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS,
+                                                 SynchronizationState.SYNC_CHAR_CHARACTERSHEET);
+
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_CHARACTERSHEET, tracker.trackerComplete(check));
+    tracker.setState(SynchronizationState.SYNC_CHAR_CHARACTERSHEET, SyncState.UPDATED, null);
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS, tracker.trackerComplete(check));
+    tracker.setState(SynchronizationState.SYNC_CHAR_UPCOMINGCALENDAREVENTS, SyncState.SYNC_ERROR, "error");
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, tracker.trackerComplete(check));
+    tracker.setState(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, SyncState.NOT_EXPIRED, null);
+    Assert.assertNull(tracker.trackerComplete(check));
+
+    // Resetting a prerequisite blocks its dependents again
+    tracker.setState(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES, SyncState.NOT_PROCESSED, null);
+    tracker.setState(SynchronizationState.SYNC_CHAR_CHARACTERSHEET, SyncState.NOT_PROCESSED, null);
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_CHARACTERSHEET,
+                        tracker.trackerComplete(EnumSet.of(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES,
+                                                           SynchronizationState.SYNC_CHAR_CHARACTERSHEET)));
+    Assert.assertNull(tracker.trackerComplete(EnumSet.of(SynchronizationState.SYNC_CHAR_CALENDAREVENTATTENDEES)));
+
+    // States outside the tracker are never returned
+    Assert.assertNull(tracker.trackerComplete(EnumSet.of(SynchronizationState.SYNC_CHAR_START,
+                                                         SynchronizationState.SYNC_CORP_ASSETLIST)));
+  }
+
+  @Test
+  public void testCheckStateOrder() {
+    CapsuleerSyncTracker tracker = new CapsuleerSyncTracker();
+    Set<SynchronizationState> check = new LinkedHashSet<>();
+    check.add(SynchronizationState.SYNC_CHAR_WALLETJOURNAL);
+    check.add(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE);
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_WALLETJOURNAL, tracker.trackerComplete(check));
+    tracker.setState(SynchronizationState.SYNC_CHAR_WALLETJOURNAL, SyncState.UPDATED, null);
+    Assert.assertEquals(SynchronizationState.SYNC_CHAR_ACCOUNTBALANCE, tracker.trackerComplete(check));
+  }
+
+  @Test
+  public void testIncrementalMatchesFullRecompute() {
+    Random rand = new Random(1234L);
+    CapsuleerSyncTracker tracker = new CapsuleerSyncTracker();
+    SyncStateGraph graph = tracker.getStateGraph();
+    List<SynchronizationState> states = new ArrayList<>(graph.getTracked());
+    Set<SynchronizationState> check = charStates();
+
+    // Prime the incremental ready set, then verify it against a full recompute after every change
+    tracker.trackerComplete(check);
+    for (int i = 0; i < 2000; i++) {
+      SynchronizationState state = states.get(rand.nextInt(states.size()));
+      SyncState status = rand.nextInt(3) == 0 ? SyncState.NOT_PROCESSED : SyncState.values()[rand.nextInt(SyncState.values().length)];
+      tracker.setState(state, status, null);
+      EnumSet<SynchronizationState> expected = graph.readyStates(tracker.getStateVector());
+      SynchronizationState first = null;
+      for (SynchronizationState next : check) {
+        if (expected.contains(next)) {
+          first = next;
+          break;
+        }
+      }
+      Assert.assertEquals(first, tracker.trackerComplete(check));
+    }
+  }
+
+  @Test
+  public void testCorporationCustomsOffice() {
+    CorporationSyncTracker tracker = new CorporationSyncTracker();
+    Set<SynchronizationState> check = EnumSet.of(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE);
+    Assert.assertEquals(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE, tracker.trackerComplete(check));
+    tracker.setState(SynchronizationState.SYNC_CORP_CUSTOMSOFFICE, SyncState.UPDATED, null);
+    Assert.assertEquals(SyncState.UPDATED, tracker.getCustomsOfficeStatus());
+    Assert.assertNull(tracker.trackerComplete(check));
+  }
+
+}
@@ -0,0 +1,82 @@
+package enterprises.orbital.evekit.model;
+
+import enterprises.orbital.evekit.model.SyncTracker.SyncState;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyncStateVectorTest {
+
+  @Test
+  public void testSetAndGet() {
+    SyncStateVector vector = new SyncStateVector();
+    for (SynchronizationState next : SynchronizationState.values()) {
+      Assert.assertNull(vector.getStatus(next));
+      Assert.assertNull(vector.getDetail(next));
+    }
+
+    // Set every state to every status and verify neighbouring states are unaffected
+    for (SyncState status : SyncState.values()) {
+      for (SynchronizationState next : SynchronizationState.values()) {
+        vector.set(next, status, next.name());
+      }
+      for (SynchronizationState next : SynchronizationState.values()) {
+        Assert.assertEquals(status, vector.getStatus(next));
+        Assert.assertEquals(next.name(), vector.getDetail(next));
+      }
+    }
+
+    vector.set(SynchronizationState.SYNC_CHAR_SKILLS, null, null);
+    Assert.assertNull(vector.getStatus(SynchronizationState.SYNC_CHAR_SKILLS));
+    Assert.assertNull(vector.getDetail(SynchronizationState.SYNC_CHAR_SKILLS));
+    Assert.assertEquals(SyncState.values()[SyncState.values().length - 1],
+                        vector.getStatus(SynchronizationState.SYNC_CHAR_STANDINGS));
+  }
+
+  @Test
+  public void testEncodeDecode() {
+    SyncStateVector vector = new SyncStateVector();
+    Assert.assertEquals(vector, SyncStateVector.decode(vector.encode()));
+
+    vector.set(SynchronizationState.SYNC_CHAR_ACCOUNTSTATUS, SyncState.UPDATED, null);
+    vector.set(SynchronizationState.SYNC_CHAR_SKILLS, SyncState.SYNC_ERROR, "error detail");
+    vector.set(SynchronizationState.SYNC_CORP_LOCATIONS, SyncState.NOT_EXPIRED, "corp detail");
+    SyncStateVector decoded = SyncStateVector.decode(vector.encode());
+    Assert.assertEquals(vector, decoded);
+    Assert.assertEquals(SyncState.SYNC_ERROR, decoded.getStatus(SynchronizationState.SYNC_CHAR_SKILLS));
+    Assert.assertEquals("corp detail", decoded.getDetail(SynchronizationState.SYNC_CORP_LOCATIONS));
+  }
+
+  @Test
+  public void testEncodedSize() {
+    // A corporation tracker with every state set and no details stores only its own range of status codes
+    SyncStateVector vector = new SyncStateVector();
+    int count = 0;
+    for (SynchronizationState next : SynchronizationState.values()) {
+      if (next.name()
+              .startsWith("SYNC_CORP_")) {
+        vector.setStatus(next, SyncState.UPDATED);
+        count++;
+      }
+    }
+    Assert.assertTrue(vector.encode().length <= 7 + (count * 3 + 7) / 8 + 1);
+  }
+
+  @Test
+  public void testClearedDetailEquality() {
+    // A vector whose details were all cleared is equal to one which never had details
+    SyncStateVector vector = new SyncStateVector();
+    vector.set(SynchronizationState.SYNC_CHAR_SKILLS, SyncState.UPDATED, "detail");
+    vector.set(SynchronizationState.SYNC_CHAR_SKILLS, SyncState.UPDATED, null);
+    SyncStateVector expected = new SyncStateVector();
+    expected.setStatus(SynchronizationState.SYNC_CHAR_SKILLS, SyncState.UPDATED);
+    Assert.assertEquals(expected, vector);
+    Assert.assertEquals(expected.hashCode(), vector.hashCode());
+    Assert.assertArrayEquals(expected.encode(), vector.encode());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeMalformed() {
+    SyncStateVector.decode(new byte[] { 9 });
+  }
+
+}